@@ -0,0 +1,48 @@
+package com.stripe.terminal.benchmarks;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Loads JSON fixtures shared by the benchmarks.
+ */
+final class Fixtures {
+
+    private Fixtures() {
+    }
+
+    static String hardwareOrder() {
+        return load("/fixtures/hardware_order.json");
+    }
+
+    static String hardwareSku() {
+        return load("/fixtures/hardware_sku.json");
+    }
+
+    /**
+     * Builds a list response with {@code size} copies of the given object.
+     */
+    static String page(String item, int size) {
+        StringBuilder json = new StringBuilder("{\"object\":\"list\",\"url\":\"/v1/terminal/hardware_skus\",\"has_more\":false,\"data\":[");
+        for (int i = 0; i < size; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append(item);
+        }
+        return json.append("]}").toString();
+    }
+
+    private static String load(String resource) {
+        try (InputStream in = Fixtures.class.getResourceAsStream(resource)) {
+            if (in == null) {
+                throw new IllegalStateException("Missing fixture " + resource);
+            }
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
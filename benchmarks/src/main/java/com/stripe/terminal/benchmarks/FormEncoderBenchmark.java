@@ -0,0 +1,148 @@
+package com.stripe.terminal.benchmarks;
+
+import com.stripe.terminal.client.FormEncoder;
+import com.stripe.terminal.model.Address;
+import com.stripe.terminal.model.HardwareOrderItem;
+import com.stripe.terminal.model.ShippingDetails;
+import com.stripe.terminal.service.HardwareOrderService.HardwareOrderCreateParams;
+import okhttp3.FormBody;
+import okio.Buffer;
+import okio.ByteString;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares encoding an order's create parameters through the original nested-{@code HashMap}
+ * tree and recursive flattening into a {@link FormBody} with writing them straight into a
+ * {@link FormEncoder}. Run with {@code -prof gc} to compare bytes allocated per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FormEncoderBenchmark {
+
+    @Param({"50"})
+    public int itemCount;
+
+    private HardwareOrderCreateParams params;
+
+    @Setup
+    public void setUp() {
+        HardwareOrderCreateParams.Builder builder = HardwareOrderCreateParams.builder()
+                .shippingMethod("thsm_1PZRWJBHO5VeT9SU6ZjCIdhw")
+                .shipping(new ShippingDetails("Jenny Rosen",
+                        new Address("510 Townsend St", "San Francisco", "CA", "94103", "US"),
+                        "jenny@example.com", "+15555550100"))
+                .poNumber("PO-2025-0042")
+                .addMetadata("store_id", "store_042")
+                .addMetadata("region", "us-west");
+        for (int i = 0; i < itemCount; i++) {
+            builder.addHardwareOrderItem("thsku_" + i, 1 + i % 5);
+        }
+        params = builder.build();
+    }
+
+    @Benchmark
+    public ByteString legacyMapFlattening() throws IOException {
+        FormBody.Builder formBuilder = new FormBody.Builder();
+        addParamsToForm(formBuilder, buildCreateParams(params), "");
+        Buffer buffer = new Buffer();
+        formBuilder.build().writeTo(buffer);
+        return buffer.readByteString();
+    }
+
+    @Benchmark
+    public ByteString formEncoder() {
+        FormEncoder encoder = new FormEncoder();
+        params.writeTo(encoder);
+        return encoder.toByteString();
+    }
+
+    /**
+     * The parameter tree built by HardwareOrderService before FormEncoder.
+     */
+    private static Map<String, Object> buildCreateParams(HardwareOrderCreateParams params) {
+        Map<String, Object> requestParams = new HashMap<>();
+
+        List<Map<String, Object>> items = new ArrayList<>();
+        for (HardwareOrderItem item : params.getHardwareOrderItems()) {
+            Map<String, Object> itemMap = new HashMap<>();
+            itemMap.put("terminal_hardware_sku", item.getTerminalHardwareSku());
+            itemMap.put("quantity", item.getQuantity());
+            items.add(itemMap);
+        }
+        requestParams.put("hardware_order_items", items);
+        requestParams.put("payment_type", params.getPaymentType());
+        requestParams.put("shipping_method", params.getShippingMethod());
+
+        ShippingDetails shippingDetails = params.getShipping();
+        Map<String, Object> shipping = new HashMap<>();
+        shipping.put("name", shippingDetails.getName());
+        shipping.put("email", shippingDetails.getEmail());
+        shipping.put("phone", shippingDetails.getPhone());
+
+        Address addr = shippingDetails.getAddress();
+        Map<String, Object> address = new HashMap<>();
+        address.put("line1", addr.getLine1());
+        address.put("country", addr.getCountry());
+        address.put("postal_code", addr.getPostalCode());
+        address.put("city", addr.getCity());
+        address.put("state", addr.getState());
+        shipping.put("address", address);
+        requestParams.put("shipping", shipping);
+
+        requestParams.put("po_number", params.getPoNumber());
+        requestParams.put("metadata", params.getMetadata());
+        return requestParams;
+    }
+
+    /**
+     * The recursive flattening StripeHttpClient used before FormEncoder.
+     */
+    @SuppressWarnings("unchecked")
+    private static void addParamsToForm(FormBody.Builder formBuilder, Map<String, Object> params, String prefix) {
+        for (Map.Entry<String, Object> entry : params.entrySet()) {
+            String key = prefix.isEmpty() ? entry.getKey() : prefix + "[" + entry.getKey() + "]";
+            Object value = entry.getValue();
+
+            if (value == null) {
+                continue;
+            }
+
+            if (value instanceof Map) {
+                addParamsToForm(formBuilder, (Map<String, Object>) value, key);
+            } else if (value instanceof List) {
+                List<Object> list = (List<Object>) value;
+                for (int i = 0; i < list.size(); i++) {
+                    Object item = list.get(i);
+                    if (item instanceof Map) {
+                        addParamsToForm(formBuilder, (Map<String, Object>) item, key + "[" + i + "]");
+                    } else {
+                        formBuilder.add(key + "[]", item.toString());
+                    }
+                }
+            } else {
+                formBuilder.add(key, value.toString());
+            }
+        }
+    }
+}
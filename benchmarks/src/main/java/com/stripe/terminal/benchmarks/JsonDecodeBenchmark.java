@@ -0,0 +1,72 @@
+package com.stripe.terminal.benchmarks;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.reflect.TypeToken;
+import com.stripe.terminal.model.HardwareOrder;
+import com.stripe.terminal.model.HardwareSku;
+import com.stripe.terminal.model.StripeList;
+import com.stripe.terminal.serialization.StripeGson;
+import com.stripe.terminal.serialization.StripeTypes;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.StringReader;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the original reflective Gson path (pretty-printing Gson, a new TypeToken subclass
+ * per call) with the precomputed type adapters from {@link StripeGson}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonDecodeBenchmark {
+
+    @Param({"10", "100"})
+    public int pageSize;
+
+    private final Gson reflective = new GsonBuilder().setPrettyPrinting().create();
+    private final Gson adapters = StripeGson.create();
+
+    private String order;
+    private String skuPage;
+
+    @Setup
+    public void setUp() {
+        order = Fixtures.hardwareOrder();
+        skuPage = Fixtures.page(Fixtures.hardwareSku(), pageSize);
+    }
+
+    @Benchmark
+    public HardwareOrder decodeOrderReflective() {
+        return reflective.fromJson(new StringReader(order), HardwareOrder.class);
+    }
+
+    @Benchmark
+    public HardwareOrder decodeOrderAdapters() {
+        return adapters.fromJson(new StringReader(order), HardwareOrder.class);
+    }
+
+    @Benchmark
+    public StripeList<HardwareSku> decodeSkuPageReflective() {
+        return reflective.fromJson(new StringReader(skuPage), new TypeToken<StripeList<HardwareSku>>() {}.getType());
+    }
+
+    @Benchmark
+    public StripeList<HardwareSku> decodeSkuPageAdapters() {
+        return adapters.fromJson(new StringReader(skuPage), StripeTypes.HARDWARE_SKU_LIST);
+    }
+}
@@ -0,0 +1,55 @@
+package com.stripe.terminal.benchmarks;
+
+import com.stripe.terminal.model.HardwareOrder;
+import com.stripe.terminal.model.StripeList;
+import com.stripe.terminal.serialization.GsonJsonSerializer;
+import com.stripe.terminal.serialization.OrderProjection;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decodes a page of 100 orders with every field, and with the projection a status poller uses
+ * (status and shipment tracking).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderProjectionBenchmark {
+
+    private static final OrderProjection POLLING = OrderProjection.fields("status", "shipment_tracking");
+
+    private final GsonJsonSerializer serializer = new GsonJsonSerializer();
+
+    private String orderPage;
+
+    @Setup
+    public void setUp() {
+        orderPage = Fixtures.page(Fixtures.hardwareOrder(), 100);
+    }
+
+    @Benchmark
+    public StripeList<HardwareOrder> decodeAll(Blackhole blackhole) throws IOException {
+        return serializer.deserializeOrderList(new StringReader(orderPage), OrderProjection.all(), blackhole::consume);
+    }
+
+    @Benchmark
+    public StripeList<HardwareOrder> decodePolling(Blackhole blackhole) throws IOException {
+        return serializer.deserializeOrderList(new StringReader(orderPage), POLLING, blackhole::consume);
+    }
+}
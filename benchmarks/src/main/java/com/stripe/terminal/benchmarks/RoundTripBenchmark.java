@@ -0,0 +1,134 @@
+package com.stripe.terminal.benchmarks;
+
+import com.stripe.terminal.StripeTerminal;
+import com.stripe.terminal.client.StripeConfig;
+import com.stripe.terminal.exception.StripeException;
+import com.stripe.terminal.model.HardwareOrder;
+import com.stripe.terminal.model.HardwareSku;
+import com.stripe.terminal.model.StripeList;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.net.ServerSocketFactory;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full client round trips against an in-process MockWebServer over loopback: request building,
+ * headers, the OkHttp call and response decoding. Network latency is close to zero, so the
+ * score is dominated by the client's own overhead.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RoundTripBenchmark {
+
+    @Param({"10", "100"})
+    public int pageSize;
+
+    private MockWebServer server;
+    private StripeTerminal stripe;
+
+    @Setup
+    public void setUp() throws IOException {
+        String order = Fixtures.hardwareOrder();
+        String skuPage = Fixtures.page(Fixtures.hardwareSku(), pageSize);
+
+        server = new MockWebServer();
+        server.setServerSocketFactory(new NoDelayServerSocketFactory());
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                String body = request.getPath().startsWith("/v1/terminal/hardware_skus") ? skuPage : order;
+                return new MockResponse().setHeader("Content-Type", "application/json").setBody(body);
+            }
+        });
+        server.start();
+
+        String baseUrl = server.url("/").toString();
+        stripe = new StripeTerminal(StripeConfig.builder("sk_test_benchmark")
+                .baseUrl(baseUrl.substring(0, baseUrl.length() - 1))
+                .build());
+    }
+
+    /**
+     * MockWebServer records every request; drop them so memory stays flat across iterations.
+     */
+    @TearDown(Level.Iteration)
+    public void drainRecordedRequests() throws InterruptedException {
+        while (server.takeRequest(0, TimeUnit.MILLISECONDS) != null) {
+            // discard
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        server.shutdown();
+    }
+
+    /**
+     * Creates server sockets whose accepted connections have Nagle's algorithm disabled.
+     * MockWebServer writes the response head and body separately; with Nagle enabled the body
+     * waits for the client's delayed ACK, adding ~40ms per call on loopback and hiding the
+     * client's own cost.
+     */
+    private static final class NoDelayServerSocketFactory extends ServerSocketFactory {
+        @Override
+        public ServerSocket createServerSocket() throws IOException {
+            return new ServerSocket() {
+                @Override
+                public Socket accept() throws IOException {
+                    Socket socket = super.accept();
+                    socket.setTcpNoDelay(true);
+                    return socket;
+                }
+            };
+        }
+
+        @Override
+        public ServerSocket createServerSocket(int port) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public ServerSocket createServerSocket(int port, int backlog) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public ServerSocket createServerSocket(int port, int backlog, InetAddress address) {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    @Benchmark
+    public HardwareOrder retrieveOrder() throws StripeException {
+        return stripe.hardwareOrders().retrieve("thor_1PZRWJBHO5VeT9SU");
+    }
+
+    @Benchmark
+    public StripeList<HardwareSku> listSkus() throws StripeException {
+        return stripe.hardwareSkus().list("US", null, null, pageSize);
+    }
+}
@@ -0,0 +1,50 @@
+package com.stripe.terminal.client;
+
+import okhttp3.Request;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the per-request cost of building a request with the Stripe headers, with the client's
+ * precomputed headers and with a per-request Stripe-Account override.
+ * Lives in the client package to reach the package-private {@code buildGetRequest}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HeadersBenchmark {
+
+    private static final String PATH = "/v1/terminal/hardware_orders/thor_1PZRWJBHO5VeT9SU";
+
+    private StripeHttpClient client;
+    private RequestOptions connectedAccount;
+
+    @Setup
+    public void setUp() {
+        client = new StripeHttpClient(StripeConfig.builder("sk_test_51NbqVxBHO5VeT9SUbenchmarkkey").build());
+        connectedAccount = RequestOptions.builder().stripeAccount("acct_1PZRWJBHO5VeT9SU").build();
+    }
+
+    @Benchmark
+    public Request defaultHeaders() {
+        return client.buildGetRequest(PATH, null, RequestOptions.none());
+    }
+
+    @Benchmark
+    public Request stripeAccountOverride() {
+        return client.buildGetRequest(PATH, null, connectedAccount);
+    }
+}
@@ -1,5 +1,7 @@
 package com.stripe.terminal;
 
+import com.stripe.terminal.cache.CatalogCache;
+import com.stripe.terminal.client.RequestOptions;
 import com.stripe.terminal.client.StripeConfig;
 import com.stripe.terminal.client.StripeHttpClient;
 import com.stripe.terminal.service.*;
@@ -26,6 +28,7 @@ import com.stripe.terminal.service.*;
  */
 public class StripeTerminal {
     private final StripeHttpClient httpClient;
+    private final CatalogCache catalogCache;
     private final HardwareSkuService hardwareSkuService;
     private final HardwareProductService hardwareProductService;
     private final ShippingMethodService shippingMethodService;
@@ -48,13 +51,41 @@ public class StripeTerminal {
      */
     public StripeTerminal(StripeConfig config) {
         this.httpClient = new StripeHttpClient(config);
-        this.hardwareSkuService = new HardwareSkuService(httpClient);
-        this.hardwareProductService = new HardwareProductService(httpClient);
-        this.shippingMethodService = new ShippingMethodService(httpClient);
-        this.hardwareOrderService = new HardwareOrderService(httpClient);
+        this.catalogCache = config.getCatalogCacheConfig() != null
+                ? new CatalogCache(config.getCatalogCacheConfig())
+                : null;
+        this.hardwareSkuService = new HardwareSkuService(httpClient, catalogCache);
+        this.hardwareProductService = new HardwareProductService(httpClient, catalogCache);
+        this.shippingMethodService = new ShippingMethodService(httpClient, catalogCache);
+        this.hardwareOrderService = new HardwareOrderService(httpClient, config);
+        this.testHelperService = new TestHelperService(httpClient);
+    }
+
+    private StripeTerminal(StripeTerminal parent, StripeHttpClient httpClient) {
+        this.httpClient = httpClient;
+        this.catalogCache = parent.catalogCache;
+        this.hardwareSkuService = new HardwareSkuService(httpClient, catalogCache);
+        this.hardwareProductService = new HardwareProductService(httpClient, catalogCache);
+        this.shippingMethodService = new ShippingMethodService(httpClient, catalogCache);
+        this.hardwareOrderService = parent.hardwareOrderService.withHttpClient(httpClient);
         this.testHelperService = new TestHelperService(httpClient);
     }
 
+    /**
+     * Returns a client that sends every request with the given API key, connected account or
+     * headers. It shares this client's connection pool, dispatcher, JSON codec, retry budget,
+     * rate limiter and caches, so it adds no threads or connections; see {@link StripeTerminalPool}
+     * for keeping one per account. The {@link StripeConfig.Builder#orderStore order store} is
+     * shared only if the options keep this client's API key and Stripe-Account; otherwise the
+     * returned client saves no orders, so one account's orders never appear in another's store.
+     *
+     * @param options The API key, Stripe-Account and headers to apply
+     * @return A new client; this client is unchanged
+     */
+    public StripeTerminal withOptions(RequestOptions options) {
+        return new StripeTerminal(this, httpClient.withOptions(options));
+    }
+
     /**
      * Returns the Hardware SKU service for listing and retrieving SKUs.
      *
@@ -100,4 +131,14 @@ public class StripeTerminal {
     public TestHelperService testHelpers() {
         return testHelperService;
     }
+
+    /**
+     * Returns the catalog cache used by the SKU, product and shipping method services.
+     * Enable it with {@link StripeConfig.Builder#catalogCache}.
+     *
+     * @return CatalogCache instance, or null if catalog caching is disabled
+     */
+    public CatalogCache catalogCache() {
+        return catalogCache;
+    }
 }
@@ -0,0 +1,123 @@
+package com.stripe.terminal;
+
+import com.stripe.terminal.client.RequestOptions;
+import com.stripe.terminal.client.StripeConfig;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Serves many accounts from one transport.
+ *
+ * <p>Every {@link StripeTerminal} returned by a pool shares one connection pool, dispatcher,
+ * JSON codec, retry budget, rate limiter, catalog cache and order caches, and differs only in the
+ * credentials it sends. A context is a handful of small objects with precomputed headers, so
+ * memory and thread counts stay flat as merchants are added.</p>
+ *
+ * <p>Contexts are kept for reuse up to a bound; beyond it they are created on demand. Because all
+ * caches are shared and scoped by credentials, an uncached context behaves exactly like a cached one.</p>
+ *
+ * <pre>
+ * StripeTerminalPool pool = new StripeTerminalPool(StripeConfig.builder("sk_live_platform...")
+ *     .maxRequestsPerHost(32)
+ *     .build());
+ *
+ * // Connect platform acting on behalf of a connected account
+ * pool.forAccount("acct_123").hardwareOrders().create(params);
+ *
+ * // Merchant with its own secret key
+ * pool.forApiKey("sk_live_merchant...").hardwareOrders().list(10);
+ * </pre>
+ *
+ * <p>Catalog cache entries are scoped by account and by test or live mode, like the order
+ * caches, so SKUs, products and shipping methods fetched for one account are never served to
+ * another.</p>
+ */
+public class StripeTerminalPool {
+    public static final int DEFAULT_MAX_CACHED_CONTEXTS = 10_000;
+
+    private final StripeTerminal platform;
+    private final int maxCachedContexts;
+    private final ConcurrentHashMap<String, StripeTerminal> contexts = new ConcurrentHashMap<>();
+
+    /**
+     * @param config The shared configuration; its API key is used by {@link #platform()} and {@link #forAccount}
+     */
+    public StripeTerminalPool(StripeConfig config) {
+        this(config, DEFAULT_MAX_CACHED_CONTEXTS);
+    }
+
+    /**
+     * @param config            The shared configuration; its API key is used by {@link #platform()} and {@link #forAccount}
+     * @param maxCachedContexts Maximum number of account contexts kept for reuse
+     */
+    public StripeTerminalPool(StripeConfig config, int maxCachedContexts) {
+        if (maxCachedContexts < 0) {
+            throw new IllegalArgumentException("Max cached contexts cannot be negative");
+        }
+        this.platform = new StripeTerminal(config);
+        this.maxCachedContexts = maxCachedContexts;
+    }
+
+    /**
+     * @return The client using the configured API key and account
+     */
+    public StripeTerminal platform() {
+        return platform;
+    }
+
+    /**
+     * Returns a client sending the configured API key on behalf of a connected account.
+     *
+     * @param stripeAccount The connected account ID, sent as {@code Stripe-Account}
+     */
+    public StripeTerminal forAccount(String stripeAccount) {
+        return get(RequestOptions.builder().stripeAccount(stripeAccount).build());
+    }
+
+    /**
+     * Returns a client sending another API key, such as a merchant's own secret key. A
+     * {@code Stripe-Account} set on the pool's configuration is not sent: the key already
+     * identifies the merchant's account.
+     *
+     * @param apiKey The API key to send
+     */
+    public StripeTerminal forApiKey(String apiKey) {
+        return get(RequestOptions.builder().apiKey(apiKey).noStripeAccount().build());
+    }
+
+    /**
+     * Returns a client for the given API key, connected account and headers. Contexts with extra
+     * headers are not cached.
+     *
+     * @param options The API key, Stripe-Account and headers to apply
+     */
+    public StripeTerminal get(RequestOptions options) {
+        if (!options.getHeaders().isEmpty()) {
+            return platform.withOptions(options);
+        }
+        String key = (options.getApiKey() != null ? options.getApiKey() : "") + "/"
+                + (options.clearsStripeAccount() ? "-" : options.getStripeAccount() != null ? options.getStripeAccount() : "");
+        StripeTerminal context = contexts.get(key);
+        if (context != null) {
+            return context;
+        }
+        if (contexts.size() >= maxCachedContexts) {
+            return platform.withOptions(options);
+        }
+        return contexts.computeIfAbsent(key, k -> platform.withOptions(options));
+    }
+
+    /**
+     * @return The number of account contexts kept for reuse
+     */
+    public int size() {
+        return contexts.size();
+    }
+
+    /**
+     * Drops the cached contexts, for example after rotating merchant keys. Shared caches are kept.
+     */
+    public void clear() {
+        contexts.clear();
+    }
+}
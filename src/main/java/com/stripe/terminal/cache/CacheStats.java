@@ -0,0 +1,62 @@
+package com.stripe.terminal.cache;
+
+/**
+ * Point-in-time snapshot of cache counters.
+ */
+public class CacheStats {
+    private final long hitCount;
+    private final long missCount;
+    private final long evictionCount;
+    private final long refreshCount;
+    private final long loadFailureCount;
+
+    public CacheStats(long hitCount, long missCount, long evictionCount, long refreshCount, long loadFailureCount) {
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.evictionCount = evictionCount;
+        this.refreshCount = refreshCount;
+        this.loadFailureCount = loadFailureCount;
+    }
+
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    public long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * Entries removed because the cache was full or they expired past the stale window.
+     */
+    public long getEvictionCount() {
+        return evictionCount;
+    }
+
+    /**
+     * Successful background refreshes of stale entries.
+     */
+    public long getRefreshCount() {
+        return refreshCount;
+    }
+
+    public long getLoadFailureCount() {
+        return loadFailureCount;
+    }
+
+    public double getHitRate() {
+        long requests = hitCount + missCount;
+        return requests == 0 ? 1.0 : (double) hitCount / requests;
+    }
+
+    @Override
+    public String toString() {
+        return "CacheStats{" +
+                "hitCount=" + hitCount +
+                ", missCount=" + missCount +
+                ", evictionCount=" + evictionCount +
+                ", refreshCount=" + refreshCount +
+                ", loadFailureCount=" + loadFailureCount +
+                '}';
+    }
+}
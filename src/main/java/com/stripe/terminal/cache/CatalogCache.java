@@ -0,0 +1,124 @@
+package com.stripe.terminal.cache;
+
+import com.stripe.terminal.exception.StripeException;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Caches hardware catalog responses (SKUs, products and shipping methods), keyed by the
+ * account and mode the request is sent for and by its filters. Each entity type has its own TTL,
+ * size bound and counters.
+ *
+ * <p>Cached lists and objects are shared between callers and must be treated as read-only.</p>
+ */
+public class CatalogCache {
+
+    /**
+     * Catalog entity types with independent cache settings.
+     */
+    public enum Entity {
+        SKU,
+        PRODUCT,
+        SHIPPING_METHOD
+    }
+
+    private static final ExecutorService DEFAULT_REFRESH_EXECUTOR = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "stripe-catalog-refresh");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Map<Entity, ExpiringCache<String, Object>> caches = new EnumMap<>(Entity.class);
+
+    public CatalogCache(CatalogCacheConfig config) {
+        Executor executor = config.getRefreshExecutor() != null ? config.getRefreshExecutor() : DEFAULT_REFRESH_EXECUTOR;
+        long staleNanos = config.getStaleWhileRevalidate().toNanos();
+
+        caches.put(Entity.SKU, newCache(config.getSkuTtl(), staleNanos, config.getMaximumSize(), executor));
+        caches.put(Entity.PRODUCT, newCache(config.getProductTtl(), staleNanos, config.getMaximumSize(), executor));
+        caches.put(Entity.SHIPPING_METHOD,
+                newCache(config.getShippingMethodTtl(), staleNanos, config.getMaximumSize(), executor));
+    }
+
+    /**
+     * Returns the cached response for the key, loading it on a miss.
+     *
+     * @param entity The catalog entity type
+     * @param key    A key identifying the request and its filters
+     * @param loader Loads the response from the API
+     * @return The cached or freshly loaded response
+     * @throws StripeException if the load fails
+     */
+    @SuppressWarnings("unchecked")
+    public <V> V get(Entity entity, String key, ExpiringCache.Loader<V> loader) throws StripeException {
+        return (V) caches.get(entity).get(key, (ExpiringCache.Loader<Object>) loader);
+    }
+
+    /**
+     * Returns the cached response for the key, loading it asynchronously on a miss.
+     *
+     * @param entity The catalog entity type
+     * @param key    A key identifying the request and its filters
+     * @param loader Loads the response from the API
+     * @return A future completing with the cached or freshly loaded response
+     */
+    @SuppressWarnings("unchecked")
+    public <V> CompletableFuture<V> getAsync(Entity entity, String key, ExpiringCache.AsyncLoader<V> loader) {
+        ExpiringCache<String, Object> cache = caches.get(entity);
+        return (CompletableFuture<V>) cache.getAsync(key, () -> (CompletableFuture<Object>) loader.load());
+    }
+
+    /**
+     * Returns hit, miss and eviction counters for one entity type.
+     */
+    public CacheStats stats(Entity entity) {
+        return caches.get(entity).stats();
+    }
+
+    public void invalidate(Entity entity) {
+        caches.get(entity).invalidateAll();
+    }
+
+    public void invalidateAll() {
+        for (ExpiringCache<String, Object> cache : caches.values()) {
+            cache.invalidateAll();
+        }
+    }
+
+    /**
+     * Builds a cache key from a request name and its filter values.
+     */
+    public static String key(String request, Object... filters) {
+        StringBuilder key = new StringBuilder(request);
+        for (Object filter : filters) {
+            key.append('|');
+            if (filter != null) {
+                key.append(filter);
+            }
+        }
+        return key.toString();
+    }
+
+    /**
+     * Builds the prefix that keeps one account's entries apart from another's, and test mode
+     * entries apart from live mode ones.
+     *
+     * @param apiKey        The API key requests are sent with
+     * @param stripeAccount Optional. The connected account requests are sent for
+     * @return The mode, and the connected account, or the API key's own account when there is none
+     */
+    public static String scope(String apiKey, String stripeAccount) {
+        String mode = apiKey != null && apiKey.contains("_test_") ? "test" : "live";
+        return mode + "/" + (stripeAccount != null ? stripeAccount : apiKey) + "/";
+    }
+
+    private static ExpiringCache<String, Object> newCache(Duration ttl, long staleNanos, int maximumSize, Executor executor) {
+        return new ExpiringCache<>(ttl.toNanos(), staleNanos, maximumSize, executor);
+    }
+}
@@ -0,0 +1,120 @@
+package com.stripe.terminal.cache;
+
+import java.time.Duration;
+import java.util.concurrent.Executor;
+
+/**
+ * Configuration for the opt-in hardware catalog cache.
+ * Applies to SKUs, products and shipping methods, which change at most daily.
+ */
+public class CatalogCacheConfig {
+    private final Duration skuTtl;
+    private final Duration productTtl;
+    private final Duration shippingMethodTtl;
+    private final Duration staleWhileRevalidate;
+    private final int maximumSize;
+    private final Executor refreshExecutor;
+
+    public static final Duration DEFAULT_TTL = Duration.ofHours(1);
+    public static final Duration DEFAULT_STALE_WHILE_REVALIDATE = Duration.ofMinutes(10);
+    public static final int DEFAULT_MAXIMUM_SIZE = 1000;
+
+    private CatalogCacheConfig(Builder builder) {
+        this.skuTtl = builder.skuTtl;
+        this.productTtl = builder.productTtl;
+        this.shippingMethodTtl = builder.shippingMethodTtl;
+        this.staleWhileRevalidate = builder.staleWhileRevalidate;
+        this.maximumSize = builder.maximumSize;
+        this.refreshExecutor = builder.refreshExecutor;
+    }
+
+    public Duration getSkuTtl() {
+        return skuTtl;
+    }
+
+    public Duration getProductTtl() {
+        return productTtl;
+    }
+
+    public Duration getShippingMethodTtl() {
+        return shippingMethodTtl;
+    }
+
+    public Duration getStaleWhileRevalidate() {
+        return staleWhileRevalidate;
+    }
+
+    public int getMaximumSize() {
+        return maximumSize;
+    }
+
+    /**
+     * @return The executor for background refreshes, or null to use a shared daemon pool
+     */
+    public Executor getRefreshExecutor() {
+        return refreshExecutor;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static class Builder {
+        private Duration skuTtl = DEFAULT_TTL;
+        private Duration productTtl = DEFAULT_TTL;
+        private Duration shippingMethodTtl = DEFAULT_TTL;
+        private Duration staleWhileRevalidate = DEFAULT_STALE_WHILE_REVALIDATE;
+        private int maximumSize = DEFAULT_MAXIMUM_SIZE;
+        private Executor refreshExecutor;
+
+        public Builder skuTtl(Duration skuTtl) {
+            this.skuTtl = skuTtl;
+            return this;
+        }
+
+        public Builder productTtl(Duration productTtl) {
+            this.productTtl = productTtl;
+            return this;
+        }
+
+        public Builder shippingMethodTtl(Duration shippingMethodTtl) {
+            this.shippingMethodTtl = shippingMethodTtl;
+            return this;
+        }
+
+        /**
+         * How long past its TTL an entry may still be served while a background refresh runs.
+         */
+        public Builder staleWhileRevalidate(Duration staleWhileRevalidate) {
+            this.staleWhileRevalidate = staleWhileRevalidate;
+            return this;
+        }
+
+        /**
+         * Maximum number of cached responses per entity type.
+         */
+        public Builder maximumSize(int maximumSize) {
+            this.maximumSize = maximumSize;
+            return this;
+        }
+
+        public Builder refreshExecutor(Executor refreshExecutor) {
+            this.refreshExecutor = refreshExecutor;
+            return this;
+        }
+
+        public CatalogCacheConfig build() {
+            if (skuTtl == null || productTtl == null || shippingMethodTtl == null || staleWhileRevalidate == null) {
+                throw new IllegalArgumentException("Cache durations cannot be null");
+            }
+            if (skuTtl.isNegative() || productTtl.isNegative() || shippingMethodTtl.isNegative()
+                    || staleWhileRevalidate.isNegative()) {
+                throw new IllegalArgumentException("Cache durations cannot be negative");
+            }
+            if (maximumSize <= 0) {
+                throw new IllegalArgumentException("Maximum size must be positive");
+            }
+            return new CatalogCacheConfig(this);
+        }
+    }
+}
@@ -0,0 +1,290 @@
+package com.stripe.terminal.cache;
+
+import com.stripe.terminal.exception.StripeException;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Size-bounded, time-expiring cache with single-flight loading.
+ *
+ * <p>An entry younger than the TTL is served directly. An entry that is past its TTL but still
+ * inside the stale-while-revalidate window is served as-is while one background refresh
+ * replaces it. Concurrent misses for the same key share a single load.</p>
+ *
+ * <p>When the cache grows past its maximum size the least recently accessed entry is evicted.
+ * Eviction scans the map, which is intended for small reference data sets such as the
+ * hardware catalog.</p>
+ *
+ * <p>With a zero TTL and stale window nothing is stored, and the cache only coalesces
+ * concurrent loads of the same key.</p>
+ *
+ * @param <K> The key type
+ * @param <V> The value type
+ */
+public class ExpiringCache<K, V> {
+    private final long ttlNanos;
+    private final long staleNanos;
+    private final int maximumSize;
+    private final Executor refreshExecutor;
+
+    private final ConcurrentHashMap<K, Entry<V>> entries = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder refreshes = new LongAdder();
+    private final LongAdder loadFailures = new LongAdder();
+
+    /**
+     * @param ttlNanos        How long an entry is served without refreshing
+     * @param staleNanos      How long past the TTL a stale entry may be served while it is refreshed
+     * @param maximumSize     Maximum number of entries kept
+     * @param refreshExecutor Executor running blocking background refreshes
+     */
+    public ExpiringCache(long ttlNanos, long staleNanos, int maximumSize, Executor refreshExecutor) {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("Maximum size must be positive");
+        }
+        this.ttlNanos = ttlNanos;
+        this.staleNanos = staleNanos;
+        this.maximumSize = maximumSize;
+        this.refreshExecutor = refreshExecutor;
+    }
+
+    /**
+     * Loads a value on the calling thread.
+     */
+    @FunctionalInterface
+    public interface Loader<V> {
+        V load() throws StripeException;
+    }
+
+    /**
+     * Loads a value without blocking the calling thread.
+     */
+    @FunctionalInterface
+    public interface AsyncLoader<V> {
+        CompletableFuture<V> load();
+    }
+
+    /**
+     * Returns the cached value for the key, loading it on the calling thread on a miss.
+     *
+     * @param key    The cache key
+     * @param loader Loads the value on a miss or refresh
+     * @return The cached or freshly loaded value
+     * @throws StripeException if the load fails
+     */
+    public V get(K key, Loader<V> loader) throws StripeException {
+        Entry<V> entry = lookup(key);
+        if (entry != null) {
+            if (entry.isStale(System.nanoTime(), ttlNanos) && entry.refreshing.compareAndSet(false, true)) {
+                refreshExecutor.execute(() -> refresh(key, entry, loader));
+            }
+            return entry.value;
+        }
+
+        misses.increment();
+        CompletableFuture<V> load = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, load);
+        if (existing != null) {
+            return await(existing);
+        }
+
+        try {
+            V value = loader.load();
+            store(key, value);
+            load.complete(value);
+            return value;
+        } catch (Throwable e) {
+            // Errors too, or callers waiting on this load would block forever
+            loadFailures.increment();
+            load.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, load);
+        }
+    }
+
+    /**
+     * Returns the cached value for the key, loading it asynchronously on a miss.
+     *
+     * @param key    The cache key
+     * @param loader Loads the value on a miss or refresh
+     * @return A future completing with the cached or freshly loaded value
+     */
+    public CompletableFuture<V> getAsync(K key, AsyncLoader<V> loader) {
+        Entry<V> entry = lookup(key);
+        if (entry != null) {
+            if (entry.isStale(System.nanoTime(), ttlNanos) && entry.refreshing.compareAndSet(false, true)) {
+                startLoad(loader).whenComplete((value, error) -> completeRefresh(key, entry, value, error));
+            }
+            return CompletableFuture.completedFuture(entry.value);
+        }
+
+        misses.increment();
+        CompletableFuture<V> load = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, load);
+        if (existing != null) {
+            return existing.copy();
+        }
+
+        startLoad(loader).whenComplete((value, error) -> {
+            if (error == null) {
+                store(key, value);
+            } else {
+                loadFailures.increment();
+            }
+            inFlight.remove(key, load);
+            if (error == null) {
+                load.complete(value);
+            } else {
+                load.completeExceptionally(error instanceof CompletionException ? error.getCause() : error);
+            }
+        });
+        return load.copy();
+    }
+
+    /**
+     * Removes every entry. In-flight loads still complete but their callers are not affected.
+     */
+    public void invalidateAll() {
+        entries.clear();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Returns a point-in-time snapshot of the cache counters.
+     */
+    public CacheStats stats() {
+        return new CacheStats(hits.sum(), misses.sum(), evictions.sum(), refreshes.sum(), loadFailures.sum());
+    }
+
+    private Entry<V> lookup(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+
+        long now = System.nanoTime();
+        if (now - entry.loadedAt > ttlNanos + staleNanos) {
+            if (entries.remove(key, entry)) {
+                evictions.increment();
+            }
+            return null;
+        }
+
+        entry.lastAccess = now;
+        hits.increment();
+        return entry;
+    }
+
+    private void refresh(K key, Entry<V> stale, Loader<V> loader) {
+        V value;
+        try {
+            value = loader.load();
+        } catch (Throwable e) {
+            completeRefresh(key, stale, null, e);
+            if (e instanceof Error) {
+                throw (Error) e;
+            }
+            return;
+        }
+        completeRefresh(key, stale, value, null);
+    }
+
+    /**
+     * Starts an async load, turning a loader that throws instead of returning a failed future
+     * into a failed future, so the in-flight entry or refresh flag is always cleared.
+     */
+    private static <V> CompletableFuture<V> startLoad(AsyncLoader<V> loader) {
+        try {
+            CompletableFuture<V> load = loader.load();
+            return load != null ? load : CompletableFuture.failedFuture(new NullPointerException("Loader returned null"));
+        } catch (Throwable e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private void completeRefresh(K key, Entry<V> stale, V value, Throwable error) {
+        if (error == null) {
+            refreshes.increment();
+            // Only replace the entry we refreshed; it may have been invalidated meanwhile
+            if (entries.replace(key, stale, new Entry<>(value, System.nanoTime()))) {
+                return;
+            }
+        } else {
+            loadFailures.increment();
+        }
+        // Allow a later request to retry the refresh
+        stale.refreshing.set(false);
+    }
+
+    private void store(K key, V value) {
+        if (ttlNanos == 0 && staleNanos == 0) {
+            return;
+        }
+        entries.put(key, new Entry<>(value, System.nanoTime()));
+        while (entries.size() > maximumSize) {
+            evictLeastRecentlyAccessed();
+        }
+    }
+
+    private void evictLeastRecentlyAccessed() {
+        K victimKey = null;
+        Entry<V> victim = null;
+        for (Map.Entry<K, Entry<V>> candidate : entries.entrySet()) {
+            if (victim == null || candidate.getValue().lastAccess < victim.lastAccess) {
+                victimKey = candidate.getKey();
+                victim = candidate.getValue();
+            }
+        }
+        if (victim != null && entries.remove(victimKey, victim)) {
+            evictions.increment();
+        }
+    }
+
+    private static <V> V await(CompletableFuture<V> future) throws StripeException {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof StripeException) {
+                throw (StripeException) e.getCause();
+            }
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    private static final class Entry<V> {
+        final V value;
+        final long loadedAt;
+        final AtomicBoolean refreshing = new AtomicBoolean();
+        volatile long lastAccess;
+
+        Entry(V value, long loadedAt) {
+            this.value = value;
+            this.loadedAt = loadedAt;
+            this.lastAccess = loadedAt;
+        }
+
+        boolean isStale(long now, long ttlNanos) {
+            return now - loadedAt > ttlNanos;
+        }
+    }
+}
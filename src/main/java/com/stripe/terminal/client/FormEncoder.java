@@ -0,0 +1,299 @@
+package com.stripe.terminal.client;
+
+import okio.Buffer;
+import okio.ByteString;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Writes parameters in Stripe's bracket notation ({@code shipping[address][city]=...}) straight into
+ * an Okio {@link Buffer}, percent-encoded the same way as OkHttp's {@code FormBody}.
+ *
+ * <p>The current key is kept as one growable byte array of already-encoded segments. Entering a
+ * nested object or list element appends a segment and leaving it truncates the array, so writing
+ * a field allocates no intermediate strings or maps.</p>
+ *
+ * <pre>
+ * FormEncoder encoder = new FormEncoder();
+ * encoder.beginObject("shipping")
+ *        .add("name", "Jenny Rosen")
+ *        .beginObject("address").add("city", "San Francisco").endObject()
+ *        .endObject();
+ * ByteString body = encoder.toByteString();
+ * </pre>
+ *
+ * <p>Instances are not thread-safe and are meant to be used for a single request.</p>
+ */
+public final class FormEncoder {
+    private static final byte[] HEX = "0123456789ABCDEF".getBytes(StandardCharsets.US_ASCII);
+    private static final boolean[] UNRESERVED = new boolean[128];
+    private static final byte[] OPEN = {'%', '5', 'B'};
+    private static final byte[] CLOSE = {'%', '5', 'D'};
+
+    static {
+        for (char c = 0x20; c < 0x7f; c++) {
+            UNRESERVED[c] = true;
+        }
+        // OkHttp's FORM_ENCODE_SET, plus '%' and '+' which a form body always encodes
+        for (char c : " \"':;<=>@[]^`{}|/\\?#&!$(),~%+".toCharArray()) {
+            UNRESERVED[c] = false;
+        }
+    }
+
+    private final Buffer buffer = new Buffer();
+    private byte[] key = new byte[64];
+    private int keyLength;
+    private int[] marks = new int[8];
+    private int depth;
+
+    /**
+     * Starts a nested object; following fields are written as {@code name[field]}.
+     */
+    public FormEncoder beginObject(String name) {
+        push();
+        appendSegment(name);
+        return this;
+    }
+
+    /**
+     * Starts an element of a list of objects; following fields are written as {@code name[index][field]}.
+     */
+    public FormEncoder beginObject(String name, int index) {
+        if (index < 0) {
+            throw new IllegalArgumentException("Index cannot be negative");
+        }
+        push();
+        appendSegment(name);
+        appendIndex(index);
+        return this;
+    }
+
+    /**
+     * Ends the innermost object started with {@code beginObject}.
+     */
+    public FormEncoder endObject() {
+        if (depth == 0) {
+            throw new IllegalStateException("No object to end");
+        }
+        keyLength = marks[--depth];
+        return this;
+    }
+
+    /**
+     * Writes a field. Null values are skipped.
+     */
+    public FormEncoder add(String name, String value) {
+        if (value != null) {
+            writeKey(name);
+            buffer.writeByte('=');
+            writeEncoded(value);
+        }
+        return this;
+    }
+
+    /**
+     * Writes a numeric field. Null values are skipped.
+     */
+    public FormEncoder add(String name, Long value) {
+        if (value != null) {
+            writeKey(name);
+            buffer.writeByte('=');
+            buffer.writeDecimalLong(value);
+        }
+        return this;
+    }
+
+    /**
+     * Writes a numeric field. Null values are skipped.
+     */
+    public FormEncoder add(String name, Integer value) {
+        if (value != null) {
+            writeKey(name);
+            buffer.writeByte('=');
+            buffer.writeDecimalLong(value);
+        }
+        return this;
+    }
+
+    /**
+     * Writes a map of strings such as metadata as {@code name[key]=value}, in key order so equal
+     * maps always encode to the same bytes. Null maps are skipped.
+     */
+    public FormEncoder addStringMap(String name, Map<String, String> values) {
+        if (values == null) {
+            return this;
+        }
+        beginObject(name);
+        Map<String, String> sorted = values instanceof TreeMap ? values : new TreeMap<>(values);
+        for (Map.Entry<String, String> entry : sorted.entrySet()) {
+            add(entry.getKey(), entry.getValue());
+        }
+        return endObject();
+    }
+
+    /**
+     * Writes an untyped parameter tree: nested maps become objects, lists of maps become indexed
+     * objects and lists of scalars become {@code name[]} fields. Null values are skipped.
+     */
+    public FormEncoder addAll(Map<String, ?> params) {
+        if (params != null) {
+            for (Map.Entry<String, ?> entry : params.entrySet()) {
+                addValue(entry.getKey(), entry.getValue());
+            }
+        }
+        return this;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void addValue(String name, Object value) {
+        if (value == null) {
+            return;
+        }
+        if (value instanceof Map) {
+            beginObject(name);
+            addAll((Map<String, ?>) value);
+            endObject();
+        } else if (value instanceof List) {
+            List<?> list = (List<?>) value;
+            for (int i = 0; i < list.size(); i++) {
+                Object item = list.get(i);
+                if (item instanceof Map) {
+                    beginObject(name, i);
+                    addAll((Map<String, ?>) item);
+                    endObject();
+                } else if (item != null) {
+                    writeKey(name);
+                    buffer.write(OPEN).write(CLOSE).writeByte('=');
+                    writeEncoded(item.toString());
+                }
+            }
+        } else {
+            add(name, value.toString());
+        }
+    }
+
+    /**
+     * @return The number of encoded bytes written so far
+     */
+    public long size() {
+        return buffer.size();
+    }
+
+    /**
+     * Returns the encoded parameters. The encoder must not be used afterwards.
+     */
+    public ByteString toByteString() {
+        if (depth != 0) {
+            throw new IllegalStateException("Unclosed object");
+        }
+        return buffer.readByteString();
+    }
+
+    private void writeKey(String name) {
+        if (buffer.size() > 0) {
+            buffer.writeByte('&');
+        }
+        buffer.write(key, 0, keyLength);
+        if (keyLength > 0) {
+            buffer.write(OPEN);
+            writeEncoded(name);
+            buffer.write(CLOSE);
+        } else {
+            writeEncoded(name);
+        }
+    }
+
+    private void push() {
+        if (depth == marks.length) {
+            marks = Arrays.copyOf(marks, depth * 2);
+        }
+        marks[depth++] = keyLength;
+    }
+
+    private void appendSegment(String name) {
+        if (keyLength > 0) {
+            appendKeyBytes(OPEN);
+            appendEncodedToKey(name);
+            appendKeyBytes(CLOSE);
+        } else {
+            appendEncodedToKey(name);
+        }
+    }
+
+    private void appendIndex(int index) {
+        appendKeyBytes(OPEN);
+        int digits = index < 10 ? 1 : (int) Math.log10(index) + 1;
+        ensureKeyCapacity(digits);
+        for (int i = keyLength + digits - 1; i >= keyLength; i--) {
+            key[i] = (byte) ('0' + index % 10);
+            index /= 10;
+        }
+        keyLength += digits;
+        appendKeyBytes(CLOSE);
+    }
+
+    private void appendKeyBytes(byte[] bytes) {
+        ensureKeyCapacity(bytes.length);
+        System.arraycopy(bytes, 0, key, keyLength, bytes.length);
+        keyLength += bytes.length;
+    }
+
+    private void appendEncodedToKey(String segment) {
+        for (int i = 0; i < segment.length(); i++) {
+            char c = segment.charAt(i);
+            if (c < 0x80 && UNRESERVED[c]) {
+                ensureKeyCapacity(1);
+                key[keyLength++] = (byte) c;
+            } else {
+                // Rare for keys; fall back to encoding through a temporary buffer
+                Buffer encoded = new Buffer();
+                encodeCodePoint(encoded, segment.codePointAt(i));
+                if (Character.isSupplementaryCodePoint(segment.codePointAt(i))) {
+                    i++;
+                }
+                appendKeyBytes(encoded.readByteArray());
+            }
+        }
+    }
+
+    private void ensureKeyCapacity(int extra) {
+        if (keyLength + extra > key.length) {
+            key = Arrays.copyOf(key, Math.max(key.length * 2, keyLength + extra));
+        }
+    }
+
+    private void writeEncoded(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < 0x80 && UNRESERVED[c]) {
+                buffer.writeByte(c);
+            } else {
+                int codePoint = value.codePointAt(i);
+                encodeCodePoint(buffer, codePoint);
+                if (Character.isSupplementaryCodePoint(codePoint)) {
+                    i++;
+                }
+            }
+        }
+    }
+
+    private static void encodeCodePoint(Buffer sink, int codePoint) {
+        if (codePoint < 0x80) {
+            percentEncode(sink, codePoint);
+            return;
+        }
+        for (byte b : new Buffer().writeUtf8CodePoint(codePoint).readByteArray()) {
+            percentEncode(sink, b & 0xff);
+        }
+    }
+
+    private static void percentEncode(Buffer sink, int b) {
+        sink.writeByte('%');
+        sink.writeByte(HEX[(b >> 4) & 0xf]);
+        sink.writeByte(HEX[b & 0xf]);
+    }
+}
@@ -0,0 +1,287 @@
+package com.stripe.terminal.client;
+
+import com.stripe.terminal.metrics.Endpoint;
+import com.stripe.terminal.ratelimit.LatencyHistogram;
+import okhttp3.Request;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Decides when a slow read is hedged: sent a second time while the first attempt is still
+ * waiting, with whichever response arrives first used and the other call cancelled.
+ *
+ * <p>Only GET requests to the configured endpoints are hedged, by default the single-object
+ * retrieves of orders, SKUs, products and shipping methods. A request is hedged when its response
+ * headers have not arrived after the {@code percentile} latency of recent requests to the same
+ * endpoint, but never sooner than {@code minDelay}. Until {@code minSamples} responses have been
+ * seen for an endpoint, its requests are not hedged. Latencies are tracked over windows of
+ * {@code sampleWindow} requests, so the delay follows changes in latency.</p>
+ *
+ * <p>Hedges draw from a token-bucket budget shared by every client using this policy. Each
+ * eligible request deposits {@code maxHedgeRatio} tokens and each hedge withdraws one, so hedges
+ * stay below that fraction of traffic even when every request is slow.</p>
+ *
+ * <pre>
+ * StripeConfig config = StripeConfig.builder("sk_live_...")
+ *     .hedgePolicy(HedgePolicy.builder().percentile(95).maxHedgeRatio(0.05).build())
+ *     .build();
+ * </pre>
+ */
+public final class HedgePolicy {
+    public static final double DEFAULT_PERCENTILE = 95;
+    public static final Duration DEFAULT_MIN_DELAY = Duration.ofMillis(10);
+    public static final int DEFAULT_MIN_SAMPLES = 100;
+    public static final int DEFAULT_SAMPLE_WINDOW = 1000;
+    public static final double DEFAULT_MAX_HEDGE_RATIO = 0.1;
+    public static final int DEFAULT_BUDGET_CAPACITY = 10;
+
+    static final long NO_HEDGE = -1;
+    private static final long TOKEN = 1000;
+    // How often the hedge delay is recomputed from the histogram, in samples
+    private static final int RECOMPUTE_INTERVAL = 32;
+
+    private static final HedgePolicy NONE = builder().endpoints().build();
+
+    private final double percentile;
+    private final long minDelayNanos;
+    private final int minSamples;
+    private final int sampleWindow;
+    private final double maxHedgeRatio;
+    private final long budgetCapacity;
+    private final Set<Endpoint> endpoints;
+    private final EndpointLatency[] latencies;
+    private final AtomicLong budget;
+
+    private HedgePolicy(Builder builder) {
+        this.percentile = builder.percentile;
+        this.minDelayNanos = builder.minDelay.toNanos();
+        this.minSamples = builder.minSamples;
+        this.sampleWindow = builder.sampleWindow;
+        this.maxHedgeRatio = builder.maxHedgeRatio;
+        this.budgetCapacity = builder.budgetCapacity * TOKEN;
+        this.endpoints = builder.endpoints.isEmpty()
+                ? Collections.emptySet()
+                : Collections.unmodifiableSet(EnumSet.copyOf(builder.endpoints));
+        this.latencies = new EndpointLatency[Endpoint.values().length];
+        for (Endpoint endpoint : this.endpoints) {
+            latencies[endpoint.ordinal()] = new EndpointLatency();
+        }
+        this.budget = new AtomicLong(budgetCapacity);
+    }
+
+    /**
+     * Returns a policy that never hedges. This is the default.
+     */
+    public static HedgePolicy none() {
+        return NONE;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public double getPercentile() {
+        return percentile;
+    }
+
+    public Duration getMinDelay() {
+        return Duration.ofNanos(minDelayNanos);
+    }
+
+    public int getMinSamples() {
+        return minSamples;
+    }
+
+    public int getSampleWindow() {
+        return sampleWindow;
+    }
+
+    public double getMaxHedgeRatio() {
+        return maxHedgeRatio;
+    }
+
+    /**
+     * @return The endpoints whose GET requests may be hedged
+     */
+    public Set<Endpoint> getEndpoints() {
+        return endpoints;
+    }
+
+    /**
+     * @return The number of hedges currently available in the budget
+     */
+    public double getAvailableBudget() {
+        return (double) budget.get() / TOKEN;
+    }
+
+    /**
+     * @return The current hedge delay for an endpoint, or null if its requests are not hedged yet
+     */
+    public Duration getHedgeDelay(Endpoint endpoint) {
+        long delay = hedgeDelayNanos(endpoint);
+        return delay == NO_HEDGE ? null : Duration.ofNanos(delay);
+    }
+
+    boolean isEnabled() {
+        return !endpoints.isEmpty();
+    }
+
+    /**
+     * @return Whether the request is a read to one of the hedged endpoints
+     */
+    boolean isHedged(Request request, Endpoint endpoint) {
+        return latencies[endpoint.ordinal()] != null && "GET".equals(request.method());
+    }
+
+    /**
+     * Records an eligible request, refilling the hedge budget.
+     */
+    void recordRequest() {
+        long deposit = (long) (maxHedgeRatio * TOKEN);
+        budget.getAndUpdate(current -> Math.min(budgetCapacity, current + deposit));
+    }
+
+    /**
+     * @return How long to wait for the first attempt before hedging, or {@link #NO_HEDGE}
+     */
+    long hedgeDelayNanos(Endpoint endpoint) {
+        EndpointLatency latency = latencies[endpoint.ordinal()];
+        return latency != null ? latency.delayNanos : NO_HEDGE;
+    }
+
+    /**
+     * Records how long an attempt took to receive its response headers.
+     */
+    void recordLatency(Endpoint endpoint, long nanos) {
+        EndpointLatency latency = latencies[endpoint.ordinal()];
+        if (latency != null) {
+            latency.record(nanos);
+        }
+    }
+
+    /**
+     * @return Whether the budget allows another hedge; if so, one is withdrawn
+     */
+    boolean acquireBudget() {
+        while (true) {
+            long current = budget.get();
+            if (current < TOKEN) {
+                return false;
+            }
+            if (budget.compareAndSet(current, current - TOKEN)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * The latency window of one endpoint. When a window fills up, a fresh histogram replaces it;
+     * the delay computed from the old one stays in use until the new one has enough samples.
+     */
+    private final class EndpointLatency {
+        private volatile LatencyHistogram histogram = new LatencyHistogram();
+        private volatile long delayNanos = NO_HEDGE;
+
+        void record(long nanos) {
+            LatencyHistogram current = histogram;
+            current.recordNanos(nanos);
+            long count = current.getCount();
+            if (count >= minSamples && count % RECOMPUTE_INTERVAL == 0) {
+                delayNanos = Math.max(minDelayNanos, current.getPercentile(percentile).toNanos());
+            }
+            if (count >= sampleWindow) {
+                // Samples racing with the swap may land in the old histogram; losing a few is fine
+                histogram = new LatencyHistogram();
+            }
+        }
+    }
+
+    public static class Builder {
+        private double percentile = DEFAULT_PERCENTILE;
+        private Duration minDelay = DEFAULT_MIN_DELAY;
+        private int minSamples = DEFAULT_MIN_SAMPLES;
+        private int sampleWindow = DEFAULT_SAMPLE_WINDOW;
+        private double maxHedgeRatio = DEFAULT_MAX_HEDGE_RATIO;
+        private int budgetCapacity = DEFAULT_BUDGET_CAPACITY;
+        private Set<Endpoint> endpoints = EnumSet.of(Endpoint.ORDER_RETRIEVE, Endpoint.SKU_RETRIEVE,
+                Endpoint.PRODUCT_RETRIEVE, Endpoint.SHIPPING_METHOD_RETRIEVE);
+
+        /**
+         * Latency percentile of recent requests after which a request is hedged, e.g. 95.
+         */
+        public Builder percentile(double percentile) {
+            this.percentile = percentile;
+            return this;
+        }
+
+        /**
+         * Shortest time to wait before hedging, however fast recent requests were.
+         */
+        public Builder minDelay(Duration minDelay) {
+            this.minDelay = minDelay;
+            return this;
+        }
+
+        /**
+         * Number of responses an endpoint needs in its window before its requests are hedged.
+         */
+        public Builder minSamples(int minSamples) {
+            this.minSamples = minSamples;
+            return this;
+        }
+
+        /**
+         * Number of requests per latency window.
+         */
+        public Builder sampleWindow(int sampleWindow) {
+            this.sampleWindow = sampleWindow;
+            return this;
+        }
+
+        /**
+         * Fraction of a hedge earned by every eligible request, capping hedges at that share of traffic.
+         */
+        public Builder maxHedgeRatio(double maxHedgeRatio) {
+            this.maxHedgeRatio = maxHedgeRatio;
+            return this;
+        }
+
+        /**
+         * Maximum number of hedges that can be saved up for a burst of slow requests.
+         */
+        public Builder budgetCapacity(int budgetCapacity) {
+            this.budgetCapacity = budgetCapacity;
+            return this;
+        }
+
+        /**
+         * Replaces the endpoints whose GET requests may be hedged.
+         */
+        public Builder endpoints(Endpoint... endpoints) {
+            this.endpoints = EnumSet.noneOf(Endpoint.class);
+            this.endpoints.addAll(Arrays.asList(endpoints));
+            return this;
+        }
+
+        public HedgePolicy build() {
+            if (percentile <= 0 || percentile >= 100) {
+                throw new IllegalArgumentException("Percentile must be between 0 and 100, exclusive");
+            }
+            if (minDelay == null || minDelay.isNegative()) {
+                throw new IllegalArgumentException("Min delay cannot be null or negative");
+            }
+            if (minSamples < 1 || sampleWindow < minSamples) {
+                throw new IllegalArgumentException("Min samples must be positive and no larger than the sample window");
+            }
+            if (maxHedgeRatio < 0 || budgetCapacity < 0) {
+                throw new IllegalArgumentException("Hedge budget cannot be negative");
+            }
+            return new HedgePolicy(this);
+        }
+    }
+}
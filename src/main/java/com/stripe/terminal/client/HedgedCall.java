@@ -0,0 +1,246 @@
+package com.stripe.terminal.client;
+
+import com.stripe.terminal.metrics.ClientMetrics;
+import com.stripe.terminal.metrics.Endpoint;
+import com.stripe.terminal.ratelimit.RateLimiter;
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.Dispatcher;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * One attempt of a hedged read. The request is sent, and sent again if its response headers have
+ * not arrived after the {@link HedgePolicy}'s delay. The first response wins, whatever its status,
+ * and the other call is cancelled. The attempt fails only when every call sent has failed.
+ *
+ * <p>A blocking read runs the first call on the caller's thread with {@link Call#execute()}, as an
+ * unhedged read does, so it never waits for a dispatcher slot; only the hedge is enqueued. An
+ * async read enqueues both.</p>
+ *
+ * <p>The delay and the recorded latency run from when the first call's request headers are
+ * written, reported by {@link MetricsEventListener}, so time spent waiting in OkHttp's dispatcher
+ * does not count. No hedge is sent while the dispatcher has calls queued for the host: the hedge
+ * would only wait behind them.</p>
+ */
+final class HedgedCall {
+    private final OkHttpClient httpClient;
+    private final Request request;
+    private final Endpoint endpoint;
+    private final HedgePolicy policy;
+    private final ClientMetrics metrics;
+    private final RateLimiter rateLimiter;
+    private final String rateLimitKey;
+
+    private final CompletableFuture<Response> response = new CompletableFuture<>();
+    // Calls sent and not yet failed; the attempt fails when this drops to zero
+    private final AtomicInteger pending = new AtomicInteger(1);
+    private final Call primary;
+    private volatile Call hedge;
+    private volatile IOException firstError;
+    // When the primary's request headers started, or 0 while it has not gone out
+    private volatile long primarySent;
+
+    HedgedCall(OkHttpClient httpClient, Request request, Endpoint endpoint, HedgePolicy policy,
+               ClientMetrics metrics, RateLimiter rateLimiter, String rateLimitKey) {
+        this.httpClient = httpClient;
+        this.request = request.newBuilder().tag(HedgedCall.class, this).build();
+        this.endpoint = endpoint;
+        this.policy = policy;
+        this.metrics = metrics;
+        this.rateLimiter = rateLimiter;
+        this.rateLimitKey = rateLimitKey;
+        this.primary = httpClient.newCall(this.request);
+    }
+
+    /**
+     * Sends the request on the calling thread, racing it against the hedge if one is sent.
+     *
+     * @return The winning response
+     * @throws IOException if every call sent failed, or the thread was interrupted while waiting
+     *                     for the hedge
+     */
+    Response execute() throws IOException {
+        Response result;
+        try {
+            result = primary.execute();
+        } catch (IOException e) {
+            // Also reached when a winning hedge cancelled the primary
+            failed(e);
+            return await();
+        }
+        if (response.complete(result)) {
+            won(false);
+            return result;
+        }
+        result.close();
+        return await();
+    }
+
+    /**
+     * Sends the request asynchronously. The hedge is scheduled once it has gone out, if the
+     * endpoint has a hedge delay yet.
+     *
+     * @return A future completing with the winning response, or exceptionally with the first
+     *         network error; cancelling it cancels both calls
+     */
+    CompletableFuture<Response> start() {
+        send(primary, false);
+        response.whenComplete((result, error) -> {
+            if (response.isCancelled()) {
+                cancel();
+            }
+        });
+        return response;
+    }
+
+    void cancel() {
+        primary.cancel();
+        Call hedgeCall = hedge;
+        if (hedgeCall != null) {
+            hedgeCall.cancel();
+        }
+    }
+
+    /**
+     * Called by the event listener when one of this attempt's calls starts writing its request.
+     * OkHttp may report this more than once for a call that follows a redirect; only the first
+     * counts.
+     */
+    void requestSent(Call call) {
+        if (call != primary || primarySent != 0) {
+            return;
+        }
+        primarySent = System.nanoTime();
+        long delay = policy.hedgeDelayNanos(endpoint);
+        if (delay != HedgePolicy.NO_HEDGE) {
+            CompletableFuture.delayedExecutor(delay, TimeUnit.NANOSECONDS).execute(this::hedge);
+        }
+    }
+
+    private void hedge() {
+        if (response.isDone() || hasQueuedCalls() || !policy.acquireBudget()) {
+            return;
+        }
+        pending.incrementAndGet();
+        metrics.hedge(endpoint);
+        if (rateLimiter == null) {
+            sendHedge();
+            return;
+        }
+        rateLimiter.acquireAsync(rateLimitKey, RateLimiter.RequestClass.READ).whenComplete((permit, error) -> {
+            if (error != null || response.isDone()) {
+                failed(null);
+            } else {
+                sendHedge();
+            }
+        });
+    }
+
+    private void sendHedge() {
+        Call call = httpClient.newCall(request);
+        hedge = call;
+        if (response.isDone()) {
+            // Completed while the hedge was being set up; it is no longer needed
+            failed(null);
+            return;
+        }
+        send(call, true);
+    }
+
+    private void send(Call call, boolean isHedge) {
+        call.enqueue(new Callback() {
+            @Override
+            public void onFailure(Call call, IOException e) {
+                failed(e);
+            }
+
+            @Override
+            public void onResponse(Call call, Response result) {
+                if (response.complete(result)) {
+                    won(isHedge);
+                } else {
+                    result.close();
+                }
+            }
+        });
+    }
+
+    /**
+     * Records the latency of the call that answered first and cancels the other one.
+     */
+    private void won(boolean isHedge) {
+        // Timed from the first send even when the hedge wins, so the delay tracks the latency
+        // requests would have without hedging
+        long sent = primarySent;
+        if (sent != 0) {
+            policy.recordLatency(endpoint, System.nanoTime() - sent);
+        }
+        if (isHedge) {
+            metrics.hedgeWon(endpoint);
+            primary.cancel();
+        } else {
+            Call hedgeCall = hedge;
+            if (hedgeCall != null) {
+                hedgeCall.cancel();
+            }
+        }
+    }
+
+    /**
+     * Waits for the attempt to settle after the primary lost or failed on the calling thread.
+     */
+    private Response await() throws IOException {
+        try {
+            return response.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            throw new IOException(cause.getMessage(), cause);
+        } catch (InterruptedException e) {
+            cancel();
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for a response");
+        }
+    }
+
+    /**
+     * @return Whether the dispatcher holds calls to this request's host waiting for a slot
+     */
+    private boolean hasQueuedCalls() {
+        Dispatcher dispatcher = httpClient.dispatcher();
+        if (dispatcher.queuedCallsCount() == 0) {
+            return false;
+        }
+        String host = request.url().host();
+        for (Call call : dispatcher.queuedCalls()) {
+            if (call.request().url().host().equals(host)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Records a call that failed or was not sent, failing the attempt if no call is left.
+     */
+    private void failed(IOException error) {
+        if (error != null && firstError == null) {
+            firstError = error;
+        }
+        if (pending.decrementAndGet() == 0) {
+            IOException cause = firstError;
+            response.completeExceptionally(cause != null ? cause : new IOException("Hedged request failed"));
+        }
+    }
+}
@@ -0,0 +1,241 @@
+package com.stripe.terminal.client;
+
+import com.stripe.terminal.metrics.ClientMetrics;
+import com.stripe.terminal.metrics.Endpoint;
+import com.stripe.terminal.metrics.Phase;
+import okhttp3.Call;
+import okhttp3.Connection;
+import okhttp3.EventListener;
+import okhttp3.Handshake;
+import okhttp3.HttpUrl;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.util.List;
+
+/**
+ * Times the network phases of one OkHttp call and reports them to {@link ClientMetrics}. For a call
+ * sent by a {@link HedgedCall}, it also reports when the request goes out.
+ *
+ * <p>OkHttp creates one listener per call, i.e. per attempt. Timestamps are plain fields: OkHttp
+ * delivers a call's events in order, from one thread at a time.</p>
+ *
+ * <p>An OkHttp client holds a single listener factory, so every event is also forwarded to the
+ * listener of the factory the client had before, e.g. one set on an injected client for tracing.</p>
+ */
+final class MetricsEventListener extends EventListener {
+    private final ClientMetrics metrics;
+    private final Endpoint endpoint;
+    private final EventListener delegate;
+
+    private long callStart;
+    private long dispatched;
+    private boolean connecting;
+    private long requestStart;
+    private long bodyStart;
+
+    private MetricsEventListener(ClientMetrics metrics, Endpoint endpoint, EventListener delegate) {
+        this.metrics = metrics;
+        this.endpoint = endpoint;
+        this.delegate = delegate;
+    }
+
+    /**
+     * @param metrics  Receives the phase timings
+     * @param delegate The client's previous listener factory, whose listeners receive every event too
+     */
+    static EventListener.Factory factory(ClientMetrics metrics, EventListener.Factory delegate) {
+        return call -> {
+            Endpoint endpoint = call.request().tag(Endpoint.class);
+            return new MetricsEventListener(metrics, endpoint != null ? endpoint : Endpoint.OTHER,
+                    delegate.create(call));
+        };
+    }
+
+    @Override
+    public void callStart(Call call) {
+        callStart = System.nanoTime();
+        delegate.callStart(call);
+    }
+
+    /**
+     * The first event after the dispatcher runs the call ends the queue phase. A pooled connection
+     * goes straight to connectionAcquired; a new one starts with route selection or DNS.
+     */
+    private void dispatched(boolean newConnection) {
+        if (dispatched == 0) {
+            dispatched = System.nanoTime();
+            metrics.recordPhase(endpoint, Phase.QUEUE, dispatched - callStart);
+        }
+        connecting |= newConnection;
+    }
+
+    @Override
+    public void proxySelectStart(Call call, HttpUrl url) {
+        dispatched(true);
+        delegate.proxySelectStart(call, url);
+    }
+
+    @Override
+    public void proxySelectEnd(Call call, HttpUrl url, List<Proxy> proxies) {
+        delegate.proxySelectEnd(call, url, proxies);
+    }
+
+    @Override
+    public void dnsStart(Call call, String domainName) {
+        dispatched(true);
+        delegate.dnsStart(call, domainName);
+    }
+
+    @Override
+    public void dnsEnd(Call call, String domainName, List<InetAddress> inetAddressList) {
+        delegate.dnsEnd(call, domainName, inetAddressList);
+    }
+
+    @Override
+    public void connectStart(Call call, InetSocketAddress inetSocketAddress, Proxy proxy) {
+        dispatched(true);
+        delegate.connectStart(call, inetSocketAddress, proxy);
+    }
+
+    @Override
+    public void secureConnectStart(Call call) {
+        delegate.secureConnectStart(call);
+    }
+
+    @Override
+    public void secureConnectEnd(Call call, Handshake handshake) {
+        delegate.secureConnectEnd(call, handshake);
+    }
+
+    @Override
+    public void connectEnd(Call call, InetSocketAddress inetSocketAddress, Proxy proxy, Protocol protocol) {
+        delegate.connectEnd(call, inetSocketAddress, proxy, protocol);
+    }
+
+    @Override
+    public void connectFailed(Call call, InetSocketAddress inetSocketAddress, Proxy proxy, Protocol protocol,
+                              IOException ioe) {
+        delegate.connectFailed(call, inetSocketAddress, proxy, protocol, ioe);
+    }
+
+    @Override
+    public void connectionAcquired(Call call, Connection connection) {
+        dispatched(false);
+        if (connecting) {
+            metrics.recordPhase(endpoint, Phase.CONNECT, System.nanoTime() - dispatched);
+            connecting = false;
+        }
+        delegate.connectionAcquired(call, connection);
+    }
+
+    @Override
+    public void connectionReleased(Call call, Connection connection) {
+        delegate.connectionReleased(call, connection);
+    }
+
+    @Override
+    public void requestHeadersStart(Call call) {
+        requestStart = System.nanoTime();
+        HedgedCall hedgedCall = call.request().tag(HedgedCall.class);
+        if (hedgedCall != null) {
+            hedgedCall.requestSent(call);
+        }
+        delegate.requestHeadersStart(call);
+    }
+
+    @Override
+    public void requestHeadersEnd(Call call, Request request) {
+        delegate.requestHeadersEnd(call, request);
+    }
+
+    @Override
+    public void requestBodyStart(Call call) {
+        delegate.requestBodyStart(call);
+    }
+
+    @Override
+    public void requestBodyEnd(Call call, long byteCount) {
+        delegate.requestBodyEnd(call, byteCount);
+    }
+
+    @Override
+    public void requestFailed(Call call, IOException ioe) {
+        delegate.requestFailed(call, ioe);
+    }
+
+    @Override
+    public void responseHeadersStart(Call call) {
+        if (requestStart != 0) {
+            metrics.recordPhase(endpoint, Phase.TTFB, System.nanoTime() - requestStart);
+            requestStart = 0;
+        }
+        delegate.responseHeadersStart(call);
+    }
+
+    @Override
+    public void responseHeadersEnd(Call call, Response response) {
+        delegate.responseHeadersEnd(call, response);
+    }
+
+    @Override
+    public void responseBodyStart(Call call) {
+        bodyStart = System.nanoTime();
+        delegate.responseBodyStart(call);
+    }
+
+    @Override
+    public void responseBodyEnd(Call call, long byteCount) {
+        if (bodyStart != 0) {
+            metrics.recordPhase(endpoint, Phase.BODY, System.nanoTime() - bodyStart);
+            bodyStart = 0;
+        }
+        metrics.recordResponseBytes(endpoint, byteCount);
+        delegate.responseBodyEnd(call, byteCount);
+    }
+
+    @Override
+    public void responseFailed(Call call, IOException ioe) {
+        delegate.responseFailed(call, ioe);
+    }
+
+    @Override
+    public void callEnd(Call call) {
+        delegate.callEnd(call);
+    }
+
+    @Override
+    public void callFailed(Call call, IOException ioe) {
+        delegate.callFailed(call, ioe);
+    }
+
+    @Override
+    public void canceled(Call call) {
+        delegate.canceled(call);
+    }
+
+    @Override
+    public void satisfactionFailure(Call call, Response response) {
+        delegate.satisfactionFailure(call, response);
+    }
+
+    @Override
+    public void cacheHit(Call call, Response cachedResponse) {
+        delegate.cacheHit(call, cachedResponse);
+    }
+
+    @Override
+    public void cacheMiss(Call call) {
+        delegate.cacheMiss(call);
+    }
+
+    @Override
+    public void cacheConditionalHit(Call call, Response cachedResponseWithNoBody) {
+        delegate.cacheConditionalHit(call, cachedResponseWithNoBody);
+    }
+}
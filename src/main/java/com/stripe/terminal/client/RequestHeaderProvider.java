@@ -0,0 +1,27 @@
+package com.stripe.terminal.client;
+
+import java.util.function.BiConsumer;
+
+/**
+ * Supplies extra headers for each request, such as a trace or correlation ID.
+ *
+ * <p>The provider is called once per call while the request is built, on the calling thread.
+ * Retries re-send the same request, so every attempt carries the same headers. Headers set here
+ * replace any with the same name set by the client or by {@link RequestOptions}.</p>
+ *
+ * <pre>
+ * StripeConfig config = StripeConfig.builder("sk_live_...")
+ *     .requestHeaderProvider((method, path, headers) -&gt; headers.accept("X-Trace-Id", Tracing.currentId()))
+ *     .build();
+ * </pre>
+ */
+@FunctionalInterface
+public interface RequestHeaderProvider {
+
+    /**
+     * @param method  The HTTP method, e.g. {@code GET}
+     * @param path    The API path without the query string, e.g. {@code /v1/terminal/hardware_orders}
+     * @param headers Receives each header name and value to set
+     */
+    void addHeaders(String method, String path, BiConsumer<String, String> headers);
+}
@@ -0,0 +1,184 @@
+package com.stripe.terminal.client;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Per-request settings that apply on top of the client's {@link StripeConfig}.
+ */
+public class RequestOptions {
+    private static final RequestOptions NONE = builder().build();
+
+    private final String idempotencyKey;
+    private final String apiKey;
+    private final String stripeAccount;
+    private final boolean noStripeAccount;
+    private final Map<String, String> headers;
+
+    private RequestOptions(Builder builder) {
+        this.idempotencyKey = builder.idempotencyKey;
+        this.apiKey = builder.apiKey;
+        this.stripeAccount = builder.stripeAccount;
+        this.noStripeAccount = builder.noStripeAccount;
+        this.headers = builder.headers.isEmpty()
+                ? Collections.emptyMap()
+                : Collections.unmodifiableMap(new LinkedHashMap<>(builder.headers));
+    }
+
+    /**
+     * Returns options that add nothing to the request.
+     */
+    public static RequestOptions none() {
+        return NONE;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Returns a fresh random idempotency key.
+     */
+    public static String newIdempotencyKey() {
+        return UUID.randomUUID().toString();
+    }
+
+    /**
+     * @return The Idempotency-Key header value, or null if none is sent
+     */
+    public String getIdempotencyKey() {
+        return idempotencyKey;
+    }
+
+    /**
+     * @return The API key used instead of the configured one, or null to use the configured key
+     */
+    public String getApiKey() {
+        return apiKey;
+    }
+
+    /**
+     * @return The connected account the request is made on behalf of, or null to use the configured one
+     */
+    public String getStripeAccount() {
+        return stripeAccount;
+    }
+
+    /**
+     * @return Whether the request is sent without a {@code Stripe-Account} header, even if one is configured
+     */
+    public boolean clearsStripeAccount() {
+        return noStripeAccount;
+    }
+
+    /**
+     * Returns the connected account a request with these options is made on behalf of.
+     *
+     * @param configured Optional. The account configured on the client
+     * @return The account, or null if no {@code Stripe-Account} header is sent
+     */
+    public String resolveStripeAccount(String configured) {
+        if (noStripeAccount) {
+            return null;
+        }
+        return stripeAccount != null ? stripeAccount : configured;
+    }
+
+    /**
+     * @return Extra headers sent with the request, in insertion order
+     */
+    public Map<String, String> getHeaders() {
+        return headers;
+    }
+
+    /**
+     * @return Whether these options change the credentials or headers of a request, apart from the idempotency key
+     */
+    boolean overridesHeaders() {
+        return apiKey != null || stripeAccount != null || noStripeAccount || !headers.isEmpty();
+    }
+
+    /**
+     * Returns a builder initialized with these options.
+     */
+    public Builder toBuilder() {
+        Builder builder = new Builder()
+                .idempotencyKey(idempotencyKey)
+                .apiKey(apiKey)
+                .stripeAccount(stripeAccount);
+        builder.noStripeAccount = noStripeAccount;
+        builder.headers.putAll(headers);
+        return builder;
+    }
+
+    public static class Builder {
+        private String idempotencyKey;
+        private String apiKey;
+        private String stripeAccount;
+        private boolean noStripeAccount;
+        private final Map<String, String> headers = new LinkedHashMap<>();
+
+        /**
+         * Sets the Idempotency-Key sent with a POST request. Stripe returns the original response
+         * when a request is repeated with the same key, so it can be retried without side effects.
+         */
+        public Builder idempotencyKey(String idempotencyKey) {
+            this.idempotencyKey = idempotencyKey;
+            return this;
+        }
+
+        /**
+         * Sends the request with a different API key than the configured one.
+         */
+        public Builder apiKey(String apiKey) {
+            this.apiKey = apiKey;
+            return this;
+        }
+
+        /**
+         * Sends the request on behalf of a connected account, as the {@code Stripe-Account} header.
+         */
+        public Builder stripeAccount(String stripeAccount) {
+            this.stripeAccount = stripeAccount;
+            return this;
+        }
+
+        /**
+         * Sends the request without the configured {@code Stripe-Account} header, e.g. with a
+         * merchant's own API key on a client configured for a connected account.
+         */
+        public Builder noStripeAccount() {
+            this.noStripeAccount = true;
+            return this;
+        }
+
+        /**
+         * Adds a header to the request, replacing any header of the same name set by the client.
+         */
+        public Builder header(String name, String value) {
+            if (name == null || name.isEmpty() || value == null) {
+                throw new IllegalArgumentException("Header name and value cannot be null or empty");
+            }
+            headers.put(name, value);
+            return this;
+        }
+
+        public RequestOptions build() {
+            if (idempotencyKey != null && (idempotencyKey.isEmpty() || idempotencyKey.length() > 255)) {
+                throw new IllegalArgumentException("Idempotency key must be between 1 and 255 characters");
+            }
+            if (apiKey != null && apiKey.trim().isEmpty()) {
+                throw new IllegalArgumentException("API key cannot be empty");
+            }
+            if (stripeAccount != null && stripeAccount.trim().isEmpty()) {
+                throw new IllegalArgumentException("Stripe account cannot be empty");
+            }
+            if (stripeAccount != null && noStripeAccount) {
+                throw new IllegalArgumentException("Cannot both set and clear the Stripe account");
+            }
+            return new RequestOptions(this);
+        }
+    }
+}
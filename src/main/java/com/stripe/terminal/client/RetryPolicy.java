@@ -0,0 +1,299 @@
+package com.stripe.terminal.client;
+
+import okhttp3.Request;
+import okhttp3.Response;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Decides whether and when a failed request is retried.
+ *
+ * <p>Delays follow capped exponential backoff with full jitter: before retry {@code n} the client
+ * waits a random time between zero and {@code min(maxDelay, initialDelay * 2^n)}. A
+ * {@code Retry-After} header raises the delay to at least the requested time; if it asks for more
+ * than {@code maxRetryAfter} the request is not retried.</p>
+ *
+ * <p>Network errors, 409, 429 and 5xx responses are retried when the request is safe to repeat:
+ * GET, HEAD and DELETE requests always are, POST requests only when they carry an
+ * {@code Idempotency-Key}. A {@code Stripe-Should-Retry} response header overrides this decision
+ * in either direction.</p>
+ *
+ * <p>Retries draw from a token-bucket budget shared by every client using this policy. Each request
+ * deposits {@code budgetRatio} tokens and each retry withdraws one, so during an outage retries are
+ * limited to roughly that fraction of traffic instead of multiplying it.</p>
+ *
+ * <pre>
+ * StripeConfig config = StripeConfig.builder("sk_test_...")
+ *     .retryPolicy(RetryPolicy.builder().maxRetries(3).build())
+ *     .build();
+ * </pre>
+ */
+public final class RetryPolicy {
+    public static final Duration DEFAULT_INITIAL_DELAY = Duration.ofMillis(500);
+    public static final Duration DEFAULT_MAX_DELAY = Duration.ofSeconds(8);
+    public static final Duration DEFAULT_MAX_RETRY_AFTER = Duration.ofSeconds(60);
+    public static final double DEFAULT_BUDGET_RATIO = 0.2;
+    public static final int DEFAULT_BUDGET_CAPACITY = 10;
+
+    static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    private static final String SHOULD_RETRY_HEADER = "Stripe-Should-Retry";
+    private static final String RETRY_AFTER_HEADER = "Retry-After";
+    private static final long TOKEN = 1000;
+    private static final long NO_RETRY = -1;
+
+    private static final RetryPolicy NONE = builder().maxRetries(0).build();
+
+    private final int maxRetries;
+    private final long initialDelayMillis;
+    private final long maxDelayMillis;
+    private final long maxRetryAfterMillis;
+    private final double budgetRatio;
+    private final long budgetCapacity;
+    private final AtomicLong budget;
+
+    private RetryPolicy(Builder builder) {
+        this.maxRetries = builder.maxRetries;
+        this.initialDelayMillis = builder.initialDelay.toMillis();
+        this.maxDelayMillis = builder.maxDelay.toMillis();
+        this.maxRetryAfterMillis = builder.maxRetryAfter.toMillis();
+        this.budgetRatio = builder.budgetRatio;
+        this.budgetCapacity = builder.budgetCapacity * TOKEN;
+        this.budget = new AtomicLong(budgetCapacity);
+    }
+
+    /**
+     * Returns a policy that never retries. This is the default.
+     */
+    public static RetryPolicy none() {
+        return NONE;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public int getMaxRetries() {
+        return maxRetries;
+    }
+
+    public Duration getInitialDelay() {
+        return Duration.ofMillis(initialDelayMillis);
+    }
+
+    public Duration getMaxDelay() {
+        return Duration.ofMillis(maxDelayMillis);
+    }
+
+    public Duration getMaxRetryAfter() {
+        return Duration.ofMillis(maxRetryAfterMillis);
+    }
+
+    public double getBudgetRatio() {
+        return budgetRatio;
+    }
+
+    /**
+     * @return The number of retries currently available in the budget
+     */
+    public double getAvailableBudget() {
+        return (double) budget.get() / TOKEN;
+    }
+
+    /**
+     * Records a first attempt, refilling the retry budget.
+     */
+    void recordRequest() {
+        if (maxRetries == 0) {
+            return;
+        }
+        long deposit = (long) (budgetRatio * TOKEN);
+        budget.getAndUpdate(current -> Math.min(budgetCapacity, current + deposit));
+    }
+
+    /**
+     * Decides whether an unsuccessful response is retried.
+     *
+     * @param request The request that was sent
+     * @param response The response received
+     * @param retries The number of retries already made for this request
+     * @return The delay in milliseconds before the next attempt, or a negative value to not retry
+     */
+    long retryDelayMillis(Request request, Response response, int retries) {
+        if (response.isSuccessful() || retries >= maxRetries) {
+            return NO_RETRY;
+        }
+
+        String shouldRetry = response.header(SHOULD_RETRY_HEADER);
+        boolean retryable;
+        if ("true".equals(shouldRetry)) {
+            retryable = true;
+        } else if ("false".equals(shouldRetry)) {
+            retryable = false;
+        } else {
+            int code = response.code();
+            retryable = (code == 409 || code == 429 || code >= 500) && isIdempotent(request);
+        }
+        if (!retryable) {
+            return NO_RETRY;
+        }
+
+        long delay = backoffMillis(retries);
+        long retryAfter = parseRetryAfterMillis(response.header(RETRY_AFTER_HEADER));
+        if (retryAfter > maxRetryAfterMillis) {
+            return NO_RETRY;
+        }
+        return acquireBudget() ? Math.max(delay, retryAfter) : NO_RETRY;
+    }
+
+    /**
+     * Decides whether a request that failed with a network error is retried.
+     *
+     * @param request The request that was sent
+     * @param error The network error
+     * @param retries The number of retries already made for this request
+     * @return The delay in milliseconds before the next attempt, or a negative value to not retry
+     */
+    long retryDelayMillis(Request request, IOException error, int retries) {
+        if (retries >= maxRetries || !isIdempotent(request) || !acquireBudget()) {
+            return NO_RETRY;
+        }
+        return backoffMillis(retries);
+    }
+
+    private static boolean isIdempotent(Request request) {
+        switch (request.method()) {
+            case "GET":
+            case "HEAD":
+            case "DELETE":
+                return true;
+            default:
+                return request.header(IDEMPOTENCY_KEY_HEADER) != null;
+        }
+    }
+
+    private long backoffMillis(int retries) {
+        if (initialDelayMillis == 0) {
+            // Retry immediately, whatever the max delay
+            return 0;
+        }
+        int shift = Math.min(retries, 30);
+        // Compared before shifting, so a large delay cannot overflow into a small or negative one
+        long ceiling = initialDelayMillis > maxDelayMillis >> shift
+                ? maxDelayMillis
+                : initialDelayMillis << shift;
+        return ceiling == 0 ? 0 : ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+
+    private boolean acquireBudget() {
+        while (true) {
+            long current = budget.get();
+            if (current < TOKEN) {
+                return false;
+            }
+            if (budget.compareAndSet(current, current - TOKEN)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Parses a Retry-After value given either in seconds or as an HTTP date.
+     *
+     * @return The delay in milliseconds, or 0 if the header is absent or malformed
+     */
+    static long parseRetryAfterMillis(String value) {
+        if (value == null || value.isEmpty()) {
+            return 0;
+        }
+        try {
+            return Math.max(0, (long) (Double.parseDouble(value.trim()) * 1000));
+        } catch (NumberFormatException e) {
+            // Not a number of seconds, try an HTTP date
+        }
+        try {
+            ZonedDateTime date = ZonedDateTime.parse(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME);
+            return Math.max(0, Duration.between(ZonedDateTime.now(date.getZone()), date).toMillis());
+        } catch (DateTimeParseException e) {
+            return 0;
+        }
+    }
+
+    public static class Builder {
+        private int maxRetries = 2;
+        private Duration initialDelay = DEFAULT_INITIAL_DELAY;
+        private Duration maxDelay = DEFAULT_MAX_DELAY;
+        private Duration maxRetryAfter = DEFAULT_MAX_RETRY_AFTER;
+        private double budgetRatio = DEFAULT_BUDGET_RATIO;
+        private int budgetCapacity = DEFAULT_BUDGET_CAPACITY;
+
+        /**
+         * Maximum number of retries per request, not counting the first attempt.
+         */
+        public Builder maxRetries(int maxRetries) {
+            this.maxRetries = maxRetries;
+            return this;
+        }
+
+        /**
+         * Upper bound of the random delay before the first retry. Doubles for each further retry.
+         */
+        public Builder initialDelay(Duration initialDelay) {
+            this.initialDelay = initialDelay;
+            return this;
+        }
+
+        /**
+         * Cap on the backoff delay between retries.
+         */
+        public Builder maxDelay(Duration maxDelay) {
+            this.maxDelay = maxDelay;
+            return this;
+        }
+
+        /**
+         * Longest {@code Retry-After} the client is willing to wait; longer requests are not retried.
+         */
+        public Builder maxRetryAfter(Duration maxRetryAfter) {
+            this.maxRetryAfter = maxRetryAfter;
+            return this;
+        }
+
+        /**
+         * Fraction of a retry earned by every request.
+         */
+        public Builder budgetRatio(double budgetRatio) {
+            this.budgetRatio = budgetRatio;
+            return this;
+        }
+
+        /**
+         * Maximum number of retries that can be saved up for a burst of failures.
+         */
+        public Builder budgetCapacity(int budgetCapacity) {
+            this.budgetCapacity = budgetCapacity;
+            return this;
+        }
+
+        public RetryPolicy build() {
+            if (maxRetries < 0) {
+                throw new IllegalArgumentException("Max retries cannot be negative");
+            }
+            if (initialDelay == null || maxDelay == null || maxRetryAfter == null) {
+                throw new IllegalArgumentException("Delays cannot be null");
+            }
+            if (initialDelay.isNegative() || maxDelay.isNegative() || maxRetryAfter.isNegative()) {
+                throw new IllegalArgumentException("Delays cannot be negative");
+            }
+            if (budgetRatio < 0 || budgetCapacity < 0) {
+                throw new IllegalArgumentException("Retry budget cannot be negative");
+            }
+            return new RetryPolicy(this);
+        }
+    }
+}
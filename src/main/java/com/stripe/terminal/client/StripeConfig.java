@@ -1,5 +1,16 @@
 package com.stripe.terminal.client;
 
+import com.stripe.terminal.cache.CatalogCacheConfig;
+import com.stripe.terminal.metrics.ClientMetrics;
+import com.stripe.terminal.store.OrderStore;
+import com.stripe.terminal.ratelimit.RateLimiter;
+import com.stripe.terminal.serialization.JsonSerializer;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+
+import java.time.Duration;
+import java.util.List;
+
 /**
  * Configuration class for Stripe API client.
  */
@@ -7,14 +18,66 @@ public class StripeConfig {
     private final String apiKey;
     private final String apiVersion;
     private final String baseUrl;
+    private final CatalogCacheConfig catalogCacheConfig;
+    private final JsonSerializer jsonSerializer;
+    private final Duration connectTimeout;
+    private final Duration readTimeout;
+    private final Duration writeTimeout;
+    private final Duration callTimeout;
+    private final int maxIdleConnections;
+    private final Duration keepAliveDuration;
+    private final int maxRequests;
+    private final int maxRequestsPerHost;
+    private final List<Protocol> protocols;
+    private final OkHttpClient httpClient;
+    private final RetryPolicy retryPolicy;
+    private final HedgePolicy hedgePolicy;
+    private final Duration idempotencyCacheTtl;
+    private final RateLimiter rateLimiter;
+    private final Duration previewCacheTtl;
+    private final String stripeAccount;
+    private final RequestHeaderProvider requestHeaderProvider;
+    private final ClientMetrics metrics;
+    private final OrderStore orderStore;
+    private final boolean virtualThreads;
 
     public static final String DEFAULT_BASE_URL = "https://api.stripe.com";
     public static final String DEFAULT_API_VERSION = "2025-09-30.clover;terminal_hardware_orders_beta=v5";
+    public static final Duration DEFAULT_CONNECT_TIMEOUT = Duration.ofSeconds(30);
+    public static final Duration DEFAULT_READ_TIMEOUT = Duration.ofSeconds(60);
+    public static final Duration DEFAULT_WRITE_TIMEOUT = Duration.ofSeconds(60);
+    public static final int DEFAULT_MAX_IDLE_CONNECTIONS = 5;
+    public static final Duration DEFAULT_KEEP_ALIVE_DURATION = Duration.ofMinutes(5);
+    public static final int DEFAULT_MAX_REQUESTS = 64;
+    public static final int DEFAULT_MAX_REQUESTS_PER_HOST = 5;
+    public static final Duration DEFAULT_IDEMPOTENCY_CACHE_TTL = Duration.ofMinutes(10);
 
     private StripeConfig(Builder builder) {
         this.apiKey = builder.apiKey;
         this.apiVersion = builder.apiVersion != null ? builder.apiVersion : DEFAULT_API_VERSION;
         this.baseUrl = builder.baseUrl != null ? builder.baseUrl : DEFAULT_BASE_URL;
+        this.catalogCacheConfig = builder.catalogCacheConfig;
+        this.jsonSerializer = builder.jsonSerializer;
+        this.connectTimeout = builder.connectTimeout;
+        this.readTimeout = builder.readTimeout;
+        this.writeTimeout = builder.writeTimeout;
+        this.callTimeout = builder.callTimeout;
+        this.maxIdleConnections = builder.maxIdleConnections;
+        this.keepAliveDuration = builder.keepAliveDuration;
+        this.maxRequests = builder.maxRequests;
+        this.maxRequestsPerHost = builder.maxRequestsPerHost;
+        this.protocols = builder.protocols != null ? List.copyOf(builder.protocols) : null;
+        this.httpClient = builder.httpClient;
+        this.retryPolicy = builder.retryPolicy;
+        this.hedgePolicy = builder.hedgePolicy;
+        this.idempotencyCacheTtl = builder.idempotencyCacheTtl;
+        this.rateLimiter = builder.rateLimiter;
+        this.previewCacheTtl = builder.previewCacheTtl;
+        this.stripeAccount = builder.stripeAccount;
+        this.requestHeaderProvider = builder.requestHeaderProvider;
+        this.metrics = builder.metrics;
+        this.orderStore = builder.orderStore;
+        this.virtualThreads = builder.virtualThreads;
     }
 
     public String getApiKey() {
@@ -29,6 +92,133 @@ public class StripeConfig {
         return baseUrl;
     }
 
+    /**
+     * @return The catalog cache configuration, or null if catalog caching is disabled
+     */
+    public CatalogCacheConfig getCatalogCacheConfig() {
+        return catalogCacheConfig;
+    }
+
+    /**
+     * @return The custom response decoder, or null to use the built-in Gson codec
+     */
+    public JsonSerializer getJsonSerializer() {
+        return jsonSerializer;
+    }
+
+    public Duration getConnectTimeout() {
+        return connectTimeout;
+    }
+
+    public Duration getReadTimeout() {
+        return readTimeout;
+    }
+
+    public Duration getWriteTimeout() {
+        return writeTimeout;
+    }
+
+    /**
+     * @return The timeout for a complete call including retries of redirects, or {@link Duration#ZERO} for none
+     */
+    public Duration getCallTimeout() {
+        return callTimeout;
+    }
+
+    public int getMaxIdleConnections() {
+        return maxIdleConnections;
+    }
+
+    public Duration getKeepAliveDuration() {
+        return keepAliveDuration;
+    }
+
+    public int getMaxRequests() {
+        return maxRequests;
+    }
+
+    public int getMaxRequestsPerHost() {
+        return maxRequestsPerHost;
+    }
+
+    /**
+     * @return The preferred protocols, or null to use OkHttp's default (HTTP/2 with HTTP/1.1 fallback)
+     */
+    public List<Protocol> getProtocols() {
+        return protocols;
+    }
+
+    /**
+     * @return The shared OkHttpClient to use, or null to build one from this configuration
+     */
+    public OkHttpClient getHttpClient() {
+        return httpClient;
+    }
+
+    public RetryPolicy getRetryPolicy() {
+        return retryPolicy;
+    }
+
+    public HedgePolicy getHedgePolicy() {
+        return hedgePolicy;
+    }
+
+    /**
+     * @return How long responses to creates with a caller-supplied idempotency key are remembered locally
+     */
+    public Duration getIdempotencyCacheTtl() {
+        return idempotencyCacheTtl;
+    }
+
+    /**
+     * @return The client-side rate limiter, or null if requests are not rate limited
+     */
+    public RateLimiter getRateLimiter() {
+        return rateLimiter;
+    }
+
+    /**
+     * @return How long order previews are cached, or {@link Duration#ZERO} if only concurrent identical previews are shared
+     */
+    public Duration getPreviewCacheTtl() {
+        return previewCacheTtl;
+    }
+
+    /**
+     * @return The connected account sent as {@code Stripe-Account} on every request, or null
+     */
+    public String getStripeAccount() {
+        return stripeAccount;
+    }
+
+    /**
+     * @return The provider of extra per-request headers, or null if none
+     */
+    public RequestHeaderProvider getRequestHeaderProvider() {
+        return requestHeaderProvider;
+    }
+
+    /**
+     * @return The metrics every request is recorded to; {@link ClientMetrics#noop()} by default
+     */
+    public ClientMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * @return The store that retrieved orders are saved to, or null if none is configured
+     */
+    public OrderStore getOrderStore() {
+        return orderStore;
+    }
+
+    /**
+     * @return Whether asynchronous calls run on virtual threads
+     */
+    public boolean isVirtualThreads() {
+        return virtualThreads;
+    }
+
     public static Builder builder(String apiKey) {
         return new Builder(apiKey);
     }
@@ -37,6 +227,28 @@ public class StripeConfig {
         private final String apiKey;
         private String apiVersion;
         private String baseUrl;
+        private CatalogCacheConfig catalogCacheConfig;
+        private JsonSerializer jsonSerializer;
+        private Duration connectTimeout = DEFAULT_CONNECT_TIMEOUT;
+        private Duration readTimeout = DEFAULT_READ_TIMEOUT;
+        private Duration writeTimeout = DEFAULT_WRITE_TIMEOUT;
+        private Duration callTimeout = Duration.ZERO;
+        private int maxIdleConnections = DEFAULT_MAX_IDLE_CONNECTIONS;
+        private Duration keepAliveDuration = DEFAULT_KEEP_ALIVE_DURATION;
+        private int maxRequests = DEFAULT_MAX_REQUESTS;
+        private int maxRequestsPerHost = DEFAULT_MAX_REQUESTS_PER_HOST;
+        private List<Protocol> protocols;
+        private OkHttpClient httpClient;
+        private RetryPolicy retryPolicy = RetryPolicy.none();
+        private HedgePolicy hedgePolicy = HedgePolicy.none();
+        private Duration idempotencyCacheTtl = DEFAULT_IDEMPOTENCY_CACHE_TTL;
+        private RateLimiter rateLimiter;
+        private Duration previewCacheTtl = Duration.ZERO;
+        private String stripeAccount;
+        private RequestHeaderProvider requestHeaderProvider;
+        private ClientMetrics metrics = ClientMetrics.noop();
+        private OrderStore orderStore;
+        private boolean virtualThreads;
 
         public Builder(String apiKey) {
             if (apiKey == null || apiKey.trim().isEmpty()) {
@@ -55,7 +267,231 @@ public class StripeConfig {
             return this;
         }
 
+        /**
+         * Enables in-memory caching of SKU, product and shipping method responses.
+         */
+        public Builder catalogCache(CatalogCacheConfig catalogCacheConfig) {
+            this.catalogCacheConfig = catalogCacheConfig;
+            return this;
+        }
+
+        /**
+         * Replaces the built-in Gson codec used to decode responses.
+         */
+        public Builder jsonSerializer(JsonSerializer jsonSerializer) {
+            this.jsonSerializer = jsonSerializer;
+            return this;
+        }
+
+        public Builder connectTimeout(Duration connectTimeout) {
+            this.connectTimeout = connectTimeout;
+            return this;
+        }
+
+        public Builder readTimeout(Duration readTimeout) {
+            this.readTimeout = readTimeout;
+            return this;
+        }
+
+        public Builder writeTimeout(Duration writeTimeout) {
+            this.writeTimeout = writeTimeout;
+            return this;
+        }
+
+        /**
+         * Bounds the total time of each call: DNS, connect, writing the request and reading the response.
+         * {@link Duration#ZERO} (the default) means no limit.
+         */
+        public Builder callTimeout(Duration callTimeout) {
+            this.callTimeout = callTimeout;
+            return this;
+        }
+
+        /**
+         * Maximum number of idle keep-alive connections held in the pool.
+         */
+        public Builder maxIdleConnections(int maxIdleConnections) {
+            this.maxIdleConnections = maxIdleConnections;
+            return this;
+        }
+
+        /**
+         * How long an idle connection is kept in the pool before being closed.
+         */
+        public Builder keepAliveDuration(Duration keepAliveDuration) {
+            this.keepAliveDuration = keepAliveDuration;
+            return this;
+        }
+
+        /**
+         * Maximum number of concurrent asynchronous requests. Further requests are queued.
+         */
+        public Builder maxRequests(int maxRequests) {
+            this.maxRequests = maxRequests;
+            return this;
+        }
+
+        /**
+         * Maximum number of concurrent asynchronous requests to the API host. Further requests are queued.
+         */
+        public Builder maxRequestsPerHost(int maxRequestsPerHost) {
+            this.maxRequestsPerHost = maxRequestsPerHost;
+            return this;
+        }
+
+        /**
+         * Sets the protocols to negotiate, in order of preference.
+         * Over TLS, include {@link Protocol#HTTP_2} to multiplex calls over one connection.
+         */
+        public Builder protocols(List<Protocol> protocols) {
+            this.protocols = protocols;
+            return this;
+        }
+
+        /**
+         * Uses a shared OkHttpClient instead of building one per client.
+         * Its connection pool, dispatcher, protocols and timeouts are used as-is, and the
+         * transport settings on this builder are ignored. With {@link #metrics} or
+         * {@link #hedgePolicy}, requests go through a client derived from it with an extra event
+         * listener; its own listener factory still receives every event.
+         */
+        public Builder httpClient(OkHttpClient httpClient) {
+            this.httpClient = httpClient;
+            return this;
+        }
+
+        /**
+         * Sets the policy used to retry network errors and retryable responses.
+         * Defaults to {@link RetryPolicy#none()}.
+         */
+        public Builder retryPolicy(RetryPolicy retryPolicy) {
+            this.retryPolicy = retryPolicy;
+            return this;
+        }
+
+        /**
+         * Sets the policy used to send slow reads a second time, cutting tail latency. Hedged calls
+         * are timed with an OkHttp {@code EventListener}, added alongside any listener factory set
+         * on an injected {@link #httpClient}. Defaults to {@link HedgePolicy#none()}.
+         */
+        public Builder hedgePolicy(HedgePolicy hedgePolicy) {
+            this.hedgePolicy = hedgePolicy;
+            return this;
+        }
+
+        /**
+         * Sets how long an order created with a caller-supplied idempotency key is remembered, so a
+         * repeated create with the same key returns it without another request. {@link Duration#ZERO} disables this.
+         */
+        public Builder idempotencyCacheTtl(Duration idempotencyCacheTtl) {
+            this.idempotencyCacheTtl = idempotencyCacheTtl;
+            return this;
+        }
+
+        /**
+         * Rate limits requests before they are sent, including retries.
+         * Share one limiter between clients that use the same API key.
+         */
+        public Builder rateLimiter(RateLimiter rateLimiter) {
+            this.rateLimiter = rateLimiter;
+            return this;
+        }
+
+        /**
+         * Caches order previews by their parameters for the given time. Concurrent identical previews
+         * always share one request; this also reuses completed ones. Cached previews are shared between
+         * callers and must be treated as read-only. Defaults to {@link Duration#ZERO}.
+         */
+        public Builder previewCacheTtl(Duration previewCacheTtl) {
+            this.previewCacheTtl = previewCacheTtl;
+            return this;
+        }
+
+        /**
+         * Sends every request on behalf of a connected account, as the {@code Stripe-Account} header.
+         * Individual requests can override it with {@link RequestOptions}.
+         */
+        public Builder stripeAccount(String stripeAccount) {
+            this.stripeAccount = stripeAccount;
+            return this;
+        }
+
+        /**
+         * Adds headers computed per request, such as tracing IDs, on top of the fixed Stripe headers.
+         */
+        public Builder requestHeaderProvider(RequestHeaderProvider requestHeaderProvider) {
+            this.requestHeaderProvider = requestHeaderProvider;
+            return this;
+        }
+
+        /**
+         * Records latency by phase, status codes, retries, in-flight requests and response sizes
+         * for every request. Network phases are timed with an OkHttp {@code EventListener}, added
+         * alongside any listener factory set on an injected {@link #httpClient}.
+         * Defaults to {@link ClientMetrics#noop()}.
+         */
+        public Builder metrics(ClientMetrics metrics) {
+            this.metrics = metrics;
+            return this;
+        }
+
+        /**
+         * Saves every order the client creates, retrieves or lists to a local store, for querying
+         * without API calls. A failure to write to the store fails the call with an
+         * {@link java.io.UncheckedIOException}. The store holds the orders of this config's API key
+         * and account only: clients derived with {@code withOptions} keep saving to it only when
+         * they use the same credentials, and creates with a per-request API key or Stripe-Account
+         * are not saved.
+         */
+        public Builder orderStore(OrderStore orderStore) {
+            this.orderStore = orderStore;
+            return this;
+        }
+
+        /**
+         * Runs asynchronous calls, and with them bulk operations, fan-out helpers and pagination
+         * read-ahead, on a new virtual thread each instead of OkHttp's platform thread pool. Needs
+         * Java 21 or later; check {@link VirtualThreads#isAvailable()}. Ignored with an injected
+         * {@link #httpClient}. Raise {@link #maxRequests} and {@link #maxRequestsPerHost} to let
+         * more calls run at once.
+         */
+        public Builder virtualThreads(boolean virtualThreads) {
+            this.virtualThreads = virtualThreads;
+            return this;
+        }
+
         public StripeConfig build() {
+            if (retryPolicy == null) {
+                throw new IllegalArgumentException("Retry policy cannot be null");
+            }
+            if (hedgePolicy == null) {
+                throw new IllegalArgumentException("Hedge policy cannot be null");
+            }
+            if (metrics == null) {
+                throw new IllegalArgumentException("Metrics cannot be null");
+            }
+            if (connectTimeout == null || readTimeout == null || writeTimeout == null
+                    || callTimeout == null || keepAliveDuration == null || idempotencyCacheTtl == null
+                    || previewCacheTtl == null) {
+                throw new IllegalArgumentException("Durations cannot be null");
+            }
+            if (connectTimeout.isNegative() || readTimeout.isNegative() || writeTimeout.isNegative()
+                    || callTimeout.isNegative() || keepAliveDuration.isNegative() || idempotencyCacheTtl.isNegative()
+                    || previewCacheTtl.isNegative()) {
+                throw new IllegalArgumentException("Durations cannot be negative");
+            }
+            if (stripeAccount != null && stripeAccount.trim().isEmpty()) {
+                throw new IllegalArgumentException("Stripe account cannot be empty");
+            }
+            if (maxIdleConnections < 0) {
+                throw new IllegalArgumentException("Max idle connections cannot be negative");
+            }
+            if (maxRequests < 1 || maxRequestsPerHost < 1) {
+                throw new IllegalArgumentException("Max requests must be at least 1");
+            }
+            if (virtualThreads && !VirtualThreads.isAvailable()) {
+                throw new IllegalStateException("Virtual threads require Java 21 or later");
+            }
             return new StripeConfig(this);
         }
     }
@@ -1,195 +1,741 @@
 package com.stripe.terminal.client;
 
 import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
+import com.google.gson.JsonIOException;
 import com.google.gson.JsonObject;
 import com.stripe.terminal.exception.StripeException;
+import com.stripe.terminal.metrics.ClientMetrics;
+import com.stripe.terminal.metrics.Endpoint;
+import com.stripe.terminal.metrics.Phase;
+import com.stripe.terminal.model.HardwareOrder;
+import com.stripe.terminal.model.StripeList;
+import com.stripe.terminal.ratelimit.RateLimiter;
+import com.stripe.terminal.serialization.GsonJsonSerializer;
+import com.stripe.terminal.serialization.JsonSerializer;
+import com.stripe.terminal.serialization.OrderProjection;
+import com.stripe.terminal.serialization.StripeGson;
 import okhttp3.*;
+import okio.ByteString;
 
 import java.io.IOException;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
 import java.util.Base64;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 
 /**
  * HTTP client for making requests to the Stripe API.
  */
 public class StripeHttpClient {
+    private static final MediaType FORM_MEDIA_TYPE = MediaType.get("application/x-www-form-urlencoded");
+    static final String STRIPE_ACCOUNT_HEADER = "Stripe-Account";
+    private static final int MAX_CACHED_AUTHORIZATIONS = 256;
+
     private final OkHttpClient httpClient;
     private final StripeConfig config;
     private final Gson gson;
+    private final JsonSerializer serializer;
+    private final RetryPolicy retryPolicy;
+    private final HedgePolicy hedgePolicy;
+    private final RateLimiter rateLimiter;
+    private final RequestHeaderProvider headerProvider;
+    private final ConcurrentHashMap<String, String> authorizations;
+    private final ClientMetrics metrics;
+    private final boolean instrumented;
+
+    // Credentials and headers of this client, computed once
+    private final String apiKey;
+    private final String stripeAccount;
+    private final Headers headers;
+    private final String rateLimitKey;
 
     public StripeHttpClient(StripeConfig config) {
         this.config = config;
-        this.gson = new GsonBuilder()
-                .setPrettyPrinting()
-                .create();
-
-        this.httpClient = new OkHttpClient.Builder()
-                .connectTimeout(30, TimeUnit.SECONDS)
-                .readTimeout(60, TimeUnit.SECONDS)
-                .writeTimeout(60, TimeUnit.SECONDS)
-                .build();
+        this.gson = StripeGson.create();
+        this.serializer = config.getJsonSerializer() != null
+                ? config.getJsonSerializer()
+                : new GsonJsonSerializer(gson);
+        this.retryPolicy = config.getRetryPolicy();
+        this.hedgePolicy = config.getHedgePolicy();
+        this.rateLimiter = config.getRateLimiter();
+
+        this.headerProvider = config.getRequestHeaderProvider();
+        this.authorizations = new ConcurrentHashMap<>();
+        this.metrics = config.getMetrics();
+        this.instrumented = metrics != ClientMetrics.noop();
+
+        if (config.getHttpClient() == null) {
+            this.httpClient = buildHttpClient(config);
+        } else if (instrumented || hedgePolicy.isEnabled()) {
+            // Shares the injected client's connection pool and dispatcher, and keeps its listeners
+            OkHttpClient injected = config.getHttpClient();
+            this.httpClient = injected.newBuilder()
+                    .eventListenerFactory(MetricsEventListener.factory(metrics, injected.eventListenerFactory()))
+                    .build();
+        } else {
+            this.httpClient = config.getHttpClient();
+        }
+
+        this.apiKey = config.getApiKey();
+        this.stripeAccount = config.getStripeAccount();
+        Headers.Builder headers = new Headers.Builder()
+                .add("Authorization", authorization(apiKey))
+                .add("Stripe-Version", config.getApiVersion())
+                .add("Content-Type", "application/x-www-form-urlencoded")
+                .add("Accept", "application/json");
+        if (stripeAccount != null) {
+            headers.add(STRIPE_ACCOUNT_HEADER, stripeAccount);
+        }
+        this.headers = headers.build();
+        this.rateLimitKey = rateLimitKey(apiKey, stripeAccount);
     }
 
     /**
-     * Makes a GET request to the Stripe API.
+     * A client sharing the parent's transport, codec and retry state, with other credentials or headers.
      */
-    public String get(String path, Map<String, String> params) throws StripeException {
-        HttpUrl.Builder urlBuilder = HttpUrl.parse(config.getBaseUrl() + path).newBuilder();
+    private StripeHttpClient(StripeHttpClient parent, RequestOptions options) {
+        this.config = parent.config;
+        this.gson = parent.gson;
+        this.serializer = parent.serializer;
+        this.retryPolicy = parent.retryPolicy;
+        this.hedgePolicy = parent.hedgePolicy;
+        this.rateLimiter = parent.rateLimiter;
+        this.headerProvider = parent.headerProvider;
+        this.authorizations = parent.authorizations;
+        this.metrics = parent.metrics;
+        this.instrumented = parent.instrumented;
+        this.httpClient = parent.httpClient;
+
+        this.apiKey = options.getApiKey() != null ? options.getApiKey() : parent.apiKey;
+        this.stripeAccount = options.resolveStripeAccount(parent.stripeAccount);
+        Headers.Builder headers = parent.headers.newBuilder()
+                .set("Authorization", authorization(apiKey));
+        if (stripeAccount != null) {
+            headers.set(STRIPE_ACCOUNT_HEADER, stripeAccount);
+        } else {
+            headers.removeAll(STRIPE_ACCOUNT_HEADER);
+        }
+        for (Map.Entry<String, String> header : options.getHeaders().entrySet()) {
+            headers.set(header.getKey(), header.getValue());
+        }
+        this.headers = headers.build();
+        this.rateLimitKey = rateLimitKey(apiKey, stripeAccount);
+    }
 
-        if (params != null) {
-            for (Map.Entry<String, String> entry : params.entrySet()) {
-                urlBuilder.addQueryParameter(entry.getKey(), entry.getValue());
-            }
+    /**
+     * Returns a client that sends every request with the given API key, connected account or
+     * headers, and otherwise shares this client's connection pool, dispatcher, codec, retry budget
+     * and rate limiter. Its headers are computed once here, so it is cheap to keep one per account.
+     *
+     * @param options The API key, Stripe-Account and headers to apply; idempotency keys are per request and not allowed
+     * @return A new client; this client is unchanged
+     */
+    public StripeHttpClient withOptions(RequestOptions options) {
+        if (options.getIdempotencyKey() != null) {
+            throw new IllegalArgumentException("Idempotency keys must be set per request");
         }
+        return new StripeHttpClient(this, options);
+    }
 
-        Request request = new Request.Builder()
-                .url(urlBuilder.build())
-                .get()
-                .headers(buildHeaders())
-                .build();
+    /**
+     * @return The API key this client sends
+     */
+    public String getApiKey() {
+        return apiKey;
+    }
+
+    /**
+     * @return The connected account this client sends as {@code Stripe-Account}, or null
+     */
+    public String getStripeAccount() {
+        return stripeAccount;
+    }
+
+    /**
+     * Builds an OkHttpClient with the connection pool, dispatcher and timeouts from the configuration.
+     */
+    private static OkHttpClient buildHttpClient(StripeConfig config) {
+        Dispatcher dispatcher = config.isVirtualThreads()
+                ? new Dispatcher(VirtualThreads.newThreadPerTaskExecutor("stripe-http"))
+                : new Dispatcher();
+        dispatcher.setMaxRequests(config.getMaxRequests());
+        dispatcher.setMaxRequestsPerHost(config.getMaxRequestsPerHost());
+
+        OkHttpClient.Builder builder = new OkHttpClient.Builder()
+                .connectTimeout(config.getConnectTimeout().toMillis(), TimeUnit.MILLISECONDS)
+                .readTimeout(config.getReadTimeout().toMillis(), TimeUnit.MILLISECONDS)
+                .writeTimeout(config.getWriteTimeout().toMillis(), TimeUnit.MILLISECONDS)
+                .callTimeout(config.getCallTimeout().toMillis(), TimeUnit.MILLISECONDS)
+                .connectionPool(new ConnectionPool(config.getMaxIdleConnections(),
+                        config.getKeepAliveDuration().toMillis(), TimeUnit.MILLISECONDS))
+                .dispatcher(dispatcher);
+
+        if (config.getProtocols() != null) {
+            builder.protocols(config.getProtocols());
+        }
+        // Hedged calls learn when their request went out from the listener
+        if (config.getMetrics() != ClientMetrics.noop() || config.getHedgePolicy().isEnabled()) {
+            builder.eventListenerFactory(MetricsEventListener.factory(config.getMetrics(), call -> EventListener.NONE));
+        }
+        return builder.build();
+    }
 
-        return executeRequest(request);
+    /**
+     * Makes a GET request to the Stripe API.
+     */
+    public String get(String path, Map<String, String> params) throws StripeException {
+        return executeRequest(buildGetRequest(path, params), ResponseBody::string);
     }
 
     /**
      * Makes a GET request to the Stripe API with complex parameters.
      */
     public String getWithParams(String path, Map<String, Object> params) throws StripeException {
+        return executeRequest(buildGetWithParamsRequest(path, params), ResponseBody::string);
+    }
+
+    /**
+     * Makes a POST request to the Stripe API.
+     */
+    public String post(String path, Map<String, Object> params) throws StripeException {
+        return executeRequest(buildPostRequest(path, params), ResponseBody::string);
+    }
+
+    /**
+     * Makes a GET request and decodes the response body directly from the network stream,
+     * without first buffering it into a String.
+     */
+    public <T> T get(String path, Map<String, String> params, Type type) throws StripeException {
+        return executeRequest(buildGetRequest(path, params), body -> serializer.deserialize(body.charStream(), type));
+    }
+
+    /**
+     * Makes a GET request with per-request options and decodes the response body directly from the network stream.
+     */
+    public <T> T get(String path, Map<String, String> params, Type type, RequestOptions options) throws StripeException {
+        return executeRequest(buildGetRequest(path, encodeQuery(params), options),
+                body -> serializer.deserialize(body.charStream(), type));
+    }
+
+    /**
+     * Makes a GET request with complex parameters and decodes the response body directly from the network stream.
+     */
+    public <T> T getWithParams(String path, Map<String, Object> params, Type type) throws StripeException {
+        return executeRequest(buildGetWithParamsRequest(path, params), body -> serializer.deserialize(body.charStream(), type));
+    }
+
+    /**
+     * Makes a POST request and decodes the response body directly from the network stream.
+     */
+    public <T> T post(String path, Map<String, Object> params, Type type) throws StripeException {
+        return post(path, params, type, RequestOptions.none());
+    }
+
+    /**
+     * Makes a POST request with per-request options and decodes the response body directly from the network stream.
+     */
+    public <T> T post(String path, Map<String, Object> params, Type type, RequestOptions options) throws StripeException {
+        return executeRequest(buildPostRequest(path, params, options),
+                body -> serializer.deserialize(body.charStream(), type));
+    }
+
+    /**
+     * Makes a GET request against a list endpoint and hands each element of {@code data} to the
+     * consumer as soon as it is parsed, so the page is never held in memory as a whole.
+     *
+     * @return The list envelope ({@code has_more}, {@code url}) with empty {@code data}
+     */
+    public <T> StripeList<T> getList(String path, Map<String, String> params, Class<T> itemType,
+                                     Consumer<? super T> consumer) throws StripeException {
+        return executeRequest(buildGetRequest(path, params),
+                body -> serializer.deserializeList(body.charStream(), itemType, consumer));
+    }
+
+    /**
+     * Makes a GET request for a single HardwareOrder, decoding only the fields in the projection.
+     */
+    public HardwareOrder getOrder(String path, OrderProjection projection) throws StripeException {
+        return executeRequest(buildGetRequest(path, (Map<String, String>) null),
+                body -> serializer.deserializeOrder(body.charStream(), projection));
+    }
+
+    /**
+     * Makes a GET request against a HardwareOrder list endpoint like {@link #getList}, decoding
+     * only the fields in the projection.
+     */
+    public StripeList<HardwareOrder> getOrderList(String path, Map<String, String> params, OrderProjection projection,
+                                                  Consumer<? super HardwareOrder> consumer) throws StripeException {
+        return executeRequest(buildGetRequest(path, params),
+                body -> serializer.deserializeOrderList(body.charStream(), projection, consumer));
+    }
+
+    /**
+     * Makes a GET request with a query string already encoded by a {@link FormEncoder},
+     * and decodes the response body directly from the network stream.
+     */
+    public <T> T getEncoded(String path, ByteString query, Type type) throws StripeException {
+        return executeRequest(buildGetRequest(path, query), body -> serializer.deserialize(body.charStream(), type));
+    }
+
+    /**
+     * Makes a POST request with a form body already encoded by a {@link FormEncoder},
+     * and decodes the response body directly from the network stream.
+     */
+    public <T> T postEncoded(String path, ByteString form, Type type, RequestOptions options) throws StripeException {
+        return executeRequest(buildPostRequest(path, form, options), body -> serializer.deserialize(body.charStream(), type));
+    }
+
+    /**
+     * Makes a non-blocking GET request to the Stripe API.
+     * The returned future completes exceptionally with a {@link StripeException} on failure.
+     */
+    public CompletableFuture<String> getAsync(String path, Map<String, String> params) {
+        return executeRequestAsync(buildGetRequest(path, params), ResponseBody::string);
+    }
+
+    /**
+     * Makes a non-blocking GET request to the Stripe API with complex parameters.
+     * The returned future completes exceptionally with a {@link StripeException} on failure.
+     */
+    public CompletableFuture<String> getWithParamsAsync(String path, Map<String, Object> params) {
+        return executeRequestAsync(buildGetWithParamsRequest(path, params), ResponseBody::string);
+    }
+
+    /**
+     * Makes a non-blocking POST request to the Stripe API.
+     * The returned future completes exceptionally with a {@link StripeException} on failure.
+     */
+    public CompletableFuture<String> postAsync(String path, Map<String, Object> params) {
+        return executeRequestAsync(buildPostRequest(path, params), ResponseBody::string);
+    }
+
+    /**
+     * Makes a non-blocking GET request and decodes the response body directly from the network stream.
+     */
+    public <T> CompletableFuture<T> getAsync(String path, Map<String, String> params, Type type) {
+        return executeRequestAsync(buildGetRequest(path, params), body -> serializer.deserialize(body.charStream(), type));
+    }
+
+    /**
+     * Makes a non-blocking GET request for a single HardwareOrder, decoding only the fields in the projection.
+     */
+    public CompletableFuture<HardwareOrder> getOrderAsync(String path, OrderProjection projection) {
+        return executeRequestAsync(buildGetRequest(path, (Map<String, String>) null),
+                body -> serializer.deserializeOrder(body.charStream(), projection));
+    }
+
+    /**
+     * Makes a non-blocking GET request with per-request options and decodes the response body directly from the network stream.
+     */
+    public <T> CompletableFuture<T> getAsync(String path, Map<String, String> params, Type type, RequestOptions options) {
+        return executeRequestAsync(buildGetRequest(path, encodeQuery(params), options),
+                body -> serializer.deserialize(body.charStream(), type));
+    }
+
+    /**
+     * Makes a non-blocking GET request with complex parameters and decodes the response body directly from the network stream.
+     */
+    public <T> CompletableFuture<T> getWithParamsAsync(String path, Map<String, Object> params, Type type) {
+        return executeRequestAsync(buildGetWithParamsRequest(path, params),
+                body -> serializer.deserialize(body.charStream(), type));
+    }
+
+    /**
+     * Makes a non-blocking POST request and decodes the response body directly from the network stream.
+     */
+    public <T> CompletableFuture<T> postAsync(String path, Map<String, Object> params, Type type) {
+        return postAsync(path, params, type, RequestOptions.none());
+    }
+
+    /**
+     * Makes a non-blocking POST request with per-request options and decodes the response body directly from the network stream.
+     */
+    public <T> CompletableFuture<T> postAsync(String path, Map<String, Object> params, Type type, RequestOptions options) {
+        return executeRequestAsync(buildPostRequest(path, params, options),
+                body -> serializer.deserialize(body.charStream(), type));
+    }
+
+    /**
+     * Makes a non-blocking GET request with a query string already encoded by a {@link FormEncoder}.
+     */
+    public <T> CompletableFuture<T> getEncodedAsync(String path, ByteString query, Type type) {
+        return executeRequestAsync(buildGetRequest(path, query), body -> serializer.deserialize(body.charStream(), type));
+    }
+
+    /**
+     * Makes a non-blocking POST request with a form body already encoded by a {@link FormEncoder}.
+     */
+    public <T> CompletableFuture<T> postEncodedAsync(String path, ByteString form, Type type, RequestOptions options) {
+        return executeRequestAsync(buildPostRequest(path, form, options),
+                body -> serializer.deserialize(body.charStream(), type));
+    }
+
+    private Request buildGetRequest(String path, Map<String, String> params) {
+        return buildGetRequest(path, encodeQuery(params));
+    }
+
+    private Request buildGetWithParamsRequest(String path, Map<String, Object> params) {
+        return buildGetRequest(path, encodeQuery(params));
+    }
+
+    private Request buildGetRequest(String path, ByteString query) {
+        return buildGetRequest(path, query, RequestOptions.none());
+    }
+
+    /**
+     * Package-private so the header benchmark can measure request construction in isolation.
+     */
+    Request buildGetRequest(String path, ByteString query, RequestOptions options) {
         HttpUrl.Builder urlBuilder = HttpUrl.parse(config.getBaseUrl() + path).newBuilder();
 
-        if (params != null) {
-            addParamsToQuery(urlBuilder, params, "");
+        if (query != null && query.size() > 0) {
+            urlBuilder.encodedQuery(query.utf8());
         }
 
-        Request request = new Request.Builder()
+        return newRequest("GET", path, options)
                 .url(urlBuilder.build())
                 .get()
-                .headers(buildHeaders())
                 .build();
-
-        return executeRequest(request);
     }
 
-    /**
-     * Makes a POST request to the Stripe API.
-     */
-    public String post(String path, Map<String, Object> params) throws StripeException {
-        FormBody.Builder formBuilder = new FormBody.Builder();
+    private Request buildPostRequest(String path, Map<String, Object> params) {
+        return buildPostRequest(path, params, RequestOptions.none());
+    }
 
-        if (params != null) {
-            addParamsToForm(formBuilder, params, "");
-        }
+    private Request buildPostRequest(String path, Map<String, Object> params, RequestOptions options) {
+        return buildPostRequest(path, new FormEncoder().addAll(params).toByteString(), options);
+    }
 
-        Request request = new Request.Builder()
+    private Request buildPostRequest(String path, ByteString form, RequestOptions options) {
+        return newRequest("POST", path, options)
                 .url(config.getBaseUrl() + path)
-                .post(formBuilder.build())
-                .headers(buildHeaders())
+                .post(RequestBody.create(form, FORM_MEDIA_TYPE))
                 .build();
+    }
 
-        return executeRequest(request);
+    private static ByteString encodeQuery(Map<String, ?> params) {
+        return params != null ? new FormEncoder().addAll(params).toByteString() : null;
     }
 
     /**
-     * Recursively adds parameters to query URL, handling nested objects and arrays.
+     * Starts a request with this client's precomputed headers, then applies per-request overrides
+     * and the configured {@link RequestHeaderProvider}.
      */
-    private void addParamsToQuery(HttpUrl.Builder urlBuilder, Map<String, Object> params, String prefix) {
-        for (Map.Entry<String, Object> entry : params.entrySet()) {
-            String key = prefix.isEmpty() ? entry.getKey() : prefix + "[" + entry.getKey() + "]";
-            Object value = entry.getValue();
+    private Request.Builder newRequest(String method, String path, RequestOptions options) {
+        Request.Builder requestBuilder = new Request.Builder().headers(headers);
+        if (instrumented || hedgePolicy.isEnabled()) {
+            requestBuilder.tag(Endpoint.class, Endpoint.classify(method, path));
+        }
 
-            if (value == null) {
-                continue;
+        if (options.overridesHeaders()) {
+            String requestApiKey = options.getApiKey() != null ? options.getApiKey() : apiKey;
+            String requestAccount = options.resolveStripeAccount(stripeAccount);
+            if (options.getApiKey() != null) {
+                requestBuilder.header("Authorization", authorization(requestApiKey));
+            }
+            if (options.getStripeAccount() != null) {
+                requestBuilder.header(STRIPE_ACCOUNT_HEADER, requestAccount);
+            } else if (options.clearsStripeAccount()) {
+                requestBuilder.removeHeader(STRIPE_ACCOUNT_HEADER);
+            }
+            for (Map.Entry<String, String> header : options.getHeaders().entrySet()) {
+                requestBuilder.header(header.getKey(), header.getValue());
             }
+            String requestRateLimitKey = rateLimitKey(requestApiKey, requestAccount);
+            if (!requestRateLimitKey.equals(rateLimitKey)) {
+                requestBuilder.tag(RateLimitKey.class, new RateLimitKey(requestRateLimitKey));
+            }
+        }
 
-            if (value instanceof Map) {
-                @SuppressWarnings("unchecked")
-                Map<String, Object> nestedMap = (Map<String, Object>) value;
-                addParamsToQuery(urlBuilder, nestedMap, key);
-            } else if (value instanceof java.util.List) {
-                @SuppressWarnings("unchecked")
-                java.util.List<Object> list = (java.util.List<Object>) value;
-                for (int i = 0; i < list.size(); i++) {
-                    Object item = list.get(i);
-                    if (item instanceof Map) {
-                        @SuppressWarnings("unchecked")
-                        Map<String, Object> itemMap = (Map<String, Object>) item;
-                        addParamsToQuery(urlBuilder, itemMap, key + "[" + i + "]");
-                    } else {
-                        urlBuilder.addQueryParameter(key + "[]", item.toString());
-                    }
-                }
-            } else {
-                urlBuilder.addQueryParameter(key, value.toString());
+        // The same Request is re-sent on retry, so every attempt carries the same key
+        if (options.getIdempotencyKey() != null) {
+            requestBuilder.header(RetryPolicy.IDEMPOTENCY_KEY_HEADER, options.getIdempotencyKey());
+        }
+        if (headerProvider != null) {
+            headerProvider.addHeaders(method, path, requestBuilder::header);
+        }
+        return requestBuilder;
+    }
+
+    /**
+     * Returns the Basic authorization value for an API key. Values are cached, so per-request key
+     * overrides do not re-encode a key on every call.
+     */
+    private String authorization(String key) {
+        String value = authorizations.get(key);
+        if (value == null) {
+            value = "Basic " + Base64.getEncoder().encodeToString((key + ":").getBytes(StandardCharsets.UTF_8));
+            if (authorizations.size() < MAX_CACHED_AUTHORIZATIONS) {
+                authorizations.put(key, value);
             }
         }
+        return value;
     }
 
     /**
-     * Recursively adds parameters to form body, handling nested objects and arrays.
+     * Rate limits apply per API key and, for requests on behalf of a connected account, per account.
      */
-    private void addParamsToForm(FormBody.Builder formBuilder, Map<String, Object> params, String prefix) {
-        for (Map.Entry<String, Object> entry : params.entrySet()) {
-            String key = prefix.isEmpty() ? entry.getKey() : prefix + "[" + entry.getKey() + "]";
-            Object value = entry.getValue();
+    private static String rateLimitKey(String apiKey, String stripeAccount) {
+        return stripeAccount == null ? apiKey : apiKey + "/" + stripeAccount;
+    }
 
-            if (value == null) {
-                continue;
-            }
+    private String rateLimitKey(Request request) {
+        RateLimitKey override = request.tag(RateLimitKey.class);
+        return override != null ? override.value : rateLimitKey;
+    }
+
+    /**
+     * Tags a request whose per-request credentials differ from the client's.
+     */
+    private static final class RateLimitKey {
+        final String value;
+
+        RateLimitKey(String value) {
+            this.value = value;
+        }
+    }
 
-            if (value instanceof Map) {
-                @SuppressWarnings("unchecked")
-                Map<String, Object> nestedMap = (Map<String, Object>) value;
-                addParamsToForm(formBuilder, nestedMap, key);
-            } else if (value instanceof java.util.List) {
-                @SuppressWarnings("unchecked")
-                java.util.List<Object> list = (java.util.List<Object>) value;
-                for (int i = 0; i < list.size(); i++) {
-                    Object item = list.get(i);
-                    if (item instanceof Map) {
-                        @SuppressWarnings("unchecked")
-                        Map<String, Object> itemMap = (Map<String, Object>) item;
-                        addParamsToForm(formBuilder, itemMap, key + "[" + i + "]");
-                    } else {
-                        formBuilder.add(key + "[]", item.toString());
+    /**
+     * Executes an HTTP request and handles the response, retrying according to the {@link RetryPolicy}
+     * and hedging according to the {@link HedgePolicy}.
+     */
+    private <T> T executeRequest(Request request, BodyDecoder<T> decoder) throws StripeException {
+        Endpoint endpoint = endpoint(request);
+        long start = System.nanoTime();
+        int status = 0;
+        boolean hedged = hedgePolicy.isHedged(request, endpoint);
+        metrics.requestStarted(endpoint);
+        retryPolicy.recordRequest();
+        if (hedged) {
+            hedgePolicy.recordRequest();
+        }
+
+        try {
+            for (int retries = 0; ; retries++) {
+                if (rateLimiter != null) {
+                    rateLimiter.acquire(rateLimitKey(request), requestClass(request));
+                }
+
+                long delay;
+                Response response;
+                try {
+                    response = hedged
+                            ? newHedgedCall(request, endpoint).execute()
+                            : httpClient.newCall(request).execute();
+                } catch (IOException e) {
+                    delay = retryPolicy.retryDelayMillis(request, e, retries);
+                    if (delay < 0) {
+                        throw networkError(e);
                     }
+                    metrics.retry(endpoint, 0);
+                    sleep(delay, e);
+                    continue;
                 }
-            } else {
-                formBuilder.add(key, value.toString());
+
+                try (response) {
+                    status = response.code();
+                    delay = retryPolicy.retryDelayMillis(request, response, retries);
+                    if (delay < 0) {
+                        return readResponse(response, decoder, endpoint);
+                    }
+                } catch (IOException e) {
+                    throw networkError(e);
+                } catch (JsonIOException e) {
+                    throw networkError(new IOException(e.getMessage(), e));
+                }
+                metrics.retry(endpoint, status);
+                sleep(delay, null);
             }
+        } catch (StripeException e) {
+            status = e.getStatusCode();
+            throw e;
+        } finally {
+            metrics.requestFinished(endpoint, status, System.nanoTime() - start);
         }
     }
 
-    /**
-     * Builds headers for Stripe API requests.
-     */
-    private Headers buildHeaders() {
-        String authValue = "Basic " + Base64.getEncoder().encodeToString((config.getApiKey() + ":").getBytes());
+    private HedgedCall newHedgedCall(Request request, Endpoint endpoint) {
+        return new HedgedCall(httpClient, request, endpoint, hedgePolicy, metrics,
+                rateLimiter, rateLimiter != null ? rateLimitKey(request) : null);
+    }
 
-        return new Headers.Builder()
-                .add("Authorization", authValue)
-                .add("Stripe-Version", config.getApiVersion())
-                .add("Content-Type", "application/x-www-form-urlencoded")
-                .add("Accept", "application/json")
-                .build();
+    private void sleep(long delayMillis, IOException cause) throws StripeException {
+        try {
+            Thread.sleep(delayMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw networkError(cause != null ? cause : new IOException("Interrupted while waiting to retry"));
+        }
     }
 
     /**
-     * Executes an HTTP request and handles the response.
+     * Enqueues an HTTP request on OkHttp's dispatcher so no thread is blocked while
+     * waiting on the network. Retries are scheduled with a delayed executor rather than by sleeping.
+     * Cancelling the returned future cancels the in-flight call and any pending retry.
      */
-    private String executeRequest(Request request) throws StripeException {
-        try (Response response = httpClient.newCall(request).execute()) {
-            String responseBody = response.body() != null ? response.body().string() : "";
+    private <T> CompletableFuture<T> executeRequestAsync(Request request, BodyDecoder<T> decoder) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        AtomicReference<Call> currentCall = new AtomicReference<>();
+        Endpoint endpoint = endpoint(request);
+        long start = System.nanoTime();
+
+        metrics.requestStarted(endpoint);
+        retryPolicy.recordRequest();
+        if (hedgePolicy.isHedged(request, endpoint)) {
+            hedgePolicy.recordRequest();
+        }
+        enqueue(request, decoder, future, currentCall, 0, start);
 
-            if (!response.isSuccessful()) {
-                handleErrorResponse(response, responseBody);
+        future.whenComplete((result, error) -> {
+            Call call = currentCall.get();
+            if (future.isCancelled() && call != null) {
+                call.cancel();
             }
+            if (error != null) {
+                // Successful requests are recorded with their status by the callback that completes them
+                int status = error instanceof StripeException ? ((StripeException) error).getStatusCode() : 0;
+                metrics.requestFinished(endpoint, status, System.nanoTime() - start);
+            }
+        });
+        return future;
+    }
+
+    private <T> void enqueue(Request request, BodyDecoder<T> decoder, CompletableFuture<T> future,
+                             AtomicReference<Call> currentCall, int retries, long start) {
+        if (rateLimiter == null) {
+            send(request, decoder, future, currentCall, retries, start);
+            return;
+        }
+        rateLimiter.acquireAsync(rateLimitKey(request), requestClass(request)).whenComplete((permit, error) -> {
+            if (error != null) {
+                future.completeExceptionally(error instanceof CompletionException ? error.getCause() : error);
+            } else {
+                send(request, decoder, future, currentCall, retries, start);
+            }
+        });
+    }
 
-            return responseBody;
+    private <T> void send(Request request, BodyDecoder<T> decoder, CompletableFuture<T> future,
+                          AtomicReference<Call> currentCall, int retries, long start) {
+        if (future.isDone()) {
+            return;
+        }
+        Endpoint endpoint = endpoint(request);
+        if (hedgePolicy.isHedged(request, endpoint)) {
+            HedgedCall hedged = newHedgedCall(request, endpoint);
+            future.whenComplete((result, error) -> {
+                if (future.isCancelled()) {
+                    hedged.cancel();
+                }
+            });
+            hedged.start().whenComplete((response, error) -> {
+                if (error == null) {
+                    onAttemptResponse(request, response, decoder, future, currentCall, retries, start);
+                } else {
+                    IOException e = error instanceof IOException
+                            ? (IOException) error
+                            : new IOException(error.getMessage(), error);
+                    onAttemptFailure(request, e, future.isCancelled(), decoder, future, currentCall, retries, start);
+                }
+            });
+            return;
+        }
+
+        Call call = httpClient.newCall(request);
+        currentCall.set(call);
+
+        call.enqueue(new Callback() {
+            @Override
+            public void onFailure(Call call, IOException e) {
+                onAttemptFailure(request, e, call.isCanceled(), decoder, future, currentCall, retries, start);
+            }
+
+            @Override
+            public void onResponse(Call call, Response response) {
+                onAttemptResponse(request, response, decoder, future, currentCall, retries, start);
+            }
+        });
+    }
+
+    private <T> void onAttemptFailure(Request request, IOException e, boolean cancelled, BodyDecoder<T> decoder,
+                                      CompletableFuture<T> future, AtomicReference<Call> currentCall, int retries,
+                                      long start) {
+        long delay = cancelled ? -1 : retryPolicy.retryDelayMillis(request, e, retries);
+        if (delay < 0) {
+            future.completeExceptionally(networkError(e));
+        } else {
+            metrics.retry(endpoint(request), 0);
+            retryAfter(delay, request, decoder, future, currentCall, retries, start);
+        }
+    }
+
+    private <T> void onAttemptResponse(Request request, Response response, BodyDecoder<T> decoder,
+                                       CompletableFuture<T> future, AtomicReference<Call> currentCall, int retries,
+                                       long start) {
+        try (response) {
+            Endpoint endpoint = endpoint(request);
+            long delay = retryPolicy.retryDelayMillis(request, response, retries);
+            if (delay >= 0) {
+                metrics.retry(endpoint, response.code());
+                retryAfter(delay, request, decoder, future, currentCall, retries, start);
+                return;
+            }
+            // Not recorded if the future was cancelled first; that was recorded when it completed
+            if (future.complete(readResponse(response, decoder, endpoint))) {
+                metrics.requestFinished(endpoint, response.code(), System.nanoTime() - start);
+            }
+        } catch (StripeException e) {
+            future.completeExceptionally(e);
         } catch (IOException e) {
-            throw new StripeException("Network error: " + e.getMessage(), 0);
+            future.completeExceptionally(networkError(e));
+        } catch (JsonIOException e) {
+            future.completeExceptionally(networkError(new IOException(e.getMessage(), e)));
+        } catch (RuntimeException e) {
+            future.completeExceptionally(e);
+        }
+    }
+
+    private <T> void retryAfter(long delayMillis, Request request, BodyDecoder<T> decoder, CompletableFuture<T> future,
+                                AtomicReference<Call> currentCall, int retries, long start) {
+        CompletableFuture.delayedExecutor(delayMillis, TimeUnit.MILLISECONDS)
+                .execute(() -> enqueue(request, decoder, future, currentCall, retries + 1, start));
+    }
+
+    /**
+     * Decodes a successful response, converting unsuccessful responses into a {@link StripeException}.
+     * Only error bodies are buffered into a String; successful bodies are handed to the decoder as a stream.
+     */
+    private <T> T readResponse(Response response, BodyDecoder<T> decoder, Endpoint endpoint)
+            throws IOException, StripeException {
+        ResponseBody body = response.body();
+
+        if (!response.isSuccessful()) {
+            handleErrorResponse(response, body != null ? body.string() : "");
         }
+
+        long decodeStart = System.nanoTime();
+        T result = decoder.decode(body);
+        metrics.recordPhase(endpoint, Phase.DECODE, System.nanoTime() - decodeStart);
+        return result;
+    }
+
+    private static Endpoint endpoint(Request request) {
+        Endpoint endpoint = request.tag(Endpoint.class);
+        return endpoint != null ? endpoint : Endpoint.OTHER;
+    }
+
+    private static RateLimiter.RequestClass requestClass(Request request) {
+        return "GET".equals(request.method()) ? RateLimiter.RequestClass.READ : RateLimiter.RequestClass.WRITE;
+    }
+
+    private StripeException networkError(IOException e) {
+        return new StripeException("Network error: " + e.getMessage(), 0);
     }
 
     /**
@@ -222,4 +768,12 @@ public class StripeHttpClient {
     public Gson getGson() {
         return gson;
     }
+
+    /**
+     * Decodes a successful response body.
+     */
+    @FunctionalInterface
+    private interface BodyDecoder<T> {
+        T decode(ResponseBody body) throws IOException;
+    }
 }
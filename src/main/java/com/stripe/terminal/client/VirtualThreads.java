@@ -0,0 +1,33 @@
+package com.stripe.terminal.client;
+
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Creates virtual threads where the runtime has them.
+ *
+ * <p>This is the Java 11 version, which reports them as unavailable. The jar also carries a
+ * Java 21 version under {@code META-INF/versions/21}, which the JVM loads instead on Java 21 and
+ * later. See {@link StripeConfig.Builder#virtualThreads}.</p>
+ */
+public final class VirtualThreads {
+
+    private VirtualThreads() {
+    }
+
+    /**
+     * @return Whether virtual threads can be created on this runtime
+     */
+    public static boolean isAvailable() {
+        return false;
+    }
+
+    /**
+     * Returns an executor that runs each task on a new virtual thread.
+     *
+     * @param name Prefix for the thread names
+     * @throws UnsupportedOperationException if virtual threads are not available
+     */
+    public static ExecutorService newThreadPerTaskExecutor(String name) {
+        throw new UnsupportedOperationException("Virtual threads require Java 21 or later");
+    }
+}
@@ -0,0 +1,19 @@
+package com.stripe.terminal.exception;
+
+/**
+ * Thrown when a webhook payload does not carry a valid {@code Stripe-Signature} for the
+ * endpoint secret, or its timestamp is outside the tolerance. The status code is 400, which
+ * is what the endpoint should respond with.
+ */
+public class SignatureVerificationException extends StripeException {
+    private final String sigHeader;
+
+    public SignatureVerificationException(String message, String sigHeader) {
+        super(message, 400);
+        this.sigHeader = sigHeader;
+    }
+
+    public String getSigHeader() {
+        return sigHeader;
+    }
+}
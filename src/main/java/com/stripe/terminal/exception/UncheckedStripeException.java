@@ -0,0 +1,18 @@
+package com.stripe.terminal.exception;
+
+/**
+ * Wraps a {@link StripeException} with an unchecked exception.
+ * Thrown from APIs that cannot declare checked exceptions, such as
+ * {@link java.util.Iterator} and {@link java.util.stream.Stream}.
+ */
+public class UncheckedStripeException extends RuntimeException {
+
+    public UncheckedStripeException(StripeException cause) {
+        super(cause.getMessage(), cause);
+    }
+
+    @Override
+    public synchronized StripeException getCause() {
+        return (StripeException) super.getCause();
+    }
+}
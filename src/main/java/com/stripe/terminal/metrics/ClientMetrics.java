@@ -0,0 +1,82 @@
+package com.stripe.terminal.metrics;
+
+/**
+ * Receives measurements of every API call made by the client.
+ *
+ * <p>All methods take primitives and enums, so recording never allocates or boxes. They are called
+ * on the threads making requests and on OkHttp's dispatcher threads, so implementations must be
+ * thread-safe and should not block. Every method defaults to doing nothing, so an adapter for a
+ * metrics library only overrides what it exports.</p>
+ *
+ * <pre>
+ * InMemoryClientMetrics metrics = new InMemoryClientMetrics();
+ * StripeConfig config = StripeConfig.builder("sk_live_...")
+ *     .metrics(metrics)
+ *     .build();
+ * ...
+ * System.out.println(metrics.getLatency(Endpoint.ORDER_CREATE, Phase.TTFB).getPercentile(99));
+ * </pre>
+ *
+ * @see InMemoryClientMetrics
+ */
+public interface ClientMetrics {
+
+    /**
+     * Returns metrics that record nothing. The client skips instrumenting the transport entirely
+     * when this is configured.
+     */
+    static ClientMetrics noop() {
+        return NoopClientMetrics.INSTANCE;
+    }
+
+    /**
+     * Called when a request is submitted, before rate limiting.
+     */
+    default void requestStarted(Endpoint endpoint) {
+    }
+
+    /**
+     * Called once when a request completes, after any retries.
+     *
+     * @param endpoint      The endpoint
+     * @param statusCode    The final HTTP status, or 0 if no response was received or the request was cancelled
+     * @param durationNanos The {@link Phase#TOTAL} duration
+     */
+    default void requestFinished(Endpoint endpoint, int statusCode, long durationNanos) {
+    }
+
+    /**
+     * Called when an attempt is about to be retried.
+     *
+     * @param endpoint   The endpoint
+     * @param statusCode The status of the failed attempt, or 0 for a network error
+     */
+    default void retry(Endpoint endpoint, int statusCode) {
+    }
+
+    /**
+     * Called when a slow read is sent a second time under a {@code HedgePolicy}.
+     */
+    default void hedge(Endpoint endpoint) {
+    }
+
+    /**
+     * Called when the second call of a hedged read answers before the first. Together with
+     * {@link #hedge}, shows how much extra load hedging adds and how often it pays off.
+     */
+    default void hedgeWon(Endpoint endpoint) {
+    }
+
+    /**
+     * Records the duration of one phase of an attempt. {@link Phase#TOTAL} is reported through
+     * {@link #requestFinished} instead.
+     */
+    default void recordPhase(Endpoint endpoint, Phase phase, long nanos) {
+    }
+
+    /**
+     * Records the size of a response body as read from the network, per attempt.
+     */
+    default void recordResponseBytes(Endpoint endpoint, long bytes) {
+    }
+}
@@ -0,0 +1,68 @@
+package com.stripe.terminal.metrics;
+
+/**
+ * The API operations metrics are recorded under.
+ *
+ * <p>Paths are classified without allocating, and object IDs never become part of a metric name,
+ * so the number of series stays fixed.</p>
+ */
+public enum Endpoint {
+    ORDER_CREATE,
+    ORDER_RETRIEVE,
+    ORDER_LIST,
+    ORDER_PREVIEW,
+    SKU_LIST,
+    SKU_RETRIEVE,
+    PRODUCT_LIST,
+    PRODUCT_RETRIEVE,
+    SHIPPING_METHOD_LIST,
+    SHIPPING_METHOD_RETRIEVE,
+    TEST_HELPER,
+    OTHER;
+
+    private static final String ORDERS = "/v1/terminal/hardware_orders";
+    private static final String PREVIEW = "/preview";
+    private static final String SKUS = "/v1/terminal/hardware_skus";
+    private static final String PRODUCTS = "/v1/terminal/hardware_products";
+    private static final String SHIPPING_METHODS = "/v1/terminal/hardware_shipping_methods";
+    private static final String TEST_HELPERS = "/v1/test_helpers/terminal/";
+
+    /**
+     * @param method The HTTP method
+     * @param path   The request path without the query string
+     * @return The endpoint, or {@link #OTHER} if the path is not a known Terminal hardware endpoint
+     */
+    public static Endpoint classify(String method, String path) {
+        if (path.startsWith(ORDERS)) {
+            int end = ORDERS.length();
+            if (path.length() == end) {
+                return "POST".equals(method) ? ORDER_CREATE : ORDER_LIST;
+            }
+            if (path.charAt(end) == '/') {
+                boolean preview = path.length() == end + PREVIEW.length() && path.startsWith(PREVIEW, end);
+                return preview ? ORDER_PREVIEW : ORDER_RETRIEVE;
+            }
+            return OTHER;
+        }
+        if (path.startsWith(SKUS)) {
+            return resource(path, SKUS.length(), SKU_LIST, SKU_RETRIEVE);
+        }
+        if (path.startsWith(PRODUCTS)) {
+            return resource(path, PRODUCTS.length(), PRODUCT_LIST, PRODUCT_RETRIEVE);
+        }
+        if (path.startsWith(SHIPPING_METHODS)) {
+            return resource(path, SHIPPING_METHODS.length(), SHIPPING_METHOD_LIST, SHIPPING_METHOD_RETRIEVE);
+        }
+        if (path.startsWith(TEST_HELPERS)) {
+            return TEST_HELPER;
+        }
+        return OTHER;
+    }
+
+    private static Endpoint resource(String path, int end, Endpoint list, Endpoint retrieve) {
+        if (path.length() == end) {
+            return list;
+        }
+        return path.charAt(end) == '/' ? retrieve : OTHER;
+    }
+}
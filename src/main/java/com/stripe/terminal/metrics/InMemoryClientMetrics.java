@@ -0,0 +1,197 @@
+package com.stripe.terminal.metrics;
+
+import com.stripe.terminal.ratelimit.LatencyHistogram;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A {@link ClientMetrics} that keeps everything in memory, for tests, benchmarks and periodic
+ * logging, or as the source for exporting to a metrics library.
+ *
+ * <p>All series are allocated up front, one per {@link Endpoint}, so recording is a few atomic
+ * increments and never allocates. Latencies are kept in {@link LatencyHistogram}s with
+ * microsecond resolution.</p>
+ */
+public class InMemoryClientMetrics implements ClientMetrics {
+    private static final int ENDPOINTS = Endpoint.values().length;
+    private static final int PHASES = Phase.values().length;
+    private static final int STATUS_CODES = 600;
+
+    private final LatencyHistogram[] latencies = new LatencyHistogram[ENDPOINTS * PHASES];
+    private final AtomicLongArray statusCounts = new AtomicLongArray(ENDPOINTS * STATUS_CODES);
+    private final LongAdder[] requests = new LongAdder[ENDPOINTS];
+    private final LongAdder[] retries = new LongAdder[ENDPOINTS];
+    private final LongAdder[] hedges = new LongAdder[ENDPOINTS];
+    private final LongAdder[] hedgesWon = new LongAdder[ENDPOINTS];
+    private final LongAdder[] inFlight = new LongAdder[ENDPOINTS];
+    private final LongAdder[] responses = new LongAdder[ENDPOINTS];
+    private final LongAdder[] responseBytes = new LongAdder[ENDPOINTS];
+
+    public InMemoryClientMetrics() {
+        for (int i = 0; i < latencies.length; i++) {
+            latencies[i] = new LatencyHistogram();
+        }
+        for (int i = 0; i < ENDPOINTS; i++) {
+            requests[i] = new LongAdder();
+            retries[i] = new LongAdder();
+            hedges[i] = new LongAdder();
+            hedgesWon[i] = new LongAdder();
+            inFlight[i] = new LongAdder();
+            responses[i] = new LongAdder();
+            responseBytes[i] = new LongAdder();
+        }
+    }
+
+    @Override
+    public void requestStarted(Endpoint endpoint) {
+        inFlight[endpoint.ordinal()].increment();
+    }
+
+    @Override
+    public void requestFinished(Endpoint endpoint, int statusCode, long durationNanos) {
+        int index = endpoint.ordinal();
+        inFlight[index].decrement();
+        requests[index].increment();
+        latency(endpoint, Phase.TOTAL).recordNanos(durationNanos);
+        if (statusCode >= 0 && statusCode < STATUS_CODES) {
+            statusCounts.incrementAndGet(index * STATUS_CODES + statusCode);
+        }
+    }
+
+    @Override
+    public void retry(Endpoint endpoint, int statusCode) {
+        retries[endpoint.ordinal()].increment();
+    }
+
+    @Override
+    public void hedge(Endpoint endpoint) {
+        hedges[endpoint.ordinal()].increment();
+    }
+
+    @Override
+    public void hedgeWon(Endpoint endpoint) {
+        hedgesWon[endpoint.ordinal()].increment();
+    }
+
+    @Override
+    public void recordPhase(Endpoint endpoint, Phase phase, long nanos) {
+        latency(endpoint, phase).recordNanos(nanos);
+    }
+
+    @Override
+    public void recordResponseBytes(Endpoint endpoint, long bytes) {
+        responses[endpoint.ordinal()].increment();
+        responseBytes[endpoint.ordinal()].add(bytes);
+    }
+
+    /**
+     * @return The latency distribution of one phase of requests to an endpoint
+     */
+    public LatencyHistogram getLatency(Endpoint endpoint, Phase phase) {
+        return latencies[endpoint.ordinal() * PHASES + phase.ordinal()];
+    }
+
+    /**
+     * @return The number of completed requests to an endpoint
+     */
+    public long getRequestCount(Endpoint endpoint) {
+        return requests[endpoint.ordinal()].sum();
+    }
+
+    /**
+     * @param statusCode An HTTP status, or 0 for requests that received no response
+     * @return The number of requests to an endpoint that finished with the status
+     */
+    public long getStatusCount(Endpoint endpoint, int statusCode) {
+        if (statusCode < 0 || statusCode >= STATUS_CODES) {
+            return 0;
+        }
+        return statusCounts.get(endpoint.ordinal() * STATUS_CODES + statusCode);
+    }
+
+    /**
+     * @return The number of retried attempts for an endpoint
+     */
+    public long getRetryCount(Endpoint endpoint) {
+        return retries[endpoint.ordinal()].sum();
+    }
+
+    /**
+     * @return The number of hedged calls sent for an endpoint
+     */
+    public long getHedgeCount(Endpoint endpoint) {
+        return hedges[endpoint.ordinal()].sum();
+    }
+
+    /**
+     * @return The number of hedged calls for an endpoint that answered before the first call
+     */
+    public long getHedgeWinCount(Endpoint endpoint) {
+        return hedgesWon[endpoint.ordinal()].sum();
+    }
+
+    /**
+     * @return The number of requests to an endpoint currently in progress
+     */
+    public long getInFlight(Endpoint endpoint) {
+        return inFlight[endpoint.ordinal()].sum();
+    }
+
+    /**
+     * @return The total bytes of response bodies read for an endpoint
+     */
+    public long getResponseBytes(Endpoint endpoint) {
+        return responseBytes[endpoint.ordinal()].sum();
+    }
+
+    /**
+     * @return The mean response body size for an endpoint, or 0 if none was read
+     */
+    public long getMeanResponseBytes(Endpoint endpoint) {
+        long count = responses[endpoint.ordinal()].sum();
+        return count == 0 ? 0 : responseBytes[endpoint.ordinal()].sum() / count;
+    }
+
+    private LatencyHistogram latency(Endpoint endpoint, Phase phase) {
+        return latencies[endpoint.ordinal() * PHASES + phase.ordinal()];
+    }
+
+    /**
+     * Returns one line per endpoint that has seen requests, with counts and phase percentiles.
+     */
+    @Override
+    public String toString() {
+        StringBuilder out = new StringBuilder("InMemoryClientMetrics{");
+        for (Endpoint endpoint : Endpoint.values()) {
+            long count = getRequestCount(endpoint);
+            if (count == 0 && getInFlight(endpoint) == 0) {
+                continue;
+            }
+            out.append("\n  ").append(endpoint)
+                    .append(" requests=").append(count)
+                    .append(" inFlight=").append(getInFlight(endpoint))
+                    .append(" retries=").append(getRetryCount(endpoint))
+                    .append(" hedges=").append(getHedgeCount(endpoint))
+                    .append(" hedgesWon=").append(getHedgeWinCount(endpoint))
+                    .append(" meanBytes=").append(getMeanResponseBytes(endpoint))
+                    .append(" statuses={");
+            String separator = "";
+            for (int status = 0; status < STATUS_CODES; status++) {
+                long statusCount = getStatusCount(endpoint, status);
+                if (statusCount > 0) {
+                    out.append(separator).append(status).append('=').append(statusCount);
+                    separator = ", ";
+                }
+            }
+            out.append('}');
+            for (Phase phase : Phase.values()) {
+                LatencyHistogram histogram = getLatency(endpoint, phase);
+                if (histogram.getCount() > 0) {
+                    out.append("\n    ").append(phase).append(' ').append(histogram);
+                }
+            }
+        }
+        return out.append("\n}").toString();
+    }
+}
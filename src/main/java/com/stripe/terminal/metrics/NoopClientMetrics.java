@@ -0,0 +1,11 @@
+package com.stripe.terminal.metrics;
+
+/**
+ * The default {@link ClientMetrics}, which records nothing.
+ */
+final class NoopClientMetrics implements ClientMetrics {
+    static final NoopClientMetrics INSTANCE = new NoopClientMetrics();
+
+    private NoopClientMetrics() {
+    }
+}
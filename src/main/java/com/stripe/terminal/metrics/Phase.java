@@ -0,0 +1,22 @@
+package com.stripe.terminal.metrics;
+
+/**
+ * The phases a request's latency is split into.
+ */
+public enum Phase {
+    /** From the call being submitted until OkHttp's dispatcher starts it, per attempt. */
+    QUEUE,
+    /** DNS, TCP and TLS setup, per attempt. Only recorded when a new connection is opened. */
+    CONNECT,
+    /** From starting to send the request until the response headers start arriving, per attempt. */
+    TTFB,
+    /** From the first to the last byte of the response body, per attempt. */
+    BODY,
+    /**
+     * Decoding the successful response. Bodies are decoded as they stream in, so this includes
+     * waiting for body bytes and overlaps {@link #BODY}.
+     */
+    DECODE,
+    /** The whole request as seen by the caller, including rate limiting, retries and backoff. */
+    TOTAL
+}
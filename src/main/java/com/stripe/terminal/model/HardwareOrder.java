@@ -7,7 +7,7 @@ import java.util.Map;
 /**
  * Represents a Terminal Hardware Order.
  */
-public class HardwareOrder {
+public class HardwareOrder implements HasId {
     @SerializedName("id")
     private String id;
 
@@ -0,0 +1,425 @@
+package com.stripe.terminal.model;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A compact, column-oriented set of Terminal Hardware Orders for reporting over large order
+ * histories.
+ *
+ * <p>Each field is stored in its own array rather than in one object per order. Amounts and
+ * timestamps are primitive {@code long}s, with {@link #NULL} for absent values. Repeated strings,
+ * such as {@code object}, status, currency, payment type, shipping method, shipment carrier and
+ * metadata keys, are dictionary-coded, so each distinct value is stored once and filtering on
+ * them compares {@code int} codes. Shipment tracking is flattened into columns. Line items,
+ * shipping details and tax amounts stay as objects.</p>
+ *
+ * <p>Orders are converted back to {@link HardwareOrder} only when asked for, with {@link #get} or
+ * the {@link #asList()} view. The converted orders share nested objects and metadata maps with the
+ * batch and must be treated as read-only.</p>
+ *
+ * <p>{@code HardwareOrderService.listBatch} and {@code listAllBatch} decode list responses
+ * straight into a batch, folding in each order as soon as it is parsed. Appending is not
+ * thread-safe; a filled batch can be read from several threads.</p>
+ */
+public class HardwareOrderBatch {
+    /**
+     * Stands for an absent amount or timestamp.
+     */
+    public static final long NULL = Long.MIN_VALUE;
+
+    private static final byte BOOLEAN_NULL = -1;
+
+    private final StringDictionary dictionary = new StringDictionary();
+    private int size;
+    private Boolean hasMore;
+
+    private String[] ids;
+    private int[] objects;
+    private long[] amounts;
+    private long[] created;
+    private int[] currencies;
+    private byte[] livemodes;
+    private int[] paymentTypes;
+    private String[] poNumbers;
+    private int[] shippingMethods;
+    private int[] statuses;
+    private long[] taxes;
+    private long[] updated;
+    private Object[] items;
+    private Object[] metadata;
+    private Object[] shipping;
+    private Object[] totalTaxAmounts;
+
+    // Shipment tracking of order i is rows trackingStart[i] to trackingStart[i] + trackingCount[i]; count -1 is null
+    private int[] trackingStart;
+    private int[] trackingCount;
+    private int trackingSize;
+    private int[] trackingCarriers;
+    private String[] trackingNumbers;
+    private String[] trackingUrls;
+
+    public HardwareOrderBatch() {
+        this(16);
+    }
+
+    /**
+     * @param capacity Number of orders to allocate room for up front
+     */
+    public HardwareOrderBatch(int capacity) {
+        allocate(Math.max(capacity, 1));
+    }
+
+    /**
+     * Builds a batch from existing orders.
+     */
+    public static HardwareOrderBatch of(Collection<HardwareOrder> orders) {
+        HardwareOrderBatch batch = new HardwareOrderBatch(orders.size());
+        for (HardwareOrder order : orders) {
+            batch.add(order);
+        }
+        return batch;
+    }
+
+    /**
+     * Appends an order, copying its fields into the columns.
+     *
+     * @param order The order
+     */
+    public void add(HardwareOrder order) {
+        if (size == ids.length) {
+            grow(size * 2);
+        }
+        int i = size;
+        ids[i] = order.getId();
+        objects[i] = dictionary.encode(order.getObject());
+        amounts[i] = toLong(order.getAmount());
+        created[i] = toLong(order.getCreated());
+        currencies[i] = dictionary.encode(order.getCurrency());
+        livemodes[i] = order.getLivemode() == null ? BOOLEAN_NULL : (byte) (order.getLivemode() ? 1 : 0);
+        paymentTypes[i] = dictionary.encode(order.getPaymentType());
+        poNumbers[i] = order.getPoNumber();
+        shippingMethods[i] = dictionary.encode(order.getShippingMethod());
+        statuses[i] = dictionary.encode(order.getStatus());
+        taxes[i] = toLong(order.getTax());
+        updated[i] = toLong(order.getUpdated());
+        items[i] = order.getHardwareOrderItems();
+        metadata[i] = canonicalKeys(order.getMetadata());
+        shipping[i] = order.getShipping();
+        totalTaxAmounts[i] = order.getTotalTaxAmounts();
+        addTracking(i, order.getShipmentTracking());
+        size++;
+    }
+
+    /**
+     * Appends every order of another batch.
+     */
+    public void addAll(HardwareOrderBatch other) {
+        for (int i = 0; i < other.size; i++) {
+            add(other.get(i));
+        }
+    }
+
+    /**
+     * @return The number of orders
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return Whether the list response this batch was decoded from had more pages, or null if it
+     * was not decoded from one
+     */
+    public Boolean getHasMore() {
+        return hasMore;
+    }
+
+    public void setHasMore(Boolean hasMore) {
+        this.hasMore = hasMore;
+    }
+
+    /**
+     * Converts one order back to a {@link HardwareOrder}. Each call returns a new instance.
+     *
+     * @param index Position in the batch
+     */
+    @SuppressWarnings("unchecked")
+    public HardwareOrder get(int index) {
+        checkIndex(index);
+        HardwareOrder order = new HardwareOrder();
+        order.setId(ids[index]);
+        order.setObject(dictionary.decode(objects[index]));
+        order.setAmount(toBoxed(amounts[index]));
+        order.setCreated(toBoxed(created[index]));
+        order.setCurrency(dictionary.decode(currencies[index]));
+        order.setHardwareOrderItems((List<HardwareOrderItem>) items[index]);
+        order.setLivemode(getLivemode(index));
+        order.setMetadata((Map<String, String>) metadata[index]);
+        order.setPaymentType(dictionary.decode(paymentTypes[index]));
+        order.setPoNumber(poNumbers[index]);
+        order.setShipmentTracking(getShipmentTracking(index));
+        order.setShipping((ShippingDetails) shipping[index]);
+        order.setShippingMethod(dictionary.decode(shippingMethods[index]));
+        order.setStatus(dictionary.decode(statuses[index]));
+        order.setTax(toBoxed(taxes[index]));
+        order.setTotalTaxAmounts((List<TaxAmount>) totalTaxAmounts[index]);
+        order.setUpdated(toBoxed(updated[index]));
+        return order;
+    }
+
+    /**
+     * @return A read-only view that converts each order when it is accessed
+     */
+    public List<HardwareOrder> asList() {
+        return new AbstractList<HardwareOrder>() {
+            @Override
+            public HardwareOrder get(int index) {
+                return HardwareOrderBatch.this.get(index);
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    public String getId(int index) {
+        checkIndex(index);
+        return ids[index];
+    }
+
+    /**
+     * @return The amount in the smallest currency unit, or {@link #NULL}
+     */
+    public long getAmount(int index) {
+        checkIndex(index);
+        return amounts[index];
+    }
+
+    /**
+     * @return The tax in the smallest currency unit, or {@link #NULL}
+     */
+    public long getTax(int index) {
+        checkIndex(index);
+        return taxes[index];
+    }
+
+    /**
+     * @return Unix time in seconds, or {@link #NULL}
+     */
+    public long getCreated(int index) {
+        checkIndex(index);
+        return created[index];
+    }
+
+    /**
+     * @return Unix time in seconds, or {@link #NULL}
+     */
+    public long getUpdated(int index) {
+        checkIndex(index);
+        return updated[index];
+    }
+
+    public Boolean getLivemode(int index) {
+        checkIndex(index);
+        byte livemode = livemodes[index];
+        return livemode == BOOLEAN_NULL ? null : livemode == 1;
+    }
+
+    public String getCurrency(int index) {
+        checkIndex(index);
+        return dictionary.decode(currencies[index]);
+    }
+
+    public String getStatus(int index) {
+        checkIndex(index);
+        return dictionary.decode(statuses[index]);
+    }
+
+    public String getPaymentType(int index) {
+        checkIndex(index);
+        return dictionary.decode(paymentTypes[index]);
+    }
+
+    public String getShippingMethod(int index) {
+        checkIndex(index);
+        return dictionary.decode(shippingMethods[index]);
+    }
+
+    public String getPoNumber(int index) {
+        checkIndex(index);
+        return poNumbers[index];
+    }
+
+    @SuppressWarnings("unchecked")
+    public Map<String, String> getMetadata(int index) {
+        checkIndex(index);
+        return (Map<String, String>) metadata[index];
+    }
+
+    /**
+     * @return The order's status code, for comparing with {@link #codeOf}
+     */
+    public int getStatusCode(int index) {
+        checkIndex(index);
+        return statuses[index];
+    }
+
+    /**
+     * @return The currency code, for comparing with {@link #codeOf}
+     */
+    public int getCurrencyCode(int index) {
+        checkIndex(index);
+        return currencies[index];
+    }
+
+    /**
+     * Looks up the code of a status, currency or other dictionary-coded value in this batch, so
+     * loops can compare codes instead of strings:
+     * <pre>
+     * int shipped = batch.codeOf("shipped");
+     * for (int i = 0; i &lt; batch.size(); i++) {
+     *     if (batch.getStatusCode(i) == shipped) { total += batch.getAmount(i); }
+     * }
+     * </pre>
+     *
+     * @return The code, or -1 if no order in the batch has this value
+     */
+    public int codeOf(String value) {
+        return value != null ? dictionary.find(value) : StringDictionary.NULL;
+    }
+
+    /**
+     * @return The order's shipment tracking as new objects, or null if it had none
+     */
+    public List<ShipmentTracking> getShipmentTracking(int index) {
+        checkIndex(index);
+        int count = trackingCount[index];
+        if (count < 0) {
+            return null;
+        }
+        List<ShipmentTracking> tracking = new ArrayList<>(count);
+        for (int row = trackingStart[index]; row < trackingStart[index] + count; row++) {
+            ShipmentTracking shipment = new ShipmentTracking();
+            shipment.setCarrier(dictionary.decode(trackingCarriers[row]));
+            shipment.setTrackingNumber(trackingNumbers[row]);
+            shipment.setTrackingUrl(trackingUrls[row]);
+            tracking.add(shipment);
+        }
+        return tracking;
+    }
+
+    private void addTracking(int index, List<ShipmentTracking> tracking) {
+        trackingStart[index] = trackingSize;
+        if (tracking == null) {
+            trackingCount[index] = -1;
+            return;
+        }
+        trackingCount[index] = tracking.size();
+        if (trackingSize + tracking.size() > trackingCarriers.length) {
+            int capacity = Math.max(trackingCarriers.length * 2, trackingSize + tracking.size());
+            trackingCarriers = Arrays.copyOf(trackingCarriers, capacity);
+            trackingNumbers = Arrays.copyOf(trackingNumbers, capacity);
+            trackingUrls = Arrays.copyOf(trackingUrls, capacity);
+        }
+        for (ShipmentTracking shipment : tracking) {
+            trackingCarriers[trackingSize] = dictionary.encode(shipment.getCarrier());
+            trackingNumbers[trackingSize] = shipment.getTrackingNumber();
+            trackingUrls[trackingSize] = shipment.getTrackingUrl();
+            trackingSize++;
+        }
+    }
+
+    /**
+     * Rebuilds the map with keys shared through the dictionary, so repeated keys are stored once.
+     */
+    private Map<String, String> canonicalKeys(Map<String, String> map) {
+        if (map == null) {
+            return null;
+        }
+        if (map.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Map<String, String> canonical = new LinkedHashMap<>(map.size() * 4 / 3 + 1);
+        for (Map.Entry<String, String> entry : map.entrySet()) {
+            canonical.put(dictionary.canonical(entry.getKey()), entry.getValue());
+        }
+        return canonical;
+    }
+
+    private void allocate(int capacity) {
+        ids = new String[capacity];
+        objects = new int[capacity];
+        amounts = new long[capacity];
+        created = new long[capacity];
+        currencies = new int[capacity];
+        livemodes = new byte[capacity];
+        paymentTypes = new int[capacity];
+        poNumbers = new String[capacity];
+        shippingMethods = new int[capacity];
+        statuses = new int[capacity];
+        taxes = new long[capacity];
+        updated = new long[capacity];
+        items = new Object[capacity];
+        metadata = new Object[capacity];
+        shipping = new Object[capacity];
+        totalTaxAmounts = new Object[capacity];
+        trackingStart = new int[capacity];
+        trackingCount = new int[capacity];
+        trackingCarriers = new int[capacity];
+        trackingNumbers = new String[capacity];
+        trackingUrls = new String[capacity];
+    }
+
+    private void grow(int capacity) {
+        ids = Arrays.copyOf(ids, capacity);
+        objects = Arrays.copyOf(objects, capacity);
+        amounts = Arrays.copyOf(amounts, capacity);
+        created = Arrays.copyOf(created, capacity);
+        currencies = Arrays.copyOf(currencies, capacity);
+        livemodes = Arrays.copyOf(livemodes, capacity);
+        paymentTypes = Arrays.copyOf(paymentTypes, capacity);
+        poNumbers = Arrays.copyOf(poNumbers, capacity);
+        shippingMethods = Arrays.copyOf(shippingMethods, capacity);
+        statuses = Arrays.copyOf(statuses, capacity);
+        taxes = Arrays.copyOf(taxes, capacity);
+        updated = Arrays.copyOf(updated, capacity);
+        items = Arrays.copyOf(items, capacity);
+        metadata = Arrays.copyOf(metadata, capacity);
+        shipping = Arrays.copyOf(shipping, capacity);
+        totalTaxAmounts = Arrays.copyOf(totalTaxAmounts, capacity);
+        trackingStart = Arrays.copyOf(trackingStart, capacity);
+        trackingCount = Arrays.copyOf(trackingCount, capacity);
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+        }
+    }
+
+    private static long toLong(Long value) {
+        return value != null ? value : NULL;
+    }
+
+    private static Long toBoxed(long value) {
+        return value != NULL ? value : null;
+    }
+
+    @Override
+    public String toString() {
+        return "HardwareOrderBatch{" +
+                "size=" + size +
+                ", hasMore=" + hasMore +
+                ", distinctValues=" + dictionary.size() +
+                '}';
+    }
+}
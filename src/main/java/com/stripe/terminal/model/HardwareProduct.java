@@ -5,7 +5,7 @@ import com.google.gson.annotations.SerializedName;
 /**
  * Represents a Terminal Hardware Product.
  */
-public class HardwareProduct {
+public class HardwareProduct implements HasId {
     @SerializedName("id")
     private String id;
 
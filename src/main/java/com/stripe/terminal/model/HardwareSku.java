@@ -5,7 +5,7 @@ import com.google.gson.annotations.SerializedName;
 /**
  * Represents a Terminal Hardware SKU.
  */
-public class HardwareSku {
+public class HardwareSku implements HasId {
     @SerializedName("id")
     private String id;
 
@@ -0,0 +1,9 @@
+package com.stripe.terminal.model;
+
+/**
+ * Implemented by API resources that carry a Stripe object ID.
+ * Used as the pagination cursor when walking list endpoints.
+ */
+public interface HasId {
+    String getId();
+}
@@ -5,7 +5,7 @@ import com.google.gson.annotations.SerializedName;
 /**
  * Represents a Terminal Hardware Shipping Method.
  */
-public class ShippingMethod {
+public class ShippingMethod implements HasId {
     @SerializedName("id")
     private String id;
 
@@ -0,0 +1,60 @@
+package com.stripe.terminal.model;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Assigns small integer codes to repeated string values, such as statuses and currencies, so
+ * each distinct value is stored once. Code {@code -1} stands for null. Not thread-safe.
+ */
+final class StringDictionary {
+    static final int NULL = -1;
+
+    private final Map<String, Integer> codes = new HashMap<>();
+    private String[] values = new String[16];
+
+    /**
+     * @return The code for the value, adding it if it is new
+     */
+    int encode(String value) {
+        if (value == null) {
+            return NULL;
+        }
+        Integer code = codes.get(value);
+        if (code != null) {
+            return code;
+        }
+        int next = codes.size();
+        if (next == values.length) {
+            values = Arrays.copyOf(values, next * 2);
+        }
+        values[next] = value;
+        codes.put(value, next);
+        return next;
+    }
+
+    /**
+     * @return The code for the value, or {@link #NULL} if it has never been encoded
+     */
+    int find(String value) {
+        Integer code = value != null ? codes.get(value) : null;
+        return code != null ? code : NULL;
+    }
+
+    /**
+     * @return The shared instance of the value, adding it if it is new
+     */
+    String canonical(String value) {
+        int code = encode(value);
+        return code == NULL ? null : values[code];
+    }
+
+    String decode(int code) {
+        return code == NULL ? null : values[code];
+    }
+
+    int size() {
+        return codes.size();
+    }
+}
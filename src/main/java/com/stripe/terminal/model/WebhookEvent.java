@@ -0,0 +1,171 @@
+package com.stripe.terminal.model;
+
+import com.google.gson.annotations.SerializedName;
+
+/**
+ * Represents a webhook event about a Terminal Hardware Order, such as
+ * {@code terminal.hardware_order.shipped}.
+ */
+public class WebhookEvent {
+    public static final String TYPE_PREFIX = "terminal.hardware_order.";
+    public static final String TYPE_CREATED = TYPE_PREFIX + "created";
+
+    @SerializedName("id")
+    private String id;
+
+    @SerializedName("object")
+    private String object; // "event"
+
+    @SerializedName("account")
+    private String account;
+
+    @SerializedName("api_version")
+    private String apiVersion;
+
+    @SerializedName("created")
+    private Long created;
+
+    @SerializedName("data")
+    private Data data;
+
+    @SerializedName("livemode")
+    private Boolean livemode;
+
+    @SerializedName("type")
+    private String type;
+
+    /**
+     * The object the event is about, and the values of its fields before the change.
+     */
+    public static class Data {
+        @SerializedName("object")
+        private HardwareOrder object;
+
+        @SerializedName("previous_attributes")
+        private HardwareOrder previousAttributes; // only the fields that changed
+
+        public HardwareOrder getObject() {
+            return object;
+        }
+
+        public void setObject(HardwareOrder object) {
+            this.object = object;
+        }
+
+        public HardwareOrder getPreviousAttributes() {
+            return previousAttributes;
+        }
+
+        public void setPreviousAttributes(HardwareOrder previousAttributes) {
+            this.previousAttributes = previousAttributes;
+        }
+
+        @Override
+        public String toString() {
+            return "Data{" +
+                    "object=" + object +
+                    ", previousAttributes=" + previousAttributes +
+                    '}';
+        }
+    }
+
+    /**
+     * @return Whether this is a {@code terminal.hardware_order.*} event
+     */
+    public boolean isHardwareOrderEvent() {
+        return type != null && type.startsWith(TYPE_PREFIX);
+    }
+
+    /**
+     * @return Whether this is a {@code terminal.hardware_order.created} event
+     */
+    public boolean isOrderCreated() {
+        return TYPE_CREATED.equals(type);
+    }
+
+    /**
+     * @return The order in {@code data.object}, or null if there is none
+     */
+    public HardwareOrder getOrder() {
+        return data != null ? data.getObject() : null;
+    }
+
+    // Getters and Setters
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getObject() {
+        return object;
+    }
+
+    public void setObject(String object) {
+        this.object = object;
+    }
+
+    public String getAccount() {
+        return account;
+    }
+
+    public void setAccount(String account) {
+        this.account = account;
+    }
+
+    public String getApiVersion() {
+        return apiVersion;
+    }
+
+    public void setApiVersion(String apiVersion) {
+        this.apiVersion = apiVersion;
+    }
+
+    public Long getCreated() {
+        return created;
+    }
+
+    public void setCreated(Long created) {
+        this.created = created;
+    }
+
+    public Data getData() {
+        return data;
+    }
+
+    public void setData(Data data) {
+        this.data = data;
+    }
+
+    public Boolean getLivemode() {
+        return livemode;
+    }
+
+    public void setLivemode(Boolean livemode) {
+        this.livemode = livemode;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    @Override
+    public String toString() {
+        return "WebhookEvent{" +
+                "id='" + id + '\'' +
+                ", object='" + object + '\'' +
+                ", account='" + account + '\'' +
+                ", apiVersion='" + apiVersion + '\'' +
+                ", created=" + created +
+                ", data=" + data +
+                ", livemode=" + livemode +
+                ", type='" + type + '\'' +
+                '}';
+    }
+}
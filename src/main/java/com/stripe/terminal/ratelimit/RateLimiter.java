@@ -0,0 +1,47 @@
+package com.stripe.terminal.ratelimit;
+
+import com.stripe.terminal.exception.StripeException;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Limits the rate of requests sent to the Stripe API.
+ *
+ * <p>The client calls the limiter before every attempt, including retries. Stripe applies separate
+ * limits to reads and writes per account, so permits are requested per API key and
+ * {@link RequestClass}. Requests made on behalf of a connected account pass the key as
+ * {@code apiKey + "/" + stripeAccount}, so each connected account gets its own budget.</p>
+ *
+ * <p>Implementations must be thread-safe.</p>
+ */
+public interface RateLimiter {
+
+    /**
+     * Request classes with independent budgets.
+     */
+    enum RequestClass {
+        /** GET requests. */
+        READ,
+        /** POST requests. */
+        WRITE
+    }
+
+    /**
+     * Blocks until a permit is available.
+     *
+     * @param apiKey       The API key the request is sent with, suffixed with {@code /} and the Stripe-Account if any
+     * @param requestClass Whether the request reads or writes
+     * @throws StripeException with status 429 if the request is shed instead of waiting
+     */
+    void acquire(String apiKey, RequestClass requestClass) throws StripeException;
+
+    /**
+     * Returns a future that completes once a permit is available, without blocking the calling thread.
+     *
+     * @param apiKey       The API key the request is sent with, suffixed with {@code /} and the Stripe-Account if any
+     * @param requestClass Whether the request reads or writes
+     * @return A future completing when the request may be sent, or exceptionally with a
+     *         StripeException with status 429 if it is shed
+     */
+    CompletableFuture<Void> acquireAsync(String apiKey, RequestClass requestClass);
+}
@@ -0,0 +1,327 @@
+package com.stripe.terminal.ratelimit;
+
+import com.stripe.terminal.exception.StripeException;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Lock-free token-bucket {@link RateLimiter} with separate read and write buckets per API key.
+ *
+ * <p>Each bucket refills at a steady rate and holds up to {@code burst} tokens. It is implemented as
+ * a virtual scheduling clock (GCRA): taking a permit is a single compare-and-set that reserves the
+ * next free slot, so no thread ever holds a lock while waiting.</p>
+ *
+ * <p>In {@link Mode#QUEUE} mode a caller waits for its reserved slot, unless the wait would exceed
+ * {@code maxWait}, in which case the request is shed. In {@link Mode#SHED} mode any request that
+ * cannot be sent immediately is shed. Shed requests fail with a {@link StripeException} with status
+ * 429, error type {@code rate_limit_error} and code {@code client_rate_limited}, and are not retried.</p>
+ *
+ * <p>The buckets of a key are dropped once they have been full and unused for {@code idleTimeout},
+ * so a limiter shared by many connected accounts does not grow without bound. A full bucket limits
+ * exactly like a new one, so dropping it does not change which requests are sent.</p>
+ *
+ * <pre>
+ * StripeConfig config = StripeConfig.builder("sk_live_...")
+ *     .rateLimiter(TokenBucketRateLimiter.builder()
+ *         .readsPerSecond(90)
+ *         .writesPerSecond(90)
+ *         .build())
+ *     .build();
+ * </pre>
+ */
+public class TokenBucketRateLimiter implements RateLimiter {
+
+    /**
+     * What happens to a request that cannot be sent immediately.
+     */
+    public enum Mode {
+        /** Wait for a permit, up to {@code maxWait}. */
+        QUEUE,
+        /** Fail immediately. */
+        SHED
+    }
+
+    public static final double DEFAULT_PERMITS_PER_SECOND = 25;
+    public static final Duration DEFAULT_MAX_WAIT = Duration.ofSeconds(30);
+    public static final Duration DEFAULT_IDLE_TIMEOUT = Duration.ofMinutes(5);
+
+    private final Map<RequestClass, Double> rates = new EnumMap<>(RequestClass.class);
+    private final Map<RequestClass, Integer> bursts = new EnumMap<>(RequestClass.class);
+    private final Mode mode;
+    private final long maxWaitNanos;
+    private final long idleTimeoutNanos;
+
+    private final ConcurrentHashMap<String, Map<RequestClass, Bucket>> buckets = new ConcurrentHashMap<>();
+    // When idle buckets are next looked for; one caller per interval claims the sweep
+    private final AtomicLong nextEvictionAt;
+    private final Map<RequestClass, LatencyHistogram> waitTimes = new EnumMap<>(RequestClass.class);
+    private final Map<RequestClass, LongAdder> shed = new EnumMap<>(RequestClass.class);
+
+    private TokenBucketRateLimiter(Builder builder) {
+        this.rates.put(RequestClass.READ, builder.readsPerSecond);
+        this.rates.put(RequestClass.WRITE, builder.writesPerSecond);
+        this.bursts.put(RequestClass.READ, builder.readBurst > 0 ? builder.readBurst : defaultBurst(builder.readsPerSecond));
+        this.bursts.put(RequestClass.WRITE, builder.writeBurst > 0 ? builder.writeBurst : defaultBurst(builder.writesPerSecond));
+        this.mode = builder.mode;
+        this.maxWaitNanos = builder.maxWait.toNanos();
+        this.idleTimeoutNanos = builder.idleTimeout.toNanos();
+        this.nextEvictionAt = new AtomicLong(System.nanoTime() + idleTimeoutNanos);
+
+        for (RequestClass requestClass : RequestClass.values()) {
+            waitTimes.put(requestClass, new LatencyHistogram());
+            shed.put(requestClass, new LongAdder());
+        }
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    @Override
+    public void acquire(String apiKey, RequestClass requestClass) throws StripeException {
+        long waitNanos = reserve(apiKey, requestClass);
+        long deadline = System.nanoTime() + waitNanos;
+        while (waitNanos > 0) {
+            LockSupport.parkNanos(this, waitNanos);
+            if (Thread.currentThread().isInterrupted()) {
+                throw new StripeException("Interrupted while waiting for rate limiter", 0);
+            }
+            waitNanos = deadline - System.nanoTime();
+        }
+    }
+
+    @Override
+    public CompletableFuture<Void> acquireAsync(String apiKey, RequestClass requestClass) {
+        long waitNanos;
+        try {
+            waitNanos = reserve(apiKey, requestClass);
+        } catch (StripeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        if (waitNanos == 0) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return CompletableFuture.runAsync(() -> { },
+                CompletableFuture.delayedExecutor(waitNanos, TimeUnit.NANOSECONDS));
+    }
+
+    /**
+     * Returns the distribution of time requests of the given class spent waiting for a permit,
+     * across all API keys. Requests sent without waiting are recorded as zero.
+     */
+    public LatencyHistogram getWaitTimes(RequestClass requestClass) {
+        return waitTimes.get(requestClass);
+    }
+
+    /**
+     * Returns the number of requests of the given class that were shed.
+     */
+    public long getShedCount(RequestClass requestClass) {
+        return shed.get(requestClass).sum();
+    }
+
+    public double getPermitsPerSecond(RequestClass requestClass) {
+        return rates.get(requestClass);
+    }
+
+    public int getBurst(RequestClass requestClass) {
+        return bursts.get(requestClass);
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    public Duration getIdleTimeout() {
+        return Duration.ofNanos(idleTimeoutNanos);
+    }
+
+    /**
+     * Returns the number of API keys that currently have buckets.
+     */
+    public int getTrackedKeyCount() {
+        return buckets.size();
+    }
+
+    /**
+     * Reserves a slot and returns how long the caller must wait for it.
+     */
+    private long reserve(String apiKey, RequestClass requestClass) throws StripeException {
+        long now = System.nanoTime();
+        long evictionAt = nextEvictionAt.get();
+        if (now - evictionAt >= 0 && nextEvictionAt.compareAndSet(evictionAt, now + idleTimeoutNanos)) {
+            evictIdle(now);
+        }
+        Bucket bucket = buckets.computeIfAbsent(apiKey, key -> newBuckets()).get(requestClass);
+        long allowedWait = mode == Mode.SHED ? 0 : maxWaitNanos;
+
+        long waitNanos = bucket.reserve(now, allowedWait);
+        if (waitNanos < 0) {
+            shed.get(requestClass).increment();
+            throw new StripeException("Client-side rate limit exceeded for "
+                    + requestClass.name().toLowerCase() + " requests", 429, null, "rate_limit_error", "client_rate_limited");
+        }
+        waitTimes.get(requestClass).recordNanos(waitNanos);
+        return waitNanos;
+    }
+
+    /**
+     * Drops the buckets of keys whose buckets have all been full for at least the idle timeout.
+     * A caller that looked up a bucket just before it was dropped still reserves from it; that
+     * can only let through one extra burst, and only after the key sat idle for the timeout.
+     */
+    private void evictIdle(long now) {
+        buckets.values().removeIf(perClass -> {
+            for (Bucket bucket : perClass.values()) {
+                if (!bucket.isIdle(now, idleTimeoutNanos)) {
+                    return false;
+                }
+            }
+            return true;
+        });
+    }
+
+    private Map<RequestClass, Bucket> newBuckets() {
+        Map<RequestClass, Bucket> perClass = new EnumMap<>(RequestClass.class);
+        for (RequestClass requestClass : RequestClass.values()) {
+            perClass.put(requestClass, new Bucket(rates.get(requestClass), bursts.get(requestClass)));
+        }
+        return perClass;
+    }
+
+    private static int defaultBurst(double permitsPerSecond) {
+        return Math.max(1, (int) Math.ceil(permitsPerSecond));
+    }
+
+    /**
+     * One token bucket, stored as the theoretical time at which the bucket will next be full.
+     */
+    private static final class Bucket {
+        private final long intervalNanos;
+        private final long burstNanos;
+        private final AtomicLong fullAt;
+
+        Bucket(double permitsPerSecond, int burst) {
+            this.intervalNanos = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond));
+            this.burstNanos = intervalNanos * burst;
+            this.fullAt = new AtomicLong(System.nanoTime());
+        }
+
+        /**
+         * @return Whether the bucket has been full for at least the given time
+         */
+        boolean isIdle(long now, long idleNanos) {
+            return now - fullAt.get() >= idleNanos;
+        }
+
+        /**
+         * @return The wait before the reserved slot, or -1 if it would exceed the allowed wait
+         */
+        long reserve(long now, long allowedWaitNanos) {
+            while (true) {
+                long current = fullAt.get();
+                // A bucket whose full time has passed is simply full
+                long base = Math.max(current, now);
+                long next = base + intervalNanos;
+                long wait = Math.max(0, next - now - burstNanos);
+                if (wait > allowedWaitNanos) {
+                    return -1;
+                }
+                if (fullAt.compareAndSet(current, next)) {
+                    return wait;
+                }
+            }
+        }
+    }
+
+    public static class Builder {
+        private double readsPerSecond = DEFAULT_PERMITS_PER_SECOND;
+        private double writesPerSecond = DEFAULT_PERMITS_PER_SECOND;
+        private int readBurst;
+        private int writeBurst;
+        private Mode mode = Mode.QUEUE;
+        private Duration maxWait = DEFAULT_MAX_WAIT;
+        private Duration idleTimeout = DEFAULT_IDLE_TIMEOUT;
+
+        /**
+         * Sustained rate of GET requests per API key. Defaults to 25, Stripe's test mode limit.
+         */
+        public Builder readsPerSecond(double readsPerSecond) {
+            this.readsPerSecond = readsPerSecond;
+            return this;
+        }
+
+        /**
+         * Sustained rate of POST requests per API key. Defaults to 25, Stripe's test mode limit.
+         */
+        public Builder writesPerSecond(double writesPerSecond) {
+            this.writesPerSecond = writesPerSecond;
+            return this;
+        }
+
+        /**
+         * Number of reads that can be sent at once after an idle period. Defaults to one second's worth.
+         */
+        public Builder readBurst(int readBurst) {
+            this.readBurst = readBurst;
+            return this;
+        }
+
+        /**
+         * Number of writes that can be sent at once after an idle period. Defaults to one second's worth.
+         */
+        public Builder writeBurst(int writeBurst) {
+            this.writeBurst = writeBurst;
+            return this;
+        }
+
+        public Builder mode(Mode mode) {
+            this.mode = mode;
+            return this;
+        }
+
+        /**
+         * Longest a request waits for a permit in {@link Mode#QUEUE} mode before it is shed.
+         */
+        public Builder maxWait(Duration maxWait) {
+            this.maxWait = maxWait;
+            return this;
+        }
+
+        /**
+         * How long an API key's buckets stay after they have refilled and gone unused. Defaults to
+         * 5 minutes.
+         */
+        public Builder idleTimeout(Duration idleTimeout) {
+            this.idleTimeout = idleTimeout;
+            return this;
+        }
+
+        public TokenBucketRateLimiter build() {
+            if (!(readsPerSecond > 0) || !(writesPerSecond > 0)) {
+                throw new IllegalArgumentException("Rates must be positive");
+            }
+            if (readBurst < 0 || writeBurst < 0) {
+                throw new IllegalArgumentException("Burst cannot be negative");
+            }
+            if (mode == null) {
+                throw new IllegalArgumentException("Mode cannot be null");
+            }
+            if (maxWait == null || maxWait.isNegative()) {
+                throw new IllegalArgumentException("Max wait cannot be null or negative");
+            }
+            if (idleTimeout == null || idleTimeout.isNegative() || idleTimeout.isZero()) {
+                throw new IllegalArgumentException("Idle timeout must be positive");
+            }
+            return new TokenBucketRateLimiter(this);
+        }
+    }
+}
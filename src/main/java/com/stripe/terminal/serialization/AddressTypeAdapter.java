@@ -0,0 +1,73 @@
+package com.stripe.terminal.serialization;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import com.stripe.terminal.model.Address;
+
+import java.io.IOException;
+
+/**
+ * Reflection-free adapter for {@link Address}.
+ */
+final class AddressTypeAdapter extends TypeAdapter<Address> {
+    static final AddressTypeAdapter INSTANCE = new AddressTypeAdapter();
+
+    private AddressTypeAdapter() {
+    }
+
+    @Override
+    public void write(JsonWriter out, Address value) throws IOException {
+        if (value == null) {
+            out.nullValue();
+            return;
+        }
+
+        out.beginObject();
+        out.name("line1").value(value.getLine1());
+        out.name("line2").value(value.getLine2());
+        out.name("city").value(value.getCity());
+        out.name("state").value(value.getState());
+        out.name("postal_code").value(value.getPostalCode());
+        out.name("country").value(value.getCountry());
+        out.endObject();
+    }
+
+    @Override
+    public Address read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+
+        Address address = new Address();
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "line1":
+                    address.setLine1(JsonValues.readString(in));
+                    break;
+                case "line2":
+                    address.setLine2(JsonValues.readString(in));
+                    break;
+                case "city":
+                    address.setCity(JsonValues.readString(in));
+                    break;
+                case "state":
+                    address.setState(JsonValues.readString(in));
+                    break;
+                case "postal_code":
+                    address.setPostalCode(JsonValues.readString(in));
+                    break;
+                case "country":
+                    address.setCountry(JsonValues.readString(in));
+                    break;
+                default:
+                    in.skipValue();
+            }
+        }
+        in.endObject();
+        return address;
+    }
+}
@@ -0,0 +1,111 @@
+package com.stripe.terminal.serialization;
+
+import com.google.gson.Gson;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.stripe.terminal.model.HardwareOrder;
+import com.stripe.terminal.model.StripeList;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.lang.reflect.Type;
+import java.util.Collections;
+import java.util.function.Consumer;
+
+/**
+ * Default {@link JsonSerializer} backed by Gson and the Stripe model adapters.
+ */
+public class GsonJsonSerializer implements JsonSerializer {
+    private final Gson gson;
+
+    public GsonJsonSerializer() {
+        this(StripeGson.create());
+    }
+
+    public GsonJsonSerializer(Gson gson) {
+        this.gson = gson;
+    }
+
+    @Override
+    public <T> T deserialize(Reader reader, Type type) {
+        return gson.fromJson(reader, type);
+    }
+
+    @Override
+    public <T> StripeList<T> deserializeList(Reader reader, Class<T> itemType, Consumer<? super T> consumer)
+            throws IOException {
+        return readList(reader, gson.getAdapter(itemType)::read, consumer);
+    }
+
+    /**
+     * Decodes projected orders with the built-in HardwareOrder adapter, bypassing any adapter
+     * registered on the Gson instance. The full projection goes through the Gson instance as usual.
+     */
+    @Override
+    public HardwareOrder deserializeOrder(Reader reader, OrderProjection projection) throws IOException {
+        if (projection.includesAll()) {
+            return deserialize(reader, HardwareOrder.class);
+        }
+        try (JsonReader json = new JsonReader(reader)) {
+            return HardwareOrderTypeAdapter.INSTANCE.read(json, projection);
+        }
+    }
+
+    @Override
+    public StripeList<HardwareOrder> deserializeOrderList(Reader reader, OrderProjection projection,
+                                                        Consumer<? super HardwareOrder> consumer)
+            throws IOException {
+        if (projection.includesAll()) {
+            return deserializeList(reader, HardwareOrder.class, consumer);
+        }
+        return readList(reader, json -> HardwareOrderTypeAdapter.INSTANCE.read(json, projection), consumer);
+    }
+
+    private static <T> StripeList<T> readList(Reader reader, ItemReader<T> itemReader, Consumer<? super T> consumer)
+            throws IOException {
+        StripeList<T> list = new StripeList<>();
+        list.setData(Collections.emptyList());
+
+        try (JsonReader json = new JsonReader(reader)) {
+            json.beginObject();
+            while (json.hasNext()) {
+                String name = json.nextName();
+                if (json.peek() == JsonToken.NULL) {
+                    json.nextNull();
+                    continue;
+                }
+                switch (name) {
+                    case "data":
+                        json.beginArray();
+                        while (json.hasNext()) {
+                            consumer.accept(itemReader.read(json));
+                        }
+                        json.endArray();
+                        break;
+                    case "has_more":
+                        list.setHasMore(json.nextBoolean());
+                        break;
+                    case "object":
+                        list.setObject(json.nextString());
+                        break;
+                    case "url":
+                        list.setUrl(json.nextString());
+                        break;
+                    default:
+                        json.skipValue();
+                }
+            }
+            json.endObject();
+        }
+        return list;
+    }
+
+    public Gson getGson() {
+        return gson;
+    }
+
+    @FunctionalInterface
+    private interface ItemReader<T> {
+        T read(JsonReader in) throws IOException;
+    }
+}
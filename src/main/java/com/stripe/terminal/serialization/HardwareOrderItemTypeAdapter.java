@@ -0,0 +1,77 @@
+package com.stripe.terminal.serialization;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import com.stripe.terminal.model.HardwareOrderItem;
+
+import java.io.IOException;
+
+/**
+ * Reflection-free adapter for {@link HardwareOrderItem}.
+ */
+final class HardwareOrderItemTypeAdapter extends TypeAdapter<HardwareOrderItem> {
+    static final HardwareOrderItemTypeAdapter INSTANCE = new HardwareOrderItemTypeAdapter();
+
+    private HardwareOrderItemTypeAdapter() {
+    }
+
+    @Override
+    public void write(JsonWriter out, HardwareOrderItem value) throws IOException {
+        if (value == null) {
+            out.nullValue();
+            return;
+        }
+
+        out.beginObject();
+        out.name("terminal_hardware_sku");
+        Object sku = value.getTerminalHardwareSku();
+        if (sku instanceof JsonElement) {
+            JsonValues.writeJsonElement(out, (JsonElement) sku);
+        } else {
+            out.value(sku != null ? sku.toString() : null);
+        }
+        out.name("quantity").value(value.getQuantity());
+        out.name("amount").value(value.getAmount());
+        out.name("currency").value(value.getCurrency());
+        out.endObject();
+    }
+
+    @Override
+    public HardwareOrderItem read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+
+        HardwareOrderItem item = new HardwareOrderItem();
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "terminal_hardware_sku":
+                    if (in.peek() == JsonToken.BEGIN_OBJECT) {
+                        item.setTerminalHardwareSkuObject(JsonParser.parseReader(in).getAsJsonObject());
+                    } else {
+                        item.setTerminalHardwareSku(JsonValues.readString(in));
+                    }
+                    break;
+                case "quantity":
+                    item.setQuantity(JsonValues.readInteger(in));
+                    break;
+                case "amount":
+                    item.setAmount(JsonValues.readLong(in));
+                    break;
+                case "currency":
+                    item.setCurrency(JsonValues.readString(in));
+                    break;
+                default:
+                    in.skipValue();
+            }
+        }
+        in.endObject();
+        return item;
+    }
+}
@@ -0,0 +1,144 @@
+package com.stripe.terminal.serialization;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import com.stripe.terminal.model.HardwareOrder;
+import com.stripe.terminal.model.HardwareOrderItem;
+import com.stripe.terminal.model.ShipmentTracking;
+import com.stripe.terminal.model.ShippingDetails;
+import com.stripe.terminal.model.TaxAmount;
+
+import java.io.IOException;
+
+/**
+ * Reflection-free adapter for {@link HardwareOrder}.
+ */
+final class HardwareOrderTypeAdapter extends TypeAdapter<HardwareOrder> {
+    static final HardwareOrderTypeAdapter INSTANCE = new HardwareOrderTypeAdapter();
+    private static final ListTypeAdapter<HardwareOrderItem> HARDWARE_ORDER_ITEM_LIST =
+            new ListTypeAdapter<>(HardwareOrderItemTypeAdapter.INSTANCE);
+    private static final ListTypeAdapter<ShipmentTracking> SHIPMENT_TRACKING_LIST =
+            new ListTypeAdapter<>(ShipmentTrackingTypeAdapter.INSTANCE);
+    private static final ListTypeAdapter<TaxAmount> TAX_AMOUNT_LIST =
+            new ListTypeAdapter<>(TaxAmountTypeAdapter.INSTANCE);
+
+    private HardwareOrderTypeAdapter() {
+    }
+
+    @Override
+    public void write(JsonWriter out, HardwareOrder value) throws IOException {
+        if (value == null) {
+            out.nullValue();
+            return;
+        }
+
+        out.beginObject();
+        out.name("id").value(value.getId());
+        out.name("object").value(value.getObject());
+        out.name("amount").value(value.getAmount());
+        out.name("created").value(value.getCreated());
+        out.name("currency").value(value.getCurrency());
+        out.name("hardware_order_items");
+        HARDWARE_ORDER_ITEM_LIST.write(out, value.getHardwareOrderItems());
+        out.name("livemode").value(value.getLivemode());
+        out.name("metadata");
+        JsonValues.writeStringMap(out, value.getMetadata());
+        out.name("payment_type").value(value.getPaymentType());
+        out.name("po_number").value(value.getPoNumber());
+        out.name("shipment_tracking");
+        SHIPMENT_TRACKING_LIST.write(out, value.getShipmentTracking());
+        out.name("shipping");
+        ShippingDetailsTypeAdapter.INSTANCE.write(out, value.getShipping());
+        out.name("shipping_method").value(value.getShippingMethod());
+        out.name("status").value(value.getStatus());
+        out.name("tax").value(value.getTax());
+        out.name("total_tax_amounts");
+        TAX_AMOUNT_LIST.write(out, value.getTotalTaxAmounts());
+        out.name("updated").value(value.getUpdated());
+        out.endObject();
+    }
+
+    @Override
+    public HardwareOrder read(JsonReader in) throws IOException {
+        return read(in, OrderProjection.all());
+    }
+
+    /**
+     * Reads an order, skipping the fields outside the projection.
+     */
+    HardwareOrder read(JsonReader in, OrderProjection projection) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+
+        HardwareOrder hardwareOrder = new HardwareOrder();
+        in.beginObject();
+        while (in.hasNext()) {
+            String name = in.nextName();
+            if (!projection.includes(name)) {
+                in.skipValue();
+                continue;
+            }
+            switch (name) {
+                case "id":
+                    hardwareOrder.setId(JsonValues.readString(in));
+                    break;
+                case "object":
+                    hardwareOrder.setObject(JsonValues.readString(in));
+                    break;
+                case "amount":
+                    hardwareOrder.setAmount(JsonValues.readLong(in));
+                    break;
+                case "created":
+                    hardwareOrder.setCreated(JsonValues.readLong(in));
+                    break;
+                case "currency":
+                    hardwareOrder.setCurrency(JsonValues.readString(in));
+                    break;
+                case "hardware_order_items":
+                    hardwareOrder.setHardwareOrderItems(HARDWARE_ORDER_ITEM_LIST.read(in));
+                    break;
+                case "livemode":
+                    hardwareOrder.setLivemode(JsonValues.readBoolean(in));
+                    break;
+                case "metadata":
+                    hardwareOrder.setMetadata(JsonValues.readStringMap(in));
+                    break;
+                case "payment_type":
+                    hardwareOrder.setPaymentType(JsonValues.readString(in));
+                    break;
+                case "po_number":
+                    hardwareOrder.setPoNumber(JsonValues.readString(in));
+                    break;
+                case "shipment_tracking":
+                    hardwareOrder.setShipmentTracking(SHIPMENT_TRACKING_LIST.read(in));
+                    break;
+                case "shipping":
+                    hardwareOrder.setShipping(ShippingDetailsTypeAdapter.INSTANCE.read(in));
+                    break;
+                case "shipping_method":
+                    hardwareOrder.setShippingMethod(JsonValues.readIdOrObject(in));
+                    break;
+                case "status":
+                    hardwareOrder.setStatus(JsonValues.readString(in));
+                    break;
+                case "tax":
+                    hardwareOrder.setTax(JsonValues.readLong(in));
+                    break;
+                case "total_tax_amounts":
+                    hardwareOrder.setTotalTaxAmounts(TAX_AMOUNT_LIST.read(in));
+                    break;
+                case "updated":
+                    hardwareOrder.setUpdated(JsonValues.readLong(in));
+                    break;
+                default:
+                    in.skipValue();
+            }
+        }
+        in.endObject();
+        return hardwareOrder;
+    }
+}
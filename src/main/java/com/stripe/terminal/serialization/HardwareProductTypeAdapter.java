@@ -0,0 +1,73 @@
+package com.stripe.terminal.serialization;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import com.stripe.terminal.model.HardwareProduct;
+
+import java.io.IOException;
+
+/**
+ * Reflection-free adapter for {@link HardwareProduct}.
+ */
+final class HardwareProductTypeAdapter extends TypeAdapter<HardwareProduct> {
+    static final HardwareProductTypeAdapter INSTANCE = new HardwareProductTypeAdapter();
+
+    private HardwareProductTypeAdapter() {
+    }
+
+    @Override
+    public void write(JsonWriter out, HardwareProduct value) throws IOException {
+        if (value == null) {
+            out.nullValue();
+            return;
+        }
+
+        out.beginObject();
+        out.name("id").value(value.getId());
+        out.name("object").value(value.getObject());
+        out.name("name").value(value.getName());
+        out.name("description").value(value.getDescription());
+        out.name("status").value(value.getStatus());
+        out.name("unavailable_after").value(value.getUnavailableAfter());
+        out.endObject();
+    }
+
+    @Override
+    public HardwareProduct read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+
+        HardwareProduct hardwareProduct = new HardwareProduct();
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "id":
+                    hardwareProduct.setId(JsonValues.readString(in));
+                    break;
+                case "object":
+                    hardwareProduct.setObject(JsonValues.readString(in));
+                    break;
+                case "name":
+                    hardwareProduct.setName(JsonValues.readString(in));
+                    break;
+                case "description":
+                    hardwareProduct.setDescription(JsonValues.readString(in));
+                    break;
+                case "status":
+                    hardwareProduct.setStatus(JsonValues.readString(in));
+                    break;
+                case "unavailable_after":
+                    hardwareProduct.setUnavailableAfter(JsonValues.readLong(in));
+                    break;
+                default:
+                    in.skipValue();
+            }
+        }
+        in.endObject();
+        return hardwareProduct;
+    }
+}
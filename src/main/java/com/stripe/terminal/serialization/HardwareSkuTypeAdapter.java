@@ -0,0 +1,89 @@
+package com.stripe.terminal.serialization;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import com.stripe.terminal.model.HardwareSku;
+
+import java.io.IOException;
+
+/**
+ * Reflection-free adapter for {@link HardwareSku}.
+ */
+final class HardwareSkuTypeAdapter extends TypeAdapter<HardwareSku> {
+    static final HardwareSkuTypeAdapter INSTANCE = new HardwareSkuTypeAdapter();
+
+    private HardwareSkuTypeAdapter() {
+    }
+
+    @Override
+    public void write(JsonWriter out, HardwareSku value) throws IOException {
+        if (value == null) {
+            out.nullValue();
+            return;
+        }
+
+        out.beginObject();
+        out.name("id").value(value.getId());
+        out.name("object").value(value.getObject());
+        out.name("amount").value(value.getAmount());
+        out.name("country").value(value.getCountry());
+        out.name("currency").value(value.getCurrency());
+        out.name("product").value(value.getProduct());
+        out.name("orderable").value(value.getOrderable());
+        out.name("status").value(value.getStatus());
+        out.name("unavailable_after").value(value.getUnavailableAfter());
+        out.name("provider").value(value.getProvider());
+        out.endObject();
+    }
+
+    @Override
+    public HardwareSku read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+
+        HardwareSku hardwareSku = new HardwareSku();
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "id":
+                    hardwareSku.setId(JsonValues.readString(in));
+                    break;
+                case "object":
+                    hardwareSku.setObject(JsonValues.readString(in));
+                    break;
+                case "amount":
+                    hardwareSku.setAmount(JsonValues.readLong(in));
+                    break;
+                case "country":
+                    hardwareSku.setCountry(JsonValues.readString(in));
+                    break;
+                case "currency":
+                    hardwareSku.setCurrency(JsonValues.readString(in));
+                    break;
+                case "product":
+                    hardwareSku.setProduct(JsonValues.readIdOrObject(in));
+                    break;
+                case "orderable":
+                    hardwareSku.setOrderable(JsonValues.readInteger(in));
+                    break;
+                case "status":
+                    hardwareSku.setStatus(JsonValues.readString(in));
+                    break;
+                case "unavailable_after":
+                    hardwareSku.setUnavailableAfter(JsonValues.readLong(in));
+                    break;
+                case "provider":
+                    hardwareSku.setProvider(JsonValues.readString(in));
+                    break;
+                default:
+                    in.skipValue();
+            }
+        }
+        in.endObject();
+        return hardwareSku;
+    }
+}
@@ -0,0 +1,69 @@
+package com.stripe.terminal.serialization;
+
+import com.stripe.terminal.model.HardwareOrder;
+import com.stripe.terminal.model.StripeList;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.lang.reflect.Type;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Decodes API response bodies. Plug in a different implementation through
+ * {@code StripeConfig.Builder#jsonSerializer} to use a faster codec.
+ *
+ * <p>Implementations must be thread-safe.</p>
+ */
+public interface JsonSerializer {
+
+    /**
+     * Decodes a complete response body.
+     *
+     * @param reader The response body stream
+     * @param type   The target type, e.g. {@code HardwareOrder.class} or {@link StripeTypes#HARDWARE_ORDER_LIST}
+     * @return The decoded value
+     * @throws IOException if reading the body fails
+     */
+    <T> T deserialize(Reader reader, Type type) throws IOException;
+
+    /**
+     * Decodes a list response, handing each {@code data} element to the consumer.
+     * The default implementation decodes the full page first; streaming implementations
+     * should override it.
+     *
+     * @return The list envelope with empty data
+     */
+    default <T> StripeList<T> deserializeList(Reader reader, Class<T> itemType, Consumer<? super T> consumer)
+            throws IOException {
+        StripeList<T> list = deserialize(reader, StripeTypes.listOf(itemType));
+        List<T> data = list.getData() != null ? list.getData() : Collections.emptyList();
+        for (T item : data) {
+            consumer.accept(item);
+        }
+        list.setData(Collections.emptyList());
+        return list;
+    }
+
+    /**
+     * Decodes a single HardwareOrder, reading only the fields in the projection. The default
+     * implementation decodes every field; projections only save work, so callers must not rely
+     * on excluded fields being null.
+     */
+    default HardwareOrder deserializeOrder(Reader reader, OrderProjection projection) throws IOException {
+        return deserialize(reader, HardwareOrder.class);
+    }
+
+    /**
+     * Decodes a HardwareOrder list response like {@link #deserializeList}, reading only the fields
+     * in the projection. The default implementation decodes every field.
+     *
+     * @return The list envelope with empty data
+     */
+    default StripeList<HardwareOrder> deserializeOrderList(Reader reader, OrderProjection projection,
+                                                         Consumer<? super HardwareOrder> consumer)
+            throws IOException {
+        return deserializeList(reader, HardwareOrder.class, consumer);
+    }
+}
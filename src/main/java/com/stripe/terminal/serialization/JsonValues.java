@@ -0,0 +1,125 @@
+package com.stripe.terminal.serialization;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Null-tolerant primitives shared by the hand-written type adapters.
+ */
+final class JsonValues {
+    private static final TypeAdapter<JsonElement> JSON_ELEMENT = new Gson().getAdapter(JsonElement.class);
+
+    private JsonValues() {
+    }
+
+    static String readString(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        return in.nextString();
+    }
+
+    static Long readLong(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        return in.nextLong();
+    }
+
+    static Integer readInteger(JsonReader in) throws IOException {
+        JsonToken token = in.peek();
+        if (token == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        // Some integer flags (e.g. HardwareSku.orderable) may also arrive as booleans
+        if (token == JsonToken.BOOLEAN) {
+            return in.nextBoolean() ? 1 : 0;
+        }
+        return in.nextInt();
+    }
+
+    static Double readDouble(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        return in.nextDouble();
+    }
+
+    static Boolean readBoolean(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        return in.nextBoolean();
+    }
+
+    /**
+     * Reads a field that is either an ID string or an expanded object, returning the ID.
+     */
+    static String readIdOrObject(JsonReader in) throws IOException {
+        JsonToken token = in.peek();
+        if (token == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        if (token != JsonToken.BEGIN_OBJECT) {
+            return in.nextString();
+        }
+
+        String id = null;
+        in.beginObject();
+        while (in.hasNext()) {
+            if ("id".equals(in.nextName())) {
+                id = readString(in);
+            } else {
+                in.skipValue();
+            }
+        }
+        in.endObject();
+        return id;
+    }
+
+    static Map<String, String> readStringMap(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+
+        Map<String, String> map = new LinkedHashMap<>();
+        in.beginObject();
+        while (in.hasNext()) {
+            map.put(in.nextName(), readString(in));
+        }
+        in.endObject();
+        return map;
+    }
+
+    static void writeStringMap(JsonWriter out, Map<String, String> map) throws IOException {
+        if (map == null) {
+            out.nullValue();
+            return;
+        }
+
+        out.beginObject();
+        for (Map.Entry<String, String> entry : map.entrySet()) {
+            out.name(entry.getKey()).value(entry.getValue());
+        }
+        out.endObject();
+    }
+
+    static void writeJsonElement(JsonWriter out, JsonElement element) throws IOException {
+        JSON_ELEMENT.write(out, element);
+    }
+}
@@ -0,0 +1,51 @@
+package com.stripe.terminal.serialization;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads and writes a JSON array using a fixed element adapter.
+ */
+final class ListTypeAdapter<E> extends TypeAdapter<List<E>> {
+    private final TypeAdapter<E> elementAdapter;
+
+    ListTypeAdapter(TypeAdapter<E> elementAdapter) {
+        this.elementAdapter = elementAdapter;
+    }
+
+    @Override
+    public void write(JsonWriter out, List<E> value) throws IOException {
+        if (value == null) {
+            out.nullValue();
+            return;
+        }
+
+        out.beginArray();
+        for (E element : value) {
+            elementAdapter.write(out, element);
+        }
+        out.endArray();
+    }
+
+    @Override
+    public List<E> read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+
+        List<E> list = new ArrayList<>();
+        in.beginArray();
+        while (in.hasNext()) {
+            list.add(elementAdapter.read(in));
+        }
+        in.endArray();
+        return list;
+    }
+}
@@ -0,0 +1,82 @@
+package com.stripe.terminal.serialization;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Selects which {@code HardwareOrder} fields are decoded from a response.
+ *
+ * <p>Fields outside the projection are skipped token by token, without building their strings or
+ * nested objects, and their getters return null. The {@code id} field is always included.
+ * Orders read with a partial projection are not saved to the client's {@code OrderStore}.</p>
+ *
+ * <pre>
+ * OrderProjection polling = OrderProjection.fields("status", "shipment_tracking");
+ * HardwareOrder order = stripe.hardwareOrders().retrieve(orderId, polling);
+ * </pre>
+ *
+ * <p>Projections are immutable and can be shared between threads.</p>
+ */
+public final class OrderProjection {
+    private static final Set<String> ORDER_FIELDS = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+            "id", "object", "amount", "created", "currency", "hardware_order_items", "livemode", "metadata",
+            "payment_type", "po_number", "shipment_tracking", "shipping", "shipping_method", "status", "tax",
+            "total_tax_amounts", "updated")));
+    private static final OrderProjection ALL = new OrderProjection(null);
+
+    // Null when every field is included
+    private final Set<String> fields;
+
+    private OrderProjection(Set<String> fields) {
+        this.fields = fields;
+    }
+
+    /**
+     * Returns the projection that decodes every field, as the methods without a projection do.
+     */
+    public static OrderProjection all() {
+        return ALL;
+    }
+
+    /**
+     * Returns a projection decoding only the given fields and {@code id}.
+     *
+     * @param fields API field names, e.g. {@code "status"} or {@code "shipment_tracking"}
+     * @throws IllegalArgumentException if a name is not a HardwareOrder field
+     */
+    public static OrderProjection fields(String... fields) {
+        Set<String> included = new LinkedHashSet<>();
+        included.add("id");
+        for (String field : fields) {
+            if (!ORDER_FIELDS.contains(field)) {
+                throw new IllegalArgumentException("Unknown HardwareOrder field: " + field);
+            }
+            included.add(field);
+        }
+        return new OrderProjection(Collections.unmodifiableSet(included));
+    }
+
+    /**
+     * @return Whether the field is decoded
+     */
+    public boolean includes(String field) {
+        return fields == null || fields.contains(field);
+    }
+
+    /**
+     * @return Whether every field is decoded, so orders read with this projection are complete
+     */
+    public boolean includesAll() {
+        return fields == null;
+    }
+
+    @Override
+    public String toString() {
+        return "OrderProjection{" +
+                "fields=" + (fields != null ? fields : "all") +
+                '}';
+    }
+}
@@ -0,0 +1,61 @@
+package com.stripe.terminal.serialization;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import com.stripe.terminal.model.ShipmentTracking;
+
+import java.io.IOException;
+
+/**
+ * Reflection-free adapter for {@link ShipmentTracking}.
+ */
+final class ShipmentTrackingTypeAdapter extends TypeAdapter<ShipmentTracking> {
+    static final ShipmentTrackingTypeAdapter INSTANCE = new ShipmentTrackingTypeAdapter();
+
+    private ShipmentTrackingTypeAdapter() {
+    }
+
+    @Override
+    public void write(JsonWriter out, ShipmentTracking value) throws IOException {
+        if (value == null) {
+            out.nullValue();
+            return;
+        }
+
+        out.beginObject();
+        out.name("carrier").value(value.getCarrier());
+        out.name("tracking_number").value(value.getTrackingNumber());
+        out.name("tracking_url").value(value.getTrackingUrl());
+        out.endObject();
+    }
+
+    @Override
+    public ShipmentTracking read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+
+        ShipmentTracking shipmentTracking = new ShipmentTracking();
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "carrier":
+                    shipmentTracking.setCarrier(JsonValues.readString(in));
+                    break;
+                case "tracking_number":
+                    shipmentTracking.setTrackingNumber(JsonValues.readString(in));
+                    break;
+                case "tracking_url":
+                    shipmentTracking.setTrackingUrl(JsonValues.readString(in));
+                    break;
+                default:
+                    in.skipValue();
+            }
+        }
+        in.endObject();
+        return shipmentTracking;
+    }
+}
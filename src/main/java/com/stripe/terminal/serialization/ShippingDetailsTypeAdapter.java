@@ -0,0 +1,79 @@
+package com.stripe.terminal.serialization;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import com.stripe.terminal.model.Address;
+import com.stripe.terminal.model.ShippingDetails;
+
+import java.io.IOException;
+
+/**
+ * Reflection-free adapter for {@link ShippingDetails}.
+ */
+final class ShippingDetailsTypeAdapter extends TypeAdapter<ShippingDetails> {
+    static final ShippingDetailsTypeAdapter INSTANCE = new ShippingDetailsTypeAdapter();
+
+    private ShippingDetailsTypeAdapter() {
+    }
+
+    @Override
+    public void write(JsonWriter out, ShippingDetails value) throws IOException {
+        if (value == null) {
+            out.nullValue();
+            return;
+        }
+
+        out.beginObject();
+        out.name("name").value(value.getName());
+        out.name("address");
+        AddressTypeAdapter.INSTANCE.write(out, value.getAddress());
+        out.name("email").value(value.getEmail());
+        out.name("phone").value(value.getPhone());
+        out.name("company").value(value.getCompany());
+        out.name("amount").value(value.getAmount());
+        out.name("currency").value(value.getCurrency());
+        out.endObject();
+    }
+
+    @Override
+    public ShippingDetails read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+
+        ShippingDetails details = new ShippingDetails();
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "name":
+                    details.setName(JsonValues.readString(in));
+                    break;
+                case "address":
+                    details.setAddress(AddressTypeAdapter.INSTANCE.read(in));
+                    break;
+                case "email":
+                    details.setEmail(JsonValues.readString(in));
+                    break;
+                case "phone":
+                    details.setPhone(JsonValues.readString(in));
+                    break;
+                case "company":
+                    details.setCompany(JsonValues.readString(in));
+                    break;
+                case "amount":
+                    details.setAmount(JsonValues.readLong(in));
+                    break;
+                case "currency":
+                    details.setCurrency(JsonValues.readString(in));
+                    break;
+                default:
+                    in.skipValue();
+            }
+        }
+        in.endObject();
+        return details;
+    }
+}
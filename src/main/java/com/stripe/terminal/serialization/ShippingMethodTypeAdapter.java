@@ -0,0 +1,81 @@
+package com.stripe.terminal.serialization;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import com.stripe.terminal.model.ShippingMethod;
+
+import java.io.IOException;
+
+/**
+ * Reflection-free adapter for {@link ShippingMethod}.
+ */
+final class ShippingMethodTypeAdapter extends TypeAdapter<ShippingMethod> {
+    static final ShippingMethodTypeAdapter INSTANCE = new ShippingMethodTypeAdapter();
+
+    private ShippingMethodTypeAdapter() {
+    }
+
+    @Override
+    public void write(JsonWriter out, ShippingMethod value) throws IOException {
+        if (value == null) {
+            out.nullValue();
+            return;
+        }
+
+        out.beginObject();
+        out.name("id").value(value.getId());
+        out.name("object").value(value.getObject());
+        out.name("name").value(value.getName());
+        out.name("country").value(value.getCountry());
+        out.name("status").value(value.getStatus());
+        out.name("unavailable_after").value(value.getUnavailableAfter());
+        out.name("provider").value(value.getProvider());
+        out.name("estimated_delivery_days").value(value.getEstimatedDeliveryDays());
+        out.endObject();
+    }
+
+    @Override
+    public ShippingMethod read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+
+        ShippingMethod shippingMethod = new ShippingMethod();
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "id":
+                    shippingMethod.setId(JsonValues.readString(in));
+                    break;
+                case "object":
+                    shippingMethod.setObject(JsonValues.readString(in));
+                    break;
+                case "name":
+                    shippingMethod.setName(JsonValues.readString(in));
+                    break;
+                case "country":
+                    shippingMethod.setCountry(JsonValues.readString(in));
+                    break;
+                case "status":
+                    shippingMethod.setStatus(JsonValues.readString(in));
+                    break;
+                case "unavailable_after":
+                    shippingMethod.setUnavailableAfter(JsonValues.readLong(in));
+                    break;
+                case "provider":
+                    shippingMethod.setProvider(JsonValues.readString(in));
+                    break;
+                case "estimated_delivery_days":
+                    shippingMethod.setEstimatedDeliveryDays(JsonValues.readInteger(in));
+                    break;
+                default:
+                    in.skipValue();
+            }
+        }
+        in.endObject();
+        return shippingMethod;
+    }
+}
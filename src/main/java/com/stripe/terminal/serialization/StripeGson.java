@@ -0,0 +1,56 @@
+package com.stripe.terminal.serialization;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.stripe.terminal.model.Address;
+import com.stripe.terminal.model.HardwareOrder;
+import com.stripe.terminal.model.HardwareOrderItem;
+import com.stripe.terminal.model.HardwareProduct;
+import com.stripe.terminal.model.HardwareSku;
+import com.stripe.terminal.model.ShipmentTracking;
+import com.stripe.terminal.model.ShippingDetails;
+import com.stripe.terminal.model.ShippingMethod;
+import com.stripe.terminal.model.TaxAmount;
+import com.stripe.terminal.model.TaxRate;
+import com.stripe.terminal.model.WebhookEvent;
+
+/**
+ * Builds the compact Gson configuration used by the client.
+ *
+ * <p>All API models are bound to hand-written type adapters, so decoding does not go through
+ * Gson's reflective field binding. Output is compact (no pretty printing).</p>
+ */
+public final class StripeGson {
+
+    private StripeGson() {
+    }
+
+    /**
+     * Returns a new Gson instance with the Stripe model adapters registered.
+     */
+    public static Gson create() {
+        return registerAdapters(new GsonBuilder()).create();
+    }
+
+    /**
+     * Registers the Stripe model adapters on an existing builder.
+     *
+     * @param builder The builder to configure
+     * @return The same builder, for chaining
+     */
+    public static GsonBuilder registerAdapters(GsonBuilder builder) {
+        return builder
+                .registerTypeAdapter(HardwareOrder.class, HardwareOrderTypeAdapter.INSTANCE)
+                .registerTypeAdapter(HardwareOrderItem.class, HardwareOrderItemTypeAdapter.INSTANCE)
+                .registerTypeAdapter(HardwareSku.class, HardwareSkuTypeAdapter.INSTANCE)
+                .registerTypeAdapter(HardwareProduct.class, HardwareProductTypeAdapter.INSTANCE)
+                .registerTypeAdapter(ShippingMethod.class, ShippingMethodTypeAdapter.INSTANCE)
+                .registerTypeAdapter(ShippingDetails.class, ShippingDetailsTypeAdapter.INSTANCE)
+                .registerTypeAdapter(Address.class, AddressTypeAdapter.INSTANCE)
+                .registerTypeAdapter(ShipmentTracking.class, ShipmentTrackingTypeAdapter.INSTANCE)
+                .registerTypeAdapter(TaxAmount.class, TaxAmountTypeAdapter.INSTANCE)
+                .registerTypeAdapter(TaxRate.class, TaxRateTypeAdapter.INSTANCE)
+                .registerTypeAdapter(WebhookEvent.class, WebhookEventTypeAdapter.INSTANCE)
+                .registerTypeAdapterFactory(new StripeListTypeAdapterFactory());
+    }
+}
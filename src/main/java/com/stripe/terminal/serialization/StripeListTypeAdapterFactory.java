@@ -0,0 +1,90 @@
+package com.stripe.terminal.serialization;
+
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import com.stripe.terminal.model.StripeList;
+
+import java.io.IOException;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+
+/**
+ * Creates reflection-free adapters for {@code StripeList<T>}, delegating elements to the adapter registered for {@code T}.
+ * Gson caches the created adapter per element type.
+ */
+final class StripeListTypeAdapterFactory implements TypeAdapterFactory {
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {
+        if (type.getRawType() != StripeList.class) {
+            return null;
+        }
+
+        Type elementType = type.getType() instanceof ParameterizedType
+                ? ((ParameterizedType) type.getType()).getActualTypeArguments()[0]
+                : Object.class;
+        TypeAdapter<?> elementAdapter = gson.getAdapter(TypeToken.get(elementType));
+        return (TypeAdapter<T>) new StripeListTypeAdapter<>(elementAdapter);
+    }
+
+    private static final class StripeListTypeAdapter<E> extends TypeAdapter<StripeList<E>> {
+        private final ListTypeAdapter<E> dataAdapter;
+
+        StripeListTypeAdapter(TypeAdapter<E> elementAdapter) {
+            this.dataAdapter = new ListTypeAdapter<>(elementAdapter);
+        }
+
+        @Override
+        public void write(JsonWriter out, StripeList<E> value) throws IOException {
+            if (value == null) {
+                out.nullValue();
+                return;
+            }
+
+            out.beginObject();
+            out.name("object").value(value.getObject());
+            out.name("data");
+            dataAdapter.write(out, value.getData());
+            out.name("has_more").value(value.getHasMore());
+            out.name("url").value(value.getUrl());
+            out.endObject();
+        }
+
+        @Override
+        public StripeList<E> read(JsonReader in) throws IOException {
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                return null;
+            }
+
+            StripeList<E> list = new StripeList<>();
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "object":
+                        list.setObject(JsonValues.readString(in));
+                        break;
+                    case "data":
+                        list.setData(dataAdapter.read(in));
+                        break;
+                    case "has_more":
+                        list.setHasMore(JsonValues.readBoolean(in));
+                        break;
+                    case "url":
+                        list.setUrl(JsonValues.readString(in));
+                        break;
+                    default:
+                        in.skipValue();
+                }
+            }
+            in.endObject();
+            return list;
+        }
+    }
+}
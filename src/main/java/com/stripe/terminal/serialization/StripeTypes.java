@@ -0,0 +1,31 @@
+package com.stripe.terminal.serialization;
+
+import com.google.gson.reflect.TypeToken;
+import com.stripe.terminal.model.HardwareOrder;
+import com.stripe.terminal.model.HardwareProduct;
+import com.stripe.terminal.model.HardwareSku;
+import com.stripe.terminal.model.ShippingMethod;
+import com.stripe.terminal.model.StripeList;
+
+import java.lang.reflect.Type;
+
+/**
+ * Precomputed generic types for list responses, so callers do not create a new
+ * {@code TypeToken} subclass on every request.
+ */
+public final class StripeTypes {
+    public static final Type HARDWARE_ORDER_LIST = listOf(HardwareOrder.class);
+    public static final Type HARDWARE_SKU_LIST = listOf(HardwareSku.class);
+    public static final Type HARDWARE_PRODUCT_LIST = listOf(HardwareProduct.class);
+    public static final Type SHIPPING_METHOD_LIST = listOf(ShippingMethod.class);
+
+    private StripeTypes() {
+    }
+
+    /**
+     * Returns the type of {@code StripeList<itemType>}.
+     */
+    public static Type listOf(Class<?> itemType) {
+        return TypeToken.getParameterized(StripeList.class, itemType).getType();
+    }
+}
@@ -0,0 +1,63 @@
+package com.stripe.terminal.serialization;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import com.stripe.terminal.model.TaxAmount;
+import com.stripe.terminal.model.TaxRate;
+
+import java.io.IOException;
+
+/**
+ * Reflection-free adapter for {@link TaxAmount}.
+ */
+final class TaxAmountTypeAdapter extends TypeAdapter<TaxAmount> {
+    static final TaxAmountTypeAdapter INSTANCE = new TaxAmountTypeAdapter();
+
+    private TaxAmountTypeAdapter() {
+    }
+
+    @Override
+    public void write(JsonWriter out, TaxAmount value) throws IOException {
+        if (value == null) {
+            out.nullValue();
+            return;
+        }
+
+        out.beginObject();
+        out.name("amount").value(value.getAmount());
+        out.name("inclusive").value(value.getInclusive());
+        out.name("rate");
+        TaxRateTypeAdapter.INSTANCE.write(out, value.getRate());
+        out.endObject();
+    }
+
+    @Override
+    public TaxAmount read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+
+        TaxAmount taxAmount = new TaxAmount();
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "amount":
+                    taxAmount.setAmount(JsonValues.readLong(in));
+                    break;
+                case "inclusive":
+                    taxAmount.setInclusive(JsonValues.readBoolean(in));
+                    break;
+                case "rate":
+                    taxAmount.setRate(TaxRateTypeAdapter.INSTANCE.read(in));
+                    break;
+                default:
+                    in.skipValue();
+            }
+        }
+        in.endObject();
+        return taxAmount;
+    }
+}
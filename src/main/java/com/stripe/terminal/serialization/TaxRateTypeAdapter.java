@@ -0,0 +1,61 @@
+package com.stripe.terminal.serialization;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import com.stripe.terminal.model.TaxRate;
+
+import java.io.IOException;
+
+/**
+ * Reflection-free adapter for {@link TaxRate}.
+ */
+final class TaxRateTypeAdapter extends TypeAdapter<TaxRate> {
+    static final TaxRateTypeAdapter INSTANCE = new TaxRateTypeAdapter();
+
+    private TaxRateTypeAdapter() {
+    }
+
+    @Override
+    public void write(JsonWriter out, TaxRate value) throws IOException {
+        if (value == null) {
+            out.nullValue();
+            return;
+        }
+
+        out.beginObject();
+        out.name("display_name").value(value.getDisplayName());
+        out.name("jurisdiction").value(value.getJurisdiction());
+        out.name("percentage").value(value.getPercentage());
+        out.endObject();
+    }
+
+    @Override
+    public TaxRate read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+
+        TaxRate taxRate = new TaxRate();
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "display_name":
+                    taxRate.setDisplayName(JsonValues.readString(in));
+                    break;
+                case "jurisdiction":
+                    taxRate.setJurisdiction(JsonValues.readString(in));
+                    break;
+                case "percentage":
+                    taxRate.setPercentage(JsonValues.readDouble(in));
+                    break;
+                default:
+                    in.skipValue();
+            }
+        }
+        in.endObject();
+        return taxRate;
+    }
+}
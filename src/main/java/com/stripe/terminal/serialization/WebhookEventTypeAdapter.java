@@ -0,0 +1,121 @@
+package com.stripe.terminal.serialization;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import com.stripe.terminal.model.WebhookEvent;
+
+import java.io.IOException;
+
+/**
+ * Reflection-free adapter for {@link WebhookEvent}. The order in {@code data.object} is decoded
+ * straight from the stream by {@link HardwareOrderTypeAdapter}.
+ */
+final class WebhookEventTypeAdapter extends TypeAdapter<WebhookEvent> {
+    static final WebhookEventTypeAdapter INSTANCE = new WebhookEventTypeAdapter();
+
+    private WebhookEventTypeAdapter() {
+    }
+
+    @Override
+    public void write(JsonWriter out, WebhookEvent value) throws IOException {
+        if (value == null) {
+            out.nullValue();
+            return;
+        }
+
+        out.beginObject();
+        out.name("id").value(value.getId());
+        out.name("object").value(value.getObject());
+        out.name("account").value(value.getAccount());
+        out.name("api_version").value(value.getApiVersion());
+        out.name("created").value(value.getCreated());
+        out.name("data");
+        writeData(out, value.getData());
+        out.name("livemode").value(value.getLivemode());
+        out.name("type").value(value.getType());
+        out.endObject();
+    }
+
+    @Override
+    public WebhookEvent read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+
+        WebhookEvent webhookEvent = new WebhookEvent();
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "id":
+                    webhookEvent.setId(JsonValues.readString(in));
+                    break;
+                case "object":
+                    webhookEvent.setObject(JsonValues.readString(in));
+                    break;
+                case "account":
+                    webhookEvent.setAccount(JsonValues.readString(in));
+                    break;
+                case "api_version":
+                    webhookEvent.setApiVersion(JsonValues.readString(in));
+                    break;
+                case "created":
+                    webhookEvent.setCreated(JsonValues.readLong(in));
+                    break;
+                case "data":
+                    webhookEvent.setData(readData(in));
+                    break;
+                case "livemode":
+                    webhookEvent.setLivemode(JsonValues.readBoolean(in));
+                    break;
+                case "type":
+                    webhookEvent.setType(JsonValues.readString(in));
+                    break;
+                default:
+                    in.skipValue();
+            }
+        }
+        in.endObject();
+        return webhookEvent;
+    }
+
+    private static void writeData(JsonWriter out, WebhookEvent.Data value) throws IOException {
+        if (value == null) {
+            out.nullValue();
+            return;
+        }
+
+        out.beginObject();
+        out.name("object");
+        HardwareOrderTypeAdapter.INSTANCE.write(out, value.getObject());
+        out.name("previous_attributes");
+        HardwareOrderTypeAdapter.INSTANCE.write(out, value.getPreviousAttributes());
+        out.endObject();
+    }
+
+    private static WebhookEvent.Data readData(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+
+        WebhookEvent.Data data = new WebhookEvent.Data();
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "object":
+                    data.setObject(HardwareOrderTypeAdapter.INSTANCE.read(in));
+                    break;
+                case "previous_attributes":
+                    data.setPreviousAttributes(HardwareOrderTypeAdapter.INSTANCE.read(in));
+                    break;
+                default:
+                    in.skipValue();
+            }
+        }
+        in.endObject();
+        return data;
+    }
+}
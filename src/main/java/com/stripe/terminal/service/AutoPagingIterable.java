@@ -0,0 +1,162 @@
+package com.stripe.terminal.service;
+
+import com.stripe.terminal.exception.StripeException;
+import com.stripe.terminal.exception.UncheckedStripeException;
+import com.stripe.terminal.model.HasId;
+import com.stripe.terminal.model.StripeList;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Lazily walks every page of a list endpoint using {@code starting_after} cursors.
+ *
+ * <p>The next page is only requested once the consumer reaches the end of the current one,
+ * so at most one page is held in memory. With {@link #withReadAhead()} the following page is
+ * requested asynchronously as soon as a page arrives, hiding the per-page round trip at the
+ * cost of holding up to two pages.</p>
+ *
+ * <p>API errors surface as {@link UncheckedStripeException} from {@code hasNext()}/{@code next()}.</p>
+ *
+ * <pre>
+ * for (HardwareOrder order : stripe.hardwareOrders().autoPagingIterable(100)) {
+ *     ...
+ * }
+ * </pre>
+ *
+ * @param <T> The resource type
+ */
+public class AutoPagingIterable<T extends HasId> implements Iterable<T> {
+    private final PageFetcher<T> fetcher;
+    private final AsyncPageFetcher<T> asyncFetcher;
+    private final boolean readAhead;
+
+    public AutoPagingIterable(PageFetcher<T> fetcher, AsyncPageFetcher<T> asyncFetcher) {
+        this(fetcher, asyncFetcher, false);
+    }
+
+    private AutoPagingIterable(PageFetcher<T> fetcher, AsyncPageFetcher<T> asyncFetcher, boolean readAhead) {
+        this.fetcher = fetcher;
+        this.asyncFetcher = asyncFetcher;
+        this.readAhead = readAhead;
+    }
+
+    /**
+     * Returns a copy of this iterable that prefetches page N+1 while page N is being consumed.
+     *
+     * @return A read-ahead AutoPagingIterable
+     */
+    public AutoPagingIterable<T> withReadAhead() {
+        return new AutoPagingIterable<>(fetcher, asyncFetcher, true);
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return new PagingIterator();
+    }
+
+    /**
+     * Returns a sequential, lazily-populated stream over every item of every page.
+     *
+     * @return A Stream of items
+     */
+    public Stream<T> stream() {
+        return StreamSupport.stream(
+                Spliterators.spliteratorUnknownSize(iterator(), Spliterator.ORDERED | Spliterator.NONNULL),
+                false);
+    }
+
+    /**
+     * Fetches one page of results starting after the given cursor.
+     */
+    @FunctionalInterface
+    public interface PageFetcher<T> {
+        /**
+         * @param startingAfter The ID of the last item of the previous page, or null for the first page
+         */
+        StripeList<T> fetch(String startingAfter) throws StripeException;
+    }
+
+    /**
+     * Fetches one page of results starting after the given cursor without blocking.
+     */
+    @FunctionalInterface
+    public interface AsyncPageFetcher<T> {
+        /**
+         * @param startingAfter The ID of the last item of the previous page, or null for the first page
+         */
+        CompletableFuture<StripeList<T>> fetch(String startingAfter);
+    }
+
+    private class PagingIterator implements Iterator<T> {
+        private Iterator<T> current;
+        private String cursor;
+        private boolean hasMore = true;
+        private CompletableFuture<StripeList<T>> prefetched;
+
+        @Override
+        public boolean hasNext() {
+            while (current == null || !current.hasNext()) {
+                if (!hasMore) {
+                    return false;
+                }
+                loadNextPage();
+            }
+            return true;
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return current.next();
+        }
+
+        private void loadNextPage() {
+            // Release the exhausted page before requesting the next one
+            current = null;
+
+            StripeList<T> page = prefetched != null ? awaitPrefetched() : fetchPage();
+            prefetched = null;
+
+            List<T> data = page.getData() != null ? page.getData() : Collections.emptyList();
+            hasMore = Boolean.TRUE.equals(page.getHasMore()) && !data.isEmpty();
+            if (!data.isEmpty()) {
+                cursor = data.get(data.size() - 1).getId();
+            }
+            current = data.iterator();
+
+            if (readAhead && hasMore) {
+                prefetched = asyncFetcher.fetch(cursor);
+            }
+        }
+
+        private StripeList<T> fetchPage() {
+            try {
+                return fetcher.fetch(cursor);
+            } catch (StripeException e) {
+                throw new UncheckedStripeException(e);
+            }
+        }
+
+        private StripeList<T> awaitPrefetched() {
+            try {
+                return prefetched.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof StripeException) {
+                    throw new UncheckedStripeException((StripeException) e.getCause());
+                }
+                throw e;
+            }
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.stripe.terminal.service;
+
+import com.stripe.terminal.exception.StripeException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.BiFunction;
+
+/**
+ * Runs one asynchronous operation per item with at most {@code parallelism} in flight.
+ *
+ * <p>A new item is only started when a previous one completes, so no threads are blocked and at most
+ * {@code parallelism} requests are outstanding at any time. Every item gets a result; one failure
+ * does not stop the others. Cancelling the returned future stops further items from being started.</p>
+ *
+ * @param <P> The item type
+ * @param <T> The result type
+ */
+final class BulkExecutor<P, T> {
+    private final List<P> items;
+    private final List<String> idempotencyKeys;
+    private final BiFunction<P, String, CompletableFuture<T>> operation;
+
+    private final AtomicInteger next = new AtomicInteger();
+    private final AtomicInteger remaining;
+    private final AtomicReferenceArray<BulkResult<T>> results;
+    private final CompletableFuture<List<BulkResult<T>>> done = new CompletableFuture<>();
+
+    private BulkExecutor(List<P> items, List<String> idempotencyKeys, BiFunction<P, String, CompletableFuture<T>> operation) {
+        this.items = items;
+        this.idempotencyKeys = idempotencyKeys;
+        this.operation = operation;
+        this.remaining = new AtomicInteger(items.size());
+        this.results = new AtomicReferenceArray<>(items.size());
+    }
+
+    /**
+     * @param items           The items to process
+     * @param idempotencyKeys One key per item, or null if the operation is not idempotent
+     * @param parallelism     Maximum number of operations in flight
+     * @param operation       Starts the operation for an item and its idempotency key
+     * @return A future completing with one result per item, in item order
+     */
+    static <P, T> CompletableFuture<List<BulkResult<T>>> run(List<P> items, List<String> idempotencyKeys, int parallelism,
+                                                             BiFunction<P, String, CompletableFuture<T>> operation) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1");
+        }
+        if (idempotencyKeys != null && idempotencyKeys.size() != items.size()) {
+            throw new IllegalArgumentException("Expected one idempotency key per item");
+        }
+
+        BulkExecutor<P, T> executor = new BulkExecutor<>(items, idempotencyKeys, operation);
+        if (items.isEmpty()) {
+            executor.done.complete(new ArrayList<>());
+        }
+        for (int i = 0; i < Math.min(parallelism, items.size()); i++) {
+            executor.pump();
+        }
+        return executor.done;
+    }
+
+    /**
+     * Starts items until one is still in flight. Operations that complete immediately, such as
+     * cache hits or shed requests, are handled in a loop rather than by recursion.
+     */
+    private void pump() {
+        while (!done.isDone()) {
+            int index = next.getAndIncrement();
+            if (index >= items.size()) {
+                return;
+            }
+
+            CompletableFuture<T> future = start(index);
+            if (!future.isDone()) {
+                future.whenComplete((value, error) -> {
+                    record(index, value, error);
+                    pump();
+                });
+                return;
+            }
+            future.whenComplete((value, error) -> record(index, value, error));
+        }
+    }
+
+    private CompletableFuture<T> start(int index) {
+        try {
+            return operation.apply(items.get(index), key(index));
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private void record(int index, T value, Throwable error) {
+        if (error == null) {
+            results.set(index, BulkResult.success(index, key(index), value));
+        } else {
+            results.set(index, BulkResult.failure(index, key(index), toStripeException(error)));
+        }
+
+        if (remaining.decrementAndGet() == 0) {
+            List<BulkResult<T>> list = new ArrayList<>(results.length());
+            for (int i = 0; i < results.length(); i++) {
+                list.add(results.get(i));
+            }
+            done.complete(list);
+        }
+    }
+
+    private String key(int index) {
+        return idempotencyKeys != null ? idempotencyKeys.get(index) : null;
+    }
+
+    private static StripeException toStripeException(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (cause instanceof StripeException) {
+            return (StripeException) cause;
+        }
+        return new StripeException(cause.getClass().getSimpleName() + ": " + cause.getMessage(), 0);
+    }
+}
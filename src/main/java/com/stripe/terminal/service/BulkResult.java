@@ -0,0 +1,72 @@
+package com.stripe.terminal.service;
+
+import com.stripe.terminal.exception.StripeException;
+
+/**
+ * Outcome of one item of a bulk operation: either the resulting object or the error it failed with.
+ *
+ * @param <T> The resource type
+ */
+public class BulkResult<T> {
+    private final int index;
+    private final String idempotencyKey;
+    private final T value;
+    private final StripeException error;
+
+    private BulkResult(int index, String idempotencyKey, T value, StripeException error) {
+        this.index = index;
+        this.idempotencyKey = idempotencyKey;
+        this.value = value;
+        this.error = error;
+    }
+
+    static <T> BulkResult<T> success(int index, String idempotencyKey, T value) {
+        return new BulkResult<>(index, idempotencyKey, value, null);
+    }
+
+    static <T> BulkResult<T> failure(int index, String idempotencyKey, StripeException error) {
+        return new BulkResult<>(index, idempotencyKey, null, error);
+    }
+
+    /**
+     * @return The position of the item in the submitted list
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    /**
+     * @return The Idempotency-Key the item was sent with, or null if the operation is not idempotent.
+     *         Resubmit a failed item with the same key to retry it without risking a duplicate.
+     */
+    public String getIdempotencyKey() {
+        return idempotencyKey;
+    }
+
+    public boolean isSuccess() {
+        return error == null;
+    }
+
+    /**
+     * @return The resulting object, or null if the item failed
+     */
+    public T getValue() {
+        return value;
+    }
+
+    /**
+     * @return The error the item failed with, or null if it succeeded
+     */
+    public StripeException getError() {
+        return error;
+    }
+
+    @Override
+    public String toString() {
+        return "BulkResult{" +
+                "index=" + index +
+                ", idempotencyKey='" + idempotencyKey + '\'' +
+                (error == null ? ", value=" + value : ", error=" + error) +
+                '}';
+    }
+}
@@ -1,35 +1,139 @@
 package com.stripe.terminal.service;
 
-import com.google.gson.reflect.TypeToken;
+import com.stripe.terminal.cache.ExpiringCache;
+import com.stripe.terminal.client.FormEncoder;
+import com.stripe.terminal.client.RequestOptions;
+import com.stripe.terminal.client.StripeConfig;
 import com.stripe.terminal.client.StripeHttpClient;
 import com.stripe.terminal.exception.StripeException;
 import com.stripe.terminal.model.*;
+import com.stripe.terminal.serialization.OrderProjection;
+import com.stripe.terminal.serialization.StripeTypes;
+import com.stripe.terminal.store.OrderStore;
+import okio.ByteString;
 
-import java.lang.reflect.Type;
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 /**
  * Service for interacting with Terminal Hardware Order endpoints.
  */
 public class HardwareOrderService {
     private final StripeHttpClient httpClient;
+    private final ExpiringCache<String, IdempotentCreate> idempotentCreates;
+    private final ExpiringCache<String, HardwareOrder> previews;
+    private final String cacheScope;
+    private final OrderStore orderStore;
+    // The credentials the store was configured for; only their orders are saved to it
+    private final String orderStoreScope;
     private static final String BASE_PATH = "/v1/terminal/hardware_orders";
+    private static final int IDEMPOTENCY_CACHE_SIZE = 1000;
+    private static final int PREVIEW_CACHE_SIZE = 1000;
+
+    /**
+     * Default number of creates in flight for {@link #createAll}. Matches the HTTP client's default
+     * per-host request limit; raise both together.
+     */
+    public static final int DEFAULT_BULK_PARALLELISM = StripeConfig.DEFAULT_MAX_REQUESTS_PER_HOST;
 
     public HardwareOrderService(StripeHttpClient httpClient) {
+        this(httpClient, StripeConfig.DEFAULT_IDEMPOTENCY_CACHE_TTL, Duration.ZERO, null);
+    }
+
+    /**
+     * @param httpClient The HTTP client
+     * @param config     The configuration providing the idempotency and preview cache TTLs and the order store
+     */
+    public HardwareOrderService(StripeHttpClient httpClient, StripeConfig config) {
+        this(httpClient, config.getIdempotencyCacheTtl(), config.getPreviewCacheTtl(), config.getOrderStore());
+    }
+
+    private HardwareOrderService(StripeHttpClient httpClient, Duration idempotencyCacheTtl, Duration previewCacheTtl,
+                                 OrderStore orderStore) {
+        this.httpClient = httpClient;
+        this.orderStore = orderStore;
+        this.idempotentCreates = idempotencyCacheTtl.isZero()
+                ? null
+                : new ExpiringCache<>(idempotencyCacheTtl.toNanos(), 0, IDEMPOTENCY_CACHE_SIZE, Runnable::run);
+        // With a zero TTL entries expire immediately, leaving only the coalescing of concurrent identical previews
+        this.previews = new ExpiringCache<>(previewCacheTtl.toNanos(), 0, PREVIEW_CACHE_SIZE, Runnable::run);
+        this.cacheScope = cacheScope(httpClient.getApiKey(), httpClient.getStripeAccount());
+        this.orderStoreScope = cacheScope;
+    }
+
+    private HardwareOrderService(HardwareOrderService shared, StripeHttpClient httpClient) {
         this.httpClient = httpClient;
+        this.idempotentCreates = shared.idempotentCreates;
+        this.previews = shared.previews;
+        this.cacheScope = cacheScope(httpClient.getApiKey(), httpClient.getStripeAccount());
+        this.orderStoreScope = shared.orderStoreScope;
+        this.orderStore = cacheScope.equals(orderStoreScope) ? shared.orderStore : null;
+    }
+
+    /**
+     * Returns a service that sends requests through another client, typically a connected-account
+     * view from {@link StripeHttpClient#withOptions}, and shares this service's idempotency and
+     * preview caches. Entries are scoped by API key and Stripe-Account, so accounts never see each
+     * other's orders, and the cache memory stays bounded however many accounts are served.
+     *
+     * <p>The order store is not shared: it belongs to the API key and Stripe-Account it was
+     * configured for, and a service using other credentials saves nothing to it.</p>
+     *
+     * @param httpClient The client to send requests with
+     * @return A new service; this service is unchanged
+     */
+    public HardwareOrderService withHttpClient(StripeHttpClient httpClient) {
+        return new HardwareOrderService(this, httpClient);
     }
 
     /**
      * Creates a new Terminal Hardware Order.
+     * A random idempotency key is generated so the request can be retried safely.
      *
      * @param params The order parameters
      * @return The created Hardware Order
      * @throws StripeException if the API request fails
      */
     public HardwareOrder create(HardwareOrderCreateParams params) throws StripeException {
-        Map<String, Object> requestParams = buildCreateParams(params);
-        String response = httpClient.post(BASE_PATH, requestParams);
-        return httpClient.getGson().fromJson(response, HardwareOrder.class);
+        return create(params, RequestOptions.none());
+    }
+
+    /**
+     * Creates a new Terminal Hardware Order with the given idempotency key.
+     *
+     * <p>Use a key derived from your own order reference to make the create safe to repeat across
+     * timeouts and restarts. Repeating a create with the same key in this process returns the order
+     * from the first call without another request, and concurrent creates with the same key share one request.</p>
+     *
+     * @param params         The order parameters
+     * @param idempotencyKey The Idempotency-Key to send
+     * @return The created Hardware Order
+     * @throws StripeException if the API request fails, or the key was already used with different parameters
+     */
+    public HardwareOrder create(HardwareOrderCreateParams params, String idempotencyKey) throws StripeException {
+        return create(params, RequestOptions.builder().idempotencyKey(idempotencyKey).build());
+    }
+
+    /**
+     * Creates a new Terminal Hardware Order with per-request options.
+     * If the options carry no idempotency key, a random one is generated.
+     *
+     * @param params  The order parameters
+     * @param options The request options
+     * @return The created Hardware Order
+     * @throws StripeException if the API request fails, or the key was already used with different parameters
+     */
+    public HardwareOrder create(HardwareOrderCreateParams params, RequestOptions options) throws StripeException {
+        ByteString form = encodeCreateParams(params);
+        if (options.getIdempotencyKey() == null || idempotentCreates == null) {
+            return saved(httpClient.postEncoded(BASE_PATH, form, HardwareOrder.class, withIdempotencyKey(options)), options);
+        }
+
+        IdempotentCreate result = idempotentCreates.get(idempotencyCacheKey(options), () ->
+                new IdempotentCreate(form, saved(httpClient.postEncoded(BASE_PATH, form, HardwareOrder.class, options), options)));
+        return result.orderFor(options.getIdempotencyKey(), form);
     }
 
     /**
@@ -42,9 +146,32 @@ public class HardwareOrderService {
      * @throws StripeException if the API request fails
      */
     public HardwareOrder preview(HardwareOrderCreateParams params) throws StripeException {
-        Map<String, Object> requestParams = buildCreateParams(params);
-        String response = httpClient.getWithParams(BASE_PATH + "/preview", requestParams);
-        return httpClient.getGson().fromJson(response, HardwareOrder.class);
+        ByteString form = encodeCreateParams(params);
+        return previews.get(previewKey(form), () ->
+                httpClient.getEncoded(BASE_PATH + "/preview", form, HardwareOrder.class));
+    }
+
+    /**
+     * Previews many Terminal Hardware Orders concurrently, with {@link #DEFAULT_BULK_PARALLELISM} in flight.
+     * Identical carts are only quoted once.
+     *
+     * @param params The parameters of each order
+     * @return One result per order, in the same order as {@code params}
+     */
+    public List<BulkResult<HardwareOrder>> previewAll(List<HardwareOrderCreateParams> params) {
+        return previewAll(params, DEFAULT_BULK_PARALLELISM);
+    }
+
+    /**
+     * Previews many Terminal Hardware Orders concurrently, blocking until every preview has completed.
+     * A failed preview does not stop the others.
+     *
+     * @param params      The parameters of each order
+     * @param parallelism Maximum number of previews in flight
+     * @return One result per order, in the same order as {@code params}
+     */
+    public List<BulkResult<HardwareOrder>> previewAll(List<HardwareOrderCreateParams> params, int parallelism) {
+        return previewAllAsync(params, parallelism).join();
     }
 
     /**
@@ -55,8 +182,20 @@ public class HardwareOrderService {
      * @throws StripeException if the API request fails
      */
     public HardwareOrder retrieve(String orderId) throws StripeException {
-        String response = httpClient.get(BASE_PATH + "/" + orderId, null);
-        return httpClient.getGson().fromJson(response, HardwareOrder.class);
+        return saved(httpClient.get(BASE_PATH + "/" + orderId, null, HardwareOrder.class));
+    }
+
+    /**
+     * Retrieves a Terminal Hardware Order, decoding only the fields in the projection. Use it on
+     * polling paths that read a few fields, such as status and shipment tracking.
+     *
+     * @param orderId    The ID of the order to retrieve
+     * @param projection The fields to decode
+     * @return The Hardware Order; fields outside the projection are null
+     * @throws StripeException if the API request fails
+     */
+    public HardwareOrder retrieve(String orderId, OrderProjection projection) throws StripeException {
+        return savedIfComplete(httpClient.getOrder(BASE_PATH + "/" + orderId, projection), projection);
     }
 
     /**
@@ -77,88 +216,460 @@ public class HardwareOrderService {
      * @throws StripeException if the API request fails
      */
     public StripeList<HardwareOrder> list(Integer limit) throws StripeException {
-        Map<String, String> params = new HashMap<>();
-        if (limit != null) {
-            params.put("limit", limit.toString());
+        return list(limit, null, null);
+    }
+
+    /**
+     * Lists one page of Terminal Hardware Orders using pagination cursors.
+     *
+     * @param limit         Optional. Limit the number of results
+     * @param startingAfter Optional. Return results after this object ID
+     * @param endingBefore  Optional. Return results before this object ID
+     * @return A list of Hardware Orders
+     * @throws StripeException if the API request fails
+     */
+    public StripeList<HardwareOrder> list(Integer limit, String startingAfter, String endingBefore) throws StripeException {
+        Map<String, String> params = buildListParams(limit, startingAfter, endingBefore);
+        return savedPage(httpClient.get(BASE_PATH, params, StripeTypes.HARDWARE_ORDER_LIST));
+    }
+
+    /**
+     * Lists one page of Terminal Hardware Orders, handing each one to the consumer as soon as it is
+     * parsed from the response stream. The page is never held in memory as a whole.
+     *
+     * @param limit         Optional. Limit the number of results
+     * @param startingAfter Optional. Return results after this object ID
+     * @param endingBefore  Optional. Return results before this object ID
+     * @param consumer      Receives each HardwareOrder in page order
+     * @return The page envelope, with empty data; use getHasMore() to decide whether to fetch the next page
+     * @throws StripeException if the API request fails
+     */
+    public StripeList<HardwareOrder> list(Integer limit, String startingAfter, String endingBefore,
+                                          Consumer<? super HardwareOrder> consumer) throws StripeException {
+        Map<String, String> params = buildListParams(limit, startingAfter, endingBefore);
+        if (orderStore == null) {
+            return httpClient.getList(BASE_PATH, params, HardwareOrder.class, consumer);
         }
+        return httpClient.getList(BASE_PATH, params, HardwareOrder.class, order -> consumer.accept(saved(order)));
+    }
 
-        String response = httpClient.get(BASE_PATH, params);
-        Type type = new TypeToken<StripeList<HardwareOrder>>() {}.getType();
-        return httpClient.getGson().fromJson(response, type);
+    /**
+     * Lists one page of Terminal Hardware Orders, decoding only the fields in the projection.
+     *
+     * @param limit         Optional. Limit the number of results
+     * @param startingAfter Optional. Return results after this object ID
+     * @param endingBefore  Optional. Return results before this object ID
+     * @param projection    The fields to decode
+     * @return A list of Hardware Orders; fields outside the projection are null
+     * @throws StripeException if the API request fails
+     */
+    public StripeList<HardwareOrder> list(Integer limit, String startingAfter, String endingBefore,
+                                          OrderProjection projection) throws StripeException {
+        List<HardwareOrder> data = new ArrayList<>(limit != null ? limit : 10);
+        StripeList<HardwareOrder> page = list(limit, startingAfter, endingBefore, projection, data::add);
+        page.setData(data);
+        return page;
     }
 
     /**
-     * Builds the request parameters map from HardwareOrderCreateParams.
+     * Lists one page of Terminal Hardware Orders, handing each one to the consumer as soon as it is
+     * parsed and decoding only the fields in the projection.
+     *
+     * @param limit         Optional. Limit the number of results
+     * @param startingAfter Optional. Return results after this object ID
+     * @param endingBefore  Optional. Return results before this object ID
+     * @param projection    The fields to decode
+     * @param consumer      Receives each HardwareOrder in page order
+     * @return The page envelope, with empty data; use getHasMore() to decide whether to fetch the next page
+     * @throws StripeException if the API request fails
      */
-    private Map<String, Object> buildCreateParams(HardwareOrderCreateParams params) {
-        Map<String, Object> requestParams = new HashMap<>();
+    public StripeList<HardwareOrder> list(Integer limit, String startingAfter, String endingBefore,
+                                          OrderProjection projection, Consumer<? super HardwareOrder> consumer)
+            throws StripeException {
+        Map<String, String> params = buildListParams(limit, startingAfter, endingBefore);
+        if (orderStore == null || !projection.includesAll()) {
+            return httpClient.getOrderList(BASE_PATH, params, projection, consumer);
+        }
+        return httpClient.getOrderList(BASE_PATH, params, projection, order -> consumer.accept(saved(order)));
+    }
+
+    /**
+     * Lists one page of Terminal Hardware Orders into a compact, column-oriented batch. Each order
+     * is folded into the batch as soon as it is parsed from the response stream.
+     *
+     * @param limit         Optional. Limit the number of results
+     * @param startingAfter Optional. Return results after this object ID
+     * @param endingBefore  Optional. Return results before this object ID
+     * @return The page as a batch; use getHasMore() to decide whether to fetch the next page
+     * @throws StripeException if the API request fails
+     */
+    public HardwareOrderBatch listBatch(Integer limit, String startingAfter, String endingBefore) throws StripeException {
+        HardwareOrderBatch batch = new HardwareOrderBatch(limit != null ? limit : 10);
+        batch.setHasMore(list(limit, startingAfter, endingBefore, batch::add).getHasMore());
+        return batch;
+    }
 
-        // Hardware order items (required)
-        if (params.getHardwareOrderItems() != null && !params.getHardwareOrderItems().isEmpty()) {
-            List<Map<String, Object>> items = new ArrayList<>();
-            for (HardwareOrderItem item : params.getHardwareOrderItems()) {
-                Map<String, Object> itemMap = new HashMap<>();
-                itemMap.put("terminal_hardware_sku", item.getTerminalHardwareSku());
-                itemMap.put("quantity", item.getQuantity());
-                items.add(itemMap);
+    /**
+     * Lists every Terminal Hardware Order into one compact, column-oriented batch, for reporting
+     * over large order histories.
+     *
+     * @param limit Optional. Page size used for each request
+     * @return Every order, newest first
+     * @throws StripeException if an API request fails
+     */
+    public HardwareOrderBatch listAllBatch(Integer limit) throws StripeException {
+        HardwareOrderBatch batch = new HardwareOrderBatch(limit != null ? limit : 10);
+        String cursor = null;
+        while (true) {
+            int before = batch.size();
+            StripeList<HardwareOrder> page = list(limit, cursor, null, batch::add);
+            if (!Boolean.TRUE.equals(page.getHasMore()) || batch.size() == before) {
+                batch.setHasMore(false);
+                return batch;
             }
-            requestParams.put("hardware_order_items", items);
+            cursor = batch.getId(batch.size() - 1);
         }
+    }
 
-        // Payment type (required)
-        requestParams.put("payment_type", params.getPaymentType());
+    /**
+     * Creates a new Terminal Hardware Order without blocking the calling thread.
+     *
+     * @param params The order parameters
+     * @return A future completing with the created Hardware Order, or exceptionally with a StripeException
+     */
+    public CompletableFuture<HardwareOrder> createAsync(HardwareOrderCreateParams params) {
+        return createAsync(params, RequestOptions.none());
+    }
+
+    /**
+     * Creates a new Terminal Hardware Order with the given idempotency key without blocking the calling thread.
+     *
+     * @param params         The order parameters
+     * @param idempotencyKey The Idempotency-Key to send
+     * @return A future completing with the created Hardware Order, or exceptionally with a StripeException
+     */
+    public CompletableFuture<HardwareOrder> createAsync(HardwareOrderCreateParams params, String idempotencyKey) {
+        return createAsync(params, RequestOptions.builder().idempotencyKey(idempotencyKey).build());
+    }
+
+    /**
+     * Creates a new Terminal Hardware Order with per-request options without blocking the calling thread.
+     *
+     * @param params  The order parameters
+     * @param options The request options
+     * @return A future completing with the created Hardware Order, or exceptionally with a StripeException
+     */
+    public CompletableFuture<HardwareOrder> createAsync(HardwareOrderCreateParams params, RequestOptions options) {
+        ByteString form = encodeCreateParams(params);
+        if (options.getIdempotencyKey() == null || idempotentCreates == null) {
+            return httpClient.<HardwareOrder>postEncodedAsync(BASE_PATH, form, HardwareOrder.class, withIdempotencyKey(options))
+                    .thenApply(order -> saved(order, options));
+        }
+
+        String key = options.getIdempotencyKey();
+        return idempotentCreates.getAsync(idempotencyCacheKey(options), () ->
+                        httpClient.<HardwareOrder>postEncodedAsync(BASE_PATH, form, HardwareOrder.class, options)
+                                .thenApply(order -> new IdempotentCreate(form, saved(order, options))))
+                .thenCompose(result -> {
+                    try {
+                        return CompletableFuture.completedFuture(result.orderFor(key, form));
+                    } catch (StripeException e) {
+                        return CompletableFuture.failedFuture(e);
+                    }
+                });
+    }
 
-        // Shipping method (required)
-        requestParams.put("shipping_method", params.getShippingMethod());
+    /**
+     * Creates many Terminal Hardware Orders concurrently, with {@link #DEFAULT_BULK_PARALLELISM} in flight.
+     * A random idempotency key is generated for each order.
+     *
+     * @param params The parameters of each order
+     * @return One result per order, in the same order as {@code params}
+     */
+    public List<BulkResult<HardwareOrder>> createAll(List<HardwareOrderCreateParams> params) {
+        return createAll(params, null, DEFAULT_BULK_PARALLELISM);
+    }
 
-        // Shipping details (required)
-        if (params.getShipping() != null) {
-            Map<String, Object> shipping = new HashMap<>();
-            ShippingDetails shippingDetails = params.getShipping();
+    /**
+     * Creates many Terminal Hardware Orders concurrently.
+     * A random idempotency key is generated for each order.
+     *
+     * @param params      The parameters of each order
+     * @param parallelism Maximum number of creates in flight
+     * @return One result per order, in the same order as {@code params}
+     */
+    public List<BulkResult<HardwareOrder>> createAll(List<HardwareOrderCreateParams> params, int parallelism) {
+        return createAll(params, null, parallelism);
+    }
 
-            shipping.put("name", shippingDetails.getName());
-            shipping.put("email", shippingDetails.getEmail());
-            shipping.put("phone", shippingDetails.getPhone());
+    /**
+     * Creates many Terminal Hardware Orders concurrently, blocking until every create has completed.
+     *
+     * <p>A failed order does not stop the others: each result holds either the created order or the
+     * {@link StripeException} it failed with, together with its idempotency key. Resubmitting the
+     * failures with the same keys retries them without risking duplicate shipments.</p>
+     *
+     * <p>Requests are sent through the HTTP client's dispatcher, so parallelism above
+     * {@link StripeConfig.Builder#maxRequestsPerHost} is queued there.</p>
+     *
+     * @param params          The parameters of each order
+     * @param idempotencyKeys Optional. One idempotency key per order; random keys are generated if null
+     * @param parallelism     Maximum number of creates in flight
+     * @return One result per order, in the same order as {@code params}
+     */
+    public List<BulkResult<HardwareOrder>> createAll(List<HardwareOrderCreateParams> params, List<String> idempotencyKeys,
+                                                     int parallelism) {
+        return createAllAsync(params, idempotencyKeys, parallelism).join();
+    }
 
-            if (shippingDetails.getCompany() != null) {
-                shipping.put("company", shippingDetails.getCompany());
+    /**
+     * Creates many Terminal Hardware Orders concurrently without blocking the calling thread.
+     * A new create is only started when a previous one completes, so no thread waits on a permit.
+     *
+     * @param params          The parameters of each order
+     * @param idempotencyKeys Optional. One idempotency key per order; random keys are generated if null
+     * @param parallelism     Maximum number of creates in flight
+     * @return A future completing with one result per order once every create has completed
+     */
+    public CompletableFuture<List<BulkResult<HardwareOrder>>> createAllAsync(List<HardwareOrderCreateParams> params,
+                                                                             List<String> idempotencyKeys, int parallelism) {
+        List<String> keys = idempotencyKeys;
+        if (keys == null) {
+            keys = new ArrayList<>(params.size());
+            for (int i = 0; i < params.size(); i++) {
+                keys.add(RequestOptions.newIdempotencyKey());
             }
+        }
+        return BulkExecutor.run(params, keys, parallelism, this::createAsync);
+    }
 
-            if (shippingDetails.getAddress() != null) {
-                Map<String, Object> address = new HashMap<>();
-                Address addr = shippingDetails.getAddress();
+    /**
+     * Previews a Terminal Hardware Order without blocking the calling thread.
+     *
+     * @param params The order parameters
+     * @return A future completing with the previewed Hardware Order, or exceptionally with a StripeException
+     */
+    public CompletableFuture<HardwareOrder> previewAsync(HardwareOrderCreateParams params) {
+        ByteString form = encodeCreateParams(params);
+        return previews.getAsync(previewKey(form), () ->
+                httpClient.getEncodedAsync(BASE_PATH + "/preview", form, HardwareOrder.class));
+    }
 
-                address.put("line1", addr.getLine1());
-                address.put("country", addr.getCountry());
-                address.put("postal_code", addr.getPostalCode());
+    /**
+     * Previews many Terminal Hardware Orders concurrently without blocking the calling thread.
+     *
+     * @param params      The parameters of each order
+     * @param parallelism Maximum number of previews in flight
+     * @return A future completing with one result per order once every preview has completed
+     */
+    public CompletableFuture<List<BulkResult<HardwareOrder>>> previewAllAsync(List<HardwareOrderCreateParams> params,
+                                                                              int parallelism) {
+        return BulkExecutor.run(params, null, parallelism, (item, key) -> previewAsync(item));
+    }
 
-                if (addr.getLine2() != null) {
-                    address.put("line2", addr.getLine2());
-                }
-                if (addr.getCity() != null) {
-                    address.put("city", addr.getCity());
-                }
-                if (addr.getState() != null) {
-                    address.put("state", addr.getState());
-                }
+    /**
+     * Retrieves a specific Terminal Hardware Order without blocking the calling thread.
+     *
+     * @param orderId The ID of the order to retrieve
+     * @return A future completing with the Hardware Order, or exceptionally with a StripeException
+     */
+    public CompletableFuture<HardwareOrder> retrieveAsync(String orderId) {
+        return httpClient.<HardwareOrder>getAsync(BASE_PATH + "/" + orderId, null, HardwareOrder.class)
+                .thenApply(this::saved);
+    }
 
-                shipping.put("address", address);
-            }
+    /**
+     * Retrieves a Terminal Hardware Order without blocking the calling thread, decoding only the
+     * fields in the projection.
+     *
+     * @param orderId    The ID of the order to retrieve
+     * @param projection The fields to decode
+     * @return A future completing with the Hardware Order, or exceptionally with a StripeException
+     */
+    public CompletableFuture<HardwareOrder> retrieveAsync(String orderId, OrderProjection projection) {
+        return httpClient.getOrderAsync(BASE_PATH + "/" + orderId, projection)
+                .thenApply(order -> savedIfComplete(order, projection));
+    }
+
+    /**
+     * Lists Terminal Hardware Orders without blocking the calling thread.
+     *
+     * @param limit Optional. Limit the number of results
+     * @return A future completing with a list of Hardware Orders, or exceptionally with a StripeException
+     */
+    public CompletableFuture<StripeList<HardwareOrder>> listAsync(Integer limit) {
+        return listAsync(limit, null, null);
+    }
+
+    /**
+     * Lists one page of Terminal Hardware Orders using pagination cursors without blocking the calling thread.
+     *
+     * @param limit         Optional. Limit the number of results
+     * @param startingAfter Optional. Return results after this object ID
+     * @param endingBefore  Optional. Return results before this object ID
+     * @return A future completing with a list of Hardware Orders, or exceptionally with a StripeException
+     */
+    public CompletableFuture<StripeList<HardwareOrder>> listAsync(Integer limit, String startingAfter, String endingBefore) {
+        Map<String, String> params = buildListParams(limit, startingAfter, endingBefore);
+        return httpClient.<StripeList<HardwareOrder>>getAsync(BASE_PATH, params, StripeTypes.HARDWARE_ORDER_LIST)
+                .thenApply(this::savedPage);
+    }
+
+    /**
+     * Lazily iterates over all Terminal Hardware Orders, fetching pages on demand.
+     *
+     * @return An iterable over every HardwareOrder
+     */
+    public AutoPagingIterable<HardwareOrder> autoPagingIterable() {
+        return autoPagingIterable(null);
+    }
+
+    /**
+     * Lazily iterates over all Terminal Hardware Orders, fetching pages on demand.
+     *
+     * @param limit Optional. Page size used for each request
+     * @return An iterable over every HardwareOrder
+     */
+    public AutoPagingIterable<HardwareOrder> autoPagingIterable(Integer limit) {
+        return new AutoPagingIterable<>(
+                startingAfter -> list(limit, startingAfter, null),
+                startingAfter -> listAsync(limit, startingAfter, null));
+    }
+
+    /**
+     * Publishes all Terminal Hardware Orders, fetching pages only as fast as the subscriber requests items.
+     *
+     * @return A publisher of every HardwareOrder
+     */
+    public PagingPublisher<HardwareOrder> autoPagingPublisher() {
+        return autoPagingPublisher(null);
+    }
+
+    /**
+     * Publishes all Terminal Hardware Orders, fetching pages only as fast as the subscriber requests items.
+     *
+     * @param limit Optional. Page size used for each request
+     * @return A publisher of every HardwareOrder
+     */
+    public PagingPublisher<HardwareOrder> autoPagingPublisher(Integer limit) {
+        return new PagingPublisher<>(startingAfter -> listAsync(limit, startingAfter, null));
+    }
 
-            requestParams.put("shipping", shipping);
+    /**
+     * Saves an order to the configured store, if any.
+     */
+    private HardwareOrder saved(HardwareOrder order) {
+        if (orderStore != null && order != null) {
+            orderStore.put(order);
         }
+        return order;
+    }
 
-        // PO number (optional)
-        if (params.getPoNumber() != null) {
-            requestParams.put("po_number", params.getPoNumber());
+    /**
+     * Saves an order sent with per-request options, unless they override the credentials; the
+     * order then belongs to another account than the store.
+     */
+    private HardwareOrder saved(HardwareOrder order, RequestOptions options) {
+        return requestScope(options).equals(cacheScope) ? saved(order) : order;
+    }
+
+    /**
+     * Saves an order read with the projection, unless fields are missing; a partial order would
+     * overwrite the stored copy.
+     */
+    private HardwareOrder savedIfComplete(HardwareOrder order, OrderProjection projection) {
+        return projection.includesAll() ? saved(order) : order;
+    }
+
+    private StripeList<HardwareOrder> savedPage(StripeList<HardwareOrder> page) {
+        if (orderStore != null && page != null && page.getData() != null) {
+            orderStore.putAll(page.getData());
         }
+        return page;
+    }
 
-        // Metadata (optional)
-        if (params.getMetadata() != null && !params.getMetadata().isEmpty()) {
-            requestParams.put("metadata", params.getMetadata());
+    /**
+     * Returns a canonical key for preview parameters. Metadata is encoded in key order, so equal
+     * carts always encode to the same bytes.
+     */
+    private String previewKey(ByteString form) {
+        return cacheScope + form.sha256().hex();
+    }
+
+    /**
+     * Idempotency keys are unique per account, so cached creates are keyed by the credentials the
+     * request is sent with as well as the key.
+     */
+    private String idempotencyCacheKey(RequestOptions options) {
+        return requestScope(options) + options.getIdempotencyKey();
+    }
+
+    /**
+     * Returns the scope of the credentials a request is sent with, after per-request overrides.
+     */
+    private String requestScope(RequestOptions options) {
+        return options.getApiKey() == null && options.getStripeAccount() == null && !options.clearsStripeAccount()
+                ? cacheScope
+                : cacheScope(options.getApiKey() != null ? options.getApiKey() : httpClient.getApiKey(),
+                        options.resolveStripeAccount(httpClient.getStripeAccount()));
+    }
+
+    private static String cacheScope(String apiKey, String stripeAccount) {
+        return apiKey + "/" + (stripeAccount != null ? stripeAccount : "") + "/";
+    }
+
+    private static RequestOptions withIdempotencyKey(RequestOptions options) {
+        if (options.getIdempotencyKey() != null) {
+            return options;
         }
+        return options.toBuilder().idempotencyKey(RequestOptions.newIdempotencyKey()).build();
+    }
 
-        return requestParams;
+    private Map<String, String> buildListParams(Integer limit, String startingAfter, String endingBefore) {
+        Map<String, String> params = new HashMap<>();
+        if (limit != null) {
+            params.put("limit", limit.toString());
+        }
+        if (startingAfter != null) {
+            params.put("starting_after", startingAfter);
+        }
+        if (endingBefore != null) {
+            params.put("ending_before", endingBefore);
+        }
+        return params;
+    }
+
+    /**
+     * Encodes HardwareOrderCreateParams as a form body in Stripe's bracket notation.
+     */
+    private static ByteString encodeCreateParams(HardwareOrderCreateParams params) {
+        FormEncoder encoder = new FormEncoder();
+        params.writeTo(encoder);
+        return encoder.toByteString();
+    }
+
+    /**
+     * The response to a create sent with a caller-supplied idempotency key, together with the
+     * parameters it was sent with.
+     */
+    private static final class IdempotentCreate {
+        private final ByteString params;
+        private final HardwareOrder order;
+
+        IdempotentCreate(ByteString params, HardwareOrder order) {
+            this.params = params;
+            this.order = order;
+        }
+
+        HardwareOrder orderFor(String idempotencyKey, ByteString form) throws StripeException {
+            // Mirror the API, which rejects a key reused with different parameters
+            if (!params.equals(form)) {
+                throw new StripeException("Keys for idempotent requests can only be used with the same parameters "
+                        + "they were first used with. Try using a key other than '" + idempotencyKey
+                        + "' if you meant to execute a different request.", 400, null, "idempotency_error", null);
+            }
+            return order;
+        }
     }
 
     /**
@@ -220,6 +731,52 @@ public class HardwareOrderService {
             this.metadata = metadata;
         }
 
+        /**
+         * Writes these parameters in Stripe's bracket notation.
+         *
+         * @param encoder The encoder to write to
+         */
+        public void writeTo(FormEncoder encoder) {
+            if (hardwareOrderItems != null) {
+                for (int i = 0; i < hardwareOrderItems.size(); i++) {
+                    HardwareOrderItem item = hardwareOrderItems.get(i);
+                    encoder.beginObject("hardware_order_items", i)
+                            .add("terminal_hardware_sku", item.getTerminalHardwareSkuId())
+                            .add("quantity", item.getQuantity())
+                            .endObject();
+                }
+            }
+
+            encoder.add("payment_type", paymentType)
+                    .add("shipping_method", shippingMethod);
+
+            if (shipping != null) {
+                encoder.beginObject("shipping")
+                        .add("name", shipping.getName())
+                        .add("email", shipping.getEmail())
+                        .add("phone", shipping.getPhone())
+                        .add("company", shipping.getCompany());
+
+                Address address = shipping.getAddress();
+                if (address != null) {
+                    encoder.beginObject("address")
+                            .add("line1", address.getLine1())
+                            .add("line2", address.getLine2())
+                            .add("city", address.getCity())
+                            .add("state", address.getState())
+                            .add("postal_code", address.getPostalCode())
+                            .add("country", address.getCountry())
+                            .endObject();
+                }
+                encoder.endObject();
+            }
+
+            encoder.add("po_number", poNumber);
+            if (metadata != null && !metadata.isEmpty()) {
+                encoder.addStringMap("metadata", metadata);
+            }
+        }
+
         public static Builder builder() {
             return new Builder();
         }
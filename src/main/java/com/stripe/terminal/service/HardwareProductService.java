@@ -1,24 +1,39 @@
 package com.stripe.terminal.service;
 
-import com.google.gson.reflect.TypeToken;
+import com.stripe.terminal.cache.CatalogCache;
+import com.stripe.terminal.cache.ExpiringCache;
 import com.stripe.terminal.client.StripeHttpClient;
 import com.stripe.terminal.exception.StripeException;
 import com.stripe.terminal.model.HardwareProduct;
 import com.stripe.terminal.model.StripeList;
+import com.stripe.terminal.serialization.StripeTypes;
 
-import java.lang.reflect.Type;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 /**
  * Service for interacting with Terminal Hardware Product endpoints.
  */
 public class HardwareProductService {
     private final StripeHttpClient httpClient;
+    private final CatalogCache catalogCache;
+    private final String cacheScope;
     private static final String BASE_PATH = "/v1/terminal/hardware_products";
 
     public HardwareProductService(StripeHttpClient httpClient) {
+        this(httpClient, null);
+    }
+
+    /**
+     * @param httpClient   The HTTP client
+     * @param catalogCache Optional. Cache for list and retrieve responses, or null to always hit the API
+     */
+    public HardwareProductService(StripeHttpClient httpClient, CatalogCache catalogCache) {
         this.httpClient = httpClient;
+        this.catalogCache = catalogCache;
+        this.cacheScope = CatalogCache.scope(httpClient.getApiKey(), httpClient.getStripeAccount());
     }
 
     /**
@@ -39,14 +54,39 @@ public class HardwareProductService {
      * @throws StripeException if the API request fails
      */
     public StripeList<HardwareProduct> list(Integer limit) throws StripeException {
-        Map<String, String> params = new HashMap<>();
-        if (limit != null) {
-            params.put("limit", limit.toString());
-        }
+        return list(limit, null, null);
+    }
 
-        String response = httpClient.get(BASE_PATH, params);
-        Type type = new TypeToken<StripeList<HardwareProduct>>() {}.getType();
-        return httpClient.getGson().fromJson(response, type);
+    /**
+     * Lists one page of Terminal Hardware Products using pagination cursors.
+     *
+     * @param limit         Optional. Limit the number of results
+     * @param startingAfter Optional. Return results after this object ID
+     * @param endingBefore  Optional. Return results before this object ID
+     * @return A list of Hardware Products
+     * @throws StripeException if the API request fails
+     */
+    public StripeList<HardwareProduct> list(Integer limit, String startingAfter, String endingBefore) throws StripeException {
+        Map<String, String> params = buildListParams(limit, startingAfter, endingBefore);
+        return cached(CatalogCache.key("list", limit, startingAfter, endingBefore),
+                () -> httpClient.get(BASE_PATH, params, StripeTypes.HARDWARE_PRODUCT_LIST));
+    }
+
+    /**
+     * Lists one page of Terminal Hardware Products, handing each one to the consumer as soon as it is
+     * parsed from the response stream. The page is never held in memory as a whole.
+     *
+     * @param limit         Optional. Limit the number of results
+     * @param startingAfter Optional. Return results after this object ID
+     * @param endingBefore  Optional. Return results before this object ID
+     * @param consumer      Receives each HardwareProduct in page order
+     * @return The page envelope, with empty data; use getHasMore() to decide whether to fetch the next page
+     * @throws StripeException if the API request fails
+     */
+    public StripeList<HardwareProduct> list(Integer limit, String startingAfter, String endingBefore,
+                                            Consumer<? super HardwareProduct> consumer) throws StripeException {
+        Map<String, String> params = buildListParams(limit, startingAfter, endingBefore);
+        return httpClient.getList(BASE_PATH, params, HardwareProduct.class, consumer);
     }
 
     /**
@@ -57,7 +97,104 @@ public class HardwareProductService {
      * @throws StripeException if the API request fails
      */
     public HardwareProduct retrieve(String productId) throws StripeException {
-        String response = httpClient.get(BASE_PATH + "/" + productId, null);
-        return httpClient.getGson().fromJson(response, HardwareProduct.class);
+        return cached(CatalogCache.key("retrieve", productId),
+                () -> httpClient.get(BASE_PATH + "/" + productId, null, HardwareProduct.class));
+    }
+
+    /**
+     * Lists Terminal Hardware Products without blocking the calling thread.
+     *
+     * @param limit Optional. Limit the number of results
+     * @return A future completing with a list of Hardware Products, or exceptionally with a StripeException
+     */
+    public CompletableFuture<StripeList<HardwareProduct>> listAsync(Integer limit) {
+        return listAsync(limit, null, null);
+    }
+
+    /**
+     * Lists one page of Terminal Hardware Products using pagination cursors without blocking the calling thread.
+     *
+     * @param limit         Optional. Limit the number of results
+     * @param startingAfter Optional. Return results after this object ID
+     * @param endingBefore  Optional. Return results before this object ID
+     * @return A future completing with a list of Hardware Products, or exceptionally with a StripeException
+     */
+    public CompletableFuture<StripeList<HardwareProduct>> listAsync(Integer limit, String startingAfter, String endingBefore) {
+        Map<String, String> params = buildListParams(limit, startingAfter, endingBefore);
+        return cachedAsync(CatalogCache.key("list", limit, startingAfter, endingBefore),
+                () -> httpClient.getAsync(BASE_PATH, params, StripeTypes.HARDWARE_PRODUCT_LIST));
+    }
+
+    /**
+     * Retrieves a specific Terminal Hardware Product without blocking the calling thread.
+     *
+     * @param productId The ID of the product to retrieve
+     * @return A future completing with the Hardware Product, or exceptionally with a StripeException
+     */
+    public CompletableFuture<HardwareProduct> retrieveAsync(String productId) {
+        return cachedAsync(CatalogCache.key("retrieve", productId),
+                () -> httpClient.getAsync(BASE_PATH + "/" + productId, null, HardwareProduct.class));
+    }
+
+    /**
+     * Lazily iterates over all Terminal Hardware Products, fetching pages on demand.
+     *
+     * @return An iterable over every HardwareProduct
+     */
+    public AutoPagingIterable<HardwareProduct> autoPagingIterable() {
+        return autoPagingIterable(null);
+    }
+
+    /**
+     * Lazily iterates over all Terminal Hardware Products, fetching pages on demand.
+     *
+     * @param limit Optional. Page size used for each request
+     * @return An iterable over every HardwareProduct
+     */
+    public AutoPagingIterable<HardwareProduct> autoPagingIterable(Integer limit) {
+        return new AutoPagingIterable<>(
+                startingAfter -> list(limit, startingAfter, null),
+                startingAfter -> listAsync(limit, startingAfter, null));
+    }
+
+    /**
+     * Publishes all Terminal Hardware Products, fetching pages only as fast as the subscriber requests items.
+     *
+     * @return A publisher of every HardwareProduct
+     */
+    public PagingPublisher<HardwareProduct> autoPagingPublisher() {
+        return autoPagingPublisher(null);
+    }
+
+    /**
+     * Publishes all Terminal Hardware Products, fetching pages only as fast as the subscriber requests items.
+     *
+     * @param limit Optional. Page size used for each request
+     * @return A publisher of every HardwareProduct
+     */
+    public PagingPublisher<HardwareProduct> autoPagingPublisher(Integer limit) {
+        return new PagingPublisher<>(startingAfter -> listAsync(limit, startingAfter, null));
+    }
+
+    private <V> V cached(String key, ExpiringCache.Loader<V> loader) throws StripeException {
+        return catalogCache != null ? catalogCache.get(CatalogCache.Entity.PRODUCT, cacheScope + key, loader) : loader.load();
+    }
+
+    private <V> CompletableFuture<V> cachedAsync(String key, ExpiringCache.AsyncLoader<V> loader) {
+        return catalogCache != null ? catalogCache.getAsync(CatalogCache.Entity.PRODUCT, cacheScope + key, loader) : loader.load();
+    }
+
+    private Map<String, String> buildListParams(Integer limit, String startingAfter, String endingBefore) {
+        Map<String, String> params = new HashMap<>();
+        if (limit != null) {
+            params.put("limit", limit.toString());
+        }
+        if (startingAfter != null) {
+            params.put("starting_after", startingAfter);
+        }
+        if (endingBefore != null) {
+            params.put("ending_before", endingBefore);
+        }
+        return params;
     }
 }
@@ -1,24 +1,39 @@
 package com.stripe.terminal.service;
 
-import com.google.gson.reflect.TypeToken;
+import com.stripe.terminal.cache.CatalogCache;
+import com.stripe.terminal.cache.ExpiringCache;
 import com.stripe.terminal.client.StripeHttpClient;
 import com.stripe.terminal.exception.StripeException;
 import com.stripe.terminal.model.HardwareSku;
 import com.stripe.terminal.model.StripeList;
+import com.stripe.terminal.serialization.StripeTypes;
 
-import java.lang.reflect.Type;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 /**
  * Service for interacting with Terminal Hardware SKU endpoints.
  */
 public class HardwareSkuService {
     private final StripeHttpClient httpClient;
+    private final CatalogCache catalogCache;
+    private final String cacheScope;
     private static final String BASE_PATH = "/v1/terminal/hardware_skus";
 
     public HardwareSkuService(StripeHttpClient httpClient) {
+        this(httpClient, null);
+    }
+
+    /**
+     * @param httpClient   The HTTP client
+     * @param catalogCache Optional. Cache for list and retrieve responses, or null to always hit the API
+     */
+    public HardwareSkuService(StripeHttpClient httpClient, CatalogCache catalogCache) {
         this.httpClient = httpClient;
+        this.catalogCache = catalogCache;
+        this.cacheScope = CatalogCache.scope(httpClient.getApiKey(), httpClient.getStripeAccount());
     }
 
     /**
@@ -43,22 +58,47 @@ public class HardwareSkuService {
      * @throws StripeException if the API request fails
      */
     public StripeList<HardwareSku> list(String country, String product, String provider, Integer limit) throws StripeException {
-        Map<String, String> params = new HashMap<>();
-        params.put("country", country);
+        return list(country, product, provider, limit, null, null);
+    }
 
-        if (product != null) {
-            params.put("product", product);
-        }
-        if (provider != null) {
-            params.put("provider", provider);
-        }
-        if (limit != null) {
-            params.put("limit", limit.toString());
-        }
+    /**
+     * Lists one page of Terminal Hardware SKUs using pagination cursors.
+     *
+     * @param country       Required. The country to filter by (ISO 3166-1 alpha-2)
+     * @param product       Optional. Filter by hardware product ID
+     * @param provider      Optional. Filter by provider (default: "stripe")
+     * @param limit         Optional. Limit the number of results
+     * @param startingAfter Optional. Return results after this object ID
+     * @param endingBefore  Optional. Return results before this object ID
+     * @return A list of Hardware SKUs
+     * @throws StripeException if the API request fails
+     */
+    public StripeList<HardwareSku> list(String country, String product, String provider, Integer limit,
+                                        String startingAfter, String endingBefore) throws StripeException {
+        Map<String, String> params = buildListParams(country, product, provider, limit, startingAfter, endingBefore);
+        return cached(CatalogCache.key("list", country, product, provider, limit, startingAfter, endingBefore),
+                () -> httpClient.get(BASE_PATH, params, StripeTypes.HARDWARE_SKU_LIST));
+    }
 
-        String response = httpClient.get(BASE_PATH, params);
-        Type type = new TypeToken<StripeList<HardwareSku>>() {}.getType();
-        return httpClient.getGson().fromJson(response, type);
+    /**
+     * Lists one page of Terminal Hardware SKUs, handing each one to the consumer as soon as it is
+     * parsed from the response stream. The page is never held in memory as a whole.
+     *
+     * @param country       Required. The country to filter by (ISO 3166-1 alpha-2)
+     * @param product       Optional. Filter by hardware product ID
+     * @param provider      Optional. Filter by provider (default: "stripe")
+     * @param limit         Optional. Limit the number of results
+     * @param startingAfter Optional. Return results after this object ID
+     * @param endingBefore  Optional. Return results before this object ID
+     * @param consumer      Receives each HardwareSku in page order
+     * @return The page envelope, with empty data; use getHasMore() to decide whether to fetch the next page
+     * @throws StripeException if the API request fails
+     */
+    public StripeList<HardwareSku> list(String country, String product, String provider, Integer limit,
+                                        String startingAfter, String endingBefore,
+                                        Consumer<? super HardwareSku> consumer) throws StripeException {
+        Map<String, String> params = buildListParams(country, product, provider, limit, startingAfter, endingBefore);
+        return httpClient.getList(BASE_PATH, params, HardwareSku.class, consumer);
     }
 
     /**
@@ -69,7 +109,129 @@ public class HardwareSkuService {
      * @throws StripeException if the API request fails
      */
     public HardwareSku retrieve(String skuId) throws StripeException {
-        String response = httpClient.get(BASE_PATH + "/" + skuId, null);
-        return httpClient.getGson().fromJson(response, HardwareSku.class);
+        return cached(CatalogCache.key("retrieve", skuId),
+                () -> httpClient.get(BASE_PATH + "/" + skuId, null, HardwareSku.class));
+    }
+
+    /**
+     * Lists available Terminal Hardware SKUs without blocking the calling thread.
+     *
+     * @param country  Required. The country to filter by (ISO 3166-1 alpha-2)
+     * @param product  Optional. Filter by hardware product ID
+     * @param provider Optional. Filter by provider (default: "stripe")
+     * @param limit    Optional. Limit the number of results
+     * @return A future completing with a list of Hardware SKUs, or exceptionally with a StripeException
+     */
+    public CompletableFuture<StripeList<HardwareSku>> listAsync(String country, String product, String provider, Integer limit) {
+        return listAsync(country, product, provider, limit, null, null);
+    }
+
+    /**
+     * Lists one page of Terminal Hardware SKUs using pagination cursors without blocking the calling thread.
+     *
+     * @param country       Required. The country to filter by (ISO 3166-1 alpha-2)
+     * @param product       Optional. Filter by hardware product ID
+     * @param provider      Optional. Filter by provider (default: "stripe")
+     * @param limit         Optional. Limit the number of results
+     * @param startingAfter Optional. Return results after this object ID
+     * @param endingBefore  Optional. Return results before this object ID
+     * @return A future completing with a list of Hardware SKUs, or exceptionally with a StripeException
+     */
+    public CompletableFuture<StripeList<HardwareSku>> listAsync(String country, String product, String provider, Integer limit,
+                                                                String startingAfter, String endingBefore) {
+        Map<String, String> params = buildListParams(country, product, provider, limit, startingAfter, endingBefore);
+        return cachedAsync(CatalogCache.key("list", country, product, provider, limit, startingAfter, endingBefore),
+                () -> httpClient.getAsync(BASE_PATH, params, StripeTypes.HARDWARE_SKU_LIST));
+    }
+
+    /**
+     * Retrieves a specific Terminal Hardware SKU without blocking the calling thread.
+     *
+     * @param skuId The ID of the SKU to retrieve
+     * @return A future completing with the Hardware SKU, or exceptionally with a StripeException
+     */
+    public CompletableFuture<HardwareSku> retrieveAsync(String skuId) {
+        return cachedAsync(CatalogCache.key("retrieve", skuId),
+                () -> httpClient.getAsync(BASE_PATH + "/" + skuId, null, HardwareSku.class));
+    }
+
+    /**
+     * Lazily iterates over all Terminal Hardware SKUs for a country, fetching pages on demand.
+     *
+     * @param country Required. The country to filter by (ISO 3166-1 alpha-2)
+     * @return An iterable over every HardwareSku
+     */
+    public AutoPagingIterable<HardwareSku> autoPagingIterable(String country) {
+        return autoPagingIterable(country, null, null, null);
+    }
+
+    /**
+     * Lazily iterates over all Terminal Hardware SKUs matching the filters, fetching pages on demand.
+     *
+     * @param country  Required. The country to filter by (ISO 3166-1 alpha-2)
+     * @param product  Optional. Filter by hardware product ID
+     * @param provider Optional. Filter by provider (default: "stripe")
+     * @param limit    Optional. Page size used for each request
+     * @return An iterable over every HardwareSku
+     */
+    public AutoPagingIterable<HardwareSku> autoPagingIterable(String country, String product, String provider, Integer limit) {
+        return new AutoPagingIterable<>(
+                startingAfter -> list(country, product, provider, limit, startingAfter, null),
+                startingAfter -> listAsync(country, product, provider, limit, startingAfter, null));
+    }
+
+    /**
+     * Publishes all Terminal Hardware SKUs for a country, fetching pages only as fast as the subscriber requests items.
+     *
+     * @param country Required. The country to filter by (ISO 3166-1 alpha-2)
+     * @return A publisher of every HardwareSku
+     */
+    public PagingPublisher<HardwareSku> autoPagingPublisher(String country) {
+        return autoPagingPublisher(country, null, null, null);
+    }
+
+    /**
+     * Publishes all Terminal Hardware SKUs matching the filters, fetching pages only as fast
+     * as the subscriber requests items.
+     *
+     * @param country  Required. The country to filter by (ISO 3166-1 alpha-2)
+     * @param product  Optional. Filter by hardware product ID
+     * @param provider Optional. Filter by provider (default: "stripe")
+     * @param limit    Optional. Page size used for each request
+     * @return A publisher of every HardwareSku
+     */
+    public PagingPublisher<HardwareSku> autoPagingPublisher(String country, String product, String provider, Integer limit) {
+        return new PagingPublisher<>(startingAfter -> listAsync(country, product, provider, limit, startingAfter, null));
+    }
+
+    private <V> V cached(String key, ExpiringCache.Loader<V> loader) throws StripeException {
+        return catalogCache != null ? catalogCache.get(CatalogCache.Entity.SKU, cacheScope + key, loader) : loader.load();
+    }
+
+    private <V> CompletableFuture<V> cachedAsync(String key, ExpiringCache.AsyncLoader<V> loader) {
+        return catalogCache != null ? catalogCache.getAsync(CatalogCache.Entity.SKU, cacheScope + key, loader) : loader.load();
+    }
+
+    private Map<String, String> buildListParams(String country, String product, String provider, Integer limit,
+                                                String startingAfter, String endingBefore) {
+        Map<String, String> params = new HashMap<>();
+        params.put("country", country);
+
+        if (product != null) {
+            params.put("product", product);
+        }
+        if (provider != null) {
+            params.put("provider", provider);
+        }
+        if (limit != null) {
+            params.put("limit", limit.toString());
+        }
+        if (startingAfter != null) {
+            params.put("starting_after", startingAfter);
+        }
+        if (endingBefore != null) {
+            params.put("ending_before", endingBefore);
+        }
+        return params;
     }
 }
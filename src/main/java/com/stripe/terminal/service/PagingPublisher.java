@@ -0,0 +1,190 @@
+package com.stripe.terminal.service;
+
+import com.stripe.terminal.exception.StripeException;
+import com.stripe.terminal.model.HasId;
+import com.stripe.terminal.model.StripeList;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Publishes every item of a list endpoint to {@link Flow.Subscriber}s, fetching pages only as
+ * fast as subscribers request items.
+ *
+ * <p>Pages are fetched asynchronously with {@code starting_after} cursors. The next page is
+ * requested only while the subscriber's outstanding demand exceeds the items left in the current
+ * page, so a slow subscriber holds at most one page in memory, and a subscriber that keeps
+ * requesting overlaps each fetch with consuming the previous page. Each subscription walks the
+ * list from the start independently.</p>
+ *
+ * <p>Items are delivered on the thread that requested them or the thread that completed the page
+ * fetch, never concurrently. API errors are signalled with {@code onError} as the
+ * {@link StripeException}.</p>
+ *
+ * <pre>
+ * stripe.hardwareOrders().autoPagingPublisher(100).subscribe(new Flow.Subscriber&lt;&gt;() {
+ *     public void onSubscribe(Flow.Subscription s) { subscription = s; s.request(500); }
+ *     public void onNext(HardwareOrder order) { sink.write(order); if (++n % 500 == 0) subscription.request(500); }
+ *     public void onError(Throwable t) { sink.abort(t); }
+ *     public void onComplete() { sink.commit(); }
+ * });
+ * </pre>
+ *
+ * @param <T> The resource type
+ */
+public class PagingPublisher<T extends HasId> implements Flow.Publisher<T> {
+    private final AutoPagingIterable.AsyncPageFetcher<T> fetcher;
+
+    public PagingPublisher(AutoPagingIterable.AsyncPageFetcher<T> fetcher) {
+        this.fetcher = fetcher;
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super T> subscriber) {
+        Objects.requireNonNull(subscriber, "Subscriber cannot be null");
+        PagingSubscription subscription = new PagingSubscription(subscriber);
+        subscriber.onSubscribe(subscription);
+        subscription.drain();
+    }
+
+    /**
+     * Delivers items from a serialized drain loop. Any thread may signal work by incrementing
+     * {@code wip}; only the thread that moves it from zero runs the loop, and it keeps going until
+     * no new signals arrived while it ran.
+     */
+    private final class PagingSubscription implements Flow.Subscription {
+        private final Flow.Subscriber<? super T> subscriber;
+        private final AtomicLong demand = new AtomicLong();
+        private final AtomicInteger wip = new AtomicInteger();
+
+        // Only touched by the thread running the drain loop
+        private List<T> page = Collections.emptyList();
+        private int index;
+        private List<T> next;
+        private String cursor;
+        private boolean hasMore = true;
+        private boolean fetching;
+        private boolean done;
+
+        // Handed over from the fetch callback to the drain loop
+        private volatile StripeList<T> fetched;
+        private volatile Throwable error;
+        private volatile boolean cancelled;
+
+        PagingSubscription(Flow.Subscriber<? super T> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                error = new IllegalArgumentException("Subscribers must request a positive number of items, got " + n);
+            } else {
+                demand.getAndAccumulate(n, (current, added) -> current + added < 0 ? Long.MAX_VALUE : current + added);
+            }
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+        }
+
+        void drain() {
+            if (wip.getAndIncrement() != 0) {
+                return;
+            }
+            int missed = 1;
+            do {
+                drainOnce();
+                missed = wip.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        private void drainOnce() {
+            if (done) {
+                return;
+            }
+            StripeList<T> arrived = fetched;
+            if (arrived != null) {
+                fetched = null;
+                fetching = false;
+                accept(arrived);
+            }
+
+            while (!cancelled && error == null && demand.get() > 0 && advance()) {
+                demand.decrementAndGet();
+                T item = page.get(index++);
+                try {
+                    subscriber.onNext(item);
+                } catch (RuntimeException e) {
+                    // A throwing subscriber breaks the protocol; treat the subscription as cancelled
+                    done = true;
+                    throw e;
+                }
+            }
+            advance();
+
+            int buffered = page.size() - index + (next != null ? next.size() : 0);
+            if (cancelled) {
+                done = true;
+                page = Collections.emptyList();
+                next = null;
+            } else if (error != null) {
+                done = true;
+                page = Collections.emptyList();
+                next = null;
+                subscriber.onError(error);
+            } else if (buffered == 0 && !hasMore) {
+                done = true;
+                subscriber.onComplete();
+            } else if (hasMore && !fetching && next == null && demand.get() > buffered) {
+                fetch();
+            }
+        }
+
+        /**
+         * Moves to the read-ahead page once the current one is used up, releasing it.
+         *
+         * @return Whether an item is available
+         */
+        private boolean advance() {
+            if (index < page.size()) {
+                return true;
+            }
+            page = next != null ? next : Collections.emptyList();
+            next = null;
+            index = 0;
+            return !page.isEmpty();
+        }
+
+        private void accept(StripeList<T> list) {
+            List<T> data = list.getData() != null ? list.getData() : Collections.emptyList();
+            hasMore = Boolean.TRUE.equals(list.getHasMore()) && !data.isEmpty();
+            if (!data.isEmpty()) {
+                cursor = data.get(data.size() - 1).getId();
+                next = data;
+            }
+        }
+
+        private void fetch() {
+            fetching = true;
+            fetcher.fetch(cursor).whenComplete((list, failure) -> {
+                if (failure != null) {
+                    Throwable cause = failure instanceof CompletionException && failure.getCause() != null
+                            ? failure.getCause()
+                            : failure;
+                    error = cause;
+                } else {
+                    fetched = list != null ? list : new StripeList<>();
+                }
+                drain();
+            });
+        }
+    }
+}
@@ -1,24 +1,39 @@
 package com.stripe.terminal.service;
 
-import com.google.gson.reflect.TypeToken;
+import com.stripe.terminal.cache.CatalogCache;
+import com.stripe.terminal.cache.ExpiringCache;
 import com.stripe.terminal.client.StripeHttpClient;
 import com.stripe.terminal.exception.StripeException;
 import com.stripe.terminal.model.ShippingMethod;
 import com.stripe.terminal.model.StripeList;
+import com.stripe.terminal.serialization.StripeTypes;
 
-import java.lang.reflect.Type;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 /**
  * Service for interacting with Terminal Hardware Shipping Method endpoints.
  */
 public class ShippingMethodService {
     private final StripeHttpClient httpClient;
+    private final CatalogCache catalogCache;
+    private final String cacheScope;
     private static final String BASE_PATH = "/v1/terminal/hardware_shipping_methods";
 
     public ShippingMethodService(StripeHttpClient httpClient) {
+        this(httpClient, null);
+    }
+
+    /**
+     * @param httpClient   The HTTP client
+     * @param catalogCache Optional. Cache for list and retrieve responses, or null to always hit the API
+     */
+    public ShippingMethodService(StripeHttpClient httpClient, CatalogCache catalogCache) {
         this.httpClient = httpClient;
+        this.catalogCache = catalogCache;
+        this.cacheScope = CatalogCache.scope(httpClient.getApiKey(), httpClient.getStripeAccount());
     }
 
     /**
@@ -43,22 +58,47 @@ public class ShippingMethodService {
      * @throws StripeException if the API request fails
      */
     public StripeList<ShippingMethod> list(String country, String name, String provider, Integer limit) throws StripeException {
-        Map<String, String> params = new HashMap<>();
-        params.put("country", country);
+        return list(country, name, provider, limit, null, null);
+    }
 
-        if (name != null) {
-            params.put("name", name);
-        }
-        if (provider != null) {
-            params.put("provider", provider);
-        }
-        if (limit != null) {
-            params.put("limit", limit.toString());
-        }
+    /**
+     * Lists one page of Terminal Hardware Shipping Methods using pagination cursors.
+     *
+     * @param country       Required. The country to filter by (ISO 3166-1 alpha-2)
+     * @param name          Optional. Filter by shipping method name
+     * @param provider      Optional. Filter by provider (default: "stripe")
+     * @param limit         Optional. Limit the number of results
+     * @param startingAfter Optional. Return results after this object ID
+     * @param endingBefore  Optional. Return results before this object ID
+     * @return A list of Hardware Shipping Methods
+     * @throws StripeException if the API request fails
+     */
+    public StripeList<ShippingMethod> list(String country, String name, String provider, Integer limit,
+                                           String startingAfter, String endingBefore) throws StripeException {
+        Map<String, String> params = buildListParams(country, name, provider, limit, startingAfter, endingBefore);
+        return cached(CatalogCache.key("list", country, name, provider, limit, startingAfter, endingBefore),
+                () -> httpClient.get(BASE_PATH, params, StripeTypes.SHIPPING_METHOD_LIST));
+    }
 
-        String response = httpClient.get(BASE_PATH, params);
-        Type type = new TypeToken<StripeList<ShippingMethod>>() {}.getType();
-        return httpClient.getGson().fromJson(response, type);
+    /**
+     * Lists one page of Terminal Hardware Shipping Methods, handing each one to the consumer as soon as it is
+     * parsed from the response stream. The page is never held in memory as a whole.
+     *
+     * @param country       Required. The country to filter by (ISO 3166-1 alpha-2)
+     * @param name          Optional. Filter by shipping method name
+     * @param provider      Optional. Filter by provider (default: "stripe")
+     * @param limit         Optional. Limit the number of results
+     * @param startingAfter Optional. Return results after this object ID
+     * @param endingBefore  Optional. Return results before this object ID
+     * @param consumer      Receives each ShippingMethod in page order
+     * @return The page envelope, with empty data; use getHasMore() to decide whether to fetch the next page
+     * @throws StripeException if the API request fails
+     */
+    public StripeList<ShippingMethod> list(String country, String name, String provider, Integer limit,
+                                           String startingAfter, String endingBefore,
+                                           Consumer<? super ShippingMethod> consumer) throws StripeException {
+        Map<String, String> params = buildListParams(country, name, provider, limit, startingAfter, endingBefore);
+        return httpClient.getList(BASE_PATH, params, ShippingMethod.class, consumer);
     }
 
     /**
@@ -69,7 +109,129 @@ public class ShippingMethodService {
      * @throws StripeException if the API request fails
      */
     public ShippingMethod retrieve(String methodId) throws StripeException {
-        String response = httpClient.get(BASE_PATH + "/" + methodId, null);
-        return httpClient.getGson().fromJson(response, ShippingMethod.class);
+        return cached(CatalogCache.key("retrieve", methodId),
+                () -> httpClient.get(BASE_PATH + "/" + methodId, null, ShippingMethod.class));
+    }
+
+    /**
+     * Lists available Terminal Hardware Shipping Methods without blocking the calling thread.
+     *
+     * @param country  Required. The country to filter by (ISO 3166-1 alpha-2)
+     * @param name     Optional. Filter by shipping method name
+     * @param provider Optional. Filter by provider (default: "stripe")
+     * @param limit    Optional. Limit the number of results
+     * @return A future completing with a list of Shipping Methods, or exceptionally with a StripeException
+     */
+    public CompletableFuture<StripeList<ShippingMethod>> listAsync(String country, String name, String provider, Integer limit) {
+        return listAsync(country, name, provider, limit, null, null);
+    }
+
+    /**
+     * Lists one page of Terminal Hardware Shipping Methods using pagination cursors without blocking the calling thread.
+     *
+     * @param country       Required. The country to filter by (ISO 3166-1 alpha-2)
+     * @param name          Optional. Filter by shipping method name
+     * @param provider      Optional. Filter by provider (default: "stripe")
+     * @param limit         Optional. Limit the number of results
+     * @param startingAfter Optional. Return results after this object ID
+     * @param endingBefore  Optional. Return results before this object ID
+     * @return A future completing with a list of Hardware Shipping Methods, or exceptionally with a StripeException
+     */
+    public CompletableFuture<StripeList<ShippingMethod>> listAsync(String country, String name, String provider, Integer limit,
+                                                                   String startingAfter, String endingBefore) {
+        Map<String, String> params = buildListParams(country, name, provider, limit, startingAfter, endingBefore);
+        return cachedAsync(CatalogCache.key("list", country, name, provider, limit, startingAfter, endingBefore),
+                () -> httpClient.getAsync(BASE_PATH, params, StripeTypes.SHIPPING_METHOD_LIST));
+    }
+
+    /**
+     * Retrieves a specific Terminal Hardware Shipping Method without blocking the calling thread.
+     *
+     * @param methodId The ID of the shipping method to retrieve
+     * @return A future completing with the Shipping Method, or exceptionally with a StripeException
+     */
+    public CompletableFuture<ShippingMethod> retrieveAsync(String methodId) {
+        return cachedAsync(CatalogCache.key("retrieve", methodId),
+                () -> httpClient.getAsync(BASE_PATH + "/" + methodId, null, ShippingMethod.class));
+    }
+
+    /**
+     * Lazily iterates over all Terminal Hardware Shipping Methods for a country, fetching pages on demand.
+     *
+     * @param country Required. The country to filter by (ISO 3166-1 alpha-2)
+     * @return An iterable over every ShippingMethod
+     */
+    public AutoPagingIterable<ShippingMethod> autoPagingIterable(String country) {
+        return autoPagingIterable(country, null, null, null);
+    }
+
+    /**
+     * Lazily iterates over all Terminal Hardware Shipping Methods matching the filters, fetching pages on demand.
+     *
+     * @param country  Required. The country to filter by (ISO 3166-1 alpha-2)
+     * @param name     Optional. Filter by shipping method name
+     * @param provider Optional. Filter by provider (default: "stripe")
+     * @param limit    Optional. Page size used for each request
+     * @return An iterable over every ShippingMethod
+     */
+    public AutoPagingIterable<ShippingMethod> autoPagingIterable(String country, String name, String provider, Integer limit) {
+        return new AutoPagingIterable<>(
+                startingAfter -> list(country, name, provider, limit, startingAfter, null),
+                startingAfter -> listAsync(country, name, provider, limit, startingAfter, null));
+    }
+
+    /**
+     * Publishes all Terminal Hardware Shipping Methods for a country, fetching pages only as fast as the subscriber requests items.
+     *
+     * @param country Required. The country to filter by (ISO 3166-1 alpha-2)
+     * @return A publisher of every ShippingMethod
+     */
+    public PagingPublisher<ShippingMethod> autoPagingPublisher(String country) {
+        return autoPagingPublisher(country, null, null, null);
+    }
+
+    /**
+     * Publishes all Terminal Hardware Shipping Methods matching the filters, fetching pages only as fast
+     * as the subscriber requests items.
+     *
+     * @param country  Required. The country to filter by (ISO 3166-1 alpha-2)
+     * @param name     Optional. Filter by shipping method name
+     * @param provider Optional. Filter by provider (default: "stripe")
+     * @param limit    Optional. Page size used for each request
+     * @return A publisher of every ShippingMethod
+     */
+    public PagingPublisher<ShippingMethod> autoPagingPublisher(String country, String name, String provider, Integer limit) {
+        return new PagingPublisher<>(startingAfter -> listAsync(country, name, provider, limit, startingAfter, null));
+    }
+
+    private <V> V cached(String key, ExpiringCache.Loader<V> loader) throws StripeException {
+        return catalogCache != null ? catalogCache.get(CatalogCache.Entity.SHIPPING_METHOD, cacheScope + key, loader) : loader.load();
+    }
+
+    private <V> CompletableFuture<V> cachedAsync(String key, ExpiringCache.AsyncLoader<V> loader) {
+        return catalogCache != null ? catalogCache.getAsync(CatalogCache.Entity.SHIPPING_METHOD, cacheScope + key, loader) : loader.load();
+    }
+
+    private Map<String, String> buildListParams(String country, String name, String provider, Integer limit,
+                                                String startingAfter, String endingBefore) {
+        Map<String, String> params = new HashMap<>();
+        params.put("country", country);
+
+        if (name != null) {
+            params.put("name", name);
+        }
+        if (provider != null) {
+            params.put("provider", provider);
+        }
+        if (limit != null) {
+            params.put("limit", limit.toString());
+        }
+        if (startingAfter != null) {
+            params.put("starting_after", startingAfter);
+        }
+        if (endingBefore != null) {
+            params.put("ending_before", endingBefore);
+        }
+        return params;
     }
 }
@@ -5,6 +5,7 @@ import com.stripe.terminal.exception.StripeException;
 import com.stripe.terminal.model.HardwareOrder;
 
 import java.util.HashMap;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Service for sandbox testing helpers.
@@ -28,8 +29,7 @@ public class TestHelperService {
      */
     public HardwareOrder markReadyToShip(String orderId) throws StripeException {
         String path = BASE_PATH + "/" + orderId + "/mark_ready_to_ship";
-        String response = httpClient.post(path, new HashMap<>());
-        return httpClient.getGson().fromJson(response, HardwareOrder.class);
+        return httpClient.post(path, new HashMap<>(), HardwareOrder.class);
     }
 
     /**
@@ -53,8 +53,7 @@ public class TestHelperService {
             params.put("tracking_number", trackingNumber);
         }
 
-        String response = httpClient.post(path, params);
-        return httpClient.getGson().fromJson(response, HardwareOrder.class);
+        return httpClient.post(path, params, HardwareOrder.class);
     }
 
     /**
@@ -79,8 +78,7 @@ public class TestHelperService {
      */
     public HardwareOrder deliver(String orderId) throws StripeException {
         String path = BASE_PATH + "/" + orderId + "/deliver";
-        String response = httpClient.post(path, new HashMap<>());
-        return httpClient.getGson().fromJson(response, HardwareOrder.class);
+        return httpClient.post(path, new HashMap<>(), HardwareOrder.class);
     }
 
     /**
@@ -93,7 +91,61 @@ public class TestHelperService {
      */
     public HardwareOrder markUndeliverable(String orderId) throws StripeException {
         String path = BASE_PATH + "/" + orderId + "/mark_undeliverable";
-        String response = httpClient.post(path, new HashMap<>());
-        return httpClient.getGson().fromJson(response, HardwareOrder.class);
+        return httpClient.post(path, new HashMap<>(), HardwareOrder.class);
+    }
+
+    /**
+     * Marks a test order as ready to ship without blocking the calling thread.
+     *
+     * @param orderId The ID of the order
+     * @return A future completing with the updated Hardware Order, or exceptionally with a StripeException
+     */
+    public CompletableFuture<HardwareOrder> markReadyToShipAsync(String orderId) {
+        return transitionAsync(orderId, "mark_ready_to_ship", new HashMap<>());
+    }
+
+    /**
+     * Marks a test order as shipped without blocking the calling thread.
+     *
+     * @param orderId        The ID of the order
+     * @param carrier        Optional. The shipping carrier (e.g., "fedex", "ups", "usps")
+     * @param trackingNumber Optional. The tracking number
+     * @return A future completing with the updated Hardware Order, or exceptionally with a StripeException
+     */
+    public CompletableFuture<HardwareOrder> shipAsync(String orderId, String carrier, String trackingNumber) {
+        HashMap<String, Object> params = new HashMap<>();
+        if (carrier != null) {
+            params.put("carrier", carrier);
+        }
+        if (trackingNumber != null) {
+            params.put("tracking_number", trackingNumber);
+        }
+
+        return transitionAsync(orderId, "ship", params);
+    }
+
+    /**
+     * Marks a test order as delivered without blocking the calling thread.
+     *
+     * @param orderId The ID of the order
+     * @return A future completing with the updated Hardware Order, or exceptionally with a StripeException
+     */
+    public CompletableFuture<HardwareOrder> deliverAsync(String orderId) {
+        return transitionAsync(orderId, "deliver", new HashMap<>());
+    }
+
+    /**
+     * Marks a test order as undeliverable without blocking the calling thread.
+     *
+     * @param orderId The ID of the order
+     * @return A future completing with the updated Hardware Order, or exceptionally with a StripeException
+     */
+    public CompletableFuture<HardwareOrder> markUndeliverableAsync(String orderId) {
+        return transitionAsync(orderId, "mark_undeliverable", new HashMap<>());
+    }
+
+    private CompletableFuture<HardwareOrder> transitionAsync(String orderId, String action, HashMap<String, Object> params) {
+        String path = BASE_PATH + "/" + orderId + "/" + action;
+        return httpClient.postAsync(path, params, HardwareOrder.class);
     }
 }
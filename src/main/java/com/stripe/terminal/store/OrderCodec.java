@@ -0,0 +1,726 @@
+package com.stripe.terminal.store;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+import com.stripe.terminal.model.Address;
+import com.stripe.terminal.model.HardwareOrder;
+import com.stripe.terminal.model.HardwareOrderItem;
+import com.stripe.terminal.model.ShipmentTracking;
+import com.stripe.terminal.model.ShippingDetails;
+import com.stripe.terminal.model.TaxAmount;
+import com.stripe.terminal.model.TaxRate;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact binary encoding of {@link HardwareOrder}s for the {@link OrderStore} log.
+ *
+ * <p>Every object starts with a varint bit mask of its non-null fields, followed by those fields
+ * in declaration order. Integers are varints, strings are a varint byte length and UTF-8, and lists
+ * and maps are a varint count followed by their elements. A null object is a zero mask with the
+ * low "present" bit clear.</p>
+ *
+ * <p>The fields the store indexes ({@code id}, {@code created}, {@code updated}, {@code status},
+ * {@code po_number} and {@code metadata}) come first, so {@link #readIndex} and
+ * {@link #readMetadata} read them without decoding the rest of the order. Readers work on absolute
+ * offsets of the mapped log, so reading a record allocates only the values it returns.</p>
+ */
+final class OrderCodec {
+    static final byte VERSION = 1;
+
+    private static final int ID = 1;
+    private static final int CREATED = 1 << 1;
+    private static final int UPDATED = 1 << 2;
+    private static final int STATUS = 1 << 3;
+    private static final int PO_NUMBER = 1 << 4;
+    private static final int METADATA = 1 << 5;
+    private static final int OBJECT = 1 << 6;
+    private static final int AMOUNT = 1 << 7;
+    private static final int CURRENCY = 1 << 8;
+    private static final int ITEMS = 1 << 9;
+    private static final int LIVEMODE = 1 << 10;
+    private static final int PAYMENT_TYPE = 1 << 11;
+    private static final int SHIPMENT_TRACKING = 1 << 12;
+    private static final int SHIPPING = 1 << 13;
+    private static final int SHIPPING_METHOD = 1 << 14;
+    private static final int TAX = 1 << 15;
+    private static final int TOTAL_TAX_AMOUNTS = 1 << 16;
+
+    private static final byte SKU_ID = 1;
+    private static final byte SKU_OBJECT = 2;
+
+    private OrderCodec() {
+    }
+
+    /**
+     * The indexed fields of one stored order, read by {@link #readIndex}.
+     */
+    static final class IndexFields {
+        String id;
+        long created;
+        String status;
+        String poNumber;
+    }
+
+    static byte[] encode(HardwareOrder order) {
+        Writer out = new Writer(256);
+        out.writeByte(VERSION);
+        int mask = mask(order.getId(), ID)
+                | mask(order.getCreated(), CREATED)
+                | mask(order.getUpdated(), UPDATED)
+                | mask(order.getStatus(), STATUS)
+                | mask(order.getPoNumber(), PO_NUMBER)
+                | mask(order.getMetadata(), METADATA)
+                | mask(order.getObject(), OBJECT)
+                | mask(order.getAmount(), AMOUNT)
+                | mask(order.getCurrency(), CURRENCY)
+                | mask(order.getHardwareOrderItems(), ITEMS)
+                | mask(order.getLivemode(), LIVEMODE)
+                | mask(order.getPaymentType(), PAYMENT_TYPE)
+                | mask(order.getShipmentTracking(), SHIPMENT_TRACKING)
+                | mask(order.getShipping(), SHIPPING)
+                | mask(order.getShippingMethod(), SHIPPING_METHOD)
+                | mask(order.getTax(), TAX)
+                | mask(order.getTotalTaxAmounts(), TOTAL_TAX_AMOUNTS);
+        out.writeObjectMask(mask);
+        if ((mask & ID) != 0) {
+            out.writeString(order.getId());
+        }
+        if ((mask & CREATED) != 0) {
+            out.writeLong(order.getCreated());
+        }
+        if ((mask & UPDATED) != 0) {
+            out.writeLong(order.getUpdated());
+        }
+        if ((mask & STATUS) != 0) {
+            out.writeString(order.getStatus());
+        }
+        if ((mask & PO_NUMBER) != 0) {
+            out.writeString(order.getPoNumber());
+        }
+        if ((mask & METADATA) != 0) {
+            out.writeStringMap(order.getMetadata());
+        }
+        if ((mask & OBJECT) != 0) {
+            out.writeString(order.getObject());
+        }
+        if ((mask & AMOUNT) != 0) {
+            out.writeLong(order.getAmount());
+        }
+        if ((mask & CURRENCY) != 0) {
+            out.writeString(order.getCurrency());
+        }
+        if ((mask & ITEMS) != 0) {
+            out.writeVarint(order.getHardwareOrderItems().size());
+            for (HardwareOrderItem item : order.getHardwareOrderItems()) {
+                writeItem(out, item);
+            }
+        }
+        if ((mask & LIVEMODE) != 0) {
+            out.writeByte(order.getLivemode() ? 1 : 0);
+        }
+        if ((mask & PAYMENT_TYPE) != 0) {
+            out.writeString(order.getPaymentType());
+        }
+        if ((mask & SHIPMENT_TRACKING) != 0) {
+            out.writeVarint(order.getShipmentTracking().size());
+            for (ShipmentTracking tracking : order.getShipmentTracking()) {
+                writeTracking(out, tracking);
+            }
+        }
+        if ((mask & SHIPPING) != 0) {
+            writeShipping(out, order.getShipping());
+        }
+        if ((mask & SHIPPING_METHOD) != 0) {
+            out.writeString(order.getShippingMethod());
+        }
+        if ((mask & TAX) != 0) {
+            out.writeLong(order.getTax());
+        }
+        if ((mask & TOTAL_TAX_AMOUNTS) != 0) {
+            out.writeVarint(order.getTotalTaxAmounts().size());
+            for (TaxAmount amount : order.getTotalTaxAmounts()) {
+                writeTaxAmount(out, amount);
+            }
+        }
+        return out.toByteArray();
+    }
+
+    static HardwareOrder decode(ByteBuffer buffer, int offset) {
+        Reader in = new Reader(buffer, offset, null);
+        checkVersion(in.readByte());
+        int mask = in.readObjectMask();
+        HardwareOrder order = new HardwareOrder();
+        if ((mask & ID) != 0) {
+            order.setId(in.readString());
+        }
+        if ((mask & CREATED) != 0) {
+            order.setCreated(in.readLong());
+        }
+        if ((mask & UPDATED) != 0) {
+            order.setUpdated(in.readLong());
+        }
+        if ((mask & STATUS) != 0) {
+            order.setStatus(in.readString());
+        }
+        if ((mask & PO_NUMBER) != 0) {
+            order.setPoNumber(in.readString());
+        }
+        if ((mask & METADATA) != 0) {
+            order.setMetadata(in.readStringMap());
+        }
+        if ((mask & OBJECT) != 0) {
+            order.setObject(in.readString());
+        }
+        if ((mask & AMOUNT) != 0) {
+            order.setAmount(in.readLong());
+        }
+        if ((mask & CURRENCY) != 0) {
+            order.setCurrency(in.readString());
+        }
+        if ((mask & ITEMS) != 0) {
+            int count = in.readVarint();
+            List<HardwareOrderItem> items = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                items.add(readItem(in));
+            }
+            order.setHardwareOrderItems(items);
+        }
+        if ((mask & LIVEMODE) != 0) {
+            order.setLivemode(in.readByte() != 0);
+        }
+        if ((mask & PAYMENT_TYPE) != 0) {
+            order.setPaymentType(in.readString());
+        }
+        if ((mask & SHIPMENT_TRACKING) != 0) {
+            int count = in.readVarint();
+            List<ShipmentTracking> tracking = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                tracking.add(readTracking(in));
+            }
+            order.setShipmentTracking(tracking);
+        }
+        if ((mask & SHIPPING) != 0) {
+            order.setShipping(readShipping(in));
+        }
+        if ((mask & SHIPPING_METHOD) != 0) {
+            order.setShippingMethod(in.readString());
+        }
+        if ((mask & TAX) != 0) {
+            order.setTax(in.readLong());
+        }
+        if ((mask & TOTAL_TAX_AMOUNTS) != 0) {
+            int count = in.readVarint();
+            List<TaxAmount> amounts = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                amounts.add(readTaxAmount(in));
+            }
+            order.setTotalTaxAmounts(amounts);
+        }
+        return order;
+    }
+
+    /**
+     * Reads the ID, created time, status and PO number at the start of an encoded order.
+     *
+     * @param strings Shares the String instances of repeated values such as the status
+     */
+    static IndexFields readIndex(ByteBuffer buffer, int offset, StringPool strings) {
+        Reader in = new Reader(buffer, offset, strings);
+        checkVersion(in.readByte());
+        int mask = in.readObjectMask();
+        IndexFields fields = new IndexFields();
+        if ((mask & ID) != 0) {
+            fields.id = in.readString();
+        }
+        if ((mask & CREATED) != 0) {
+            fields.created = in.readLong();
+        }
+        if ((mask & UPDATED) != 0) {
+            in.readLong();
+        }
+        if ((mask & STATUS) != 0) {
+            fields.status = in.readPooledString();
+        }
+        if ((mask & PO_NUMBER) != 0) {
+            fields.poNumber = in.readString();
+        }
+        return fields;
+    }
+
+    /**
+     * Reads the metadata of an encoded order, skipping the fields before it.
+     *
+     * @return The metadata, empty if the order has none
+     */
+    static Map<String, String> readMetadata(ByteBuffer buffer, int offset, StringPool strings) {
+        Reader in = new Reader(buffer, offset, strings);
+        checkVersion(in.readByte());
+        int mask = in.readObjectMask();
+        if ((mask & METADATA) == 0) {
+            return Collections.emptyMap();
+        }
+        if ((mask & ID) != 0) {
+            in.skipString();
+        }
+        if ((mask & CREATED) != 0) {
+            in.readVarlong();
+        }
+        if ((mask & UPDATED) != 0) {
+            in.readVarlong();
+        }
+        if ((mask & STATUS) != 0) {
+            in.skipString();
+        }
+        if ((mask & PO_NUMBER) != 0) {
+            in.skipString();
+        }
+        int count = in.readVarint();
+        Map<String, String> metadata = new LinkedHashMap<>(Math.max(4, count * 2));
+        for (int i = 0; i < count; i++) {
+            metadata.put(in.readPooledString(), in.readString());
+        }
+        return metadata;
+    }
+
+    private static void checkVersion(byte version) {
+        if (version != VERSION) {
+            throw new IllegalStateException("Unsupported order encoding version " + version);
+        }
+    }
+
+    private static void writeItem(Writer out, HardwareOrderItem item) {
+        if (item == null) {
+            out.writeNull();
+            return;
+        }
+        Object sku = item.getTerminalHardwareSku();
+        int mask = mask(sku, 1) | mask(item.getQuantity(), 1 << 1) | mask(item.getAmount(), 1 << 2)
+                | mask(item.getCurrency(), 1 << 3);
+        out.writeObjectMask(mask);
+        if (sku instanceof JsonElement) {
+            out.writeByte(SKU_OBJECT);
+            out.writeString(sku.toString());
+        } else if (sku != null) {
+            out.writeByte(SKU_ID);
+            out.writeString(sku.toString());
+        }
+        if ((mask & 1 << 1) != 0) {
+            out.writeLong(item.getQuantity());
+        }
+        if ((mask & 1 << 2) != 0) {
+            out.writeLong(item.getAmount());
+        }
+        if ((mask & 1 << 3) != 0) {
+            out.writeString(item.getCurrency());
+        }
+    }
+
+    private static HardwareOrderItem readItem(Reader in) {
+        int mask = in.readObjectMask();
+        if (mask < 0) {
+            return null;
+        }
+        HardwareOrderItem item = new HardwareOrderItem();
+        if ((mask & 1) != 0) {
+            byte kind = in.readByte();
+            String sku = in.readString();
+            if (kind == SKU_OBJECT) {
+                item.setTerminalHardwareSkuObject(JsonParser.parseString(sku).getAsJsonObject());
+            } else {
+                item.setTerminalHardwareSku(sku);
+            }
+        }
+        if ((mask & 1 << 1) != 0) {
+            item.setQuantity((int) in.readLong());
+        }
+        if ((mask & 1 << 2) != 0) {
+            item.setAmount(in.readLong());
+        }
+        if ((mask & 1 << 3) != 0) {
+            item.setCurrency(in.readString());
+        }
+        return item;
+    }
+
+    private static void writeTracking(Writer out, ShipmentTracking tracking) {
+        if (tracking == null) {
+            out.writeNull();
+            return;
+        }
+        int mask = mask(tracking.getCarrier(), 1) | mask(tracking.getTrackingNumber(), 1 << 1)
+                | mask(tracking.getTrackingUrl(), 1 << 2);
+        out.writeObjectMask(mask);
+        if ((mask & 1) != 0) {
+            out.writeString(tracking.getCarrier());
+        }
+        if ((mask & 1 << 1) != 0) {
+            out.writeString(tracking.getTrackingNumber());
+        }
+        if ((mask & 1 << 2) != 0) {
+            out.writeString(tracking.getTrackingUrl());
+        }
+    }
+
+    private static ShipmentTracking readTracking(Reader in) {
+        int mask = in.readObjectMask();
+        if (mask < 0) {
+            return null;
+        }
+        ShipmentTracking tracking = new ShipmentTracking();
+        if ((mask & 1) != 0) {
+            tracking.setCarrier(in.readString());
+        }
+        if ((mask & 1 << 1) != 0) {
+            tracking.setTrackingNumber(in.readString());
+        }
+        if ((mask & 1 << 2) != 0) {
+            tracking.setTrackingUrl(in.readString());
+        }
+        return tracking;
+    }
+
+    private static void writeShipping(Writer out, ShippingDetails shipping) {
+        int mask = mask(shipping.getName(), 1) | mask(shipping.getAddress(), 1 << 1)
+                | mask(shipping.getEmail(), 1 << 2) | mask(shipping.getPhone(), 1 << 3)
+                | mask(shipping.getCompany(), 1 << 4) | mask(shipping.getAmount(), 1 << 5)
+                | mask(shipping.getCurrency(), 1 << 6);
+        out.writeObjectMask(mask);
+        if ((mask & 1) != 0) {
+            out.writeString(shipping.getName());
+        }
+        if ((mask & 1 << 1) != 0) {
+            writeAddress(out, shipping.getAddress());
+        }
+        if ((mask & 1 << 2) != 0) {
+            out.writeString(shipping.getEmail());
+        }
+        if ((mask & 1 << 3) != 0) {
+            out.writeString(shipping.getPhone());
+        }
+        if ((mask & 1 << 4) != 0) {
+            out.writeString(shipping.getCompany());
+        }
+        if ((mask & 1 << 5) != 0) {
+            out.writeLong(shipping.getAmount());
+        }
+        if ((mask & 1 << 6) != 0) {
+            out.writeString(shipping.getCurrency());
+        }
+    }
+
+    private static ShippingDetails readShipping(Reader in) {
+        int mask = in.readObjectMask();
+        ShippingDetails shipping = new ShippingDetails();
+        if ((mask & 1) != 0) {
+            shipping.setName(in.readString());
+        }
+        if ((mask & 1 << 1) != 0) {
+            shipping.setAddress(readAddress(in));
+        }
+        if ((mask & 1 << 2) != 0) {
+            shipping.setEmail(in.readString());
+        }
+        if ((mask & 1 << 3) != 0) {
+            shipping.setPhone(in.readString());
+        }
+        if ((mask & 1 << 4) != 0) {
+            shipping.setCompany(in.readString());
+        }
+        if ((mask & 1 << 5) != 0) {
+            shipping.setAmount(in.readLong());
+        }
+        if ((mask & 1 << 6) != 0) {
+            shipping.setCurrency(in.readString());
+        }
+        return shipping;
+    }
+
+    private static void writeAddress(Writer out, Address address) {
+        int mask = mask(address.getLine1(), 1) | mask(address.getLine2(), 1 << 1)
+                | mask(address.getCity(), 1 << 2) | mask(address.getState(), 1 << 3)
+                | mask(address.getPostalCode(), 1 << 4) | mask(address.getCountry(), 1 << 5);
+        out.writeObjectMask(mask);
+        if ((mask & 1) != 0) {
+            out.writeString(address.getLine1());
+        }
+        if ((mask & 1 << 1) != 0) {
+            out.writeString(address.getLine2());
+        }
+        if ((mask & 1 << 2) != 0) {
+            out.writeString(address.getCity());
+        }
+        if ((mask & 1 << 3) != 0) {
+            out.writeString(address.getState());
+        }
+        if ((mask & 1 << 4) != 0) {
+            out.writeString(address.getPostalCode());
+        }
+        if ((mask & 1 << 5) != 0) {
+            out.writeString(address.getCountry());
+        }
+    }
+
+    private static Address readAddress(Reader in) {
+        int mask = in.readObjectMask();
+        Address address = new Address();
+        if ((mask & 1) != 0) {
+            address.setLine1(in.readString());
+        }
+        if ((mask & 1 << 1) != 0) {
+            address.setLine2(in.readString());
+        }
+        if ((mask & 1 << 2) != 0) {
+            address.setCity(in.readString());
+        }
+        if ((mask & 1 << 3) != 0) {
+            address.setState(in.readString());
+        }
+        if ((mask & 1 << 4) != 0) {
+            address.setPostalCode(in.readString());
+        }
+        if ((mask & 1 << 5) != 0) {
+            address.setCountry(in.readString());
+        }
+        return address;
+    }
+
+    private static void writeTaxAmount(Writer out, TaxAmount amount) {
+        if (amount == null) {
+            out.writeNull();
+            return;
+        }
+        TaxRate rate = amount.getRate();
+        int mask = mask(amount.getAmount(), 1) | mask(amount.getInclusive(), 1 << 1) | mask(rate, 1 << 2);
+        out.writeObjectMask(mask);
+        if ((mask & 1) != 0) {
+            out.writeLong(amount.getAmount());
+        }
+        if ((mask & 1 << 1) != 0) {
+            out.writeByte(amount.getInclusive() ? 1 : 0);
+        }
+        if (rate != null) {
+            int rateMask = mask(rate.getDisplayName(), 1) | mask(rate.getJurisdiction(), 1 << 1)
+                    | mask(rate.getPercentage(), 1 << 2);
+            out.writeObjectMask(rateMask);
+            if ((rateMask & 1) != 0) {
+                out.writeString(rate.getDisplayName());
+            }
+            if ((rateMask & 1 << 1) != 0) {
+                out.writeString(rate.getJurisdiction());
+            }
+            if ((rateMask & 1 << 2) != 0) {
+                out.writeDouble(rate.getPercentage());
+            }
+        }
+    }
+
+    private static TaxAmount readTaxAmount(Reader in) {
+        int mask = in.readObjectMask();
+        if (mask < 0) {
+            return null;
+        }
+        TaxAmount amount = new TaxAmount();
+        if ((mask & 1) != 0) {
+            amount.setAmount(in.readLong());
+        }
+        if ((mask & 1 << 1) != 0) {
+            amount.setInclusive(in.readByte() != 0);
+        }
+        if ((mask & 1 << 2) != 0) {
+            int rateMask = in.readObjectMask();
+            TaxRate rate = new TaxRate();
+            if ((rateMask & 1) != 0) {
+                rate.setDisplayName(in.readString());
+            }
+            if ((rateMask & 1 << 1) != 0) {
+                rate.setJurisdiction(in.readString());
+            }
+            if ((rateMask & 1 << 2) != 0) {
+                rate.setPercentage(in.readDouble());
+            }
+            amount.setRate(rate);
+        }
+        return amount;
+    }
+
+    private static int mask(Object value, int bit) {
+        return value != null ? bit : 0;
+    }
+
+    /**
+     * Appends to a growable byte array.
+     */
+    private static final class Writer {
+        private byte[] bytes;
+        private int size;
+
+        Writer(int capacity) {
+            this.bytes = new byte[capacity];
+        }
+
+        void writeByte(int value) {
+            ensure(1);
+            bytes[size++] = (byte) value;
+        }
+
+        void writeVarint(long value) {
+            ensure(10);
+            while ((value & ~0x7FL) != 0) {
+                bytes[size++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            bytes[size++] = (byte) value;
+        }
+
+        void writeLong(long value) {
+            writeVarint((value << 1) ^ (value >> 63));
+        }
+
+        void writeDouble(double value) {
+            long bits = Double.doubleToLongBits(value);
+            ensure(8);
+            for (int i = 0; i < 8; i++) {
+                bytes[size++] = (byte) (bits >>> (8 * i));
+            }
+        }
+
+        /**
+         * Writes the field mask of a non-null object, shifted past the "present" bit.
+         */
+        void writeObjectMask(int mask) {
+            writeVarint(((long) mask << 1) | 1);
+        }
+
+        void writeNull() {
+            writeByte(0);
+        }
+
+        void writeString(String value) {
+            byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+            writeVarint(utf8.length);
+            ensure(utf8.length);
+            System.arraycopy(utf8, 0, bytes, size, utf8.length);
+            size += utf8.length;
+        }
+
+        void writeStringMap(Map<String, String> map) {
+            writeVarint(map.size());
+            for (Map.Entry<String, String> entry : map.entrySet()) {
+                writeString(entry.getKey());
+                writeString(entry.getValue() != null ? entry.getValue() : "");
+            }
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(bytes, size);
+        }
+
+        private void ensure(int extra) {
+            if (size + extra > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, size + extra));
+            }
+        }
+    }
+
+    /**
+     * Reads from absolute offsets of a buffer, leaving the buffer's own position untouched, so
+     * concurrent readers can share one mapped region.
+     */
+    private static final class Reader {
+        private final ByteBuffer buffer;
+        private final StringPool strings;
+        private int position;
+
+        Reader(ByteBuffer buffer, int position, StringPool strings) {
+            this.buffer = buffer;
+            this.position = position;
+            this.strings = strings;
+        }
+
+        byte readByte() {
+            return buffer.get(position++);
+        }
+
+        int readVarint() {
+            return (int) readVarlong();
+        }
+
+        long readVarlong() {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                byte b = buffer.get(position++);
+                value |= (long) (b & 0x7F) << shift;
+                if (b >= 0) {
+                    return value;
+                }
+            }
+            throw new IllegalStateException("Malformed varint");
+        }
+
+        long readLong() {
+            long encoded = readVarlong();
+            return (encoded >>> 1) ^ -(encoded & 1);
+        }
+
+        double readDouble() {
+            long bits = 0;
+            for (int i = 0; i < 8; i++) {
+                bits |= (long) (buffer.get(position++) & 0xFF) << (8 * i);
+            }
+            return Double.longBitsToDouble(bits);
+        }
+
+        /**
+         * @return The field mask, or -1 for a null object
+         */
+        int readObjectMask() {
+            long encoded = readVarlong();
+            return (encoded & 1) == 0 ? -1 : (int) (encoded >>> 1);
+        }
+
+        String readString() {
+            int length = readVarint();
+            byte[] utf8 = new byte[length];
+            for (int i = 0; i < length; i++) {
+                utf8[i] = buffer.get(position + i);
+            }
+            position += length;
+            return new String(utf8, StandardCharsets.UTF_8);
+        }
+
+        /**
+         * Reads a string that repeats across orders, returning the pooled instance when there is one.
+         */
+        String readPooledString() {
+            if (strings == null) {
+                return readString();
+            }
+            int length = readVarint();
+            String value = strings.get(buffer, position, length);
+            position += length;
+            return value;
+        }
+
+        void skipString() {
+            int length = readVarint();
+            position += length;
+        }
+
+        Map<String, String> readStringMap() {
+            int count = readVarint();
+            Map<String, String> map = new LinkedHashMap<>(Math.max(4, count * 2));
+            for (int i = 0; i < count; i++) {
+                map.put(readString(), readString());
+            }
+            return map;
+        }
+    }
+}
@@ -0,0 +1,811 @@
+package com.stripe.terminal.store;
+
+import com.stripe.terminal.model.HardwareOrder;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.CRC32C;
+
+/**
+ * A local, persistent store of Terminal Hardware Orders for reconciliation and reporting without
+ * API calls.
+ *
+ * <p>Orders are kept in an append-only log file that is memory-mapped in fixed-size regions.
+ * Each record holds one order in a compact binary encoding, with a length prefix and a CRC32C
+ * checksum. Storing a new version of an order appends a record and repoints the in-memory
+ * {@code id -> offset} index; storing an unchanged order writes nothing.</p>
+ *
+ * <p>Opening a store scans the log once, verifying checksums and reading only the ID and a few
+ * fields at the head of each record, to rebuild the {@code id -> offset} index. A torn record at
+ * the end, left by a crash, is discarded. Queries by status, PO number, metadata and created date
+ * are answered from in-memory indexes, built on the first query that needs them and kept up to
+ * date from then on, and only decode the matching orders.</p>
+ *
+ * <pre>
+ * try (OrderStore store = OrderStore.open(Paths.get("orders.log"))) {
+ *     StripeTerminal stripe = new StripeTerminal(StripeConfig.builder("sk_live_...")
+ *         .orderStore(store)
+ *         .build());
+ *     stripe.hardwareOrders().autoPagingIterable(100).forEach(order -&gt; { });
+ *
+ *     List&lt;HardwareOrder&gt; shipped = store.query()
+ *         .status("shipped")
+ *         .createdBetween(Instant.parse("2026-01-01T00:00:00Z"), Instant.parse("2026-04-01T00:00:00Z"))
+ *         .list();
+ * }
+ * </pre>
+ *
+ * <p>Safe for concurrent use. Returned orders are decoded copies. Superseded versions stay in the
+ * log until {@link #compact()}.</p>
+ */
+public class OrderStore implements AutoCloseable {
+    public static final int DEFAULT_REGION_SIZE = 32 * 1024 * 1024;
+
+    private static final int MAGIC = 0x53544F4C;
+    private static final int FORMAT_VERSION = 1;
+    private static final int FILE_HEADER_SIZE = 8;
+    private static final int RECORD_HEADER_SIZE = 8;
+    private static final int END_OF_REGION = -1;
+
+    private static final Comparator<Entry> BY_CREATED = (a, b) -> {
+        int order = Long.compare(a.created, b.created);
+        return order != 0 ? order : a.id.compareTo(b.id);
+    };
+
+    private final Path path;
+    private final int regionSize;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final StringPool strings = new StringPool();
+
+    private FileChannel channel;
+    private final List<MappedByteBuffer> regions = new ArrayList<>();
+    private long position;
+    private long flushedPosition;
+    private boolean closed;
+
+    private final Map<String, Entry> byId = new HashMap<>();
+    private boolean indexed;
+    private final Map<String, Set<Entry>> byStatus = new HashMap<>();
+    private final Map<String, Set<Entry>> byPoNumber = new HashMap<>();
+    private final NavigableSet<Entry> byCreated = new TreeSet<>(BY_CREATED);
+    private boolean metadataIndexed;
+    private final Map<String, Set<Entry>> byMetadataKey = new HashMap<>();
+
+    private OrderStore(Path path, int regionSize) {
+        this.path = path;
+        this.regionSize = regionSize;
+    }
+
+    /**
+     * Opens the store at the given path, creating it if it does not exist, with
+     * {@link #DEFAULT_REGION_SIZE}.
+     *
+     * @param path The log file
+     * @return The open store
+     * @throws IOException if the file cannot be opened or is not an order log
+     */
+    public static OrderStore open(Path path) throws IOException {
+        return open(path, DEFAULT_REGION_SIZE);
+    }
+
+    /**
+     * Opens the store at the given path, creating it if it does not exist.
+     *
+     * @param path       The log file
+     * @param regionSize Size of each mapped region in bytes, which also bounds the size of one
+     *                   encoded order. Must match the size the file was created with.
+     * @return The open store
+     * @throws IOException if the file cannot be opened or is not an order log
+     */
+    public static OrderStore open(Path path, int regionSize) throws IOException {
+        if (regionSize < 64 * 1024) {
+            throw new IllegalArgumentException("Region size must be at least 64 KiB");
+        }
+        OrderStore store = new OrderStore(path, regionSize);
+        store.load();
+        return store;
+    }
+
+    /**
+     * Stores an order, replacing any earlier version with the same ID.
+     *
+     * @param order The order; must have an ID
+     * @return true if the order was new or changed and a record was appended
+     * @throws UncheckedIOException if the log cannot be extended
+     */
+    public boolean put(HardwareOrder order) {
+        return putAll(Collections.singletonList(order)) > 0;
+    }
+
+    /**
+     * Stores several orders under one lock acquisition.
+     *
+     * @param orders The orders; each must have an ID
+     * @return The number of orders that were new or changed
+     * @throws UncheckedIOException if the log cannot be extended
+     */
+    public int putAll(Collection<HardwareOrder> orders) {
+        List<String> ids = new ArrayList<>(orders.size());
+        List<byte[]> encoded = new ArrayList<>(orders.size());
+        for (HardwareOrder order : orders) {
+            if (order.getId() == null) {
+                throw new IllegalArgumentException("Cannot store an order without an ID");
+            }
+            ids.add(order.getId());
+            encoded.add(OrderCodec.encode(order));
+        }
+
+        lock.writeLock().lock();
+        try {
+            ensureOpen();
+            int appended = 0;
+            for (int i = 0; i < encoded.size(); i++) {
+                if (append(ids.get(i), encoded.get(i))) {
+                    appended++;
+                }
+            }
+            return appended;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot append to " + path, e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @param orderId An order ID
+     * @return The latest stored version of the order, or null if it is not stored
+     */
+    public HardwareOrder get(String orderId) {
+        lock.readLock().lock();
+        try {
+            ensureOpen();
+            Entry entry = byId.get(orderId);
+            return entry != null ? decode(entry) : null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @param orderId An order ID
+     * @return Whether the order is stored
+     */
+    public boolean contains(String orderId) {
+        lock.readLock().lock();
+        try {
+            ensureOpen();
+            return byId.containsKey(orderId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Starts a query over the stored orders. Filters are combined with AND.
+     */
+    public Query query() {
+        return new Query();
+    }
+
+    /**
+     * @return The number of stored orders
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return byId.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return The number of bytes used by the log, including superseded versions
+     */
+    public long getLogSize() {
+        lock.readLock().lock();
+        try {
+            return position;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Forces appended records to disk. Without it, the operating system writes them back in its
+     * own time; a process crash loses nothing, but a power failure may.
+     */
+    public void flush() {
+        lock.writeLock().lock();
+        try {
+            ensureOpen();
+            force();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Rewrites the log with only the latest version of each order and atomically replaces the
+     * file. Reads and writes wait until it completes.
+     *
+     * <p>The new log is moved over the current one while the current one is still mapped, which
+     * POSIX file systems allow. Windows does not allow replacing a mapped file, so there the move
+     * fails and the store keeps its current log.</p>
+     *
+     * @throws IOException if the new log cannot be written or cannot replace the current one, in
+     *                     which case the store is unchanged; or if the new log cannot be reopened,
+     *                     in which case the store is closed
+     */
+    public void compact() throws IOException {
+        lock.writeLock().lock();
+        try {
+            ensureOpen();
+            Path compacted = path.resolveSibling(path.getFileName() + ".compact");
+            Files.deleteIfExists(compacted);
+            List<Entry> live = new ArrayList<>(byId.values());
+            live.sort(Comparator.comparingLong(entry -> entry.offset));
+            try (OrderStore target = open(compacted, regionSize)) {
+                for (Entry entry : live) {
+                    target.append(entry.id, read(entry));
+                }
+            }
+
+            try {
+                Files.move(compacted, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                try {
+                    Files.deleteIfExists(compacted);
+                } catch (IOException deleteError) {
+                    e.addSuppressed(deleteError);
+                }
+                throw e;
+            }
+            // Closing the channel does not unmap the old regions; they stay mapped to the replaced
+            // file until they are garbage-collected, and are no longer read
+            channel.close();
+            regions.clear();
+            reopen();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Maps the new log and rebuilds the ID index after compaction replaced the file. If that fails,
+     * the store is closed rather than left with an index pointing into the old regions.
+     */
+    private void reopen() throws IOException {
+        byId.clear();
+        clearSecondaryIndexes();
+        try {
+            load();
+        } catch (IOException | RuntimeException e) {
+            closed = true;
+            byId.clear();
+            regions.clear();
+            if (channel.isOpen()) {
+                channel.close();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Flushes and closes the log. Further use of the store throws {@link IllegalStateException}.
+     */
+    @Override
+    public void close() throws IOException {
+        lock.writeLock().lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            force();
+            regions.clear();
+            channel.close();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void load() throws IOException {
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long fileSize = channel.size();
+        if (fileSize == 0) {
+            MappedByteBuffer first = region(0);
+            first.putInt(0, MAGIC);
+            first.putInt(4, FORMAT_VERSION);
+            position = FILE_HEADER_SIZE;
+            flushedPosition = 0;
+            return;
+        }
+
+        if (fileSize % regionSize != 0) {
+            channel.close();
+            throw new IOException(path + " was not written with a region size of " + regionSize);
+        }
+        MappedByteBuffer first = region(0);
+        if (first.getInt(0) != MAGIC || first.getInt(4) != FORMAT_VERSION) {
+            channel.close();
+            throw new IOException(path + " is not an order log");
+        }
+
+        CRC32C crc = new CRC32C();
+        ByteBuffer view = null;
+        int viewRegion = -1;
+        long offset = FILE_HEADER_SIZE;
+        while (offset < fileSize) {
+            int inRegion = (int) (offset % regionSize);
+            if (regionSize - inRegion < RECORD_HEADER_SIZE) {
+                offset += regionSize - inRegion;
+                continue;
+            }
+            MappedByteBuffer region = region(regionIndex(offset));
+            if (viewRegion != regionIndex(offset)) {
+                viewRegion = regionIndex(offset);
+                view = region.duplicate();
+            }
+            int length = region.getInt(inRegion);
+            if (length == END_OF_REGION) {
+                offset += regionSize - inRegion;
+                continue;
+            }
+            if (length == 0) {
+                break;
+            }
+            int checksum = region.getInt(inRegion + 4);
+            if (length < 0 || length > regionSize - inRegion - RECORD_HEADER_SIZE
+                    || checksum(crc, view, inRegion + RECORD_HEADER_SIZE, length) != checksum) {
+                discardTail(region, inRegion, length);
+                break;
+            }
+            OrderCodec.IndexFields fields = OrderCodec.readIndex(region, inRegion + RECORD_HEADER_SIZE, strings);
+            byId.put(fields.id, new Entry(fields, offset, length, checksum));
+            offset += RECORD_HEADER_SIZE + length;
+        }
+        position = offset;
+        flushedPosition = offset;
+    }
+
+    /**
+     * Zeroes a torn or corrupt record so that records appended over it are not followed by
+     * leftovers of it.
+     */
+    private void discardTail(MappedByteBuffer region, int from, int length) {
+        int to = length > 0 && length <= regionSize - from - RECORD_HEADER_SIZE
+                ? from + RECORD_HEADER_SIZE + length
+                : Math.min(regionSize, from + RECORD_HEADER_SIZE);
+        for (int i = from; i < to; i++) {
+            region.put(i, (byte) 0);
+        }
+    }
+
+    /**
+     * Appends a record unless the latest stored version of the order has identical bytes.
+     * Records never span regions; the rest of a region too small for the next record is skipped.
+     */
+    private boolean append(String id, byte[] payload) throws IOException {
+        int checksum = checksum(payload);
+        Entry existing = byId.get(id);
+        if (existing != null && existing.length == payload.length && existing.checksum == checksum
+                && ByteBuffer.wrap(payload).equals(slice(existing))) {
+            return false;
+        }
+        if (payload.length > regionSize - FILE_HEADER_SIZE - RECORD_HEADER_SIZE) {
+            throw new IllegalArgumentException("Order " + id + " encodes to " + payload.length
+                    + " bytes, more than the region size allows");
+        }
+
+        int inRegion = (int) (position % regionSize);
+        if (regionSize - inRegion < RECORD_HEADER_SIZE + payload.length) {
+            if (regionSize - inRegion >= 4) {
+                region(regionIndex(position)).putInt(inRegion, END_OF_REGION);
+            }
+            position += regionSize - inRegion;
+            inRegion = 0;
+        }
+
+        MappedByteBuffer region = region(regionIndex(position));
+        ByteBuffer target = region.duplicate();
+        target.position(inRegion + RECORD_HEADER_SIZE);
+        target.put(payload);
+        region.putInt(inRegion + 4, checksum);
+        // The length goes last: a record is only visible to a later load once it is complete
+        region.putInt(inRegion, payload.length);
+
+        OrderCodec.IndexFields fields = OrderCodec.readIndex(region, inRegion + RECORD_HEADER_SIZE, strings);
+        Entry entry = new Entry(fields, position, payload.length, checksum);
+        position += RECORD_HEADER_SIZE + payload.length;
+
+        if (existing != null) {
+            unindex(existing);
+        }
+        byId.put(id, entry);
+        index(entry);
+        return true;
+    }
+
+    /**
+     * Builds the secondary indexes a query needs, if they have not been built yet.
+     */
+    private void buildIndexes(boolean metadata) {
+        if (!indexed) {
+            for (Entry entry : byId.values()) {
+                add(byStatus, entry.status, entry);
+                add(byPoNumber, entry.poNumber, entry);
+                byCreated.add(entry);
+            }
+            indexed = true;
+        }
+        if (metadata && !metadataIndexed) {
+            for (Entry entry : byId.values()) {
+                for (String key : readMetadata(entry).keySet()) {
+                    add(byMetadataKey, key, entry);
+                }
+            }
+            metadataIndexed = true;
+        }
+    }
+
+    private void index(Entry entry) {
+        if (indexed) {
+            add(byStatus, entry.status, entry);
+            add(byPoNumber, entry.poNumber, entry);
+            byCreated.add(entry);
+        }
+        if (metadataIndexed) {
+            for (String key : readMetadata(entry).keySet()) {
+                add(byMetadataKey, key, entry);
+            }
+        }
+    }
+
+    private void unindex(Entry entry) {
+        if (indexed) {
+            remove(byStatus, entry.status, entry);
+            remove(byPoNumber, entry.poNumber, entry);
+            byCreated.remove(entry);
+        }
+        if (metadataIndexed) {
+            for (String key : readMetadata(entry).keySet()) {
+                remove(byMetadataKey, key, entry);
+            }
+        }
+    }
+
+    private void clearSecondaryIndexes() {
+        indexed = false;
+        byStatus.clear();
+        byPoNumber.clear();
+        byCreated.clear();
+        metadataIndexed = false;
+        byMetadataKey.clear();
+    }
+
+    private static void add(Map<String, Set<Entry>> index, String key, Entry entry) {
+        if (key != null) {
+            index.computeIfAbsent(key, k -> new HashSet<>()).add(entry);
+        }
+    }
+
+    private static void remove(Map<String, Set<Entry>> index, String key, Entry entry) {
+        if (key == null) {
+            return;
+        }
+        Set<Entry> entries = index.get(key);
+        if (entries != null && entries.remove(entry) && entries.isEmpty()) {
+            index.remove(key);
+        }
+    }
+
+    /**
+     * Takes the read lock with the secondary indexes a query needs in place, building them under
+     * the write lock first if necessary.
+     */
+    private void lockForQuery(boolean metadata) {
+        lock.readLock().lock();
+        if (indexed && (!metadata || metadataIndexed)) {
+            return;
+        }
+        lock.readLock().unlock();
+        lock.writeLock().lock();
+        try {
+            ensureOpen();
+            buildIndexes(metadata);
+            lock.readLock().lock();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private HardwareOrder decode(Entry entry) {
+        return OrderCodec.decode(regions.get(regionIndex(entry.offset)), payloadOffset(entry));
+    }
+
+    private Map<String, String> readMetadata(Entry entry) {
+        return OrderCodec.readMetadata(regions.get(regionIndex(entry.offset)), payloadOffset(entry), strings);
+    }
+
+    private byte[] read(Entry entry) {
+        byte[] payload = new byte[entry.length];
+        slice(entry).get(payload);
+        return payload;
+    }
+
+    private ByteBuffer slice(Entry entry) {
+        ByteBuffer view = regions.get(regionIndex(entry.offset)).duplicate();
+        int offset = payloadOffset(entry);
+        view.limit(offset + entry.length).position(offset);
+        return view;
+    }
+
+    private int payloadOffset(Entry entry) {
+        return (int) (entry.offset % regionSize) + RECORD_HEADER_SIZE;
+    }
+
+    /**
+     * Returns the mapped region, mapping it (and growing the file) on first use.
+     */
+    private MappedByteBuffer region(int index) throws IOException {
+        while (regions.size() <= index) {
+            regions.add(channel.map(FileChannel.MapMode.READ_WRITE, (long) regions.size() * regionSize, regionSize));
+        }
+        return regions.get(index);
+    }
+
+    private int regionIndex(long offset) {
+        return (int) (offset / regionSize);
+    }
+
+    private void force() {
+        if (flushedPosition == position) {
+            return;
+        }
+        int last = regionIndex(Math.max(position - 1, 0));
+        for (int i = regionIndex(flushedPosition); i <= last && i < regions.size(); i++) {
+            regions.get(i).force();
+        }
+        flushedPosition = position;
+    }
+
+    private void ensureOpen() {
+        if (closed) {
+            throw new IllegalStateException("Order store is closed");
+        }
+    }
+
+    /**
+     * Checksums part of a region through a reusable view, without allocating.
+     */
+    private static int checksum(CRC32C crc, ByteBuffer view, int offset, int length) {
+        view.limit(offset + length).position(offset);
+        crc.reset();
+        crc.update(view);
+        return (int) crc.getValue();
+    }
+
+    private static int checksum(byte[] payload) {
+        CRC32C crc = new CRC32C();
+        crc.update(payload, 0, payload.length);
+        return (int) crc.getValue();
+    }
+
+    /**
+     * Where the latest version of an order is, with the fields needed to filter it without decoding.
+     */
+    private static final class Entry {
+        final String id;
+        final long created;
+        final String status;
+        final String poNumber;
+        final long offset;
+        final int length;
+        final int checksum;
+
+        Entry(OrderCodec.IndexFields fields, long offset, int length, int checksum) {
+            this.id = fields.id;
+            this.created = fields.created;
+            this.status = fields.status;
+            this.poNumber = fields.poNumber;
+            this.offset = offset;
+            this.length = length;
+            this.checksum = checksum;
+        }
+
+        /**
+         * A probe that sorts before every entry created at the given second.
+         */
+        static Entry createdBound(long created) {
+            OrderCodec.IndexFields fields = new OrderCodec.IndexFields();
+            fields.id = "";
+            fields.created = created;
+            return new Entry(fields, 0, 0, 0);
+        }
+    }
+
+    /**
+     * A query over the stored orders, answered from the in-memory indexes.
+     */
+    public class Query {
+        private String status;
+        private String poNumber;
+        private String metadataKey;
+        private String metadataValue;
+        private Long createdFrom;
+        private Long createdTo;
+        private int limit = Integer.MAX_VALUE;
+
+        private Query() {
+        }
+
+        /**
+         * Only orders in this status, such as {@code shipped}.
+         */
+        public Query status(String status) {
+            this.status = status;
+            return this;
+        }
+
+        /**
+         * Only orders with this PO number.
+         */
+        public Query poNumber(String poNumber) {
+            this.poNumber = poNumber;
+            return this;
+        }
+
+        /**
+         * Only orders with this metadata key, whatever its value.
+         */
+        public Query metadata(String key) {
+            this.metadataKey = key;
+            this.metadataValue = null;
+            return this;
+        }
+
+        /**
+         * Only orders whose metadata maps the key to the value.
+         */
+        public Query metadata(String key, String value) {
+            this.metadataKey = key;
+            this.metadataValue = value;
+            return this;
+        }
+
+        /**
+         * Only orders created at or after {@code from} and before {@code to}.
+         *
+         * @param from Optional. Inclusive lower bound
+         * @param to   Optional. Exclusive upper bound
+         */
+        public Query createdBetween(Instant from, Instant to) {
+            this.createdFrom = from != null ? from.getEpochSecond() : null;
+            this.createdTo = to != null ? to.getEpochSecond() : null;
+            return this;
+        }
+
+        /**
+         * Return at most this many orders.
+         */
+        public Query limit(int limit) {
+            if (limit < 0) {
+                throw new IllegalArgumentException("Limit cannot be negative");
+            }
+            this.limit = limit;
+            return this;
+        }
+
+        /**
+         * @return The IDs of the matching orders, newest first, without decoding them
+         */
+        public List<String> ids() {
+            lockForQuery(metadataKey != null);
+            try {
+                ensureOpen();
+                List<Entry> matches = matches(limit);
+                List<String> ids = new ArrayList<>(matches.size());
+                for (Entry entry : matches) {
+                    ids.add(entry.id);
+                }
+                return ids;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        /**
+         * @return The matching orders, newest first
+         */
+        public List<HardwareOrder> list() {
+            lockForQuery(metadataKey != null);
+            try {
+                ensureOpen();
+                List<Entry> matches = matches(limit);
+                List<HardwareOrder> orders = new ArrayList<>(matches.size());
+                for (Entry entry : matches) {
+                    orders.add(decode(entry));
+                }
+                return orders;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        /**
+         * @return The number of matching orders, ignoring {@link #limit}
+         */
+        public int count() {
+            lockForQuery(metadataKey != null);
+            try {
+                ensureOpen();
+                return matches(Integer.MAX_VALUE).size();
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        /**
+         * Starts from the smallest candidate set any filter offers and checks the remaining
+         * filters on each candidate, reading metadata values from the log only when filtering on one.
+         */
+        private List<Entry> matches(int max) {
+            Collection<Entry> candidates = createdFrom != null || createdTo != null ? createdRange() : byCreated;
+            Set<Entry> withKey = metadataKey != null ? byMetadataKey.getOrDefault(metadataKey, Collections.emptySet()) : null;
+            candidates = smaller(candidates, status != null ? byStatus.getOrDefault(status, Collections.emptySet()) : null);
+            candidates = smaller(candidates, poNumber != null ? byPoNumber.getOrDefault(poNumber, Collections.emptySet()) : null);
+            candidates = smaller(candidates, withKey);
+
+            List<Entry> matches = new ArrayList<>();
+            for (Entry entry : candidates) {
+                if ((status == null || status.equals(entry.status))
+                        && (poNumber == null || poNumber.equals(entry.poNumber))
+                        && (createdFrom == null || entry.created >= createdFrom)
+                        && (createdTo == null || entry.created < createdTo)
+                        && (withKey == null || withKey.contains(entry))
+                        && (metadataValue == null || metadataValue.equals(readMetadata(entry).get(metadataKey)))) {
+                    matches.add(entry);
+                }
+            }
+            matches.sort(BY_CREATED.reversed());
+            return matches.size() > max ? matches.subList(0, max) : matches;
+        }
+
+        private Collection<Entry> createdRange() {
+            Entry from = Entry.createdBound(createdFrom != null ? createdFrom : Long.MIN_VALUE);
+            if (createdTo == null) {
+                return byCreated.tailSet(from, true);
+            }
+            if (createdFrom != null && createdTo <= createdFrom) {
+                return Collections.emptySet();
+            }
+            return byCreated.subSet(from, true, Entry.createdBound(createdTo), false);
+        }
+
+        private Collection<Entry> smaller(Collection<Entry> current, Set<Entry> other) {
+            return other != null && other.size() < current.size() ? other : current;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.stripe.terminal.store;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A small, lossy pool of short strings that repeat across stored orders, such as statuses and
+ * metadata keys. Looking up a pooled value compares its UTF-8 bytes in place and allocates nothing.
+ *
+ * <p>Slots are replaced on collision, so the pool never grows. Each slot holds an immutable entry,
+ * which makes unsynchronized reads and writes from concurrent readers safe.</p>
+ */
+final class StringPool {
+    private static final int SLOTS = 256;
+    private static final int MAX_LENGTH = 32;
+
+    private final Entry[] entries = new Entry[SLOTS];
+
+    String get(ByteBuffer buffer, int offset, int length) {
+        if (length > MAX_LENGTH) {
+            return decode(buffer, offset, length);
+        }
+        int hash = 0;
+        for (int i = 0; i < length; i++) {
+            hash = 31 * hash + buffer.get(offset + i);
+        }
+        int slot = (hash ^ (hash >>> 16)) & (SLOTS - 1);
+        Entry entry = entries[slot];
+        if (entry != null && entry.matches(buffer, offset, length)) {
+            return entry.value;
+        }
+        String value = decode(buffer, offset, length);
+        entries[slot] = new Entry(value);
+        return value;
+    }
+
+    private static String decode(ByteBuffer buffer, int offset, int length) {
+        byte[] utf8 = new byte[length];
+        for (int i = 0; i < length; i++) {
+            utf8[i] = buffer.get(offset + i);
+        }
+        return new String(utf8, StandardCharsets.UTF_8);
+    }
+
+    private static final class Entry {
+        final String value;
+        final byte[] utf8;
+
+        Entry(String value) {
+            this.value = value;
+            this.utf8 = value.getBytes(StandardCharsets.UTF_8);
+        }
+
+        boolean matches(ByteBuffer buffer, int offset, int length) {
+            if (utf8.length != length) {
+                return false;
+            }
+            for (int i = 0; i < length; i++) {
+                if (utf8[i] != buffer.get(offset + i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.stripe.terminal.testing;
+
+/**
+ * An error the fake server answers with, rendered as a Stripe error object.
+ */
+final class FakeApiException extends Exception {
+    private final int statusCode;
+    private final String type;
+    private final String code;
+    private final String param;
+
+    FakeApiException(int statusCode, String type, String code, String param, String message) {
+        super(message, null, false, false);
+        this.statusCode = statusCode;
+        this.type = type;
+        this.code = code;
+        this.param = param;
+    }
+
+    static FakeApiException invalidRequest(String code, String param, String message) {
+        return new FakeApiException(400, "invalid_request_error", code, param, message);
+    }
+
+    static FakeApiException missingParam(String param) {
+        return invalidRequest("parameter_missing", param, "Missing required param: " + param + ".");
+    }
+
+    static FakeApiException notFound(String param, String id) {
+        return new FakeApiException(404, "invalid_request_error", "resource_missing", param,
+                "No such " + param + ": '" + id + "'");
+    }
+
+    int getStatusCode() {
+        return statusCode;
+    }
+
+    String getType() {
+        return type;
+    }
+
+    String getCode() {
+        return code;
+    }
+
+    String getParam() {
+        return param;
+    }
+}
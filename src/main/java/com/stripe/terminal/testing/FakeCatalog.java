@@ -0,0 +1,214 @@
+package com.stripe.terminal.testing;
+
+import com.stripe.terminal.model.HardwareProduct;
+import com.stripe.terminal.model.HardwareSku;
+import com.stripe.terminal.model.HasId;
+import com.stripe.terminal.model.ShippingMethod;
+import com.stripe.terminal.model.StripeList;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * The fixed hardware catalog served by {@link FakeStripeServer}: a few products, one SKU per product
+ * and country, and a standard and an express shipping method per country.
+ *
+ * <p>The catalog is built once and never changes, so it is read without synchronization.</p>
+ */
+final class FakeCatalog {
+    static final String[] COUNTRIES = {"US", "CA", "GB", "AU", "DE"};
+    private static final String[] CURRENCIES = {"usd", "cad", "gbp", "aud", "eur"};
+
+    private static final String[][] PRODUCTS = {
+            // id suffix, name, description, price in minor units
+            {"s700", "Stripe Reader S700", "Android-based smart reader with a 5.5\" touchscreen", "34900"},
+            {"m2", "Stripe Reader M2", "Bluetooth mobile reader", "5900"},
+            {"wisepos_e", "BBPOS WisePOS E", "Countertop smart reader", "24900"},
+            {"s700_case", "Stripe Reader S700 Case", "Protective case for the S700", "2900"},
+    };
+
+    private static final String[][] SHIPPING = {
+            // name, estimated delivery days, price in minor units
+            {"standard", "5", "0"},
+            {"express", "2", "2500"},
+    };
+
+    private final List<HardwareProduct> products = new ArrayList<>();
+    private final List<HardwareSku> skus = new ArrayList<>();
+    private final List<ShippingMethod> shippingMethods = new ArrayList<>();
+    private final Map<String, HardwareProduct> productsById = new HashMap<>();
+    private final Map<String, HardwareSku> skusById = new HashMap<>();
+    private final Map<String, ShippingMethod> shippingMethodsById = new HashMap<>();
+    private final Map<String, Long> shippingAmounts = new HashMap<>();
+
+    FakeCatalog() {
+        for (String[] row : PRODUCTS) {
+            HardwareProduct product = new HardwareProduct();
+            product.setId("thpr_fake_" + row[0]);
+            product.setObject("terminal.hardware_product");
+            product.setName(row[1]);
+            product.setDescription(row[2]);
+            product.setStatus("available");
+            products.add(product);
+            productsById.put(product.getId(), product);
+        }
+
+        for (int c = 0; c < COUNTRIES.length; c++) {
+            String country = COUNTRIES[c];
+            for (String[] row : PRODUCTS) {
+                HardwareSku sku = new HardwareSku();
+                sku.setId("thsku_fake_" + row[0] + "_" + country.toLowerCase());
+                sku.setObject("terminal.hardware_sku");
+                sku.setAmount(Long.parseLong(row[3]));
+                sku.setCountry(country);
+                sku.setCurrency(CURRENCIES[c]);
+                sku.setProduct("thpr_fake_" + row[0]);
+                sku.setOrderable(Integer.MAX_VALUE);
+                sku.setStatus("available");
+                sku.setProvider("stripe");
+                skus.add(sku);
+                skusById.put(sku.getId(), sku);
+            }
+            for (String[] row : SHIPPING) {
+                ShippingMethod method = new ShippingMethod();
+                method.setId("thsm_fake_" + row[0] + "_" + country.toLowerCase());
+                method.setObject("terminal.hardware_shipping_method");
+                method.setName(row[0]);
+                method.setCountry(country);
+                method.setStatus("available");
+                method.setProvider("stripe");
+                method.setEstimatedDeliveryDays(Integer.parseInt(row[1]));
+                shippingMethods.add(method);
+                shippingMethodsById.put(method.getId(), method);
+                shippingAmounts.put(method.getId(), Long.parseLong(row[2]));
+            }
+        }
+    }
+
+    HardwareProduct product(String id) throws FakeApiException {
+        return require(productsById, "hardware_product", id);
+    }
+
+    HardwareSku sku(String id) throws FakeApiException {
+        return require(skusById, "terminal_hardware_sku", id);
+    }
+
+    ShippingMethod shippingMethod(String id) throws FakeApiException {
+        return require(shippingMethodsById, "shipping_method", id);
+    }
+
+    long shippingAmount(String shippingMethodId) {
+        return shippingAmounts.getOrDefault(shippingMethodId, 0L);
+    }
+
+    StripeList<HardwareProduct> listProducts(Map<String, String> params, String url) throws FakeApiException {
+        return page(filter(products, product -> true), params, url);
+    }
+
+    StripeList<HardwareSku> listSkus(Map<String, String> params, String url) throws FakeApiException {
+        String country = requireParam(params, "country");
+        String product = params.get("product");
+        String provider = params.get("provider");
+        return page(filter(skus, sku -> sku.getCountry().equals(country)
+                && (product == null || sku.getProduct().equals(product))
+                && (provider == null || sku.getProvider().equals(provider))), params, url);
+    }
+
+    StripeList<ShippingMethod> listShippingMethods(Map<String, String> params, String url) throws FakeApiException {
+        String country = requireParam(params, "country");
+        String name = params.get("name");
+        String provider = params.get("provider");
+        return page(filter(shippingMethods, method -> method.getCountry().equals(country)
+                && (name == null || method.getName().equals(name))
+                && (provider == null || method.getProvider().equals(provider))), params, url);
+    }
+
+    /**
+     * Cuts one page out of a list in display order, following Stripe's cursor semantics.
+     */
+    static <T extends HasId> StripeList<T> page(List<T> all, Map<String, String> params, String url) throws FakeApiException {
+        int limit = limit(params);
+        String startingAfter = params.get("starting_after");
+        String endingBefore = params.get("ending_before");
+
+        int from = 0;
+        int to = all.size();
+        if (startingAfter != null) {
+            from = indexOf(all, startingAfter, "starting_after") + 1;
+            to = Math.min(all.size(), from + limit);
+        } else if (endingBefore != null) {
+            to = indexOf(all, endingBefore, "ending_before");
+            from = Math.max(0, to - limit);
+        } else {
+            to = Math.min(all.size(), limit);
+        }
+
+        boolean hasMore = endingBefore != null && startingAfter == null ? from > 0 : to < all.size();
+        return list(new ArrayList<>(all.subList(from, to)), hasMore, url);
+    }
+
+    static <T> StripeList<T> list(List<T> data, boolean hasMore, String url) {
+        StripeList<T> list = new StripeList<>();
+        list.setObject("list");
+        list.setData(data);
+        list.setHasMore(hasMore);
+        list.setUrl(url);
+        return list;
+    }
+
+    static int limit(Map<String, String> params) throws FakeApiException {
+        String value = params.get("limit");
+        if (value == null) {
+            return 10;
+        }
+        try {
+            int limit = Integer.parseInt(value);
+            if (limit >= 1 && limit <= 100) {
+                return limit;
+            }
+        } catch (NumberFormatException e) {
+            // Reported below
+        }
+        throw FakeApiException.invalidRequest("parameter_invalid_integer", "limit",
+                "Invalid limit: must be an integer between 1 and 100.");
+    }
+
+    static String requireParam(Map<String, String> params, String name) throws FakeApiException {
+        String value = params.get(name);
+        if (value == null || value.isEmpty()) {
+            throw FakeApiException.missingParam(name);
+        }
+        return value;
+    }
+
+    private static <T> List<T> filter(List<T> all, Predicate<T> predicate) {
+        List<T> matching = new ArrayList<>();
+        for (T item : all) {
+            if (predicate.test(item)) {
+                matching.add(item);
+            }
+        }
+        return Collections.unmodifiableList(matching);
+    }
+
+    private static <T extends HasId> int indexOf(List<T> all, String id, String param) throws FakeApiException {
+        for (int i = 0; i < all.size(); i++) {
+            if (all.get(i).getId().equals(id)) {
+                return i;
+            }
+        }
+        throw FakeApiException.notFound(param, id);
+    }
+
+    private static <T> T require(Map<String, T> byId, String param, String id) throws FakeApiException {
+        T value = byId.get(id);
+        if (value == null) {
+            throw FakeApiException.notFound(param, id);
+        }
+        return value;
+    }
+}
@@ -0,0 +1,336 @@
+package com.stripe.terminal.testing;
+
+import com.stripe.terminal.model.Address;
+import com.stripe.terminal.model.HardwareOrder;
+import com.stripe.terminal.model.HardwareOrderItem;
+import com.stripe.terminal.model.HardwareSku;
+import com.stripe.terminal.model.ShipmentTracking;
+import com.stripe.terminal.model.ShippingDetails;
+import com.stripe.terminal.model.ShippingMethod;
+import com.stripe.terminal.model.StripeList;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory hardware orders for {@link FakeStripeServer}.
+ *
+ * <p>Orders are never mutated once published: a status transition swaps in an updated copy under
+ * the order's entry lock, so readers always serialize a consistent snapshot without locking.
+ * Lists are served newest first from a skip list keyed by creation sequence.</p>
+ */
+final class FakeOrderStore {
+    private static final String ITEMS = "hardware_order_items";
+    private static final String METADATA_PREFIX = "metadata[";
+
+    /**
+     * The test helper actions and the status each one moves an order from and to.
+     */
+    private static final Map<String, String[]> TRANSITIONS = new HashMap<>();
+
+    static {
+        TRANSITIONS.put("mark_ready_to_ship", new String[]{"pending", "ready_to_ship"});
+        TRANSITIONS.put("ship", new String[]{"ready_to_ship", "shipped"});
+        TRANSITIONS.put("deliver", new String[]{"shipped", "delivered"});
+        TRANSITIONS.put("mark_undeliverable", new String[]{"shipped", "undeliverable"});
+    }
+
+    private final FakeCatalog catalog;
+    private final AtomicLong sequence = new AtomicLong();
+    private final ConcurrentHashMap<String, Entry> ordersById = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListMap<Long, Entry> ordersBySequence = new ConcurrentSkipListMap<>();
+    private final ConcurrentHashMap<String, IdempotentCreate> idempotentCreates = new ConcurrentHashMap<>();
+
+    FakeOrderStore(FakeCatalog catalog) {
+        this.catalog = catalog;
+    }
+
+    static boolean isTransition(String action) {
+        return TRANSITIONS.containsKey(action);
+    }
+
+    /**
+     * Creates an order, or replays the original one if the idempotency key was used before.
+     */
+    HardwareOrder create(Map<String, String> params, String idempotencyKey, String rawBody) throws FakeApiException {
+        if (idempotencyKey == null) {
+            return insert(newOrder(params));
+        }
+
+        IdempotentCreate previous = idempotentCreates.get(idempotencyKey);
+        if (previous == null) {
+            // Validate before claiming the key so a rejected request can be corrected and resent
+            HardwareOrder order = newOrder(params);
+            IdempotentCreate claimed = new IdempotentCreate(rawBody);
+            previous = idempotentCreates.putIfAbsent(idempotencyKey, claimed);
+            if (previous == null) {
+                claimed.order = insert(order);
+                return claimed.order;
+            }
+        }
+        if (!previous.body.equals(rawBody)) {
+            throw new FakeApiException(400, "idempotency_error", null, null,
+                    "Keys for idempotent requests can only be used with the same parameters they were first used with.");
+        }
+        HardwareOrder order = previous.order;
+        if (order == null) {
+            throw new FakeApiException(409, "invalid_request_error", "idempotency_key_in_use", null,
+                    "There is currently another in-progress request using this Idempotent Key.");
+        }
+        return order;
+    }
+
+    HardwareOrder preview(Map<String, String> params) throws FakeApiException {
+        HardwareOrder order = newOrder(params);
+        order.setId(null);
+        return order;
+    }
+
+    HardwareOrder retrieve(String id) throws FakeApiException {
+        return entry(id).order;
+    }
+
+    StripeList<HardwareOrder> list(Map<String, String> params, String url) throws FakeApiException {
+        int limit = FakeCatalog.limit(params);
+        String startingAfter = params.get("starting_after");
+        String endingBefore = params.get("ending_before");
+
+        NavigableMap<Long, Entry> window;
+        boolean reversed = false;
+        if (startingAfter != null) {
+            window = ordersBySequence.headMap(entry(startingAfter, "starting_after").sequence, false).descendingMap();
+        } else if (endingBefore != null) {
+            window = ordersBySequence.tailMap(entry(endingBefore, "ending_before").sequence, false);
+            reversed = true;
+        } else {
+            window = ordersBySequence.descendingMap();
+        }
+
+        List<HardwareOrder> data = new ArrayList<>(Math.min(limit, 16));
+        Iterator<Entry> iterator = window.values().iterator();
+        while (data.size() < limit && iterator.hasNext()) {
+            data.add(iterator.next().order);
+        }
+        if (reversed) {
+            Collections.reverse(data);
+        }
+        return FakeCatalog.list(data, iterator.hasNext(), url);
+    }
+
+    /**
+     * Applies a test helper action such as {@code ship} to an order.
+     */
+    HardwareOrder transition(String id, String action, Map<String, String> params) throws FakeApiException {
+        String[] fromTo = TRANSITIONS.get(action);
+        Entry entry = entry(id);
+        entry.lock.lock();
+        try {
+            HardwareOrder current = entry.order;
+            if (!fromTo[0].equals(current.getStatus())) {
+                throw FakeApiException.invalidRequest("terminal_hardware_order_invalid_status", null,
+                        "Cannot " + action.replace('_', ' ') + " hardware order " + id
+                                + " because its status is " + current.getStatus() + "; expected " + fromTo[0] + ".");
+            }
+
+            HardwareOrder updated = copyOf(current);
+            updated.setStatus(fromTo[1]);
+            updated.setUpdated(now());
+            if ("ship".equals(action) && (params.containsKey("carrier") || params.containsKey("tracking_number"))) {
+                ShipmentTracking tracking = new ShipmentTracking();
+                tracking.setCarrier(params.get("carrier"));
+                tracking.setTrackingNumber(params.get("tracking_number"));
+                updated.setShipmentTracking(Collections.singletonList(tracking));
+            }
+            entry.order = updated;
+            return updated;
+        } finally {
+            entry.lock.unlock();
+        }
+    }
+
+    int size() {
+        return ordersById.size();
+    }
+
+    void clear() {
+        ordersById.clear();
+        ordersBySequence.clear();
+        idempotentCreates.clear();
+    }
+
+    private HardwareOrder insert(HardwareOrder order) {
+        Entry entry = new Entry(sequence.incrementAndGet(), order);
+        order.setId("thor_fake" + Long.toString(entry.sequence, 36));
+        ordersById.put(order.getId(), entry);
+        ordersBySequence.put(entry.sequence, entry);
+        return order;
+    }
+
+    private Entry entry(String id) throws FakeApiException {
+        return entry(id, "terminal.hardware_order");
+    }
+
+    private Entry entry(String id, String param) throws FakeApiException {
+        Entry entry = ordersById.get(id);
+        if (entry == null) {
+            throw FakeApiException.notFound(param, id);
+        }
+        return entry;
+    }
+
+    /**
+     * Validates create parameters and prices the order the way the API does.
+     */
+    private HardwareOrder newOrder(Map<String, String> params) throws FakeApiException {
+        String country = FakeCatalog.requireParam(params, "shipping[address][country]");
+        ShippingMethod shippingMethod = catalog.shippingMethod(FakeCatalog.requireParam(params, "shipping_method"));
+        if (!country.equals(shippingMethod.getCountry())) {
+            throw FakeApiException.invalidRequest("parameter_invalid", "shipping_method",
+                    "Shipping method " + shippingMethod.getId() + " is not available in " + country + ".");
+        }
+
+        List<HardwareOrderItem> items = new ArrayList<>();
+        String currency = null;
+        long amount = 0;
+        for (int i = 0; ; i++) {
+            String prefix = ITEMS + "[" + i + "]";
+            String skuId = params.get(prefix + "[terminal_hardware_sku]");
+            if (skuId == null) {
+                break;
+            }
+            HardwareSku sku = catalog.sku(skuId);
+            if (!country.equals(sku.getCountry())) {
+                throw FakeApiException.invalidRequest("parameter_invalid", prefix + "[terminal_hardware_sku]",
+                        "SKU " + skuId + " is not available in " + country + ".");
+            }
+            int quantity = quantity(params.get(prefix + "[quantity]"), prefix + "[quantity]");
+
+            HardwareOrderItem item = new HardwareOrderItem(skuId, quantity);
+            item.setAmount(sku.getAmount() * quantity);
+            item.setCurrency(sku.getCurrency());
+            items.add(item);
+            amount += item.getAmount();
+            currency = sku.getCurrency();
+        }
+        if (items.isEmpty()) {
+            throw FakeApiException.missingParam(ITEMS);
+        }
+
+        Address address = new Address(
+                FakeCatalog.requireParam(params, "shipping[address][line1]"),
+                FakeCatalog.requireParam(params, "shipping[address][city]"),
+                params.get("shipping[address][state]"),
+                FakeCatalog.requireParam(params, "shipping[address][postal_code]"),
+                country);
+        address.setLine2(params.get("shipping[address][line2]"));
+        ShippingDetails shipping = new ShippingDetails(FakeCatalog.requireParam(params, "shipping[name]"), address,
+                params.get("shipping[email]"), params.get("shipping[phone]"));
+        shipping.setCompany(params.get("shipping[company]"));
+        shipping.setAmount(catalog.shippingAmount(shippingMethod.getId()));
+        shipping.setCurrency(currency);
+        amount += shipping.getAmount();
+
+        long now = now();
+        HardwareOrder order = new HardwareOrder();
+        order.setObject("terminal.hardware_order");
+        order.setAmount(amount);
+        order.setCreated(now);
+        order.setUpdated(now);
+        order.setCurrency(currency);
+        order.setHardwareOrderItems(items);
+        order.setLivemode(false);
+        order.setMetadata(metadata(params));
+        order.setPaymentType(params.getOrDefault("payment_type", "monthly_invoice"));
+        order.setPoNumber(params.get("po_number"));
+        order.setShipmentTracking(Collections.emptyList());
+        order.setShipping(shipping);
+        order.setShippingMethod(shippingMethod.getId());
+        order.setStatus("pending");
+        order.setTax(0L);
+        order.setTotalTaxAmounts(Collections.emptyList());
+        return order;
+    }
+
+    private static int quantity(String value, String param) throws FakeApiException {
+        if (value == null) {
+            throw FakeApiException.missingParam(param);
+        }
+        try {
+            int quantity = Integer.parseInt(value);
+            if (quantity >= 1) {
+                return quantity;
+            }
+        } catch (NumberFormatException e) {
+            // Reported below
+        }
+        throw FakeApiException.invalidRequest("parameter_invalid_integer", param,
+                "Invalid positive integer: " + value);
+    }
+
+    private static Map<String, String> metadata(Map<String, String> params) {
+        Map<String, String> metadata = new TreeMap<>();
+        for (Map.Entry<String, String> param : params.entrySet()) {
+            String key = param.getKey();
+            if (key.startsWith(METADATA_PREFIX) && key.endsWith("]")) {
+                metadata.put(key.substring(METADATA_PREFIX.length(), key.length() - 1), param.getValue());
+            }
+        }
+        return metadata;
+    }
+
+    private static HardwareOrder copyOf(HardwareOrder order) {
+        HardwareOrder copy = new HardwareOrder();
+        copy.setId(order.getId());
+        copy.setObject(order.getObject());
+        copy.setAmount(order.getAmount());
+        copy.setCreated(order.getCreated());
+        copy.setCurrency(order.getCurrency());
+        copy.setHardwareOrderItems(order.getHardwareOrderItems());
+        copy.setLivemode(order.getLivemode());
+        copy.setMetadata(order.getMetadata());
+        copy.setPaymentType(order.getPaymentType());
+        copy.setPoNumber(order.getPoNumber());
+        copy.setShipmentTracking(order.getShipmentTracking());
+        copy.setShipping(order.getShipping());
+        copy.setShippingMethod(order.getShippingMethod());
+        copy.setStatus(order.getStatus());
+        copy.setTax(order.getTax());
+        copy.setTotalTaxAmounts(order.getTotalTaxAmounts());
+        copy.setUpdated(order.getUpdated());
+        return copy;
+    }
+
+    private static long now() {
+        return System.currentTimeMillis() / 1000;
+    }
+
+    private static final class Entry {
+        final long sequence;
+        final ReentrantLock lock = new ReentrantLock();
+        volatile HardwareOrder order;
+
+        Entry(long sequence, HardwareOrder order) {
+            this.sequence = sequence;
+            this.order = order;
+        }
+    }
+
+    private static final class IdempotentCreate {
+        final String body;
+        volatile HardwareOrder order;
+
+        IdempotentCreate(String body) {
+            this.body = body;
+        }
+    }
+}
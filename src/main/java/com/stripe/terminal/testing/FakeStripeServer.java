@@ -0,0 +1,477 @@
+package com.stripe.terminal.testing;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.stripe.terminal.serialization.StripeGson;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * An embeddable, in-memory stand-in for the Terminal hardware endpoints, for load and integration
+ * testing without a Stripe account.
+ *
+ * <p>It serves the hardware order, SKU, product and shipping method endpoints and the test helper
+ * actions, keeping orders in memory and enforcing the status transitions pending → ready_to_ship →
+ * shipped → delivered or undeliverable. Creates honor the Idempotency-Key header, and invalid
+ * requests are answered with Stripe-style error objects, so the real {@code StripeTerminal} client
+ * behaves against it as it does against the API. Latency, server errors and rate limiting can be
+ * injected to exercise retries and rate limiting.</p>
+ *
+ * <p>The server runs on the JDK's built-in HTTP server with keep-alive connections. Injected latency
+ * is scheduled rather than slept, so it does not tie up worker threads. See {@link Builder#start()}
+ * for the system property to set when measuring latency.</p>
+ *
+ * <pre>
+ * try (FakeStripeServer server = FakeStripeServer.builder()
+ *         .latency(Duration.ofMillis(20))
+ *         .rateLimitRate(0.01)
+ *         .start()) {
+ *     StripeTerminal stripe = new StripeTerminal(StripeConfig.builder("sk_test_fake")
+ *         .baseUrl(server.getBaseUrl())
+ *         .build());
+ *     ...
+ * }
+ * </pre>
+ *
+ * <p>The catalog has SKUs and shipping methods for US, CA, GB, AU and DE, with IDs such as
+ * {@code thsku_fake_s700_us} and {@code thsm_fake_standard_us}.</p>
+ */
+public final class FakeStripeServer implements AutoCloseable {
+    public static final int DEFAULT_THREADS = Math.max(4, Runtime.getRuntime().availableProcessors() * 2);
+
+    private static final String ORDERS_PATH = "/v1/terminal/hardware_orders";
+    private static final String SKUS_PATH = "/v1/terminal/hardware_skus";
+    private static final String PRODUCTS_PATH = "/v1/terminal/hardware_products";
+    private static final String SHIPPING_METHODS_PATH = "/v1/terminal/hardware_shipping_methods";
+    private static final String TEST_HELPERS_PATH = "/v1/test_helpers/terminal/hardware_orders";
+    private static final String NODELAY_PROPERTY = "sun.net.httpserver.nodelay";
+
+    private final HttpServer server;
+    private final ExecutorService workers;
+    private final ScheduledExecutorService timer;
+    private final Gson gson = StripeGson.create();
+    private final FakeCatalog catalog = new FakeCatalog();
+    private final FakeOrderStore orders = new FakeOrderStore(catalog);
+
+    private final long latencyNanos;
+    private final long latencyJitterNanos;
+    private final double errorRate;
+    private final double rateLimitRate;
+
+    private final AtomicLong requestIds = new AtomicLong();
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder injectedErrors = new LongAdder();
+    private final LongAdder injectedRateLimits = new LongAdder();
+
+    private FakeStripeServer(Builder builder) throws IOException {
+        this.latencyNanos = builder.latency.toNanos();
+        this.latencyJitterNanos = builder.latencyJitter.toNanos();
+        this.errorRate = builder.errorRate;
+        this.rateLimitRate = builder.rateLimitRate;
+
+        this.workers = Executors.newFixedThreadPool(builder.threads, daemonThreads("fake-stripe-worker"));
+        this.timer = Executors.newSingleThreadScheduledExecutor(daemonThreads("fake-stripe-timer"));
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), builder.port), builder.backlog);
+        this.server.createContext("/", this::handle);
+        this.server.setExecutor(workers);
+        this.server.start();
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Starts a server with no injected latency or errors on a free port.
+     *
+     * @see Builder#start()
+     */
+    public static FakeStripeServer start() throws IOException {
+        return builder().start();
+    }
+
+    /**
+     * @return The URL to pass to {@code StripeConfig.Builder.baseUrl}, e.g. {@code http://127.0.0.1:54321}
+     */
+    public String getBaseUrl() {
+        InetSocketAddress address = server.getAddress();
+        return "http://" + address.getAddress().getHostAddress() + ":" + address.getPort();
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * @return The number of requests received, including those answered with an injected error
+     */
+    public long getRequestCount() {
+        return requests.sum();
+    }
+
+    /**
+     * @return The number of requests answered with an injected 500
+     */
+    public long getInjectedErrorCount() {
+        return injectedErrors.sum();
+    }
+
+    /**
+     * @return The number of requests answered with an injected 429
+     */
+    public long getInjectedRateLimitCount() {
+        return injectedRateLimits.sum();
+    }
+
+    /**
+     * @return The number of orders created
+     */
+    public int getOrderCount() {
+        return orders.size();
+    }
+
+    /**
+     * Forgets all orders and idempotency keys. Counters are not reset.
+     */
+    public void reset() {
+        orders.clear();
+    }
+
+    /**
+     * Stops accepting requests and releases the port. Requests in flight are given a second to finish.
+     */
+    @Override
+    public void close() {
+        server.stop(1);
+        timer.shutdownNow();
+        workers.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) {
+        requests.increment();
+        Response response;
+        try {
+            response = route(exchange);
+        } catch (FakeApiException e) {
+            response = error(e);
+        } catch (IOException | RuntimeException e) {
+            response = error(new FakeApiException(500, "api_error", null, null,
+                    "Fake server error: " + e.getClass().getSimpleName() + ": " + e.getMessage()));
+        }
+
+        long delay = delayNanos();
+        if (delay == 0) {
+            send(exchange, response);
+        } else {
+            Response delayed = response;
+            timer.schedule(() -> workers.execute(() -> send(exchange, delayed)), delay, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private Response route(HttpExchange exchange) throws IOException, FakeApiException {
+        String method = exchange.getRequestMethod();
+        String path = exchange.getRequestURI().getRawPath();
+        String body = readBody(exchange);
+
+        if (exchange.getRequestHeaders().getFirst("Authorization") == null) {
+            return error(new FakeApiException(401, "invalid_request_error", null, null,
+                    "You did not provide an API key."));
+        }
+
+        double roll = ThreadLocalRandom.current().nextDouble();
+        if (roll < rateLimitRate) {
+            injectedRateLimits.increment();
+            return error(new FakeApiException(429, "invalid_request_error", "rate_limit", null,
+                    "Request rate limit exceeded. Injected by FakeStripeServer."));
+        }
+        if (roll < rateLimitRate + errorRate) {
+            injectedErrors.increment();
+            return error(new FakeApiException(500, "api_error", null, null,
+                    "Internal server error. Injected by FakeStripeServer."));
+        }
+
+        boolean get = "GET".equals(method);
+        boolean post = "POST".equals(method);
+        Map<String, String> params = parseForm(post ? body : exchange.getRequestURI().getRawQuery());
+
+        if (path.startsWith(ORDERS_PATH)) {
+            String rest = path.substring(ORDERS_PATH.length());
+            if (rest.isEmpty() && post) {
+                String idempotencyKey = exchange.getRequestHeaders().getFirst("Idempotency-Key");
+                if (idempotencyKey != null) {
+                    // Keys are unique per account, as in the API
+                    idempotencyKey = exchange.getRequestHeaders().getFirst("Authorization") + "/"
+                            + exchange.getRequestHeaders().getFirst("Stripe-Account") + "/" + idempotencyKey;
+                }
+                return ok(orders.create(params, idempotencyKey, body));
+            } else if (rest.isEmpty() && get) {
+                return ok(orders.list(params, ORDERS_PATH));
+            } else if (rest.equals("/preview") && get) {
+                return ok(orders.preview(params));
+            } else if (isId(rest) && get) {
+                return ok(orders.retrieve(rest.substring(1)));
+            }
+        } else if (path.startsWith(SKUS_PATH) && get) {
+            String rest = path.substring(SKUS_PATH.length());
+            if (rest.isEmpty()) {
+                return ok(catalog.listSkus(params, SKUS_PATH));
+            } else if (isId(rest)) {
+                return ok(catalog.sku(rest.substring(1)));
+            }
+        } else if (path.startsWith(PRODUCTS_PATH) && get) {
+            String rest = path.substring(PRODUCTS_PATH.length());
+            if (rest.isEmpty()) {
+                return ok(catalog.listProducts(params, PRODUCTS_PATH));
+            } else if (isId(rest)) {
+                return ok(catalog.product(rest.substring(1)));
+            }
+        } else if (path.startsWith(SHIPPING_METHODS_PATH) && get) {
+            String rest = path.substring(SHIPPING_METHODS_PATH.length());
+            if (rest.isEmpty()) {
+                return ok(catalog.listShippingMethods(params, SHIPPING_METHODS_PATH));
+            } else if (isId(rest)) {
+                return ok(catalog.shippingMethod(rest.substring(1)));
+            }
+        } else if (path.startsWith(TEST_HELPERS_PATH + "/") && post) {
+            String[] segments = path.substring(TEST_HELPERS_PATH.length() + 1).split("/");
+            if (segments.length == 2 && FakeOrderStore.isTransition(segments[1])) {
+                return ok(orders.transition(segments[0], segments[1], params));
+            }
+        }
+
+        throw new FakeApiException(404, "invalid_request_error", null, null,
+                "Unrecognized request URL (" + method + ": " + path + ").");
+    }
+
+    private Response ok(Object body) {
+        return new Response(200, gson.toJson(body));
+    }
+
+    private static Response error(FakeApiException e) {
+        JsonObject error = new JsonObject();
+        error.addProperty("type", e.getType());
+        error.addProperty("message", e.getMessage());
+        if (e.getCode() != null) {
+            error.addProperty("code", e.getCode());
+        }
+        if (e.getParam() != null) {
+            error.addProperty("param", e.getParam());
+        }
+        JsonObject body = new JsonObject();
+        body.add("error", error);
+        return new Response(e.getStatusCode(), body.toString());
+    }
+
+    private void send(HttpExchange exchange, Response response) {
+        byte[] bytes = response.body.getBytes(StandardCharsets.UTF_8);
+        try (OutputStream out = exchange.getResponseBody()) {
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.getResponseHeaders().set("Request-Id", "req_fake" + requestIds.incrementAndGet());
+            exchange.sendResponseHeaders(response.status, bytes.length);
+            out.write(bytes);
+        } catch (IOException e) {
+            // The client went away; nothing to report to
+            exchange.close();
+        }
+    }
+
+    private long delayNanos() {
+        if (latencyJitterNanos == 0) {
+            return latencyNanos;
+        }
+        return latencyNanos + ThreadLocalRandom.current().nextLong(latencyJitterNanos + 1);
+    }
+
+    private static boolean isId(String rest) {
+        return rest.length() > 1 && rest.indexOf('/', 1) < 0;
+    }
+
+    private static String readBody(HttpExchange exchange) throws IOException {
+        try (InputStream in = exchange.getRequestBody()) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * Decodes an application/x-www-form-urlencoded string into flat bracket-notation keys.
+     */
+    static Map<String, String> parseForm(String encoded) {
+        if (encoded == null || encoded.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Map<String, String> params = new HashMap<>();
+        int start = 0;
+        while (start <= encoded.length()) {
+            int end = encoded.indexOf('&', start);
+            if (end < 0) {
+                end = encoded.length();
+            }
+            int equals = encoded.indexOf('=', start);
+            if (end > start) {
+                if (equals < 0 || equals > end) {
+                    params.put(decode(encoded.substring(start, end)), "");
+                } else {
+                    params.put(decode(encoded.substring(start, equals)), decode(encoded.substring(equals + 1, end)));
+                }
+            }
+            start = end + 1;
+        }
+        return params;
+    }
+
+    private static String decode(String value) {
+        return URLDecoder.decode(value, StandardCharsets.UTF_8);
+    }
+
+    private static ThreadFactory daemonThreads(String name) {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Runs a server in the foreground, for pointing external load generators at. As it owns the
+     * JVM, it enables {@code sun.net.httpserver.nodelay} unless it is set.
+     * Usage: {@code FakeStripeServer [port]}
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (System.getProperty(NODELAY_PROPERTY) == null) {
+            System.setProperty(NODELAY_PROPERTY, "true");
+        }
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 12111;
+        FakeStripeServer server = builder().port(port).start();
+        System.out.println("Fake Stripe server listening on " + server.getBaseUrl());
+        Thread.currentThread().join();
+    }
+
+    private static final class Response {
+        final int status;
+        final String body;
+
+        Response(int status, String body) {
+            this.status = status;
+            this.body = body;
+        }
+    }
+
+    public static class Builder {
+        private int port;
+        private int threads = DEFAULT_THREADS;
+        private int backlog = 1024;
+        private Duration latency = Duration.ZERO;
+        private Duration latencyJitter = Duration.ZERO;
+        private double errorRate;
+        private double rateLimitRate;
+
+        /**
+         * Port to listen on, on the loopback interface. Defaults to 0, a free port.
+         */
+        public Builder port(int port) {
+            this.port = port;
+            return this;
+        }
+
+        /**
+         * Number of worker threads handling requests. Defaults to twice the number of CPUs, at least 4.
+         */
+        public Builder threads(int threads) {
+            this.threads = threads;
+            return this;
+        }
+
+        /**
+         * Maximum number of pending connections. Defaults to 1024.
+         */
+        public Builder backlog(int backlog) {
+            this.backlog = backlog;
+            return this;
+        }
+
+        /**
+         * Fixed delay added to every response. Defaults to none.
+         */
+        public Builder latency(Duration latency) {
+            this.latency = latency;
+            return this;
+        }
+
+        /**
+         * Random extra delay, uniformly distributed between zero and this value. Defaults to none.
+         */
+        public Builder latencyJitter(Duration latencyJitter) {
+            this.latencyJitter = latencyJitter;
+            return this;
+        }
+
+        /**
+         * Fraction of requests, between 0 and 1, answered with a 500 {@code api_error}. Defaults to 0.
+         */
+        public Builder errorRate(double errorRate) {
+            this.errorRate = errorRate;
+            return this;
+        }
+
+        /**
+         * Fraction of requests, between 0 and 1, answered with a 429 {@code rate_limit}. Defaults to 0.
+         */
+        public Builder rateLimitRate(double rateLimitRate) {
+            this.rateLimitRate = rateLimitRate;
+            return this;
+        }
+
+        /**
+         * Builds and starts the server.
+         *
+         * <p>The JDK's server writes response headers and body separately, and without
+         * {@code TCP_NODELAY} each keep-alive response can stall ~40 ms on Nagle's algorithm and the
+         * client's delayed ACK. The server does not change JVM-wide settings itself: for latency
+         * measurements, run the JVM with {@code -Dsun.net.httpserver.nodelay=true}. The property
+         * is read once, when the first {@code HttpServer} in the JVM is created.</p>
+         */
+        public FakeStripeServer start() throws IOException {
+            if (port < 0 || port > 65535) {
+                throw new IllegalArgumentException("Port must be between 0 and 65535");
+            }
+            if (threads < 1) {
+                throw new IllegalArgumentException("Threads must be at least 1");
+            }
+            if (backlog < 0) {
+                throw new IllegalArgumentException("Backlog cannot be negative");
+            }
+            if (latency == null || latencyJitter == null) {
+                throw new IllegalArgumentException("Durations cannot be null");
+            }
+            if (latency.isNegative() || latencyJitter.isNegative()) {
+                throw new IllegalArgumentException("Durations cannot be negative");
+            }
+            if (!(errorRate >= 0) || !(rateLimitRate >= 0) || errorRate + rateLimitRate > 1) {
+                throw new IllegalArgumentException("Error and rate limit rates must be between 0 and 1 in total");
+            }
+            return new FakeStripeServer(this);
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.stripe.terminal.tracking;
+
+import com.stripe.terminal.model.HardwareOrder;
+
+/**
+ * An order moved to {@code canceled}.
+ */
+public class OrderCanceled extends OrderStatusChanged {
+
+    OrderCanceled(HardwareOrder previous, HardwareOrder order) {
+        super(previous, order);
+    }
+}
@@ -0,0 +1,118 @@
+package com.stripe.terminal.tracking;
+
+import com.stripe.terminal.model.HardwareOrder;
+import com.stripe.terminal.model.ShipmentTracking;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Compares two versions of a Terminal Hardware Order and describes what changed as
+ * {@link OrderEvent}s. Stateless; used by {@link OrderTracker} and usable with orders from any
+ * other source.
+ */
+public final class OrderChangeDetector {
+
+    public static final String STATUS_SHIPPED = "shipped";
+    public static final String STATUS_DELIVERED = "delivered";
+    public static final String STATUS_UNDELIVERABLE = "undeliverable";
+    public static final String STATUS_CANCELED = "canceled";
+
+    private OrderChangeDetector() {
+    }
+
+    /**
+     * Returns the changes from {@code previous} to {@code current}.
+     *
+     * <p>A status change yields one {@link OrderStatusChanged}, or the subclass for its new status.
+     * A change to shipment tracking yields a {@link TrackingUpdated}, unless it arrived with the
+     * move to {@code shipped}, whose {@link OrderShipped} already carries it.</p>
+     *
+     * @param previous Optional. The last known version of the order; null if it is new
+     * @param current  The latest version of the order
+     * @return The changes, oldest first; empty if nothing tracked changed
+     */
+    public static List<OrderEvent> detect(HardwareOrder previous, HardwareOrder current) {
+        if (previous == null) {
+            return Collections.singletonList(new OrderCreated(current));
+        }
+
+        List<OrderEvent> events = new ArrayList<>(2);
+        String status = current.getStatus();
+        if (!Objects.equals(previous.getStatus(), status)) {
+            events.add(statusChanged(previous, current));
+        }
+        if (!STATUS_SHIPPED.equals(status) || events.isEmpty()) {
+            if (!sameTracking(tracking(previous), tracking(current))) {
+                events.add(new TrackingUpdated(previous, current));
+            }
+        }
+        return events;
+    }
+
+    /**
+     * Whether an order in this status can no longer change under normal operation.
+     *
+     * @param status An order status
+     * @return true for {@code delivered}, {@code undeliverable} and {@code canceled}
+     */
+    public static boolean isTerminal(String status) {
+        return STATUS_DELIVERED.equals(status)
+                || STATUS_UNDELIVERABLE.equals(status)
+                || STATUS_CANCELED.equals(status);
+    }
+
+    private static OrderStatusChanged statusChanged(HardwareOrder previous, HardwareOrder current) {
+        String status = current.getStatus();
+        if (STATUS_SHIPPED.equals(status)) {
+            return new OrderShipped(previous, current);
+        } else if (STATUS_DELIVERED.equals(status)) {
+            return new OrderDelivered(previous, current);
+        } else if (STATUS_UNDELIVERABLE.equals(status)) {
+            return new OrderUndeliverable(previous, current);
+        } else if (STATUS_CANCELED.equals(status)) {
+            return new OrderCanceled(previous, current);
+        }
+        return new OrderStatusChanged(previous, current);
+    }
+
+    static List<ShipmentTracking> tracking(HardwareOrder order) {
+        List<ShipmentTracking> tracking = order.getShipmentTracking();
+        return tracking != null ? tracking : Collections.emptyList();
+    }
+
+    static List<String> trackingNumbers(HardwareOrder order) {
+        List<ShipmentTracking> tracking = tracking(order);
+        List<String> numbers = new ArrayList<>(tracking.size());
+        for (ShipmentTracking shipment : tracking) {
+            if (shipment.getTrackingNumber() != null) {
+                numbers.add(shipment.getTrackingNumber());
+            }
+        }
+        return numbers;
+    }
+
+    private static boolean sameTracking(List<ShipmentTracking> a, List<ShipmentTracking> b) {
+        if (a.size() != b.size()) {
+            return false;
+        }
+        for (int i = 0; i < a.size(); i++) {
+            ShipmentTracking x = a.get(i);
+            ShipmentTracking y = b.get(i);
+            if (x == null || y == null) {
+                if (x != y) {
+                    return false;
+                }
+                continue;
+            }
+            if (!Objects.equals(x.getCarrier(), y.getCarrier())
+                    || !Objects.equals(x.getTrackingNumber(), y.getTrackingNumber())
+                    || !Objects.equals(x.getTrackingUrl(), y.getTrackingUrl())) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
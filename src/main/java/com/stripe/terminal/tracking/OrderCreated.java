@@ -0,0 +1,13 @@
+package com.stripe.terminal.tracking;
+
+import com.stripe.terminal.model.HardwareOrder;
+
+/**
+ * An order that was not seen before. {@link #getPrevious()} is null.
+ */
+public class OrderCreated extends OrderEvent {
+
+    OrderCreated(HardwareOrder order) {
+        super(null, order);
+    }
+}
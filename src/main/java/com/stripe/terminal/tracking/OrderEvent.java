@@ -0,0 +1,51 @@
+package com.stripe.terminal.tracking;
+
+import com.stripe.terminal.model.HardwareOrder;
+
+/**
+ * A change to a Terminal Hardware Order, detected by comparing two versions of it.
+ *
+ * <p>Subclasses identify the kind of change, so listeners can test with {@code instanceof} or
+ * register for one type with {@link OrderTracker.Builder#on}. Orders are shared with the
+ * tracker's snapshot and must be treated as read-only.</p>
+ *
+ * @see OrderChangeDetector
+ */
+public abstract class OrderEvent {
+    private final HardwareOrder previous;
+    private final HardwareOrder order;
+
+    OrderEvent(HardwareOrder previous, HardwareOrder order) {
+        this.previous = previous;
+        this.order = order;
+    }
+
+    /**
+     * @return The ID of the order that changed
+     */
+    public String getOrderId() {
+        return order.getId();
+    }
+
+    /**
+     * @return The order after the change
+     */
+    public HardwareOrder getOrder() {
+        return order;
+    }
+
+    /**
+     * @return The order before the change, or null if it was not seen before
+     */
+    public HardwareOrder getPrevious() {
+        return previous;
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "{" +
+                "orderId='" + getOrderId() + '\'' +
+                ", status='" + order.getStatus() + '\'' +
+                '}';
+    }
+}
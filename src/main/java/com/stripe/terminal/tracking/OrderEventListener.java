@@ -0,0 +1,16 @@
+package com.stripe.terminal.tracking;
+
+/**
+ * Receives order changes from an {@link OrderTracker}.
+ */
+@FunctionalInterface
+public interface OrderEventListener {
+
+    /**
+     * Called on the polling thread, once per event, in the order the changes were detected.
+     * Should return quickly; the next poll waits for it.
+     *
+     * @param event The change
+     */
+    void onEvent(OrderEvent event);
+}
@@ -0,0 +1,39 @@
+package com.stripe.terminal.tracking;
+
+import com.stripe.terminal.model.HardwareOrder;
+import com.stripe.terminal.model.ShipmentTracking;
+
+import java.util.List;
+
+/**
+ * An order moved to {@code shipped}. Carries the shipment tracking the order was shipped with.
+ */
+public class OrderShipped extends OrderStatusChanged {
+
+    OrderShipped(HardwareOrder previous, HardwareOrder order) {
+        super(previous, order);
+    }
+
+    /**
+     * @return The shipment tracking entries, empty if the carrier has not provided any yet
+     */
+    public List<ShipmentTracking> getShipmentTracking() {
+        return OrderChangeDetector.tracking(getOrder());
+    }
+
+    /**
+     * @return The tracking number of each shipment
+     */
+    public List<String> getTrackingNumbers() {
+        return OrderChangeDetector.trackingNumbers(getOrder());
+    }
+
+    @Override
+    public String toString() {
+        return "OrderShipped{" +
+                "orderId='" + getOrderId() + '\'' +
+                ", previousStatus='" + getPreviousStatus() + '\'' +
+                ", trackingNumbers=" + getTrackingNumbers() +
+                '}';
+    }
+}
@@ -0,0 +1,37 @@
+package com.stripe.terminal.tracking;
+
+import com.stripe.terminal.model.HardwareOrder;
+
+/**
+ * An order moved to a new status. Moves to {@code shipped}, {@code delivered},
+ * {@code undeliverable} and {@code canceled} are reported as the matching subclass.
+ */
+public class OrderStatusChanged extends OrderEvent {
+
+    OrderStatusChanged(HardwareOrder previous, HardwareOrder order) {
+        super(previous, order);
+    }
+
+    /**
+     * @return The status before the change
+     */
+    public String getPreviousStatus() {
+        return getPrevious().getStatus();
+    }
+
+    /**
+     * @return The new status
+     */
+    public String getStatus() {
+        return getOrder().getStatus();
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "{" +
+                "orderId='" + getOrderId() + '\'' +
+                ", previousStatus='" + getPreviousStatus() + '\'' +
+                ", status='" + getStatus() + '\'' +
+                '}';
+    }
+}
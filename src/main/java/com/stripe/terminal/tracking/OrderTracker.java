@@ -0,0 +1,531 @@
+package com.stripe.terminal.tracking;
+
+import com.stripe.terminal.exception.StripeException;
+import com.stripe.terminal.exception.UncheckedStripeException;
+import com.stripe.terminal.model.HardwareOrder;
+import com.stripe.terminal.model.StripeList;
+import com.stripe.terminal.service.HardwareOrderService;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Keeps a local snapshot of Terminal Hardware Orders and reports changes to them as typed
+ * {@link OrderEvent}s, such as {@link OrderShipped} with its tracking numbers.
+ *
+ * <p>Each poll does only the work needed to catch up:</p>
+ * <ul>
+ *   <li>New orders are found by listing with {@code ending_before} the newest known order, which
+ *       costs one request when there are none.</li>
+ *   <li>Known orders are refreshed when their own poll interval is due. Active orders are due
+ *       every {@link Builder#activeInterval}. Orders in a terminal state start at
+ *       {@link Builder#terminalInterval} and back off while they stay unchanged, up to
+ *       {@link Builder#maxInterval}.</li>
+ *   <li>A few due orders are retrieved individually and concurrently. When more are due, one list
+ *       sweep from the newest order down to the oldest due one refreshes them with fewer requests.</li>
+ *   <li>A refreshed order whose {@code updated} timestamp has not moved is not compared further.</li>
+ * </ul>
+ *
+ * <p>The first poll builds the snapshot and reports nothing; later polls report what changed
+ * since. Call {@link #poll()} from your own scheduler, or {@link #start()} to poll every
+ * {@link Builder#pollInterval}.</p>
+ *
+ * <pre>
+ * OrderTracker tracker = OrderTracker.builder(stripe.hardwareOrders())
+ *     .on(OrderShipped.class, shipped -&gt; notify(shipped.getOrderId(), shipped.getTrackingNumbers()))
+ *     .on(OrderUndeliverable.class, failed -&gt; escalate(failed.getOrder()))
+ *     .build();
+ * tracker.start();
+ * </pre>
+ */
+public class OrderTracker implements AutoCloseable {
+    public static final Duration DEFAULT_POLL_INTERVAL = Duration.ofSeconds(30);
+    public static final Duration DEFAULT_ACTIVE_INTERVAL = Duration.ofMinutes(1);
+    public static final Duration DEFAULT_TERMINAL_INTERVAL = Duration.ofHours(1);
+    public static final Duration DEFAULT_MAX_INTERVAL = Duration.ofDays(1);
+    public static final double DEFAULT_BACKOFF_MULTIPLIER = 2.0;
+    public static final int DEFAULT_PAGE_SIZE = 100;
+    public static final int DEFAULT_RETRIEVE_THRESHOLD = 10;
+
+    private final HardwareOrderService orders;
+    private final List<OrderEventListener> listeners;
+    private final Consumer<Exception> errorHandler;
+    private final Duration pollInterval;
+    private final long activeIntervalNanos;
+    private final long terminalIntervalNanos;
+    private final long maxIntervalNanos;
+    private final double backoffMultiplier;
+    private final int pageSize;
+    private final int retrieveThreshold;
+    private final Long createdAfter;
+    private final ScheduledExecutorService executor;
+    private final boolean ownsExecutor;
+
+    private final Map<String, TrackedOrder> snapshot = new ConcurrentHashMap<>();
+    private final ReentrantLock pollLock = new ReentrantLock();
+    private boolean synced;
+    private String newestOrderId;
+    private ScheduledFuture<?> scheduled;
+
+    private OrderTracker(Builder builder) {
+        this.orders = builder.orders;
+        this.listeners = new ArrayList<>(builder.listeners);
+        this.errorHandler = builder.errorHandler;
+        this.pollInterval = builder.pollInterval;
+        this.activeIntervalNanos = builder.activeInterval.toNanos();
+        this.terminalIntervalNanos = builder.terminalInterval.toNanos();
+        this.maxIntervalNanos = builder.maxInterval.toNanos();
+        this.backoffMultiplier = builder.backoffMultiplier;
+        this.pageSize = builder.pageSize;
+        this.retrieveThreshold = builder.retrieveThreshold;
+        this.createdAfter = builder.createdAfter != null ? builder.createdAfter.getEpochSecond() : null;
+        this.ownsExecutor = builder.executor == null;
+        this.executor = builder.executor != null ? builder.executor : Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "stripe-order-tracker");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * @param orders The service to poll, typically {@code stripe.hardwareOrders()}
+     */
+    public static Builder builder(HardwareOrderService orders) {
+        return new Builder(orders);
+    }
+
+    /**
+     * Brings the snapshot up to date and reports every change to the listeners.
+     * Concurrent calls run one at a time.
+     *
+     * @return The changes found by this poll, in the order they were reported
+     * @throws StripeException if a request fails; changes found before the failure are kept and reported
+     */
+    public List<OrderEvent> poll() throws StripeException {
+        pollLock.lock();
+        try {
+            List<OrderEvent> events = new ArrayList<>();
+            try {
+                long now = System.nanoTime();
+                if (!synced) {
+                    sync(now);
+                    synced = true;
+                } else {
+                    discoverNewOrders(now, events);
+                }
+                refreshDueOrders(now, events);
+            } finally {
+                dispatch(events);
+            }
+            return events;
+        } finally {
+            pollLock.unlock();
+        }
+    }
+
+    /**
+     * Starts polling every {@link Builder#pollInterval} in the background, beginning now.
+     * Failures are passed to the {@link Builder#errorHandler} and polling continues.
+     *
+     * @return This tracker
+     */
+    public synchronized OrderTracker start() {
+        if (scheduled == null) {
+            long delay = pollInterval.toNanos();
+            scheduled = executor.scheduleWithFixedDelay(this::pollInBackground, 0, delay, TimeUnit.NANOSECONDS);
+        }
+        return this;
+    }
+
+    /**
+     * Stops background polling. The snapshot stays readable.
+     */
+    @Override
+    public synchronized void close() {
+        if (scheduled != null) {
+            scheduled.cancel(false);
+            scheduled = null;
+        }
+        if (ownsExecutor) {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * @param orderId An order ID
+     * @return The last seen version of the order, or null if it is not tracked
+     */
+    public HardwareOrder getOrder(String orderId) {
+        TrackedOrder tracked = snapshot.get(orderId);
+        return tracked != null ? tracked.order : null;
+    }
+
+    /**
+     * @return The last seen version of every tracked order, in no particular order
+     */
+    public List<HardwareOrder> getOrders() {
+        List<HardwareOrder> result = new ArrayList<>(snapshot.size());
+        for (TrackedOrder tracked : snapshot.values()) {
+            result.add(tracked.order);
+        }
+        return result;
+    }
+
+    /**
+     * @return The number of tracked orders
+     */
+    public int size() {
+        return snapshot.size();
+    }
+
+    private void pollInBackground() {
+        try {
+            poll();
+        } catch (Exception e) {
+            errorHandler.accept(e);
+        }
+    }
+
+    /**
+     * Walks every order from the newest down to {@link Builder#createdAfter}.
+     */
+    private void sync(long now) throws StripeException {
+        String startingAfter = null;
+        boolean hasMore = true;
+        while (hasMore) {
+            StripeList<HardwareOrder> page = orders.list(pageSize, startingAfter, null);
+            for (HardwareOrder order : page.getData()) {
+                if (isBeforeCutoff(order)) {
+                    return;
+                }
+                if (newestOrderId == null) {
+                    newestOrderId = order.getId();
+                }
+                snapshot.put(order.getId(), new TrackedOrder(order, initialInterval(order), now));
+                startingAfter = order.getId();
+            }
+            hasMore = Boolean.TRUE.equals(page.getHasMore()) && !page.getData().isEmpty();
+        }
+    }
+
+    /**
+     * Pages towards newer orders with {@code ending_before} the newest known one. Until any order
+     * exists there is no cursor, so the whole list is walked instead.
+     */
+    private void discoverNewOrders(long now, List<OrderEvent> events) throws StripeException {
+        if (newestOrderId == null) {
+            sync(now);
+            List<HardwareOrder> found = getOrders();
+            found.sort((a, b) -> Long.compare(created(a), created(b)));
+            for (HardwareOrder order : found) {
+                events.add(new OrderCreated(order));
+            }
+            return;
+        }
+
+        String endingBefore = newestOrderId;
+        boolean hasMore = true;
+        while (hasMore) {
+            StripeList<HardwareOrder> page = orders.list(pageSize, null, endingBefore);
+            List<HardwareOrder> data = page.getData();
+            for (int i = data.size() - 1; i >= 0; i--) {
+                HardwareOrder order = data.get(i);
+                if (snapshot.putIfAbsent(order.getId(), new TrackedOrder(order, initialInterval(order), now)) == null) {
+                    events.add(new OrderCreated(order));
+                }
+            }
+            if (data.isEmpty()) {
+                break;
+            }
+            endingBefore = data.get(0).getId();
+            newestOrderId = endingBefore;
+            hasMore = Boolean.TRUE.equals(page.getHasMore());
+        }
+    }
+
+    private void refreshDueOrders(long now, List<OrderEvent> events) throws StripeException {
+        List<TrackedOrder> due = new ArrayList<>();
+        for (TrackedOrder tracked : snapshot.values()) {
+            if (now - tracked.nextPollNanos >= 0) {
+                due.add(tracked);
+            }
+        }
+        if (due.isEmpty()) {
+            return;
+        }
+
+        if (due.size() > retrieveThreshold) {
+            sweep(due, now, events);
+            return;
+        }
+
+        List<CompletableFuture<HardwareOrder>> retrieves = new ArrayList<>(due.size());
+        for (TrackedOrder tracked : due) {
+            retrieves.add(orders.retrieveAsync(tracked.order.getId()));
+        }
+        StripeException failure = null;
+        for (int i = 0; i < due.size(); i++) {
+            try {
+                update(due.get(i), retrieves.get(i).join(), now, events);
+            } catch (CompletionException e) {
+                if (failure == null && e.getCause() instanceof StripeException) {
+                    failure = (StripeException) e.getCause();
+                } else if (failure == null) {
+                    throw e;
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Lists orders from the newest until the {@code created} time of the oldest due order,
+     * refreshing every tracked order on the way.
+     */
+    private void sweep(List<TrackedOrder> due, long now, List<OrderEvent> events) throws StripeException {
+        long oldestCreated = Long.MAX_VALUE;
+        for (TrackedOrder tracked : due) {
+            oldestCreated = Math.min(oldestCreated, created(tracked.order));
+        }
+        try {
+            for (HardwareOrder order : orders.autoPagingIterable(pageSize)) {
+                TrackedOrder tracked = snapshot.get(order.getId());
+                if (tracked != null) {
+                    update(tracked, order, now, events);
+                }
+                if (created(order) < oldestCreated) {
+                    break;
+                }
+            }
+        } catch (UncheckedStripeException e) {
+            throw e.getCause();
+        }
+    }
+
+    private void update(TrackedOrder tracked, HardwareOrder current, long now, List<OrderEvent> events) {
+        HardwareOrder previous = tracked.order;
+        boolean unchanged = current.getUpdated() != null && current.getUpdated().equals(previous.getUpdated())
+                && Objects.equals(current.getStatus(), previous.getStatus());
+        List<OrderEvent> changes = unchanged ? Collections.emptyList() : OrderChangeDetector.detect(previous, current);
+
+        tracked.order = current;
+        if (changes.isEmpty() && OrderChangeDetector.isTerminal(current.getStatus())) {
+            tracked.intervalNanos = Math.min(maxIntervalNanos, (long) (tracked.intervalNanos * backoffMultiplier));
+        } else if (!changes.isEmpty()) {
+            tracked.intervalNanos = initialInterval(current);
+            events.addAll(changes);
+        }
+        tracked.nextPollNanos = now + tracked.intervalNanos;
+    }
+
+    private void dispatch(Collection<OrderEvent> events) {
+        for (OrderEvent event : events) {
+            for (OrderEventListener listener : listeners) {
+                try {
+                    listener.onEvent(event);
+                } catch (RuntimeException e) {
+                    errorHandler.accept(e);
+                }
+            }
+        }
+    }
+
+    private long initialInterval(HardwareOrder order) {
+        return OrderChangeDetector.isTerminal(order.getStatus()) ? terminalIntervalNanos : activeIntervalNanos;
+    }
+
+    private boolean isBeforeCutoff(HardwareOrder order) {
+        return createdAfter != null && created(order) < createdAfter;
+    }
+
+    private static long created(HardwareOrder order) {
+        return order.getCreated() != null ? order.getCreated() : 0;
+    }
+
+    /**
+     * The last seen version of an order and when to look at it next. Only read and written
+     * under the poll lock, apart from {@code order}, which readers of the snapshot also see.
+     */
+    private static final class TrackedOrder {
+        volatile HardwareOrder order;
+        long intervalNanos;
+        long nextPollNanos;
+
+        TrackedOrder(HardwareOrder order, long intervalNanos, long now) {
+            this.order = order;
+            this.intervalNanos = intervalNanos;
+            this.nextPollNanos = now + intervalNanos;
+        }
+    }
+
+    public static class Builder {
+        private final HardwareOrderService orders;
+        private final List<OrderEventListener> listeners = new ArrayList<>();
+        private Consumer<Exception> errorHandler = e -> { };
+        private Duration pollInterval = DEFAULT_POLL_INTERVAL;
+        private Duration activeInterval = DEFAULT_ACTIVE_INTERVAL;
+        private Duration terminalInterval = DEFAULT_TERMINAL_INTERVAL;
+        private Duration maxInterval = DEFAULT_MAX_INTERVAL;
+        private double backoffMultiplier = DEFAULT_BACKOFF_MULTIPLIER;
+        private int pageSize = DEFAULT_PAGE_SIZE;
+        private int retrieveThreshold = DEFAULT_RETRIEVE_THRESHOLD;
+        private Instant createdAfter;
+        private ScheduledExecutorService executor;
+
+        private Builder(HardwareOrderService orders) {
+            this.orders = orders;
+        }
+
+        /**
+         * Adds a listener for every event.
+         */
+        public Builder listener(OrderEventListener listener) {
+            this.listeners.add(Objects.requireNonNull(listener, "Listener cannot be null"));
+            return this;
+        }
+
+        /**
+         * Adds a handler for one type of event, including its subclasses; for example
+         * {@code OrderStatusChanged.class} also receives {@link OrderShipped}.
+         */
+        public <E extends OrderEvent> Builder on(Class<E> type, Consumer<? super E> handler) {
+            Objects.requireNonNull(handler, "Handler cannot be null");
+            return listener(event -> {
+                if (type.isInstance(event)) {
+                    handler.accept(type.cast(event));
+                }
+            });
+        }
+
+        /**
+         * Receives failed background polls and exceptions thrown by listeners. Defaults to ignoring them.
+         */
+        public Builder errorHandler(Consumer<Exception> errorHandler) {
+            this.errorHandler = errorHandler;
+            return this;
+        }
+
+        /**
+         * How often {@link #start() background polling} runs. Each poll checks for new orders.
+         */
+        public Builder pollInterval(Duration pollInterval) {
+            this.pollInterval = pollInterval;
+            return this;
+        }
+
+        /**
+         * How often to refresh an order that is not yet delivered, undeliverable or canceled.
+         */
+        public Builder activeInterval(Duration activeInterval) {
+            this.activeInterval = activeInterval;
+            return this;
+        }
+
+        /**
+         * How soon to refresh an order after it reaches a terminal state.
+         */
+        public Builder terminalInterval(Duration terminalInterval) {
+            this.terminalInterval = terminalInterval;
+            return this;
+        }
+
+        /**
+         * The longest interval a terminal order backs off to.
+         */
+        public Builder maxInterval(Duration maxInterval) {
+            this.maxInterval = maxInterval;
+            return this;
+        }
+
+        /**
+         * Factor applied to a terminal order's interval each time it is found unchanged.
+         */
+        public Builder backoffMultiplier(double backoffMultiplier) {
+            this.backoffMultiplier = backoffMultiplier;
+            return this;
+        }
+
+        /**
+         * Page size for list requests, between 1 and 100.
+         */
+        public Builder pageSize(int pageSize) {
+            this.pageSize = pageSize;
+            return this;
+        }
+
+        /**
+         * Refresh up to this many due orders with individual retrieves; more are refreshed
+         * with a list sweep.
+         */
+        public Builder retrieveThreshold(int retrieveThreshold) {
+            this.retrieveThreshold = retrieveThreshold;
+            return this;
+        }
+
+        /**
+         * Optional. Ignore orders created before this time, so the first poll stops paging there.
+         */
+        public Builder createdAfter(Instant createdAfter) {
+            this.createdAfter = createdAfter;
+            return this;
+        }
+
+        /**
+         * Optional. Executor for background polling. Not shut down by {@link OrderTracker#close()};
+         * by default the tracker uses its own daemon thread.
+         */
+        public Builder executor(ScheduledExecutorService executor) {
+            this.executor = executor;
+            return this;
+        }
+
+        public OrderTracker build() {
+            if (orders == null) {
+                throw new IllegalArgumentException("Order service cannot be null");
+            }
+            if (errorHandler == null) {
+                throw new IllegalArgumentException("Error handler cannot be null");
+            }
+            requirePositive(pollInterval, "Poll interval");
+            requirePositive(activeInterval, "Active interval");
+            requirePositive(terminalInterval, "Terminal interval");
+            requirePositive(maxInterval, "Max interval");
+            if (maxInterval.compareTo(terminalInterval) < 0) {
+                throw new IllegalArgumentException("Max interval cannot be shorter than the terminal interval");
+            }
+            if (!(backoffMultiplier >= 1.0)) {
+                throw new IllegalArgumentException("Backoff multiplier must be at least 1");
+            }
+            if (pageSize < 1 || pageSize > 100) {
+                throw new IllegalArgumentException("Page size must be between 1 and 100");
+            }
+            if (retrieveThreshold < 0) {
+                throw new IllegalArgumentException("Retrieve threshold cannot be negative");
+            }
+            return new OrderTracker(this);
+        }
+
+        private static void requirePositive(Duration duration, String name) {
+            if (duration == null || duration.isNegative() || duration.isZero()) {
+                throw new IllegalArgumentException(name + " must be positive");
+            }
+        }
+    }
+}
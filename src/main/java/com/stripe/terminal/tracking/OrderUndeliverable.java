@@ -0,0 +1,13 @@
+package com.stripe.terminal.tracking;
+
+import com.stripe.terminal.model.HardwareOrder;
+
+/**
+ * An order moved to {@code undeliverable}.
+ */
+public class OrderUndeliverable extends OrderStatusChanged {
+
+    OrderUndeliverable(HardwareOrder previous, HardwareOrder order) {
+        super(previous, order);
+    }
+}
@@ -0,0 +1,39 @@
+package com.stripe.terminal.tracking;
+
+import com.stripe.terminal.model.HardwareOrder;
+import com.stripe.terminal.model.ShipmentTracking;
+
+import java.util.List;
+
+/**
+ * The shipment tracking of an order changed without it moving to {@code shipped}, for example a
+ * tracking number added after the order shipped.
+ */
+public class TrackingUpdated extends OrderEvent {
+
+    TrackingUpdated(HardwareOrder previous, HardwareOrder order) {
+        super(previous, order);
+    }
+
+    /**
+     * @return The shipment tracking entries after the change
+     */
+    public List<ShipmentTracking> getShipmentTracking() {
+        return OrderChangeDetector.tracking(getOrder());
+    }
+
+    /**
+     * @return The tracking number of each shipment after the change
+     */
+    public List<String> getTrackingNumbers() {
+        return OrderChangeDetector.trackingNumbers(getOrder());
+    }
+
+    @Override
+    public String toString() {
+        return "TrackingUpdated{" +
+                "orderId='" + getOrderId() + '\'' +
+                ", trackingNumbers=" + getTrackingNumbers() +
+                '}';
+    }
+}
@@ -0,0 +1,477 @@
+package com.stripe.terminal.webhook;
+
+import com.stripe.terminal.exception.SignatureVerificationException;
+import com.stripe.terminal.model.HardwareOrder;
+import com.stripe.terminal.model.WebhookEvent;
+import com.stripe.terminal.serialization.GsonJsonSerializer;
+import com.stripe.terminal.serialization.JsonSerializer;
+import com.stripe.terminal.store.OrderStore;
+import com.stripe.terminal.tracking.OrderChangeDetector;
+import com.stripe.terminal.tracking.OrderEvent;
+import com.stripe.terminal.tracking.OrderEventListener;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * Turns {@code terminal.hardware_order.*} webhook deliveries into the same {@link OrderEvent}s an
+ * {@link com.stripe.terminal.tracking.OrderTracker} reports, without polling.
+ *
+ * <p>{@link #handle} verifies the signature, decodes the payload and queues the event. Events
+ * are sharded by order ID over a fixed number of worker threads, each with a bounded queue, so
+ * events for one order are processed one at a time and in the order they were queued, while
+ * different orders proceed in parallel. Workers drain their queue in batches.</p>
+ *
+ * <p>Each worker keeps the latest version it has seen of each of its orders, up to
+ * {@link Builder#maxTrackedOrders}, and compares new versions with it using
+ * {@link OrderChangeDetector}. Stripe does not guarantee delivery order, so a version older than
+ * the known one is dropped, and a redelivered event yields no change. An order not seen before,
+ * for example after a restart, becomes the baseline: only a {@code created} event reports it as
+ * {@link com.stripe.terminal.tracking.OrderCreated}, and other events report only the status and
+ * tracking changes their {@code previous_attributes} show.</p>
+ *
+ * <pre>
+ * WebhookDispatcher webhooks = WebhookDispatcher.builder("whsec_...")
+ *     .on(OrderShipped.class, shipped -&gt; notify(shipped.getOrderId(), shipped.getTrackingNumbers()))
+ *     .build();
+ *
+ * // In the endpoint
+ * try {
+ *     webhooks.handle(body, request.getHeader("Stripe-Signature"));
+ *     respond(200);
+ * } catch (SignatureVerificationException e) {
+ *     respond(400);
+ * } catch (RejectedExecutionException e) {
+ *     respond(503);   // Stripe retries later
+ * }
+ * </pre>
+ */
+public class WebhookDispatcher implements AutoCloseable {
+    public static final int DEFAULT_QUEUE_CAPACITY = 16_384;
+    public static final int DEFAULT_BATCH_SIZE = 256;
+    public static final int DEFAULT_MAX_TRACKED_ORDERS = 100_000;
+    public static final Duration DEFAULT_ENQUEUE_TIMEOUT = Duration.ofSeconds(1);
+
+    private static final WebhookEvent SHUTDOWN = new WebhookEvent();
+
+    private final WebhookVerifier verifier;
+    private final JsonSerializer jsonSerializer;
+    private final List<OrderEventListener> listeners;
+    private final Consumer<Exception> errorHandler;
+    private final OrderStore orderStore;
+    private final long enqueueTimeoutNanos;
+    private final Shard[] shards;
+    // Held shared while queueing and exclusively while closing, so no event is queued behind SHUTDOWN
+    private final ReadWriteLock closeLock = new ReentrantReadWriteLock();
+    private boolean closed;
+
+    private WebhookDispatcher(Builder builder) {
+        this.verifier = new WebhookVerifier(builder.secret, builder.tolerance);
+        this.jsonSerializer = builder.jsonSerializer != null ? builder.jsonSerializer : new GsonJsonSerializer();
+        this.listeners = new ArrayList<>(builder.listeners);
+        this.errorHandler = builder.errorHandler;
+        this.orderStore = builder.orderStore;
+        this.enqueueTimeoutNanos = builder.enqueueTimeout.toNanos();
+        this.shards = new Shard[builder.shards];
+        int capacity = Math.max(1, builder.queueCapacity / builder.shards);
+        int maxOrders = Math.max(1, builder.maxTrackedOrders / builder.shards);
+        for (int i = 0; i < shards.length; i++) {
+            shards[i] = new Shard(i, capacity, builder.batchSize, maxOrders);
+        }
+        for (Shard shard : shards) {
+            shard.thread.start();
+        }
+    }
+
+    /**
+     * @param secret The endpoint's signing secret, {@code whsec_...}
+     */
+    public static Builder builder(String secret) {
+        return new Builder(secret);
+    }
+
+    /**
+     * Verifies and decodes one delivery and queues it for dispatch. Events of other types are
+     * decoded and returned but not queued.
+     *
+     * @param payload         The raw request body, exactly as received
+     * @param signatureHeader The {@code Stripe-Signature} header
+     * @return The decoded event
+     * @throws SignatureVerificationException if the signature is not valid; respond with 400
+     * @throws IOException                    if the payload cannot be decoded
+     * @throws RejectedExecutionException     if the queue stays full for the enqueue timeout, or
+     *                                        the dispatcher is closed; respond with 503 so Stripe retries
+     */
+    public WebhookEvent handle(byte[] payload, String signatureHeader) throws SignatureVerificationException, IOException {
+        verifier.verify(payload, signatureHeader);
+        WebhookEvent event;
+        try (Reader reader = new InputStreamReader(new ByteArrayInputStream(payload), StandardCharsets.UTF_8)) {
+            event = jsonSerializer.deserialize(reader, WebhookEvent.class);
+        } catch (RuntimeException e) {
+            throw new IOException("Unable to decode webhook payload", e);
+        }
+        if (event == null) {
+            throw new IOException("Empty webhook payload");
+        }
+        dispatch(event);
+        return event;
+    }
+
+    /**
+     * Queues an event that was verified and decoded elsewhere. Events that are not about a
+     * hardware order are ignored.
+     *
+     * @param event The event
+     * @throws RejectedExecutionException if the queue stays full for the enqueue timeout, or the
+     *                                    dispatcher is closed
+     */
+    public void dispatch(WebhookEvent event) {
+        HardwareOrder order = event.getOrder();
+        if (!event.isHardwareOrderEvent() || order == null || order.getId() == null) {
+            return;
+        }
+        Shard shard = shards[shardIndex(order.getId())];
+        boolean queued;
+        closeLock.readLock().lock();
+        try {
+            if (closed) {
+                throw new RejectedExecutionException("Webhook dispatcher is closed");
+            }
+            queued = shard.queue.offer(event, enqueueTimeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("Interrupted while queueing webhook event", e);
+        } finally {
+            closeLock.readLock().unlock();
+        }
+        if (!queued) {
+            throw new RejectedExecutionException("Webhook queue is full");
+        }
+    }
+
+    /**
+     * @return The number of events queued and not yet processed
+     */
+    public int getPendingCount() {
+        int pending = 0;
+        for (Shard shard : shards) {
+            pending += shard.queue.size();
+        }
+        return pending;
+    }
+
+    /**
+     * Stops accepting events, processes those already queued and stops the workers.
+     */
+    @Override
+    public void close() {
+        closeLock.writeLock().lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+        } finally {
+            closeLock.writeLock().unlock();
+        }
+        boolean interrupted = false;
+        for (Shard shard : shards) {
+            while (true) {
+                try {
+                    shard.queue.put(SHUTDOWN);
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        }
+        for (Shard shard : shards) {
+            while (true) {
+                try {
+                    shard.thread.join();
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private int shardIndex(String orderId) {
+        int hash = orderId.hashCode();
+        hash ^= hash >>> 16;
+        return (hash & Integer.MAX_VALUE) % shards.length;
+    }
+
+    /**
+     * Builds a stand-in for the version before the event from the fields it reports as changed,
+     * or returns null if it reports no change to status or tracking.
+     */
+    private static HardwareOrder previousVersion(WebhookEvent event, HardwareOrder current) {
+        HardwareOrder changed = event.getData().getPreviousAttributes();
+        if (changed == null || (changed.getStatus() == null && changed.getShipmentTracking() == null)) {
+            return null;
+        }
+        HardwareOrder previous = new HardwareOrder();
+        previous.setId(current.getId());
+        previous.setObject(current.getObject());
+        previous.setCreated(current.getCreated());
+        previous.setStatus(changed.getStatus() != null ? changed.getStatus() : current.getStatus());
+        previous.setShipmentTracking(changed.getShipmentTracking() != null
+                ? changed.getShipmentTracking()
+                : current.getShipmentTracking());
+        return previous;
+    }
+
+    private static boolean isOlder(HardwareOrder order, HardwareOrder than) {
+        return order.getUpdated() != null && than.getUpdated() != null && order.getUpdated() < than.getUpdated();
+    }
+
+    /**
+     * One worker thread, its queue and the latest known versions of its orders.
+     */
+    private final class Shard implements Runnable {
+        private final BlockingQueue<WebhookEvent> queue;
+        private final int batchSize;
+        private final Map<String, HardwareOrder> known;
+        private final Thread thread;
+        private final List<WebhookEvent> batch;
+        private final List<OrderEvent> changes = new ArrayList<>();
+        private final List<HardwareOrder> updated;
+
+        Shard(int index, int capacity, int batchSize, int maxOrders) {
+            this.queue = new ArrayBlockingQueue<>(capacity);
+            this.batchSize = batchSize;
+            this.batch = new ArrayList<>(batchSize);
+            this.updated = new ArrayList<>(batchSize);
+            this.known = new LinkedHashMap<String, HardwareOrder>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, HardwareOrder> eldest) {
+                    return size() > maxOrders;
+                }
+            };
+            this.thread = new Thread(this, "stripe-webhook-dispatch-" + index);
+            this.thread.setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            boolean running = true;
+            while (running) {
+                try {
+                    batch.add(queue.take());
+                } catch (InterruptedException e) {
+                    // Only close() stops a worker, so that queued events are not lost
+                    continue;
+                }
+                queue.drainTo(batch, batchSize - 1);
+                for (WebhookEvent event : batch) {
+                    if (event == SHUTDOWN) {
+                        running = false;
+                        continue;
+                    }
+                    // One bad event must not stop the worker, or its shard's queue would never drain
+                    try {
+                        process(event);
+                    } catch (RuntimeException e) {
+                        errorHandler.accept(e);
+                    }
+                }
+                batch.clear();
+                publish();
+            }
+        }
+
+        private void process(WebhookEvent event) {
+            HardwareOrder current = event.getOrder();
+            HardwareOrder previous = known.get(current.getId());
+            if (previous != null && isOlder(current, previous)) {
+                return;
+            }
+            known.put(current.getId(), current);
+            updated.add(current);
+            if (previous == null && !event.isOrderCreated()) {
+                previous = previousVersion(event, current);
+                if (previous == null) {
+                    return;
+                }
+            }
+            changes.addAll(OrderChangeDetector.detect(previous, current));
+        }
+
+        /**
+         * Saves the batch's orders, then reports its changes in order.
+         */
+        private void publish() {
+            try {
+                if (orderStore != null && !updated.isEmpty()) {
+                    orderStore.putAll(updated);
+                }
+            } catch (RuntimeException e) {
+                errorHandler.accept(e);
+            }
+            for (OrderEvent change : changes) {
+                for (OrderEventListener listener : listeners) {
+                    try {
+                        listener.onEvent(change);
+                    } catch (RuntimeException e) {
+                        errorHandler.accept(e);
+                    }
+                }
+            }
+            updated.clear();
+            changes.clear();
+        }
+    }
+
+    public static class Builder {
+        private final String secret;
+        private final List<OrderEventListener> listeners = new ArrayList<>();
+        private Consumer<Exception> errorHandler = e -> { };
+        private Duration tolerance = WebhookVerifier.DEFAULT_TOLERANCE;
+        private JsonSerializer jsonSerializer;
+        private OrderStore orderStore;
+        private int shards = Runtime.getRuntime().availableProcessors();
+        private int queueCapacity = DEFAULT_QUEUE_CAPACITY;
+        private int batchSize = DEFAULT_BATCH_SIZE;
+        private int maxTrackedOrders = DEFAULT_MAX_TRACKED_ORDERS;
+        private Duration enqueueTimeout = DEFAULT_ENQUEUE_TIMEOUT;
+
+        private Builder(String secret) {
+            this.secret = secret;
+        }
+
+        /**
+         * Adds a listener for every change. Listeners run on the worker threads; changes to one
+         * order always arrive on the same thread, in order.
+         */
+        public Builder listener(OrderEventListener listener) {
+            this.listeners.add(Objects.requireNonNull(listener, "Listener cannot be null"));
+            return this;
+        }
+
+        /**
+         * Adds a handler for one type of change, including its subclasses.
+         */
+        public <E extends OrderEvent> Builder on(Class<E> type, Consumer<? super E> handler) {
+            Objects.requireNonNull(handler, "Handler cannot be null");
+            return listener(event -> {
+                if (type.isInstance(event)) {
+                    handler.accept(type.cast(event));
+                }
+            });
+        }
+
+        /**
+         * Receives exceptions thrown by listeners and the order store, and those thrown while
+         * comparing an event's order with the known version. Defaults to ignoring them.
+         */
+        public Builder errorHandler(Consumer<Exception> errorHandler) {
+            this.errorHandler = errorHandler;
+            return this;
+        }
+
+        /**
+         * How far a delivery's signed timestamp may be from the current time. Zero disables the check.
+         */
+        public Builder tolerance(Duration tolerance) {
+            this.tolerance = tolerance;
+            return this;
+        }
+
+        /**
+         * Decoder for payloads. Defaults to {@link GsonJsonSerializer}.
+         */
+        public Builder jsonSerializer(JsonSerializer jsonSerializer) {
+            this.jsonSerializer = jsonSerializer;
+            return this;
+        }
+
+        /**
+         * Saves each batch's orders to a local store before its changes are reported.
+         */
+        public Builder orderStore(OrderStore orderStore) {
+            this.orderStore = orderStore;
+            return this;
+        }
+
+        /**
+         * Number of worker threads. Defaults to the number of processors.
+         */
+        public Builder shards(int shards) {
+            this.shards = shards;
+            return this;
+        }
+
+        /**
+         * Total number of events that can wait across all workers.
+         */
+        public Builder queueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+            return this;
+        }
+
+        /**
+         * Most events a worker takes from its queue at once.
+         */
+        public Builder batchSize(int batchSize) {
+            this.batchSize = batchSize;
+            return this;
+        }
+
+        /**
+         * Most orders whose latest version is kept for comparison. The least recently updated
+         * are forgotten first.
+         */
+        public Builder maxTrackedOrders(int maxTrackedOrders) {
+            this.maxTrackedOrders = maxTrackedOrders;
+            return this;
+        }
+
+        /**
+         * How long {@link WebhookDispatcher#handle} waits for room in a full queue before rejecting the event.
+         */
+        public Builder enqueueTimeout(Duration enqueueTimeout) {
+            this.enqueueTimeout = enqueueTimeout;
+            return this;
+        }
+
+        public WebhookDispatcher build() {
+            if (shards < 1) {
+                throw new IllegalArgumentException("Shards must be at least 1");
+            }
+            if (queueCapacity < shards) {
+                throw new IllegalArgumentException("Queue capacity must be at least the number of shards");
+            }
+            if (batchSize < 1) {
+                throw new IllegalArgumentException("Batch size must be at least 1");
+            }
+            if (maxTrackedOrders < 1) {
+                throw new IllegalArgumentException("Max tracked orders must be at least 1");
+            }
+            if (errorHandler == null) {
+                throw new IllegalArgumentException("Error handler cannot be null");
+            }
+            return new WebhookDispatcher(this);
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package com.stripe.terminal.webhook;
+
+import com.stripe.terminal.exception.SignatureVerificationException;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.time.Duration;
+
+/**
+ * Verifies the {@code Stripe-Signature} header of webhook deliveries against an endpoint secret.
+ *
+ * <p>The header holds a timestamp and one or more {@code v1} signatures, each an HMAC-SHA256 of
+ * {@code timestamp + "." + payload}. Signatures are compared in constant time, and deliveries
+ * older or newer than the tolerance are rejected to limit replays. Each thread reuses its own
+ * {@link Mac} and buffers, so verifying allocates nothing.</p>
+ *
+ * <p>Thread-safe.</p>
+ */
+public class WebhookVerifier {
+    public static final Duration DEFAULT_TOLERANCE = Duration.ofMinutes(5);
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+    private static final int SIGNATURE_LENGTH = 64;
+
+    private final SecretKeySpec key;
+    private final long toleranceSeconds;
+    private final ThreadLocal<State> state;
+
+    /**
+     * @param secret The endpoint's signing secret, {@code whsec_...}
+     */
+    public WebhookVerifier(String secret) {
+        this(secret, DEFAULT_TOLERANCE);
+    }
+
+    /**
+     * @param secret    The endpoint's signing secret, {@code whsec_...}
+     * @param tolerance How far the signed timestamp may be from the current time. Zero disables the check.
+     */
+    public WebhookVerifier(String secret, Duration tolerance) {
+        if (secret == null || secret.isEmpty()) {
+            throw new IllegalArgumentException("Webhook secret is required");
+        }
+        this.key = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), ALGORITHM);
+        this.toleranceSeconds = tolerance.getSeconds();
+        this.state = ThreadLocal.withInitial(() -> new State(key));
+    }
+
+    /**
+     * Checks that the payload was signed with this endpoint's secret.
+     *
+     * @param payload         The raw request body, exactly as received
+     * @param signatureHeader The {@code Stripe-Signature} header
+     * @throws SignatureVerificationException if the header is missing or malformed, no signature
+     *                                        matches, or the timestamp is outside the tolerance
+     */
+    public void verify(byte[] payload, String signatureHeader) throws SignatureVerificationException {
+        if (signatureHeader == null) {
+            throw new SignatureVerificationException("Missing Stripe-Signature header", null);
+        }
+
+        int timestampStart = -1;
+        int timestampEnd = -1;
+        boolean hasSignature = false;
+        for (int start = 0; start < signatureHeader.length(); ) {
+            int end = signatureHeader.indexOf(',', start);
+            if (end < 0) {
+                end = signatureHeader.length();
+            }
+            if (signatureHeader.startsWith("t=", start)) {
+                timestampStart = start + 2;
+                timestampEnd = end;
+            } else if (signatureHeader.startsWith("v1=", start)) {
+                hasSignature = true;
+            }
+            start = end + 1;
+        }
+        long timestamp = parseTimestamp(signatureHeader, timestampStart, timestampEnd);
+        if (timestamp < 0) {
+            throw new SignatureVerificationException("Unable to extract timestamp from header", signatureHeader);
+        }
+        if (!hasSignature) {
+            throw new SignatureVerificationException("No v1 signatures found in header", signatureHeader);
+        }
+
+        char[] expected = state.get().sign(signatureHeader, timestampStart, timestampEnd, payload);
+        boolean matched = false;
+        for (int start = 0; start < signatureHeader.length(); ) {
+            int end = signatureHeader.indexOf(',', start);
+            if (end < 0) {
+                end = signatureHeader.length();
+            }
+            if (signatureHeader.startsWith("v1=", start)) {
+                matched |= constantTimeEquals(expected, signatureHeader, start + 3, end);
+            }
+            start = end + 1;
+        }
+        if (!matched) {
+            throw new SignatureVerificationException("No signatures found matching the expected signature for payload",
+                    signatureHeader);
+        }
+
+        if (toleranceSeconds > 0 && Math.abs(System.currentTimeMillis() / 1000 - timestamp) > toleranceSeconds) {
+            throw new SignatureVerificationException("Timestamp outside the tolerance zone", signatureHeader);
+        }
+    }
+
+    /**
+     * Builds a {@code Stripe-Signature} header for a payload, for testing webhook endpoints.
+     *
+     * @param payload   The request body
+     * @param timestamp Unix time in seconds
+     * @return The header value, {@code t=...,v1=...}
+     */
+    public String sign(byte[] payload, long timestamp) {
+        String prefix = "t=" + timestamp;
+        return prefix + ",v1=" + new String(state.get().sign(prefix, 2, prefix.length(), payload));
+    }
+
+    /**
+     * Parses the unsigned decimal timestamp, returning -1 if it is absent or malformed.
+     */
+    private static long parseTimestamp(String header, int start, int end) {
+        if (start < 0 || start == end || end - start > 18) {
+            return -1;
+        }
+        long value = 0;
+        for (int i = start; i < end; i++) {
+            char c = header.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    /**
+     * Compares the expected hex digest with part of the header, taking the same time wherever
+     * the first difference is.
+     */
+    private static boolean constantTimeEquals(char[] expected, String header, int start, int end) {
+        if (end - start != expected.length) {
+            return false;
+        }
+        int diff = 0;
+        for (int i = 0; i < expected.length; i++) {
+            diff |= expected[i] ^ header.charAt(start + i);
+        }
+        return diff == 0;
+    }
+
+    /**
+     * A thread's MAC and output buffers.
+     */
+    private static final class State {
+        private final Mac mac;
+        private final byte[] digest;
+        private final char[] hex = new char[SIGNATURE_LENGTH];
+
+        State(SecretKeySpec key) {
+            try {
+                mac = Mac.getInstance(ALGORITHM);
+                mac.init(key);
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("HmacSHA256 is not available", e);
+            }
+            digest = new byte[mac.getMacLength()];
+        }
+
+        /**
+         * Signs {@code timestamp + "." + payload}, where the timestamp is an ASCII slice of
+         * {@code source}, and returns the lowercase hex digest in the reused buffer.
+         */
+        char[] sign(String source, int timestampStart, int timestampEnd, byte[] payload) {
+            for (int i = timestampStart; i < timestampEnd; i++) {
+                mac.update((byte) source.charAt(i));
+            }
+            mac.update((byte) '.');
+            mac.update(payload);
+            try {
+                mac.doFinal(digest, 0);
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException(e);
+            }
+            for (int i = 0; i < digest.length; i++) {
+                hex[i * 2] = HEX[(digest[i] >> 4) & 0xF];
+                hex[i * 2 + 1] = HEX[digest[i] & 0xF];
+            }
+            return hex;
+        }
+    }
+}
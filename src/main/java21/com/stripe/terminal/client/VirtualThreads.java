@@ -0,0 +1,32 @@
+package com.stripe.terminal.client;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Creates virtual threads where the runtime has them.
+ *
+ * <p>This is the Java 21 version, packaged under {@code META-INF/versions/21}. It must keep the
+ * same public API as the Java 11 version in {@code src/main/java}.</p>
+ */
+public final class VirtualThreads {
+
+    private VirtualThreads() {
+    }
+
+    /**
+     * @return Whether virtual threads can be created on this runtime
+     */
+    public static boolean isAvailable() {
+        return true;
+    }
+
+    /**
+     * Returns an executor that runs each task on a new virtual thread.
+     *
+     * @param name Prefix for the thread names
+     */
+    public static ExecutorService newThreadPerTaskExecutor(String name) {
+        return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(name + "-", 0).factory());
+    }
+}